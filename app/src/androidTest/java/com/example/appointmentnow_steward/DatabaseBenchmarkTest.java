@@ -0,0 +1,613 @@
+/*
+    Appointment Now - Database Benchmark Instrumented Test
+    Author: Conor Steward
+    Contact: 1conorsteward@gmail.com
+    Date Created: 10/17/26
+    Version: 2.3
+
+    Description:
+    This class holds on-device benchmarks for DatabaseHelper. Each benchmark measures a
+    "before" and "after" configuration on a real database file and logs the numbers under
+    the "DatabaseBenchmark" tag (filter logcat to read them). Assertions only check that
+    the optimized configuration is active, so timing noise on CI devices cannot fail a build.
+
+    Key Features:
+    - Read latency under concurrent writes, rollback journal vs. write-ahead logging.
+    - Event writes per second, ContentValues inserts vs. precompiled statements.
+    - Bulk import, one implicit transaction per row vs. chunked transactions.
+    - Streaming export of 100k events, with the heap growth it causes.
+    - Mapping 50k rows, per-row column lookups vs. cached indexes vs. the fixed projection.
+    - Reading 50k list rows with long notes, full projection vs. the narrow list projection.
+    - Storage and status-query time of 50k events, TEXT doctor/status columns vs. the doctors
+      lookup table and integer status codes.
+    - Dashboard counts over 50k events, GROUP BY over events vs. the trigger-maintained summary.
+    - PBKDF2 iteration count calibrated to a target login latency on this device, and the
+      upgrade of a legacy SHA-256 password hash on login.
+
+    Dependencies:
+    - AndroidX Test Library (InstrumentationRegistry, AndroidJUnit4)
+    - JUnit (for assertions and test execution)
+
+    Issues:
+    - No known issues.
+*/
+
+package com.example.appointmentnow_steward;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.AbstractWindowedCursor;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+@RunWith(AndroidJUnit4.class)
+public class DatabaseBenchmarkTest {
+
+    private static final String TAG = "DatabaseBenchmark";
+    private static final String BENCHMARK_DB = "benchmark.db";
+
+    private static final int SEED_EVENTS = 5_000;
+    private static final int READ_SAMPLES = 200;
+    private static final int WRITE_OPERATIONS = 10_000;
+    private static final int IMPORT_EVENTS = 100_000;
+    private static final int MAPPED_ROWS = 50_000;
+    private static final int AUTOCOMMIT_SAMPLE = 1_000; // Per-row commits are too slow to run 100k
+
+    private Context context;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(BENCHMARK_DB);
+    }
+
+    @After
+    public void tearDown() {
+        context.deleteDatabase(BENCHMARK_DB);
+    }
+
+    // -------------------- Helpers --------------------
+
+    /**
+     * Inserts one user, doctor 1 ("Doctor") and {@code count} events for the user inside a
+     * single transaction.
+     */
+    private static void seedEvents(DatabaseHelper helper, int count) {
+        SQLiteDatabase db = helper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            db.execSQL("INSERT OR IGNORE INTO users (user_id, email, password) VALUES (1, 'bench@example.com', 'x')");
+            db.execSQL("INSERT OR IGNORE INTO doctors (doctor_id, name) VALUES (1, 'Doctor')");
+            for (int i = 0; i < count; i++) {
+                helper.addEvent("Patient " + i, "Doctor " + (i % 20),
+                        String.format(Locale.US, "2025-%02d-%02d", 1 + i % 12, 1 + i % 28),
+                        i % 3 == 0 ? EventStatus.COMPLETED : EventStatus.SCHEDULED,
+                        "Notes " + i, "Room " + (i % 10), null, 1);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    private static void drain(Cursor cursor) {
+        try (Cursor c = cursor) {
+            while (c.moveToNext()) {
+                c.getString(1);
+            }
+        }
+    }
+
+    private static long percentile(long[] sortedNanos, double p) {
+        return sortedNanos[Math.min(sortedNanos.length - 1, (int) (sortedNanos.length * p))];
+    }
+
+    private static void report(String label, long[] nanos) {
+        Arrays.sort(nanos);
+        Log.i(TAG, String.format(Locale.US, "%s: p50=%.2fms p95=%.2fms max=%.2fms", label,
+                percentile(nanos, 0.50) / 1e6, percentile(nanos, 0.95) / 1e6, nanos[nanos.length - 1] / 1e6));
+    }
+
+    // -------------------- Benchmarks --------------------
+
+    /**
+     * Measures first-page read latency while another thread writes continuously.
+     */
+    private long[] readLatencyDuringWrites(boolean writeAheadLogging) throws InterruptedException {
+        context.deleteDatabase(BENCHMARK_DB);
+        DatabaseHelper helper = new DatabaseHelper(context, BENCHMARK_DB);
+        helper.setWriteAheadLoggingEnabled(writeAheadLogging);
+        seedEvents(helper, SEED_EVENTS);
+
+        AtomicBoolean writing = new AtomicBoolean(true);
+        Thread writer = new Thread(() -> {
+            int i = 0;
+            while (writing.get()) {
+                helper.addEvent("Writer " + i, "Doctor", "2025-06-15", EventStatus.SCHEDULED, null, null, null, 1);
+                i++;
+            }
+        });
+        writer.start();
+
+        long[] samples = new long[READ_SAMPLES];
+        try {
+            for (int i = 0; i < READ_SAMPLES; i++) {
+                long start = System.nanoTime();
+                drain(helper.getEventsPageAfter(1, null, 0, EventPager.DEFAULT_PAGE_SIZE));
+                samples[i] = System.nanoTime() - start;
+            }
+        } finally {
+            writing.set(false);
+            writer.join();
+        }
+
+        if (writeAheadLogging) {
+            try (Cursor cursor = helper.getReadableDatabase().rawQuery("PRAGMA journal_mode", null)) {
+                assertTrue(cursor.moveToFirst());
+                assertEquals("wal", cursor.getString(0).toLowerCase(Locale.US));
+            }
+        }
+        helper.close();
+        return samples;
+    }
+
+    @Test
+    public void readLatency_duringWrites_rollbackVsWal() throws InterruptedException {
+        report("Read during writes (rollback journal)", readLatencyDuringWrites(false));
+        report("Read during writes (WAL)", readLatencyDuringWrites(true));
+    }
+
+    /**
+     * Inserts events the way DatabaseHelper did before statements were precompiled:
+     * a fresh ContentValues per row, SQL rebuilt and looked up in the statement cache each time.
+     */
+    private static void insertWithContentValues(SQLiteDatabase db, int i) {
+        ContentValues values = new ContentValues();
+        values.put("patient_name", "Patient " + i);
+        values.put("doctor_id", 1); // "Doctor", created by seedEvents
+        values.put("appointment_date", AppointmentDates.toEpochDay("2025-06-15"));
+        values.put("status", EventStatus.SCHEDULED.getCode());
+        values.put("notes", "Notes");
+        values.put("location", "Room 1");
+        values.putNull("pdf_uri");
+        values.put("user_id", 1);
+        db.insert("events", null, values);
+    }
+
+    /**
+     * Runs {@link #WRITE_OPERATIONS} inserts in one transaction (so fsync does not dominate)
+     * and returns writes per second.
+     */
+    private double insertsPerSecond(DatabaseHelper helper, boolean compiled) {
+        SQLiteDatabase db = helper.getWritableDatabase();
+        long start = System.nanoTime();
+        db.beginTransaction();
+        try {
+            for (int i = 0; i < WRITE_OPERATIONS; i++) {
+                if (compiled) {
+                    helper.addEvent("Patient " + i, "Doctor", "2025-06-15", EventStatus.SCHEDULED, "Notes", "Room 1", null, 1);
+                } else {
+                    insertWithContentValues(db, i);
+                }
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        return WRITE_OPERATIONS / ((System.nanoTime() - start) / 1e9);
+    }
+
+    @Test
+    public void writeThroughput_contentValuesVsCompiledStatements() {
+        DatabaseHelper helper = new DatabaseHelper(context, BENCHMARK_DB);
+        seedEvents(helper, 0);
+
+        // Warm up both paths so JIT and page cache effects do not favor the second run
+        insertsPerSecond(helper, false);
+        insertsPerSecond(helper, true);
+
+        double before = insertsPerSecond(helper, false);
+        double after = insertsPerSecond(helper, true);
+        Log.i(TAG, String.format(Locale.US, "Inserts/s: ContentValues=%.0f compiled=%.0f (%.2fx)",
+                before, after, after / before));
+
+        // Status changes and deletes reuse their compiled statements too
+        assertTrue(helper.updateEventStatus(1, EventStatus.COMPLETED));
+        assertTrue(helper.deleteEvent(1));
+        assertFalse(helper.deleteEvent(1));
+        helper.close();
+    }
+
+    /**
+     * Generates {@code count} events lazily, the way EventImportReader streams a file.
+     */
+    private static Iterator<Event> generatedEvents(int count) {
+        return generatedEvents(count, 0);
+    }
+
+    /**
+     * Generates {@code count} events whose notes are padded to {@code notesLength} characters.
+     */
+    private static Iterator<Event> generatedEvents(int count, int notesLength) {
+        char[] padding = new char[notesLength];
+        Arrays.fill(padding, 'n');
+        String notesPadding = new String(padding);
+        return new Iterator<Event>() {
+            private int i;
+
+            @Override
+            public boolean hasNext() {
+                return i < count;
+            }
+
+            @Override
+            public Event next() {
+                i++;
+                return new Event("Imported " + i, "Doctor " + (i % 20), "2025-06-15",
+                        EventStatus.SCHEDULED, "Notes " + i + notesPadding, "Room " + (i % 10), null);
+            }
+        };
+    }
+
+    @Test
+    public void bulkImport_autocommitVsChunkedTransactions() {
+        DatabaseHelper helper = new DatabaseHelper(context, BENCHMARK_DB);
+        seedEvents(helper, 0);
+
+        // Before: each addEvent commits (and syncs) on its own; extrapolated from a sample
+        long start = System.nanoTime();
+        Iterator<Event> sample = generatedEvents(AUTOCOMMIT_SAMPLE);
+        while (sample.hasNext()) {
+            Event e = sample.next();
+            helper.addEvent(e.getPatientName(), e.getDoctorName(), e.getAppointmentDate(), e.getStatus(),
+                    e.getNotes(), e.getLocation(), e.getPdfUri(), 1);
+        }
+        double autocommitSeconds = (System.nanoTime() - start) / 1e9 * IMPORT_EVENTS / AUTOCOMMIT_SAMPLE;
+
+        // After: chunked transactions over the full 100k
+        int[] progressCalls = {0};
+        start = System.nanoTime();
+        int imported = helper.importEvents(generatedEvents(IMPORT_EVENTS), 1, 1_000, count -> progressCalls[0]++);
+        double chunkedSeconds = (System.nanoTime() - start) / 1e9;
+
+        Log.i(TAG, String.format(Locale.US, "Import %d events: autocommit~%.1fs chunked=%.1fs (%.0fx)",
+                IMPORT_EVENTS, autocommitSeconds, chunkedSeconds, autocommitSeconds / chunkedSeconds));
+
+        assertEquals(IMPORT_EVENTS, imported);
+        assertEquals(IMPORT_EVENTS / 1_000, progressCalls[0]);
+        try (Cursor cursor = helper.getReadableDatabase().rawQuery("SELECT COUNT(*) FROM events", null)) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals(IMPORT_EVENTS + AUTOCOMMIT_SAMPLE, cursor.getInt(0));
+        }
+        helper.close();
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        runtime.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    @Test
+    public void export_streamsLargeHistoryInFlatMemory() throws Exception {
+        DatabaseHelper helper = new DatabaseHelper(context, BENCHMARK_DB);
+        seedEvents(helper, 0);
+        helper.importEvents(generatedEvents(IMPORT_EVENTS), 1, 1_000, null);
+
+        File file = new File(context.getCacheDir(), "export-benchmark.csv");
+        long heapBefore = usedHeap();
+        long[] peakHeap = {heapBefore};
+        long start = System.nanoTime();
+        int exported;
+        int expected = helper.getEventCounts(1).getTotal();
+        try (Cursor cursor = helper.getEventsForExport(1, null);
+             Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+            exported = EventExporter.export(cursor, writer, EventImportReader.Format.CSV, expected, null, (done, total) -> {
+                Runtime runtime = Runtime.getRuntime();
+                peakHeap[0] = Math.max(peakHeap[0], runtime.totalMemory() - runtime.freeMemory());
+            });
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Log.i(TAG, String.format(Locale.US, "Export %d events: %.1fs, %.1f MB file, peak heap growth %.1f MB",
+                exported, seconds, file.length() / 1e6, (peakHeap[0] - heapBefore) / 1e6));
+
+        assertEquals(IMPORT_EVENTS, exported);
+        assertTrue(file.delete());
+        helper.close();
+    }
+
+    /**
+     * Maps rows the way the activities did before EventRowMapper: eight name lookups per row.
+     */
+    private static int mapWithPerRowLookups(Cursor cursor) {
+        int mapped = 0;
+        while (cursor.moveToNext()) {
+            new Event(
+                    cursor.getLong(cursor.getColumnIndexOrThrow("event_id")),
+                    cursor.getString(cursor.getColumnIndexOrThrow("patient_name")),
+                    cursor.getString(cursor.getColumnIndexOrThrow("doctor_name")),
+                    AppointmentDates.format(cursor.getLong(cursor.getColumnIndexOrThrow("appointment_date"))),
+                    EventStatus.fromCode(cursor.getInt(cursor.getColumnIndexOrThrow("status"))),
+                    cursor.getString(cursor.getColumnIndexOrThrow("notes")),
+                    cursor.getString(cursor.getColumnIndexOrThrow("location")),
+                    cursor.getString(cursor.getColumnIndexOrThrow("pdf_uri")));
+            mapped++;
+        }
+        return mapped;
+    }
+
+    /**
+     * Times one mapping pass. The cursor is filled (counted) first so only mapping is measured.
+     */
+    private static long timeMapping(DatabaseHelper helper, int variant) {
+        try (Cursor cursor = helper.getReadableDatabase().rawQuery("SELECT " + DatabaseHelper.EVENT_COLUMNS
+                + DatabaseHelper.FROM_EVENTS + " WHERE user_id = 1 ORDER BY appointment_date, event_id", null)) {
+            assertEquals(MAPPED_ROWS, cursor.getCount());
+            long start = System.nanoTime();
+            int mapped;
+            if (variant == 0) {
+                mapped = mapWithPerRowLookups(cursor);
+            } else if (variant == 1) {
+                mapped = EventRowMapper.forCursor(cursor).readAll(cursor).size();
+            } else {
+                mapped = EventRowMapper.EVENT_COLUMNS.readAll(cursor).size();
+            }
+            long elapsed = System.nanoTime() - start;
+            assertEquals(MAPPED_ROWS, mapped);
+            return elapsed;
+        }
+    }
+
+    @Test
+    public void rowMapping_perRowLookupsVsCachedIndexes() {
+        DatabaseHelper helper = new DatabaseHelper(context, BENCHMARK_DB);
+        seedEvents(helper, 0);
+        helper.importEvents(generatedEvents(MAPPED_ROWS), 1, 1_000, null);
+
+        for (int variant = 0; variant < 3; variant++) timeMapping(helper, variant); // Warm-up
+
+        long perRow = timeMapping(helper, 0);
+        long cached = timeMapping(helper, 1);
+        long fixed = timeMapping(helper, 2);
+        Log.i(TAG, String.format(Locale.US, "Map %d rows: per-row lookups=%.1fms cached=%.1fms fixed=%.1fms",
+                MAPPED_ROWS, perRow / 1e6, cached / 1e6, fixed / 1e6));
+        helper.close();
+    }
+
+    private static final int NOTES_LENGTH = 500;
+
+    /**
+     * Reads every row of a projection, returning {time ns, CursorWindow fills, mapped heap bytes}.
+     * A fill is counted each time the window's start position moves.
+     */
+    private static long[] readProjection(DatabaseHelper helper, String columns, boolean listRows) {
+        String sql = "SELECT " + columns + DatabaseHelper.FROM_EVENTS
+                + " WHERE user_id = 1 ORDER BY appointment_date, event_id";
+        long heapBefore = usedHeap();
+        long start = System.nanoTime();
+        int fills = 0;
+        int lastWindowStart = -1;
+        Object[] rows = new Object[MAPPED_ROWS];
+        int mapped = 0;
+        try (Cursor cursor = helper.getReadableDatabase().rawQuery(sql, null)) {
+            AbstractWindowedCursor windowed = (AbstractWindowedCursor) cursor;
+            EventRowMapper.ListItemMapper listMapper = new EventRowMapper.ListItemMapper();
+            while (cursor.moveToNext()) {
+                int windowStart = windowed.getWindow().getStartPosition();
+                if (windowStart != lastWindowStart) {
+                    fills++;
+                    lastWindowStart = windowStart;
+                }
+                rows[mapped++] = listRows ? listMapper.map(cursor) : EventRowMapper.EVENT_COLUMNS.map(cursor);
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        long heap = usedHeap() - heapBefore;
+        assertEquals(MAPPED_ROWS, mapped);
+        assertNotNull(rows[MAPPED_ROWS - 1]);
+        return new long[] {elapsed, fills, heap};
+    }
+
+    @Test
+    public void listRows_fullProjectionVsListProjection() {
+        DatabaseHelper helper = new DatabaseHelper(context, BENCHMARK_DB);
+        seedEvents(helper, 0);
+        helper.importEvents(generatedEvents(MAPPED_ROWS, NOTES_LENGTH), 1, 1_000, null);
+
+        readProjection(helper, DatabaseHelper.LIST_COLUMNS, true); // Warm-up
+
+        long[] full = readProjection(helper, DatabaseHelper.EVENT_COLUMNS, false);
+        long[] list = readProjection(helper, DatabaseHelper.LIST_COLUMNS, true);
+        Log.i(TAG, String.format(Locale.US,
+                "List %d rows: full=%.1fms/%d window fills/%.1f MB heap, list=%.1fms/%d window fills/%.1f MB heap",
+                MAPPED_ROWS, full[0] / 1e6, full[1], full[2] / 1e6, list[0] / 1e6, list[1], list[2] / 1e6));
+
+        assertTrue(list[1] < full[1]);
+        helper.close();
+    }
+
+    private static final String TEXT_LAYOUT_DB = "benchmark_text.db";
+
+    /**
+     * Vacuums the database and folds the WAL back into the file, returning {file bytes, page count}.
+     */
+    private static long[] storedSize(SQLiteDatabase db, File file) {
+        db.execSQL("VACUUM");
+        try (Cursor cursor = db.rawQuery("PRAGMA wal_checkpoint(TRUNCATE)", null)) {
+            cursor.moveToFirst();
+        }
+        try (Cursor cursor = db.rawQuery("PRAGMA page_count", null)) {
+            assertTrue(cursor.moveToFirst());
+            return new long[] {file.length(), cursor.getLong(0)};
+        }
+    }
+
+    /**
+     * Returns the fastest of five full reads of a query, in nanoseconds.
+     */
+    private static long bestQueryTime(SQLiteDatabase db, String sql, String... args) {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            long start = System.nanoTime();
+            drain(db.rawQuery(sql, args));
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    @Test
+    public void storage_textColumnsVsLookupTableAndCodes() {
+        // After: the current schema, without the search index and event counts so only events
+        // and its indexes differ
+        DatabaseHelper helper = new DatabaseHelper(context, BENCHMARK_DB);
+        SQLiteDatabase db = helper.getWritableDatabase();
+        for (String trigger : new String[]{"events_fts_ai", "events_fts_au", "events_fts_ad",
+                "event_counts_ai", "event_counts_au", "event_counts_ad"}) {
+            db.execSQL("DROP TRIGGER " + trigger);
+        }
+        db.execSQL("DROP TABLE events_fts");
+        db.execSQL("DROP TABLE event_status_counts");
+        db.execSQL("DROP TABLE event_doctor_counts");
+        seedEvents(helper, MAPPED_ROWS);
+
+        // Before: the same rows with the version 7 layout (doctor name and status label per row)
+        context.deleteDatabase(TEXT_LAYOUT_DB);
+        File textFile = context.getDatabasePath(TEXT_LAYOUT_DB);
+        try (SQLiteDatabase text = SQLiteDatabase.openOrCreateDatabase(textFile, null)) {
+            text.execSQL("CREATE TABLE events (event_id INTEGER PRIMARY KEY AUTOINCREMENT, "
+                    + "patient_name TEXT NOT NULL, doctor_name TEXT NOT NULL, appointment_date INTEGER NOT NULL, "
+                    + "status TEXT NOT NULL, notes TEXT, location TEXT, pdf_uri TEXT, user_id INTEGER NOT NULL)");
+            text.execSQL("CREATE INDEX idx_events_user_status_date ON events (user_id, status, appointment_date)");
+            text.execSQL("CREATE INDEX idx_events_user_date ON events (user_id, appointment_date)");
+
+            text.beginTransaction();
+            try (Cursor rows = db.rawQuery("SELECT events.event_id, patient_name, doctors.name, appointment_date, "
+                    + EventStatus.labelSql("events.status") + ", notes, location, pdf_uri, user_id"
+                    + DatabaseHelper.FROM_EVENTS, null);
+                 SQLiteStatement insert = text.compileStatement("INSERT INTO events VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+                while (rows.moveToNext()) {
+                    insert.clearBindings();
+                    for (int column = 0; column < rows.getColumnCount(); column++) {
+                        if (!rows.isNull(column)) insert.bindString(column + 1, rows.getString(column));
+                    }
+                    insert.executeInsert();
+                }
+                text.setTransactionSuccessful();
+            } finally {
+                text.endTransaction();
+            }
+
+            long[] before = storedSize(text, textFile);
+            long[] after = storedSize(db, context.getDatabasePath(BENCHMARK_DB));
+            long beforeQuery = bestQueryTime(text, "SELECT event_id, patient_name, doctor_name, appointment_date, status"
+                    + " FROM events WHERE user_id = ? AND status = ? ORDER BY appointment_date DESC",
+                    "1", EventStatus.COMPLETED.getLabel());
+            long afterQuery = bestQueryTime(db, DatabaseHelper.QUERY_EVENTS_BY_STATUS,
+                    "1", String.valueOf(EventStatus.COMPLETED.getCode()));
+
+            Log.i(TAG, String.format(Locale.US,
+                    "Store %d events: text=%.2f MB/%d pages/status query %.1fms, lookup+codes=%.2f MB/%d pages/status query %.1fms",
+                    MAPPED_ROWS, before[0] / 1e6, before[1], beforeQuery / 1e6,
+                    after[0] / 1e6, after[1], afterQuery / 1e6));
+
+            assertTrue(after[1] < before[1]);
+        } finally {
+            context.deleteDatabase(TEXT_LAYOUT_DB);
+            helper.close();
+        }
+    }
+
+    @Test
+    public void eventCounts_groupByVsSummaryTable() {
+        DatabaseHelper helper = new DatabaseHelper(context, BENCHMARK_DB);
+        seedEvents(helper, MAPPED_ROWS);
+        SQLiteDatabase db = helper.getReadableDatabase();
+
+        long before = bestQueryTime(db, "SELECT status, COUNT(*) FROM events WHERE user_id = ? GROUP BY status", "1");
+        helper.getEventCounts(1); // Warm-up
+        long start = System.nanoTime();
+        EventCounts counts = helper.getEventCounts(1);
+        long after = System.nanoTime() - start;
+        Log.i(TAG, String.format(Locale.US, "Counts of %d events: GROUP BY=%.2fms summary table=%.2fms",
+                MAPPED_ROWS, before / 1e6, after / 1e6));
+
+        assertEquals(MAPPED_ROWS, counts.getTotal());
+        assertEquals((MAPPED_ROWS + 2) / 3, counts.get(EventStatus.COMPLETED));
+        helper.close();
+    }
+
+    private static final long TARGET_HASH_MILLIS = 250;
+
+    private static long timeLogin(DatabaseHelper helper, String email, String password, long expectedUserId) {
+        long start = System.nanoTime();
+        assertEquals(expectedUserId, helper.validateUser(email, password));
+        return System.nanoTime() - start;
+    }
+
+    @Test
+    public void passwordHashing_calibrationAndUpgradeOnLogin() throws Exception {
+        int calibrated = Pbkdf2CredentialHasher.calibrateIterations(TARGET_HASH_MILLIS);
+        long start = System.nanoTime();
+        new Pbkdf2CredentialHasher(calibrated).hash("secret1");
+        long calibratedHash = System.nanoTime() - start;
+
+        // An account registered before PBKDF2: unsalted SHA-256 hex
+        StringBuilder legacyHash = new StringBuilder();
+        for (byte b : MessageDigest.getInstance("SHA-256").digest("secret1".getBytes(StandardCharsets.UTF_8))) {
+            legacyHash.append(String.format(Locale.US, "%02x", b));
+        }
+        DatabaseHelper helper = new DatabaseHelper(context, BENCHMARK_DB);
+        SQLiteDatabase db = helper.getWritableDatabase();
+        db.execSQL("INSERT INTO users (email, password) VALUES ('legacy@example.com', ?)",
+                new Object[]{legacyHash.toString()});
+        long userId = helper.insertUser("new@example.com", helper.hashPassword("secret2"));
+
+        long legacyLogin = timeLogin(helper, "legacy@example.com", "secret1", 1);
+        CountDownLatch upgraded = new CountDownLatch(1);
+        DatabaseExecutor.getInstance().getWriteExecutor().execute(upgraded::countDown); // Queued after the rehash
+        assertTrue(upgraded.await(10, TimeUnit.SECONDS));
+        try (Cursor cursor = db.rawQuery("SELECT password FROM users WHERE user_id = 1", null)) {
+            assertTrue(cursor.moveToFirst());
+            assertTrue(cursor.getString(0).startsWith(
+                    "pbkdf2-sha256$" + Pbkdf2CredentialHasher.DEFAULT_ITERATIONS + "$"));
+        }
+
+        long upgradedLogin = timeLogin(helper, "legacy@example.com", "secret1", 1);
+        long newUserLogin = timeLogin(helper, "new@example.com", "secret2", userId);
+        assertEquals(-1, helper.validateUser("new@example.com", "wrong"));
+
+        Log.i(TAG, String.format(Locale.US,
+                "Password hashing: %d iterations for %dms target (measured %.0fms); default %d iterations: "
+                        + "legacy login+rehash=%.0fms upgraded login=%.0fms new user login=%.0fms",
+                calibrated, TARGET_HASH_MILLIS, calibratedHash / 1e6, Pbkdf2CredentialHasher.DEFAULT_ITERATIONS,
+                legacyLogin / 1e6, upgradedLogin / 1e6, newUserLogin / 1e6));
+        helper.close();
+    }
+}
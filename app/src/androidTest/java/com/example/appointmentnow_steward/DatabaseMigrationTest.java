@@ -0,0 +1,344 @@
+/*
+    Appointment Now - Database Migration Instrumented Test
+    Author: Conor Steward
+    Contact: 1conorsteward@gmail.com
+    Date Created: 10/17/26
+    Version: 2.3
+
+    Description:
+    This class builds database files in the schema of every earlier app version, then opens
+    them with the current DatabaseHelper and checks that onUpgrade kept and converted the data.
+
+    Key Features:
+    - Every historical version (1 through the current one minus 1) upgrades without data loss.
+    - Upgraded databases have the current indexes, search index and epoch-day dates.
+    - Version 7 doctor names move to the doctors lookup table and statuses to EventStatus codes.
+    - Upgraded databases start with event counts matching their events.
+    - Upgraded databases have the reminder outbox.
+    - Upgrading a large version 1 database finishes within a time budget.
+
+    Dependencies:
+    - AndroidX Test Library (InstrumentationRegistry, AndroidJUnit4)
+    - JUnit (for assertions and test execution)
+
+    Issues:
+    - No known issues.
+*/
+
+package com.example.appointmentnow_steward;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+@RunWith(AndroidJUnit4.class)
+public class DatabaseMigrationTest {
+
+    private static final String TAG = "DatabaseMigrationTest";
+    private static final String MIGRATION_DB = "migration.db";
+
+    private static final int LARGE_EVENTS = 50_000;
+    private static final long UPGRADE_BUDGET_MS = 10_000;
+
+    private Context context;
+    private DatabaseHelper databaseHelper;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(MIGRATION_DB);
+    }
+
+    @After
+    public void tearDown() {
+        if (databaseHelper != null) databaseHelper.close();
+        context.deleteDatabase(MIGRATION_DB);
+    }
+
+    // -------------------- Historical Schemas --------------------
+
+    /**
+     * Creates the schema as the app shipped it at {@code version}:
+     * 1 users and events, 2 notes and location, 3 PDF attachment, 4 foreign key to users,
+     * 5 composite indexes, 6 FTS4 search index, 7 epoch-day (INTEGER) dates, 8 doctors
+     * lookup table and integer status codes, 9 trigger-maintained event counts, 10 reminder
+     * (status, date) index. Before 8, doctor names and statuses are TEXT.
+     */
+    private static void createSchema(SQLiteDatabase db, int version) {
+        db.execSQL("CREATE TABLE users (user_id INTEGER PRIMARY KEY AUTOINCREMENT, "
+                + "email TEXT UNIQUE NOT NULL, password TEXT NOT NULL)");
+        if (version >= 8) {
+            createVersion8Events(db);
+            if (version >= 9) createVersion9Counts(db);
+            if (version >= 10) db.execSQL("CREATE INDEX idx_events_status_date ON events (status, appointment_date)");
+            return;
+        }
+
+        StringBuilder events = new StringBuilder("CREATE TABLE events (event_id INTEGER PRIMARY KEY AUTOINCREMENT, "
+                + "patient_name TEXT NOT NULL, doctor_name TEXT NOT NULL, appointment_date "
+                + (version >= 7 ? "INTEGER" : "TEXT") + " NOT NULL, status TEXT NOT NULL");
+        if (version >= 2) events.append(", notes TEXT, location TEXT");
+        if (version >= 3) events.append(", pdf_uri TEXT");
+        events.append(", user_id INTEGER NOT NULL");
+        if (version >= 4) {
+            events.append(", FOREIGN KEY(user_id) REFERENCES users(user_id) ON DELETE CASCADE ON UPDATE CASCADE");
+        }
+        db.execSQL(events.append(')').toString());
+
+        if (version >= 5) {
+            db.execSQL("CREATE INDEX idx_events_user_status_date ON events (user_id, status, appointment_date)");
+            db.execSQL("CREATE INDEX idx_events_user_date ON events (user_id, appointment_date)");
+        }
+        if (version >= 6) {
+            String columns = "patient_name, doctor_name, location, notes";
+            String values = "new.event_id, new.patient_name, new.doctor_name, new.location, new.notes";
+            db.execSQL("CREATE VIRTUAL TABLE events_fts USING fts4(" + columns + ", content=\"events\", prefix=\"2,3\")");
+            db.execSQL("CREATE TRIGGER events_fts_bu BEFORE UPDATE ON events BEGIN "
+                    + "DELETE FROM events_fts WHERE docid = old.event_id; END");
+            db.execSQL("CREATE TRIGGER events_fts_bd BEFORE DELETE ON events BEGIN "
+                    + "DELETE FROM events_fts WHERE docid = old.event_id; END");
+            db.execSQL("CREATE TRIGGER events_fts_au AFTER UPDATE ON events BEGIN "
+                    + "INSERT INTO events_fts(docid, " + columns + ") VALUES (" + values + "); END");
+            db.execSQL("CREATE TRIGGER events_fts_ai AFTER INSERT ON events BEGIN "
+                    + "INSERT INTO events_fts(docid, " + columns + ") VALUES (" + values + "); END");
+        }
+    }
+
+    private static void createVersion8Events(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE doctors (doctor_id INTEGER PRIMARY KEY, name TEXT UNIQUE NOT NULL)");
+        db.execSQL("CREATE TABLE events (event_id INTEGER PRIMARY KEY AUTOINCREMENT, "
+                + "patient_name TEXT NOT NULL, doctor_id INTEGER NOT NULL, appointment_date INTEGER NOT NULL, "
+                + "status INTEGER NOT NULL, notes TEXT, location TEXT, pdf_uri TEXT, user_id INTEGER NOT NULL, "
+                + "FOREIGN KEY(user_id) REFERENCES users(user_id) ON DELETE CASCADE ON UPDATE CASCADE, "
+                + "FOREIGN KEY(doctor_id) REFERENCES doctors(doctor_id))");
+        db.execSQL("CREATE INDEX idx_events_user_status_date ON events (user_id, status, appointment_date)");
+        db.execSQL("CREATE INDEX idx_events_user_date ON events (user_id, appointment_date)");
+
+        String doctorName = "(SELECT name FROM doctors WHERE doctor_id = new.doctor_id)";
+        db.execSQL("CREATE VIRTUAL TABLE events_fts USING fts4(patient_name, doctor_name, location, notes, prefix=\"2,3\")");
+        db.execSQL("CREATE TRIGGER events_fts_ad AFTER DELETE ON events BEGIN "
+                + "DELETE FROM events_fts WHERE docid = old.event_id; END");
+        db.execSQL("CREATE TRIGGER events_fts_au AFTER UPDATE OF patient_name, doctor_id, location, notes ON events BEGIN "
+                + "UPDATE events_fts SET patient_name = new.patient_name, doctor_name = " + doctorName
+                + ", location = new.location, notes = new.notes WHERE docid = new.event_id; END");
+        db.execSQL("CREATE TRIGGER events_fts_ai AFTER INSERT ON events BEGIN "
+                + "INSERT INTO events_fts(docid, patient_name, doctor_name, location, notes) VALUES (new.event_id, "
+                + "new.patient_name, " + doctorName + ", new.location, new.notes); END");
+    }
+
+    private static void createVersion9Counts(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE event_status_counts (user_id INTEGER NOT NULL, status INTEGER NOT NULL, "
+                + "event_count INTEGER NOT NULL, PRIMARY KEY (user_id, status)) WITHOUT ROWID");
+        db.execSQL("CREATE TABLE event_doctor_counts (user_id INTEGER NOT NULL, doctor_id INTEGER NOT NULL, "
+                + "status INTEGER NOT NULL, event_count INTEGER NOT NULL, PRIMARY KEY (user_id, doctor_id, status))"
+                + " WITHOUT ROWID");
+        db.execSQL("CREATE TRIGGER event_counts_ai AFTER INSERT ON events BEGIN "
+                + adjustVersion9Counts("new", "+") + "END");
+        db.execSQL("CREATE TRIGGER event_counts_ad AFTER DELETE ON events BEGIN "
+                + adjustVersion9Counts("old", "-") + "END");
+        db.execSQL("CREATE TRIGGER event_counts_au AFTER UPDATE OF user_id, doctor_id, status ON events BEGIN "
+                + adjustVersion9Counts("old", "-") + adjustVersion9Counts("new", "+") + "END");
+    }
+
+    private static String adjustVersion9Counts(String row, String sign) {
+        String statusKey = "user_id = " + row + ".user_id AND status = " + row + ".status";
+        String doctorKey = statusKey + " AND doctor_id = " + row + ".doctor_id";
+        String inserts = sign.equals("+")
+                ? "INSERT OR IGNORE INTO event_status_counts VALUES (" + row + ".user_id, " + row + ".status, 0); "
+                + "INSERT OR IGNORE INTO event_doctor_counts VALUES (" + row + ".user_id, " + row + ".doctor_id, "
+                + row + ".status, 0); "
+                : "";
+        return inserts
+                + "UPDATE event_status_counts SET event_count = event_count " + sign + " 1 WHERE " + statusKey + "; "
+                + "UPDATE event_doctor_counts SET event_count = event_count " + sign + " 1 WHERE " + doctorKey + "; ";
+    }
+
+    /**
+     * Inserts one user and {@code count} events using only the columns {@code version} has.
+     * Event i is "Patient i" of "Doctor i % 20" on 2025-03-01 plus (i - 1) % 28 days, Completed
+     * when i is a multiple of 3, with notes "Notes i" from version 2.
+     */
+    private static void insertEvents(SQLiteDatabase db, int version, int count) {
+        db.execSQL("INSERT INTO users (email, password) VALUES ('a@b.com', 'x')");
+        String sql = version >= 8
+                ? "INSERT INTO events (patient_name, doctor_id, appointment_date, status, user_id, notes, location)"
+                + " VALUES (?, (SELECT doctor_id FROM doctors WHERE name = ?), ?, ?, 1, ?, ?)"
+                : version >= 2
+                ? "INSERT INTO events (patient_name, doctor_name, appointment_date, status, user_id, notes, location)"
+                + " VALUES (?, ?, ?, ?, 1, ?, ?)"
+                : "INSERT INTO events (patient_name, doctor_name, appointment_date, status, user_id)"
+                + " VALUES (?, ?, ?, ?, 1)";
+
+        db.beginTransaction();
+        try (SQLiteStatement insert = db.compileStatement(sql)) {
+            for (int i = 1; i <= count; i++) {
+                if (version >= 8) {
+                    db.execSQL("INSERT OR IGNORE INTO doctors (name) VALUES (?)", new Object[]{"Doctor " + (i % 20)});
+                }
+                insert.bindString(1, "Patient " + i);
+                insert.bindString(2, "Doctor " + (i % 20));
+                String date = String.format(Locale.US, "2025-03-%02d", 1 + (i - 1) % 28);
+                if (version >= 7) {
+                    insert.bindLong(3, AppointmentDates.toEpochDay(date));
+                } else {
+                    insert.bindString(3, date);
+                }
+                EventStatus status = i % 3 == 0 ? EventStatus.COMPLETED : EventStatus.SCHEDULED;
+                if (version >= 8) {
+                    insert.bindLong(4, status.getCode());
+                } else {
+                    insert.bindString(4, status.getLabel());
+                }
+                if (version >= 2) {
+                    insert.bindString(5, "Notes " + i);
+                    insert.bindString(6, "Room " + (i % 10));
+                }
+                insert.executeInsert();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    private void createDatabase(int version, int events) {
+        context.deleteDatabase(MIGRATION_DB);
+        try (SQLiteDatabase db = SQLiteDatabase.openOrCreateDatabase(context.getDatabasePath(MIGRATION_DB), null)) {
+            createSchema(db, version);
+            insertEvents(db, version, events);
+            db.setVersion(version);
+        }
+    }
+
+    // -------------------- Tests --------------------
+
+    @Test
+    public void everyHistoricalVersion_upgradesWithoutDataLoss() {
+        for (int version = 1; version < DatabaseHelper.DATABASE_VERSION; version++) {
+            String at = "from version " + version;
+            createDatabase(version, 3);
+            databaseHelper = new DatabaseHelper(context, MIGRATION_DB);
+            SQLiteDatabase db = databaseHelper.getWritableDatabase();
+
+            assertEquals(at, DatabaseHelper.DATABASE_VERSION, db.getVersion());
+            assertEquals(at, 1, DatabaseUtils.queryNumEntries(db, "users"));
+            assertEquals(at, 3, DatabaseUtils.queryNumEntries(db, "events"));
+            assertEquals(at, 3, DatabaseUtils.queryNumEntries(db, "sqlite_master",
+                    "type = 'index' AND name LIKE 'idx_events_%'"));
+            assertEquals(at, 1, DatabaseUtils.queryNumEntries(db, "sqlite_master",
+                    "type = 'table' AND name = 'reminder_outbox'"));
+
+            Event event = databaseHelper.loadEvent(2);
+            assertEquals(at, "Patient 2", event.getPatientName());
+            assertEquals(at, "2025-03-02", event.getAppointmentDate());
+            assertEquals(at, version >= 2 ? "Notes 2" : null, event.getNotes());
+            assertEquals(at, "Doctor 2", event.getDoctorName());
+            assertEquals(at, EventStatus.COMPLETED, databaseHelper.loadEvent(3).getStatus());
+
+            EventCounts counts = databaseHelper.getEventCounts(1);
+            assertEquals(at, 2, counts.get(EventStatus.SCHEDULED));
+            assertEquals(at, 1, counts.get(EventStatus.COMPLETED));
+
+            // Search index covers the migrated rows and is kept in sync afterwards
+            try (Cursor cursor = databaseHelper.getEventsByStatus(1, EventStatus.SCHEDULED, "pati")) {
+                assertEquals(at, 2, cursor.getCount());
+            }
+            databaseHelper.updateEvent(2, "Renamed", "Doctor", "2025-03-02", EventStatus.SCHEDULED, null, null, null);
+            try (Cursor cursor = databaseHelper.getEventsByStatus(1, EventStatus.SCHEDULED, "pati")) {
+                assertEquals(at, 1, cursor.getCount());
+            }
+
+            databaseHelper.close();
+            databaseHelper = null;
+        }
+    }
+
+    @Test
+    public void version6_convertsTextDatesToEpochDays() {
+        createDatabase(6, 1);
+        try (SQLiteDatabase db = SQLiteDatabase.openDatabase(context.getDatabasePath(MIGRATION_DB).getPath(),
+                null, SQLiteDatabase.OPEN_READWRITE)) {
+            db.execSQL("INSERT INTO events (event_id, patient_name, doctor_name, appointment_date, status, user_id)"
+                    + " VALUES (9, 'Tom Jones', 'Dr Lee', '1969-12-31', 'Completed', 1)");
+            db.execSQL("INSERT INTO events (event_id, patient_name, doctor_name, appointment_date, status, user_id)"
+                    + " VALUES (10, 'Bad Date', 'Dr Lee', 'March 3rd', 'Completed', 1)");
+        }
+        databaseHelper = new DatabaseHelper(context, MIGRATION_DB);
+        SQLiteDatabase db = databaseHelper.getWritableDatabase();
+
+        try (Cursor cursor = db.rawQuery("SELECT event_id, typeof(appointment_date), appointment_date"
+                + " FROM events ORDER BY event_id", null)) {
+            assertTrue(cursor.moveToNext());
+            assertEquals("integer", cursor.getString(1));
+            assertEquals(AppointmentDates.toEpochDay("2025-03-01"), cursor.getLong(2));
+            assertTrue(cursor.moveToNext());
+            assertEquals(9, cursor.getLong(0));
+            assertEquals(-1, cursor.getLong(2));
+            assertTrue(cursor.moveToNext());
+            assertEquals(0, cursor.getLong(2)); // Unparseable dates fall back to 1970-01-01
+        }
+
+        try (Cursor cursor = databaseHelper.getEventsBetween(1, AppointmentDates.toEpochDay("2025-03-01"),
+                AppointmentDates.toEpochDay("2025-03-31"))) {
+            List<EventListItem> items = EventRowMapper.readListItems(cursor);
+            assertEquals(1, items.size());
+            assertEquals("2025-03-01", items.get(0).getAppointmentDate());
+        }
+    }
+
+    @Test
+    public void version7_movesDoctorsToLookupTableAndStatusesToCodes() {
+        createDatabase(7, 40);
+        try (SQLiteDatabase db = SQLiteDatabase.openDatabase(context.getDatabasePath(MIGRATION_DB).getPath(),
+                null, SQLiteDatabase.OPEN_READWRITE)) {
+            db.execSQL("INSERT INTO events (event_id, patient_name, doctor_name, appointment_date, status, user_id)"
+                    + " VALUES (41, 'Tom Jones', 'Doctor 1', 20089, 'missed', 1)");
+            db.execSQL("INSERT INTO events (event_id, patient_name, doctor_name, appointment_date, status, user_id)"
+                    + " VALUES (42, 'Ann Lee', 'Dr New', 20089, 'Unknown', 1)");
+        }
+        databaseHelper = new DatabaseHelper(context, MIGRATION_DB);
+        SQLiteDatabase db = databaseHelper.getWritableDatabase();
+
+        assertEquals(21, DatabaseUtils.queryNumEntries(db, "doctors"));
+        assertEquals(13, DatabaseUtils.queryNumEntries(db, "events",
+                "status = " + EventStatus.COMPLETED.getCode()));
+        assertEquals(EventStatus.MISSED, databaseHelper.loadEvent(41).getStatus());
+        assertEquals(EventStatus.SCHEDULED, databaseHelper.loadEvent(42).getStatus());
+        assertEquals("Dr New", databaseHelper.loadEvent(42).getDoctorName());
+
+        // The rebuilt search index holds the doctor names now stored in the lookup table
+        try (Cursor cursor = databaseHelper.getEventsByStatus(1, EventStatus.SCHEDULED, "new")) {
+            assertEquals(1, cursor.getCount());
+        }
+    }
+
+    @Test
+    public void largeVersion1Database_upgradesWithinBudget() {
+        createDatabase(1, LARGE_EVENTS);
+
+        long start = System.nanoTime();
+        databaseHelper = new DatabaseHelper(context, MIGRATION_DB);
+        SQLiteDatabase db = databaseHelper.getWritableDatabase();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        Log.i(TAG, "Upgraded " + LARGE_EVENTS + " events from version 1 in " + elapsedMs + " ms");
+
+        assertEquals(LARGE_EVENTS, DatabaseUtils.queryNumEntries(db, "events"));
+        assertTrue("Upgrade took " + elapsedMs + " ms", elapsedMs < UPGRADE_BUDGET_MS);
+    }
+}
@@ -0,0 +1,374 @@
+/*
+    Appointment Now - Query Plan Instrumented Test
+    Author: Conor Steward
+    Contact: 1conorsteward@gmail.com
+    Date Created: 10/17/26
+    Version: 2.3
+
+    Description:
+    This class runs EXPLAIN QUERY PLAN for every query that DatabaseHelper exposes and fails
+    if any of them falls back to a full SCAN of the events table. It runs against the device's
+    own SQLite build so the plans match what users actually get. It also checks that the
+    full-text search index stays in sync with inserts, updates and deletes.
+
+    Key Features:
+    - Uses an in-memory database so tests do not touch app data.
+    - Checks each query SQL constant with representative bind arguments.
+    - Checks that every event query returns columns in the order EventRowMapper reads by index.
+    - Checks the date-range queries against epoch-day appointment dates.
+    - Checks that every reminder outbox read and write searches an index, in due order.
+    - Checks that doctors are looked up by primary key and shared between events.
+    - Checks that the trigger-maintained event counts match the events table.
+
+    Dependencies:
+    - AndroidX Test Library (InstrumentationRegistry, AndroidJUnit4)
+    - JUnit (for assertions and test execution)
+
+    Issues:
+    - No known issues.
+*/
+
+package com.example.appointmentnow_steward;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+@RunWith(AndroidJUnit4.class)
+public class DatabaseQueryPlanTest {
+
+    // Matches "SCAN events", "SCAN TABLE events" and "SCAN events USING INDEX ..." on any SQLite version
+    private static final Pattern SCAN_EVENTS = Pattern.compile("\\bSCAN (TABLE )?events\\b");
+    private static final Pattern SCAN_DOCTORS = Pattern.compile("\\bSCAN (TABLE )?doctors\\b");
+    private static final Pattern SCAN_OUTBOX = Pattern.compile("\\bSCAN (TABLE )?reminder_outbox\\b");
+
+    private static final String COMPLETED = String.valueOf(EventStatus.COMPLETED.getCode());
+    private static final String SCHEDULED = String.valueOf(EventStatus.SCHEDULED.getCode());
+
+    private DatabaseHelper databaseHelper;
+    private SQLiteDatabase db;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        databaseHelper = new DatabaseHelper(context, null);
+        db = databaseHelper.getWritableDatabase();
+    }
+
+    @After
+    public void tearDown() {
+        databaseHelper.close();
+    }
+
+    /**
+     * Runs EXPLAIN QUERY PLAN and returns the plan detail lines joined together.
+     */
+    private String explain(String sql, String... args) {
+        StringBuilder plan = new StringBuilder();
+        try (Cursor cursor = db.rawQuery("EXPLAIN QUERY PLAN " + sql, args)) {
+            int detail = cursor.getColumnIndexOrThrow("detail");
+            while (cursor.moveToNext()) {
+                plan.append(cursor.getString(detail)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+
+    private void assertNoEventsScan(String sql, String... args) {
+        String plan = explain(sql, args);
+        assertFalse("Query regressed to a table scan:\n" + sql + "\n" + plan,
+                SCAN_EVENTS.matcher(plan).find() || SCAN_DOCTORS.matcher(plan).find());
+    }
+
+    @Test
+    public void validateUser_usesEmailIndex() {
+        String plan = explain(DatabaseHelper.QUERY_VALIDATE_USER, "a@b.com");
+        assertFalse(plan, plan.contains("SCAN"));
+    }
+
+    @Test
+    public void emailTaken_usesEmailIndex() {
+        String plan = explain(DatabaseHelper.QUERY_EMAIL_TAKEN, "a@b.com");
+        assertFalse(plan, plan.contains("SCAN"));
+    }
+
+    @Test
+    public void eventById_searchesPrimaryKey() {
+        assertNoEventsScan(DatabaseHelper.QUERY_EVENT_BY_ID, "1");
+    }
+
+    @Test
+    public void eventsByStatus_searchesIndex() {
+        assertNoEventsScan(DatabaseHelper.QUERY_EVENTS_BY_STATUS, "1", COMPLETED);
+    }
+
+    @Test
+    public void eventSearch_usesFullTextIndex() {
+        String plan = explain(DatabaseHelper.QUERY_EVENTS_BY_STATUS_SEARCH, "smi*", "1", COMPLETED);
+        assertFalse(plan, SCAN_EVENTS.matcher(plan).find());
+        assertTrue(plan, plan.contains("VIRTUAL TABLE"));
+    }
+
+    @Test
+    public void eventSearch_matchesPrefixesAcrossColumnsAndTracksEdits() {
+        db.execSQL("INSERT INTO users (email, password) VALUES ('a@b.com', 'x')");
+        databaseHelper.addEvent("Jane Smith", "Dr Brown", "2025-01-01", EventStatus.COMPLETED,
+                "follow-up x-ray", "Springfield", null, 1);
+        databaseHelper.addEvent("Tom Jones", "Dr Smithers", "2025-02-01", EventStatus.COMPLETED,
+                null, "Shelbyville", null, 1);
+
+        // Patient-name match ranks ahead of the doctor-name match
+        try (Cursor cursor = databaseHelper.getEventsByStatus(1, EventStatus.COMPLETED, "smi")) {
+            assertEquals(2, cursor.getCount());
+            cursor.moveToFirst();
+            assertEquals("Jane Smith", cursor.getString(cursor.getColumnIndexOrThrow("patient_name")));
+        }
+
+        try (Cursor cursor = databaseHelper.getEventsByStatus(1, EventStatus.COMPLETED, "ray spring")) {
+            assertEquals(1, cursor.getCount());
+        }
+
+        db.execSQL("UPDATE events SET notes = 'annual checkup' WHERE patient_name = 'Jane Smith'");
+        try (Cursor cursor = databaseHelper.getEventsByStatus(1, EventStatus.COMPLETED, "ray")) {
+            assertEquals(0, cursor.getCount());
+        }
+
+        // Status changes leave the index alone; doctor changes re-index the new doctor's name
+        db.execSQL("UPDATE events SET status = " + SCHEDULED + " WHERE patient_name = 'Tom Jones'");
+        db.execSQL("UPDATE events SET status = " + COMPLETED + " WHERE patient_name = 'Tom Jones'");
+        databaseHelper.updateEvent(1, "Jane Smith", "Dr Green", "2025-01-01", EventStatus.COMPLETED,
+                "annual checkup", "Springfield", null);
+        try (Cursor cursor = databaseHelper.getEventsByStatus(1, EventStatus.COMPLETED, "gre")) {
+            assertEquals(1, cursor.getCount());
+        }
+        try (Cursor cursor = databaseHelper.getEventsByStatus(1, EventStatus.COMPLETED, "shelby")) {
+            assertEquals(1, cursor.getCount());
+        }
+
+        db.execSQL("DELETE FROM events WHERE patient_name = 'Tom Jones'");
+        try (Cursor cursor = databaseHelper.getEventsByStatus(1, EventStatus.COMPLETED, "shelby")) {
+            assertEquals(0, cursor.getCount());
+        }
+    }
+
+    @Test
+    public void ftsPrefixQuery_stripsOperators() {
+        assertEquals("jo* sm*", DatabaseHelper.toFtsPrefixQuery("  Jo \"Sm\" "));
+        assertEquals("or* x*", DatabaseHelper.toFtsPrefixQuery("OR x-"));
+        assertNull(DatabaseHelper.toFtsPrefixQuery(" *- "));
+    }
+
+    @Test
+    public void eventPages_searchIndex() {
+        assertNoEventsScan(DatabaseHelper.QUERY_EVENTS_FIRST_PAGE, "1", "50");
+        assertNoEventsScan(DatabaseHelper.QUERY_EVENTS_PAGE_AFTER, "1", "20089", "20089", "10", "50");
+        assertNoEventsScan(DatabaseHelper.QUERY_EVENTS_PAGE_BEFORE, "1", "20089", "20089", "10", "50");
+    }
+
+    @Test
+    public void eventPages_doNotSortInTempBTree() {
+        String plan = explain(DatabaseHelper.QUERY_EVENTS_PAGE_AFTER, "1", "20089", "20089", "10", "50");
+        assertFalse(plan, plan.contains("TEMP B-TREE"));
+    }
+
+    @Test
+    public void eventQueries_matchRowMapperColumnOrder() {
+        String[] eventColumns = {"event_id", "patient_name", "doctor_id", "doctor_name", "appointment_date",
+                "status", "pdf_uri", "notes", "location"};
+        String[][] eventQueries = {
+                {DatabaseHelper.QUERY_EVENT_BY_ID, "1"},
+                {DatabaseHelper.QUERY_EVENTS_BY_STATUS_FOR_PDF, "1", COMPLETED},
+                {DatabaseHelper.QUERY_EVENTS_BY_STATUS_SEARCH_FOR_PDF, "sm*", "1", COMPLETED},
+        };
+        for (String[] query : eventQueries) {
+            try (Cursor cursor = db.rawQuery(query[0], Arrays.copyOfRange(query, 1, query.length))) {
+                assertArrayEquals(query[0], eventColumns, cursor.getColumnNames());
+            }
+        }
+
+        String[] listColumns = Arrays.copyOf(eventColumns, 7);
+        String[][] listQueries = {
+                {DatabaseHelper.QUERY_EVENTS_BY_STATUS, "1", COMPLETED},
+                {DatabaseHelper.QUERY_EVENTS_BY_STATUS_SEARCH, "sm*", "1", COMPLETED},
+                {DatabaseHelper.QUERY_EVENTS_FIRST_PAGE, "1", "50"},
+                {DatabaseHelper.QUERY_EVENTS_PAGE_AFTER, "1", "20089", "20089", "10", "50"},
+                {DatabaseHelper.QUERY_EVENTS_PAGE_BEFORE, "1", "20089", "20089", "10", "50"},
+        };
+        for (String[] query : listQueries) {
+            try (Cursor cursor = db.rawQuery(query[0], Arrays.copyOfRange(query, 1, query.length))) {
+                assertArrayEquals(query[0], listColumns, cursor.getColumnNames());
+            }
+        }
+    }
+
+    @Test
+    public void dateRangeQueries_searchIndexWithoutSorting() {
+        String[][] queries = {
+                {DatabaseHelper.QUERY_EVENTS_BETWEEN, "1", "20089", "20095"},
+                {DatabaseHelper.QUERY_EVENTS_UPCOMING, "1", "20089", "10"},
+                {DatabaseHelper.QUERY_EVENTS_OVERDUE, "1", SCHEDULED, "20089"},
+        };
+        for (String[] query : queries) {
+            String[] args = Arrays.copyOfRange(query, 1, query.length);
+            assertNoEventsScan(query[0], args);
+            String plan = explain(query[0], args);
+            assertFalse(plan, plan.contains("TEMP B-TREE"));
+        }
+    }
+
+    @Test
+    public void dateRangeQueries_compareEpochDays() {
+        db.execSQL("INSERT INTO users (email, password) VALUES ('a@b.com', 'x')");
+        long today = AppointmentDates.toEpochDay("2025-01-10");
+        String[] dates = {
+                "2025-01-08", // Overdue
+                "2025-01-09", // Past but done
+                "2025-01-10",
+                "2025-01-16",
+                "2025-01-17", // Outside this week
+        };
+        for (String date : dates) {
+            EventStatus status = date.equals("2025-01-09") ? EventStatus.COMPLETED : EventStatus.SCHEDULED;
+            databaseHelper.addEvent("Patient", "Doctor", date, status, null, null, null, 1);
+        }
+
+        try (Cursor cursor = databaseHelper.getEventsBetween(1, today, today + 6)) {
+            assertEquals(2, cursor.getCount());
+            assertEquals("2025-01-10", EventRowMapper.readListItems(cursor).get(0).getAppointmentDate());
+        }
+        try (Cursor cursor = databaseHelper.getUpcomingEvents(1, today, 2)) {
+            assertEquals(2, cursor.getCount());
+        }
+        try (Cursor cursor = databaseHelper.getOverdueEvents(1, today)) {
+            assertEquals(1, cursor.getCount());
+            assertEquals("2025-01-08", EventRowMapper.readListItems(cursor).get(0).getAppointmentDate());
+        }
+        try (Cursor cursor = databaseHelper.getEventsForExport(1, null)) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals("2025-01-08", cursor.getString(cursor.getColumnIndexOrThrow("appointment_date")));
+            assertEquals("Scheduled", cursor.getString(cursor.getColumnIndexOrThrow("status")));
+            assertEquals("Doctor", cursor.getString(cursor.getColumnIndexOrThrow("doctor_name")));
+        }
+    }
+
+    @Test
+    public void reminderOutbox_searchesIndexesWithoutSorting() {
+        String transport = ReminderScheduler.TRANSPORT_NOTIFICATION;
+        String due = explain(DatabaseHelper.QUERY_OUTBOX_DUE, transport, "1736413200000", "200");
+        assertNoEventsScan(DatabaseHelper.QUERY_OUTBOX_DUE, transport, "1736413200000", "200");
+        assertFalse(due, SCAN_OUTBOX.matcher(due).find() || due.contains("TEMP B-TREE"));
+
+        String[][] statements = {
+                {DatabaseHelper.QUERY_OUTBOX_NEXT_ATTEMPT, transport},
+                {DatabaseHelper.SQL_RESET_IN_FLIGHT_REMINDERS, transport},
+                {DatabaseHelper.SQL_PRUNE_REMINDER_OUTBOX, transport, "2", "1736413200000"},
+        };
+        for (String[] statement : statements) {
+            String plan = explain(statement[0], Arrays.copyOfRange(statement, 1, statement.length));
+            assertFalse(statement[0] + "\n" + plan, SCAN_OUTBOX.matcher(plan).find());
+        }
+
+        // Queueing reads one day's Scheduled events from the (status, date) index
+        assertNoEventsScan(DatabaseHelper.SQL_ENQUEUE_REMINDERS, transport, "0", "0", SCHEDULED, "20098");
+    }
+
+    @Test
+    public void addEvent_storesEachDoctorOnce() {
+        db.execSQL("INSERT INTO users (email, password) VALUES ('a@b.com', 'x')");
+        for (int i = 0; i < 10; i++) {
+            databaseHelper.addEvent("Patient " + i, i % 2 == 0 ? "Dr Brown" : "Dr Green", "2025-01-10",
+                    EventStatus.SCHEDULED, null, null, null, 1);
+        }
+
+        try (Cursor cursor = db.rawQuery("SELECT COUNT(*) FROM doctors", null)) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals(2, cursor.getInt(0));
+        }
+        try (Cursor cursor = databaseHelper.getEventsByStatus(1, EventStatus.SCHEDULED, null)) {
+            List<EventListItem> items = EventRowMapper.readListItems(cursor);
+            assertEquals(10, items.size());
+            // Rows of one doctor share a single name string
+            assertSame(items.get(0).getDoctorName(), items.get(2).getDoctorName());
+        }
+    }
+
+    @Test
+    public void eventCounts_readSummaryRowsByPrimaryKey() {
+        for (String sql : new String[]{DatabaseHelper.QUERY_EVENT_COUNTS, DatabaseHelper.QUERY_DOCTOR_EVENT_COUNTS}) {
+            String plan = explain(sql, "1");
+            assertFalse(plan, plan.contains("SCAN"));
+            assertFalse(plan, plan.contains("TEMP B-TREE"));
+        }
+    }
+
+    @Test
+    public void eventCounts_trackInsertsUpdatesDeletesAndImports() {
+        db.execSQL("INSERT INTO users (email, password) VALUES ('a@b.com', 'x')");
+        long first = databaseHelper.addEvent("Patient", "Dr Brown", "2025-01-10", EventStatus.SCHEDULED,
+                null, null, null, 1);
+        databaseHelper.addEvent("Patient", "Dr Green", "2025-01-11", EventStatus.SCHEDULED, null, null, null, 1);
+        databaseHelper.importEvents(Arrays.asList(
+                new Event("Imported", "Dr Brown", "2025-01-12", EventStatus.COMPLETED, null, null, null),
+                new Event("Imported", "Dr Brown", "2025-01-13", EventStatus.MISSED, null, null, null)).iterator(),
+                1, 10, null);
+
+        databaseHelper.updateEventStatus(first, EventStatus.COMPLETED);
+        databaseHelper.updateEvent(first, "Patient", "Dr Green", "2025-01-10", EventStatus.COMPLETED,
+                "Notes", null, null);
+        databaseHelper.deleteEvent(first + 1);
+
+        EventCounts counts = databaseHelper.getEventCounts(1);
+        assertEquals(3, counts.getTotal());
+        assertEquals(0, counts.get(EventStatus.SCHEDULED));
+        assertEquals(2, counts.get(EventStatus.COMPLETED));
+        assertEquals(1, counts.get(EventStatus.MISSED));
+        assertEquals(EventCounts.EMPTY, databaseHelper.getEventCounts(2));
+
+        Map<String, EventCounts> byDoctor = databaseHelper.getEventCountsByDoctor(1);
+        assertEquals(Arrays.asList("Dr Brown", "Dr Green"), new ArrayList<>(byDoctor.keySet()));
+        assertEquals(2, byDoctor.get("Dr Brown").getTotal());
+        assertEquals(1, byDoctor.get("Dr Brown").get(EventStatus.MISSED));
+        assertEquals(1, byDoctor.get("Dr Green").get(EventStatus.COMPLETED));
+
+        // Every summary row must equal a fresh count of the events table
+        try (Cursor cursor = db.rawQuery("SELECT COUNT(*) FROM event_doctor_counts c WHERE event_count !="
+                + " (SELECT COUNT(*) FROM events e WHERE e.user_id = c.user_id AND e.doctor_id = c.doctor_id"
+                + " AND e.status = c.status)", null)) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals(0, cursor.getInt(0));
+        }
+    }
+
+    @Test
+    public void eventExport_walksDateIndexWithoutSorting() {
+        assertNoEventsScan(DatabaseHelper.QUERY_EVENTS_FOR_EXPORT, "1");
+        String plan = explain(DatabaseHelper.QUERY_EVENTS_FOR_EXPORT, "1");
+        assertFalse(plan, plan.contains("TEMP B-TREE"));
+    }
+
+    @Test
+    public void pdfExport_walksStatusDateIndexWithoutSorting() {
+        assertNoEventsScan(DatabaseHelper.QUERY_EVENTS_BY_STATUS_FOR_PDF, "1", COMPLETED);
+        String plan = explain(DatabaseHelper.QUERY_EVENTS_BY_STATUS_FOR_PDF, "1", COMPLETED);
+        assertFalse(plan, plan.contains("TEMP B-TREE"));
+
+        plan = explain(DatabaseHelper.QUERY_EVENTS_BY_STATUS_SEARCH_FOR_PDF, "smi*", "1", COMPLETED);
+        assertFalse(plan, SCAN_EVENTS.matcher(plan).find());
+    }
+}
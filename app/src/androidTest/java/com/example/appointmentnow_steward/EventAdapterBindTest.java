@@ -0,0 +1,187 @@
+/*
+    Appointment Now - Event Adapter Bind Instrumented Test
+    Author: Conor Steward
+    Contact: 1conorsteward@gmail.com
+    Date Created: 10/17/26
+    Version: 2.3
+
+    Description:
+    This class counts EventAdapter.onBindViewHolder calls per list mutation. A RecyclerView
+    tall enough to show every row is laid out by hand on the main thread after each diff is
+    committed, so the counts are exactly the rows RecyclerView had to rebind.
+
+    Key Features:
+    - Insert, edit and delete rebind at most the affected row.
+    - Resubmitting equal content rebinds nothing.
+    - notifyDataSetChanged (the old refresh path) rebinds every visible row, for comparison.
+    - Rebinding rows in steady state allocates no objects (Debug allocation counting).
+
+    Dependencies:
+    - AndroidX Test Library (InstrumentationRegistry, AndroidJUnit4)
+    - JUnit (for assertions and test execution)
+
+    Issues:
+    - No known issues.
+*/
+
+package com.example.appointmentnow_steward;
+
+import android.app.Instrumentation;
+import android.content.Context;
+import android.os.Debug;
+import android.view.ContextThemeWrapper;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+@RunWith(AndroidJUnit4.class)
+public class EventAdapterBindTest {
+
+    private static final int EVENTS = 10;
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 20_000; // Every row stays on screen
+
+    /**
+     * EventAdapter that counts binds.
+     */
+    private static final class CountingAdapter extends EventAdapter {
+        int binds;
+
+        CountingAdapter(Context context) {
+            super(context);
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull EventViewHolder holder, int position) {
+            binds++;
+            super.onBindViewHolder(holder, position);
+        }
+    }
+
+    private Instrumentation instrumentation;
+    private RecyclerView recyclerView;
+    private CountingAdapter adapter;
+    private List<EventListItem> events;
+
+    @Before
+    public void setUp() throws InterruptedException {
+        instrumentation = InstrumentationRegistry.getInstrumentation();
+        Context context = new ContextThemeWrapper(instrumentation.getTargetContext(), R.style.Theme_AppointmentNowSteward);
+
+        instrumentation.runOnMainSync(() -> {
+            recyclerView = new RecyclerView(context);
+            recyclerView.setLayoutManager(new LinearLayoutManager(context));
+            recyclerView.setItemAnimator(null); // Bind counts without animation timing
+            adapter = new CountingAdapter(context);
+            recyclerView.setAdapter(adapter);
+        });
+
+        events = new ArrayList<>();
+        for (int i = 1; i <= EVENTS; i++) {
+            events.add(new EventListItem(i, "Patient " + i, "Doctor", "2025-01-" + (10 + i), EventStatus.SCHEDULED));
+        }
+        submitAndLayout();
+        assertEquals(EVENTS, adapter.binds);
+        adapter.binds = 0;
+    }
+
+    /**
+     * Submits a snapshot of {@link #events}, waits for the diff to commit, then lays out.
+     */
+    private void submitAndLayout() throws InterruptedException {
+        CountDownLatch committed = new CountDownLatch(1);
+        List<EventListItem> snapshot = new ArrayList<>(events);
+        instrumentation.runOnMainSync(() -> adapter.submitList(snapshot, committed::countDown));
+        assertTrue(committed.await(5, TimeUnit.SECONDS));
+        instrumentation.runOnMainSync(this::layout);
+    }
+
+    private void layout() {
+        recyclerView.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        recyclerView.layout(0, 0, WIDTH, HEIGHT);
+    }
+
+    @Test
+    public void insert_bindsOnlyNewRow() throws InterruptedException {
+        events.add(3, new EventListItem(100, "New", "Doctor", "2025-01-13", EventStatus.SCHEDULED));
+        submitAndLayout();
+        assertEquals(1, adapter.binds);
+    }
+
+    @Test
+    public void edit_bindsOnlyEditedRow() throws InterruptedException {
+        EventListItem old = events.get(4);
+        events.set(4, new EventListItem(old.getId(), old.getPatientName(), old.getDoctorName(),
+                old.getAppointmentDate(), EventStatus.COMPLETED));
+        submitAndLayout();
+        assertEquals(1, adapter.binds);
+    }
+
+    @Test
+    public void delete_bindsNothing() throws InterruptedException {
+        events.remove(2);
+        submitAndLayout();
+        assertEquals(0, adapter.binds);
+    }
+
+    @Test
+    public void equalContent_bindsNothing() throws InterruptedException {
+        List<EventListItem> copies = new ArrayList<>();
+        for (EventListItem e : events) {
+            copies.add(new EventListItem(e.getId(), e.getPatientName(), e.getDoctorName(),
+                    e.getAppointmentDate(), e.getStatus()));
+        }
+        events = copies;
+        submitAndLayout();
+        assertEquals(0, adapter.binds);
+    }
+
+    @Test
+    public void notifyDataSetChanged_rebindsEveryRow() {
+        instrumentation.runOnMainSync(() -> {
+            adapter.notifyDataSetChanged();
+            layout();
+        });
+        assertEquals(EVENTS, adapter.binds);
+    }
+
+    @Test
+    @SuppressWarnings("deprecation") // Allocation counting is deprecated but still reported by ART
+    public void steadyStateBind_allocatesNothing() {
+        int[] allocations = new int[1];
+        instrumentation.runOnMainSync(() -> {
+            List<EventAdapter.EventViewHolder> holders = new ArrayList<>();
+            for (int i = 0; i < EVENTS; i++) {
+                holders.add((EventAdapter.EventViewHolder) recyclerView.findViewHolderForAdapterPosition(i));
+            }
+
+            // Warm-up pass so class loading and JIT do not count
+            for (int i = 0; i < EVENTS; i++) adapter.onBindViewHolder(holders.get(i), i);
+
+            Debug.resetThreadAllocCount();
+            Debug.startAllocCounting();
+            for (int round = 0; round < 100; round++) {
+                for (int i = 0; i < EVENTS; i++) adapter.onBindViewHolder(holders.get(i), i);
+            }
+            Debug.stopAllocCounting();
+            allocations[0] = Debug.getThreadAllocCount();
+        });
+        assertEquals(0, allocations[0]);
+    }
+}
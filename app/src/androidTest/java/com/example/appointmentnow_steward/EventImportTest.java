@@ -0,0 +1,102 @@
+/*
+    Appointment Now - Event Import Instrumented Test
+    Author: Conor Steward
+    Contact: 1conorsteward@gmail.com
+    Date Created: 10/17/26
+    Version: 2.3
+
+    Description:
+    This class imports JSON calendars through EventImportReader and DatabaseHelper.importEvents.
+    The JSON reader wraps android.util.JsonReader, so it only runs on a device.
+
+    Key Features:
+    - A JSON array smaller than the chunk size imports every record without failing at its end.
+    - A JSON array spanning several chunks, ending mid-chunk, imports every record.
+    - Null, nested and unknown JSON values are skipped.
+
+    Dependencies:
+    - AndroidX Test Library (InstrumentationRegistry, AndroidJUnit4)
+    - JUnit (for assertions and test execution)
+
+    Issues:
+    - No known issues.
+*/
+
+package com.example.appointmentnow_steward;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.StringReader;
+
+import static org.junit.Assert.*;
+
+@RunWith(AndroidJUnit4.class)
+public class EventImportTest {
+
+    private DatabaseHelper databaseHelper;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        databaseHelper = new DatabaseHelper(context, null);
+        databaseHelper.getWritableDatabase().execSQL("INSERT INTO users (email, password) VALUES ('a@b.com', 'x')");
+    }
+
+    @After
+    public void tearDown() {
+        databaseHelper.close();
+    }
+
+    private static String jsonArray(int records) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 1; i <= records; i++) {
+            if (i > 1) json.append(',');
+            json.append("{\"patient_name\": \"Patient ").append(i).append("\", \"doctor_name\": \"Dr. Lee\", ")
+                    .append("\"appointment_date\": \"2025-03-01\"}");
+        }
+        return json.append(']').toString();
+    }
+
+    private int importJson(String json, int chunkSize) throws Exception {
+        try (EventImportReader reader = EventImportReader.open(new StringReader(json), EventImportReader.Format.JSON)) {
+            int imported = databaseHelper.importEvents(reader, 1, chunkSize, null);
+            assertFalse(reader.hasNext());
+            assertFalse(reader.hasNext());
+            return imported;
+        }
+    }
+
+    @Test
+    public void json_smallerThanChunkImportsEveryRecord() throws Exception {
+        assertEquals(3, importJson(jsonArray(3), 500));
+        assertEquals(3, databaseHelper.getEventCounts(1).get(EventStatus.SCHEDULED));
+    }
+
+    @Test
+    public void json_endingMidChunkImportsEveryRecord() throws Exception {
+        assertEquals(5, importJson(jsonArray(5), 2));
+        assertEquals(5, databaseHelper.getEventCounts(1).getTotal());
+    }
+
+    @Test
+    public void json_skipsNullNestedAndUnknownValues() throws Exception {
+        String json = "[{\"patient_name\": \"Smith\", \"doctor_name\": \"Dr. Lee\", \"appointment_date\": \"2025-03-01\","
+                + " \"status\": \"completed\", \"notes\": null, \"tags\": [\"a\", {\"b\": 1}], \"extra\": true}]";
+
+        try (EventImportReader reader = EventImportReader.open(new StringReader(json), EventImportReader.Format.JSON)) {
+            Event event = reader.next();
+            assertEquals("Smith", event.getPatientName());
+            assertEquals(EventStatus.COMPLETED, event.getStatus());
+            assertNull(event.getNotes());
+            assertFalse(reader.hasNext());
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+    Appointment Now - PDF Thumbnail Loader Instrumented Test
+    Author: Conor Steward
+    Contact: 1conorsteward@gmail.com
+    Date Created: 10/17/26
+    Version: 2.3
+
+    Description:
+    This class loads thumbnails of PDFs written by VisitPdfWriter through PdfThumbnailLoader
+    and checks where each result comes from: a render, the memory cache or the disk cache.
+
+    Key Features:
+    - The first load renders the first page and reports the page count.
+    - A repeated load is answered from memory, synchronously and with the same bitmap.
+    - After the memory cache is dropped, the thumbnail comes back from disk.
+    - Unreadable documents report null instead of failing; missing ones are remembered in memory.
+    - A document that failed to render is tried again on the next load.
+
+    Dependencies:
+    - AndroidX Test Library (InstrumentationRegistry, AndroidJUnit4)
+    - JUnit (for assertions and test execution)
+
+    Issues:
+    - No known issues.
+*/
+
+package com.example.appointmentnow_steward;
+
+import android.app.Instrumentation;
+import android.content.Context;
+import android.net.Uri;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+@RunWith(AndroidJUnit4.class)
+public class PdfThumbnailLoaderTest {
+
+    private Instrumentation instrumentation;
+    private Context context;
+    private PdfThumbnailLoader loader;
+
+    @Before
+    public void setUp() {
+        instrumentation = InstrumentationRegistry.getInstrumentation();
+        context = instrumentation.getTargetContext();
+        loader = PdfThumbnailLoader.getInstance(context);
+    }
+
+    /**
+     * Loads on the main thread, as the screens do, and waits for the callback.
+     */
+    private PdfThumbnailLoader.Thumbnail load(String uri) throws InterruptedException {
+        AtomicReference<PdfThumbnailLoader.Thumbnail> result = new AtomicReference<>();
+        CountDownLatch loaded = new CountDownLatch(1);
+        instrumentation.runOnMainSync(() -> loader.load(uri, thumbnail -> {
+            result.set(thumbnail);
+            loaded.countDown();
+        }));
+        assertTrue(loaded.await(10, TimeUnit.SECONDS));
+        return result.get();
+    }
+
+    private String writePdf(String name, String notes) throws IOException {
+        File file = new File(context.getCacheDir(), name);
+        VisitPdfWriter.writeVisit(new Event(1, "Patient", "Dr. Smith", "2025-03-07",
+                EventStatus.COMPLETED, notes, "Room 4", null), file);
+        return Uri.fromFile(file).toString();
+    }
+
+    @Test
+    public void load_rendersOnceThenServesFromMemoryAndDisk() throws Exception {
+        StringBuilder notes = new StringBuilder();
+        for (int i = 0; i < 300; i++) notes.append("Long follow-up note number ").append(i).append(". ");
+        String uri = writePdf("thumbnail-test-" + System.nanoTime() + ".pdf", notes.toString());
+
+        PdfThumbnailLoader.Thumbnail rendered = load(uri);
+        assertNotNull(rendered);
+        assertTrue(rendered.getPageCount() > 1);
+        assertTrue(rendered.getBitmap().getHeight() > rendered.getBitmap().getWidth()); // A4 is portrait
+
+        // Memory hit: answered before load() returns
+        AtomicReference<PdfThumbnailLoader.Thumbnail> cached = new AtomicReference<>();
+        instrumentation.runOnMainSync(() -> loader.load(uri, cached::set));
+        assertSame(rendered, cached.get());
+
+        // Disk hit: a new bitmap with the same size and metadata
+        PdfThumbnailLoader.trimMemory();
+        PdfThumbnailLoader.Thumbnail fromDisk = load(uri);
+        assertNotSame(rendered, fromDisk);
+        assertEquals(rendered.getPageCount(), fromDisk.getPageCount());
+        assertEquals(rendered.getBitmap().getWidth(), fromDisk.getBitmap().getWidth());
+        assertEquals(rendered.getBitmap().getHeight(), fromDisk.getBitmap().getHeight());
+    }
+
+    @Test
+    public void load_reportsNullForUnreadableDocument() throws Exception {
+        File missing = new File(context.getCacheDir(), "missing-" + System.nanoTime() + ".pdf");
+        String uri = Uri.fromFile(missing).toString();
+        assertNull(load(uri));
+
+        // Remembered: answered from memory before load() returns
+        CountDownLatch answered = new CountDownLatch(1);
+        instrumentation.runOnMainSync(() -> loader.load(uri, thumbnail -> answered.countDown()));
+        assertEquals(0, answered.getCount());
+    }
+
+    @Test
+    public void load_retriesDocumentThatFailedToRender() throws Exception {
+        File file = new File(context.getCacheDir(), "corrupt-" + System.nanoTime() + ".pdf");
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write("not a pdf".getBytes(StandardCharsets.US_ASCII));
+        }
+        String uri = Uri.fromFile(file).toString();
+        assertNull(load(uri));
+
+        writePdf(file.getName(), "Replaced with a readable document.");
+        assertNotNull(load(uri));
+    }
+}
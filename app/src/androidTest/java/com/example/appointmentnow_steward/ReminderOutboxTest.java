@@ -0,0 +1,311 @@
+/*
+    Appointment Now - Reminder Outbox Instrumented Test
+    Author: Conor Steward
+    Contact: 1conorsteward@gmail.com
+    Date Created: 10/17/26
+    Version: 2.3
+
+    Description:
+    This class checks the reminder outbox in DatabaseHelper and its draining by
+    ReminderDispatcher, using fake transports instead of notifications and SMS. The load test
+    drains thousands of reminders through a flaky fake transport on a real database file and
+    logs the throughput under the "ReminderOutbox" tag.
+
+    Key Features:
+    - Queueing is deduplicated by event, reminder slot (appointment day) and transport.
+    - Reminders of deleted, completed or moved events are cancelled instead of sent.
+    - Reminders left Sending by a dead process are sent again after a reset.
+    - Transient failures are retried once their backoff has passed, and give up after the last attempt.
+    - Thousands of reminders per minute are each delivered exactly once, within the in-flight
+      cap, with matching delivery metrics.
+
+    Dependencies:
+    - AndroidX Test Library (InstrumentationRegistry, AndroidJUnit4)
+    - JUnit (for assertions and test execution)
+
+    Issues:
+    - No known issues.
+*/
+
+package com.example.appointmentnow_steward;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+@RunWith(AndroidJUnit4.class)
+public class ReminderOutboxTest {
+
+    private static final String TAG = "ReminderOutbox";
+    private static final String LOAD_DB = "outbox_load.db";
+    private static final String TRANSPORT = "fake";
+
+    private static final long DAY = AppointmentDates.toEpochDay("2025-01-10");
+    private static final long TODAY = DAY - 1;
+    private static final long START_MILLIS = TimeUnit.DAYS.toMillis(TODAY) + TimeUnit.HOURS.toMillis(9);
+
+    private static final int LOAD_REMINDERS = 5_000;
+    private static final int MAX_IN_FLIGHT = 4;
+
+    private Context context;
+    private DatabaseHelper databaseHelper;
+    private ExecutorService sender;
+    private long wallMillis = START_MILLIS;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        databaseHelper = new DatabaseHelper(context, null);
+        sender = Executors.newFixedThreadPool(MAX_IN_FLIGHT);
+    }
+
+    @After
+    public void tearDown() {
+        sender.shutdownNow();
+        databaseHelper.close();
+        context.deleteDatabase(LOAD_DB);
+    }
+
+    // -------------------- Helpers --------------------
+
+    /**
+     * A transport recording every send, failing transiently for the first {@code failures}
+     * attempts of events whose ID is a multiple of {@code flakyEvery} (0 for never).
+     */
+    private static final class FakeTransport implements ReminderTransport {
+        private final int flakyEvery;
+        private final int failures;
+        final ConcurrentHashMap<Long, AtomicInteger> attempts = new ConcurrentHashMap<>();
+        final ConcurrentHashMap<Long, AtomicInteger> delivered = new ConcurrentHashMap<>();
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+
+        FakeTransport(int flakyEvery, int failures) {
+            this.flakyEvery = flakyEvery;
+            this.failures = failures;
+        }
+
+        @Override
+        public void send(Reminder reminder) throws IOException {
+            int current = inFlight.incrementAndGet();
+            int max;
+            while (current > (max = maxInFlight.get()) && !maxInFlight.compareAndSet(max, current)) {
+                // Another send raised the maximum first; compare again
+            }
+            try {
+                long eventId = reminder.getEventId();
+                int attempt = counter(attempts, eventId).incrementAndGet();
+                if (flakyEvery > 0 && eventId % flakyEvery == 0 && attempt <= failures) {
+                    throw new IOException("No service");
+                }
+                counter(delivered, eventId).incrementAndGet();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+
+        private static AtomicInteger counter(ConcurrentHashMap<Long, AtomicInteger> counters, long eventId) {
+            AtomicInteger counter = counters.get(eventId);
+            if (counter == null) {
+                counters.putIfAbsent(eventId, new AtomicInteger());
+                counter = counters.get(eventId);
+            }
+            return counter;
+        }
+    }
+
+    private ReminderDispatcher dispatcher(ReminderTransport transport) {
+        return new ReminderDispatcher(TRANSPORT, transport, new RateLimiter(100_000, 1, TimeUnit.SECONDS),
+                sender, MAX_IN_FLIGHT, RateLimiter.SYSTEM_CLOCK, () -> wallMillis);
+    }
+
+    private boolean drain(ReminderDispatcher dispatcher) throws InterruptedException {
+        return dispatcher.drain(databaseHelper, TODAY, System.nanoTime() + TimeUnit.MINUTES.toNanos(5));
+    }
+
+    /**
+     * Adds {@code count} Scheduled events on {@link #DAY}, the first half for user 1 and the rest for user 2.
+     */
+    private static void addEvents(DatabaseHelper helper, int count) {
+        helper.getWritableDatabase().execSQL("INSERT INTO users (email, password) VALUES ('a@b.com', 'x')");
+        helper.getWritableDatabase().execSQL("INSERT INTO users (email, password) VALUES ('c@d.com', 'x')");
+        List<Event> events = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            events.add(new Event("Patient " + i, "Doctor " + (i % 20), "2025-01-10",
+                    EventStatus.SCHEDULED, null, null, null));
+        }
+        Iterator<Event> first = events.subList(0, count / 2).iterator();
+        Iterator<Event> second = events.subList(count / 2, count).iterator();
+        helper.importEvents(first, 1, 1_000, null);
+        helper.importEvents(second, 2, 1_000, null);
+    }
+
+    private ReminderMetrics metrics(DatabaseHelper helper) {
+        ReminderMetrics metrics = helper.getReminderMetrics().get(TRANSPORT);
+        return metrics == null ? ReminderMetrics.EMPTY : metrics;
+    }
+
+    // -------------------- Tests --------------------
+
+    @Test
+    public void enqueue_isDeduplicatedByEventSlotAndTransport() {
+        addEvents(databaseHelper, 4);
+        databaseHelper.addEvent("Done", "Doctor", "2025-01-10", EventStatus.COMPLETED, null, null, null, 1);
+        databaseHelper.addEvent("Later", "Doctor", "2025-01-11", EventStatus.SCHEDULED, null, null, null, 1);
+
+        assertEquals(4, databaseHelper.enqueueReminders(DAY, TRANSPORT, START_MILLIS));
+        assertEquals(0, databaseHelper.enqueueReminders(DAY, TRANSPORT, START_MILLIS + 1_000));
+        assertEquals(4, databaseHelper.enqueueReminders(DAY, "other", START_MILLIS));
+
+        // Moving an event to the next day gives it a reminder for its new slot
+        databaseHelper.updateEvent(1, "Patient 1", "Doctor 1", "2025-01-11", EventStatus.SCHEDULED, null, null, null);
+        assertEquals(2, databaseHelper.enqueueReminders(DAY + 1, TRANSPORT, START_MILLIS));
+        assertEquals(6, metrics(databaseHelper).get(OutboxState.PENDING));
+    }
+
+    @Test
+    public void claim_returnsDueRemindersOnceAndCancelsStaleOnes() {
+        addEvents(databaseHelper, 6);
+        databaseHelper.enqueueReminders(DAY, TRANSPORT, START_MILLIS);
+        databaseHelper.deleteEvent(1);
+        databaseHelper.updateEventStatus(2, EventStatus.COMPLETED);
+        databaseHelper.updateEvent(3, "Patient 3", "Doctor 3", "2025-01-12", EventStatus.SCHEDULED, null, null, null);
+
+        assertTrue(databaseHelper.claimDueReminders(TRANSPORT, START_MILLIS - 1, TODAY, 10).isEmpty()); // Not due yet
+        List<OutboxEntry> claimed = databaseHelper.claimDueReminders(TRANSPORT, START_MILLIS, TODAY, 10);
+        assertEquals(3, claimed.size());
+        Reminder reminder = claimed.get(0).getReminder();
+        assertEquals(4, reminder.getEventId());
+        assertEquals("Patient 4", reminder.getPatientName());
+        assertEquals("Doctor 4", reminder.getDoctorName());
+        assertEquals(DAY, reminder.getAppointmentDay());
+        assertEquals(0, claimed.get(0).getAttempts());
+        assertTrue(databaseHelper.claimDueReminders(TRANSPORT, START_MILLIS, TODAY, 10).isEmpty());
+
+        ReminderMetrics metrics = metrics(databaseHelper);
+        assertEquals(3, metrics.get(OutboxState.CANCELLED));
+        assertEquals(3, metrics.get(OutboxState.SENDING));
+
+        // Once the appointment day has passed, the rest are cancelled too
+        databaseHelper.releaseReminders(claimed);
+        assertTrue(databaseHelper.claimDueReminders(TRANSPORT, START_MILLIS, DAY + 1, 10).isEmpty());
+        assertEquals(6, metrics(databaseHelper).get(OutboxState.CANCELLED));
+    }
+
+    @Test
+    public void resetInFlight_resendsRemindersCutOffByProcessDeath() throws Exception {
+        addEvents(databaseHelper, 3);
+        databaseHelper.enqueueReminders(DAY, TRANSPORT, START_MILLIS);
+        assertEquals(3, databaseHelper.claimDueReminders(TRANSPORT, START_MILLIS, TODAY, 10).size());
+        // The process dies here: nothing recorded, every reminder left Sending
+
+        assertEquals(Long.MAX_VALUE, databaseHelper.getNextReminderAttempt(TRANSPORT));
+        assertEquals(3, databaseHelper.resetInFlightReminders(TRANSPORT));
+        assertEquals(START_MILLIS, databaseHelper.getNextReminderAttempt(TRANSPORT));
+
+        FakeTransport transport = new FakeTransport(0, 0);
+        assertTrue(drain(dispatcher(transport)));
+        assertEquals(3, transport.delivered.size());
+        assertEquals(3, metrics(databaseHelper).get(OutboxState.SENT));
+    }
+
+    @Test
+    public void drain_retriesAfterBackoffAndGivesUpAfterLastAttempt() throws Exception {
+        addEvents(databaseHelper, 2);
+        databaseHelper.enqueueReminders(DAY, TRANSPORT, START_MILLIS);
+        FakeTransport transport = new FakeTransport(1, Integer.MAX_VALUE); // Every event always fails
+        ReminderDispatcher dispatcher = dispatcher(transport);
+
+        for (int attempt = 1; attempt < ReminderDispatcher.MAX_ATTEMPTS; attempt++) {
+            assertTrue(drain(dispatcher));
+            long nextAttempt = databaseHelper.getNextReminderAttempt(TRANSPORT);
+            assertEquals(wallMillis + ReminderDispatcher.backoffMillis(attempt), nextAttempt);
+            assertEquals(2L * (attempt - 1), metrics(databaseHelper).getRetries()); // Latest failure not retried yet
+
+            wallMillis = nextAttempt - 1;
+            assertTrue(drain(dispatcher)); // Not due yet: nothing sent
+            wallMillis = nextAttempt;
+        }
+        assertTrue(drain(dispatcher));
+
+        assertEquals(ReminderDispatcher.MAX_ATTEMPTS, transport.attempts.get(1L).get());
+        ReminderMetrics metrics = metrics(databaseHelper);
+        assertEquals(2, metrics.get(OutboxState.FAILED));
+        assertEquals(2L * ReminderDispatcher.MAX_ATTEMPTS, metrics.getAttempts());
+        assertEquals(2L * (ReminderDispatcher.MAX_ATTEMPTS - 1), metrics.getRetries());
+        assertEquals(Long.MAX_VALUE, databaseHelper.getNextReminderAttempt(TRANSPORT));
+    }
+
+    @Test
+    public void drain_releasesRemindersTheRateLimitCannotSendInTime() throws Exception {
+        addEvents(databaseHelper, 10);
+        databaseHelper.enqueueReminders(DAY, TRANSPORT, START_MILLIS);
+        FakeTransport transport = new FakeTransport(0, 0);
+        ReminderDispatcher dispatcher = new ReminderDispatcher(TRANSPORT, transport,
+                new RateLimiter(4, 1, TimeUnit.HOURS), sender, MAX_IN_FLIGHT, RateLimiter.SYSTEM_CLOCK, () -> wallMillis);
+
+        assertFalse(drain(dispatcher));
+        assertEquals(4, transport.delivered.size());
+        ReminderMetrics metrics = metrics(databaseHelper);
+        assertEquals(4, metrics.get(OutboxState.SENT));
+        assertEquals(6, metrics.get(OutboxState.PENDING));
+        assertEquals(4, metrics.getAttempts()); // Released reminders keep their attempt count
+    }
+
+    @Test
+    public void load_deliversThousandsPerMinuteExactlyOnceWithinInFlightCap() throws Exception {
+        context.deleteDatabase(LOAD_DB);
+        databaseHelper.close();
+        databaseHelper = new DatabaseHelper(context, LOAD_DB);
+        addEvents(databaseHelper, LOAD_REMINDERS);
+        FakeTransport transport = new FakeTransport(20, 1); // 5% fail transiently once
+        ReminderDispatcher dispatcher = dispatcher(transport);
+
+        long start = System.nanoTime();
+        assertEquals(LOAD_REMINDERS, databaseHelper.enqueueReminders(DAY, TRANSPORT, wallMillis));
+        assertTrue(drain(dispatcher));
+        wallMillis += ReminderDispatcher.backoffMillis(1);
+        assertTrue(drain(dispatcher));
+        long elapsedNanos = System.nanoTime() - start;
+
+        double perMinute = LOAD_REMINDERS * (double) TimeUnit.MINUTES.toNanos(1) / elapsedNanos;
+        Log.i(TAG, String.format(Locale.US, "Delivered %d reminders (%d retried) in %.0f ms: %.0f per minute, "
+                        + "max %d in flight", LOAD_REMINDERS, LOAD_REMINDERS / 20, elapsedNanos / 1e6, perMinute,
+                transport.maxInFlight.get()));
+
+        assertEquals(LOAD_REMINDERS, transport.delivered.size());
+        for (AtomicInteger deliveries : transport.delivered.values()) assertEquals(1, deliveries.get());
+        assertTrue(transport.maxInFlight.get() <= MAX_IN_FLIGHT);
+        assertTrue("Only " + perMinute + " reminders per minute", perMinute >= 2_000);
+
+        ReminderMetrics metrics = metrics(databaseHelper);
+        assertEquals(LOAD_REMINDERS, metrics.get(OutboxState.SENT));
+        assertEquals(0, metrics.get(OutboxState.PENDING) + metrics.get(OutboxState.SENDING));
+        assertEquals(LOAD_REMINDERS / 20, metrics.getRetries());
+        assertTrue(metrics.getMaxLatencyMillis() >= ReminderDispatcher.backoffMillis(1));
+
+        assertEquals(0, databaseHelper.enqueueReminders(DAY, TRANSPORT, wallMillis));
+        assertEquals(LOAD_REMINDERS, databaseHelper.pruneReminderOutbox(TRANSPORT, wallMillis + 1));
+        assertNull(databaseHelper.getReminderMetrics().get(TRANSPORT));
+    }
+}
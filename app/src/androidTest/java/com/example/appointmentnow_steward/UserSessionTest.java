@@ -0,0 +1,75 @@
+/*
+    Appointment Now - User Session Instrumented Test
+    Author: Conor Steward
+    Contact: 1conorsteward@gmail.com
+    Date Created: 10/17/26
+    Version: 2.3
+
+    Description:
+    This class checks that UserSession serves the logged-in user from memory and keeps the
+    "AppPreferences" file in step, so a restarted process resumes the same session.
+
+    Key Features:
+    - logIn is visible immediately and is persisted for the next process.
+    - logOut invalidates the cached ID and clears the stored session.
+
+    Dependencies:
+    - AndroidX Test Library (InstrumentationRegistry, AndroidJUnit4)
+    - JUnit (for assertions and test execution)
+
+    Issues:
+    - No known issues.
+*/
+
+package com.example.appointmentnow_steward;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+@RunWith(AndroidJUnit4.class)
+public class UserSessionTest {
+
+    private SharedPreferences preferences;
+    private UserSession session;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        preferences = context.getSharedPreferences("AppPreferences", Context.MODE_PRIVATE);
+        session = UserSession.getInstance(context);
+    }
+
+    @After
+    public void tearDown() {
+        session.logOut();
+    }
+
+    @Test
+    public void logIn_isCachedAndPersisted() {
+        session.logIn(42);
+
+        assertEquals(42, session.getUserId());
+        assertTrue(session.isLoggedIn());
+        assertEquals(42, preferences.getLong("user_id", UserSession.NO_USER));
+    }
+
+    @Test
+    public void logOut_invalidatesCacheAndClearsPreferences() {
+        session.logIn(42);
+        session.logOut();
+
+        assertEquals(UserSession.NO_USER, session.getUserId());
+        assertFalse(session.isLoggedIn());
+        assertFalse(preferences.contains("user_id"));
+    }
+}
@@ -0,0 +1,171 @@
+/*
+    Appointment Now - Visit PDF Writer Instrumented Test
+    Author: Conor Steward
+    Contact: 1conorsteward@gmail.com
+    Date Created: 10/17/26
+    Version: 2.3
+
+    Description:
+    This class renders visits with VisitPdfWriter on the device and opens the result with
+    PdfRenderer, checking that text too long for one page is paginated and that each export
+    ends up as a complete, readable file.
+
+    Key Features:
+    - A short visit fits on one page.
+    - Notes longer than a page flow onto further pages.
+    - Many visits stream into one document.
+    - writeVisit leaves no partial file behind and names files per event.
+    - VisitPdfExporter streams cursor rows into a ZIP of per-visit PDFs, and stops on cancel.
+
+    Dependencies:
+    - AndroidX Test Library (InstrumentationRegistry, AndroidJUnit4)
+    - JUnit (for assertions and test execution)
+
+    Issues:
+    - No known issues.
+*/
+
+package com.example.appointmentnow_steward;
+
+import android.content.Context;
+import android.database.MatrixCursor;
+import android.graphics.pdf.PdfRenderer;
+import android.os.CancellationSignal;
+import android.os.OperationCanceledException;
+import android.os.ParcelFileDescriptor;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.Assert.*;
+
+@RunWith(AndroidJUnit4.class)
+public class VisitPdfWriterTest {
+
+    private File directory;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        directory = new File(context.getCacheDir(), "pdf-test");
+        assertTrue(directory.isDirectory() || directory.mkdirs());
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = directory.listFiles();
+        if (files != null) for (File file : files) file.delete();
+        directory.delete();
+    }
+
+    private static Event visit(long id, String notes) {
+        return new Event(id, "Patient " + id, "Dr. Smith", "2025-03-07", EventStatus.COMPLETED,
+                notes, "Room 4", null);
+    }
+
+    private static String longNotes(int sentences) {
+        StringBuilder notes = new StringBuilder();
+        for (int i = 0; i < sentences; i++) {
+            notes.append("Follow-up note ").append(i).append(": patient reports steady progress. ");
+        }
+        return notes.toString();
+    }
+
+    /**
+     * A cursor in DatabaseHelper.EVENT_COLUMNS order, as the PDF export query returns.
+     */
+    private static MatrixCursor completedVisits(int count) {
+        MatrixCursor cursor = new MatrixCursor(new String[]{"event_id", "patient_name", "doctor_id", "doctor_name",
+                "appointment_date", "status", "pdf_uri", "notes", "location"});
+        for (int i = 1; i <= count; i++) {
+            cursor.addRow(new Object[]{i, "Patient " + i, 1, "Dr. Smith", 20_000 + i,
+                    EventStatus.COMPLETED.getCode(), null, "Seen.", "Room 4"});
+        }
+        return cursor;
+    }
+
+    private static int renderedPageCount(File file) throws IOException {
+        try (ParcelFileDescriptor fd = ParcelFileDescriptor.open(file, ParcelFileDescriptor.MODE_READ_ONLY);
+             PdfRenderer renderer = new PdfRenderer(fd)) {
+            return renderer.getPageCount();
+        }
+    }
+
+    @Test
+    public void writeVisit_shortVisitFitsOnePage() throws IOException {
+        Event event = visit(1, "Routine check.");
+        File file = new File(directory, VisitPdfWriter.fileNameFor(event));
+
+        assertEquals(1, VisitPdfWriter.writeVisit(event, file));
+        assertEquals("visit_1_2025-03-07.pdf", file.getName());
+        assertEquals(1, renderedPageCount(file));
+        assertFalse(new File(file.getPath() + ".partial").exists());
+    }
+
+    @Test
+    public void writeVisit_longNotesFlowOntoMorePages() throws IOException {
+        File file = new File(directory, "long.pdf");
+
+        int pages = VisitPdfWriter.writeVisit(visit(2, longNotes(400)), file);
+
+        assertTrue("Expected several pages, got " + pages, pages > 2);
+        assertEquals(pages, renderedPageCount(file));
+    }
+
+    @Test
+    public void addVisit_manyVisitsStreamIntoOneDocument() throws IOException {
+        File file = new File(directory, "batch.pdf");
+
+        int pages;
+        try (VisitPdfWriter writer = new VisitPdfWriter();
+             FileOutputStream out = new FileOutputStream(file)) {
+            for (int i = 0; i < 200; i++) writer.addVisit(visit(i, i % 10 == 0 ? longNotes(40) : "Seen."));
+            writer.writeTo(out);
+            pages = writer.getPageCount();
+        }
+
+        assertTrue("Visits should share pages, got " + pages, pages > 1 && pages < 200);
+        assertEquals(pages, renderedPageCount(file));
+    }
+
+    @Test
+    public void exportZip_writesOnePdfPerVisit() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (MatrixCursor cursor = completedVisits(60)) {
+            assertEquals(60, VisitPdfExporter.exportZip(cursor, out, null, null));
+        }
+
+        int entries = 0;
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                entries++;
+                assertTrue(entry.getName(), entry.getName().startsWith("visit_" + entries + "_"));
+                assertTrue(entry.getName(), entry.getName().endsWith(".pdf"));
+            }
+        }
+        assertEquals(60, entries);
+    }
+
+    @Test(expected = OperationCanceledException.class)
+    public void exportDocument_stopsWhenCancelled() throws IOException {
+        CancellationSignal signal = new CancellationSignal();
+        try (MatrixCursor cursor = completedVisits(100)) {
+            VisitPdfExporter.exportDocument(cursor, new ByteArrayOutputStream(), signal, (done, total) -> {
+                if (done >= VisitPdfExporter.PROGRESS_INTERVAL) signal.cancel();
+            });
+        }
+    }
+}
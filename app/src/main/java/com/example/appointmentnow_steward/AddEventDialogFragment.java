@@ -14,13 +14,17 @@
  *     Features:
  *     - Displays a form for creating or editing events.
  *     - Supports selecting a date using DatePickerDialog.
+ *     - Parses and formats dates with the shared `AppointmentDates` formatter.
  *     - Allows users to upload a PDF document.
- *     - Saves event details to an SQLite database.
+ *     - Saves event details to an SQLite database on the shared database writer thread.
  *     - Notifies the parent activity of changes via an interface callback.
  * 
  *     Dependencies:
  *     - AndroidX Fragments, Dialogs, and Lifecycle Components
  *     - SQLite Database Helper (`DatabaseHelper.java`)
+ *     - Database Executor (`DatabaseExecutor.java`)
+ *     - Logged-in user (`UserSession.java`)
+ *     - Appointment date conversion (`AppointmentDates.java`)
  * 
  *     Issues:
  *     - No known issues.
@@ -32,7 +36,6 @@ import android.app.Activity;
 import android.app.DatePickerDialog;
 import android.content.Context;
 import android.content.Intent;
-import android.content.SharedPreferences;
 import android.net.Uri;
 import android.os.Bundle;
 import android.text.TextUtils;
@@ -41,20 +44,20 @@ import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.Button;
+import android.widget.DatePicker;
 import android.widget.EditText;
 import android.widget.ImageButton;
 import android.widget.Spinner;
+import android.widget.SpinnerAdapter;
 import android.widget.Toast;
 
 import androidx.activity.result.ActivityResultLauncher;
 import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.DialogFragment;
+import androidx.fragment.app.FragmentActivity;
 
-import java.text.SimpleDateFormat;
-import java.util.Calendar;
-import java.util.Locale;
-import java.util.Objects;
+import java.time.LocalDate;
 
 public class AddEventDialogFragment extends DialogFragment {
 
@@ -65,13 +68,13 @@ public class AddEventDialogFragment extends DialogFragment {
     private ImageButton closeButton;
 
     // Supporting Variables
-    private Calendar calendar;
+    private LocalDate selectedDate;  // Date shown when the picker opens
     private Event event;
     private DatabaseHelper databaseHelper;
+    private UserSession session;
     private Uri pdfUri;  // Stores URI of selected PDF file
 
     // Constants
-    private static final String DATE_FORMAT = "yyyy-MM-dd";  // Expected date format
     private static final String EVENT_KEY = "event";  // Key for passing event data between fragments
     private static final String TAG = "AddEventDialogFragment";  // Log tag for debugging
 
@@ -136,8 +139,9 @@ public class AddEventDialogFragment extends DialogFragment {
         closeButton = view.findViewById(R.id.close_button);
         addPdfButton = view.findViewById(R.id.button_add_pdf);
 
-        calendar = Calendar.getInstance();  // Initialize calendar for date picker
-        databaseHelper = new DatabaseHelper(getContext());  // Initialize database helper
+        selectedDate = LocalDate.now();  // Date picker opens on today for new events
+        databaseHelper = DatabaseHelper.getInstance(requireContext());  // Shared database helper
+        session = UserSession.getInstance(requireContext());  // Cached logged-in user
     }
 
     /**
@@ -149,8 +153,8 @@ public class AddEventDialogFragment extends DialogFragment {
         // Open Date Picker when the appointment date field is clicked
         appointmentDate.setOnClickListener(v -> new DatePickerDialog(
                 requireContext(), dateSetListener,
-                calendar.get(Calendar.YEAR), calendar.get(Calendar.MONTH),
-                calendar.get(Calendar.DAY_OF_MONTH)).show()
+                selectedDate.getYear(), selectedDate.getMonthValue() - 1,
+                selectedDate.getDayOfMonth()).show()
         );
 
         saveEventButton.setOnClickListener(v -> handleSaveEvent());  // Save event when save button is clicked
@@ -161,6 +165,7 @@ public class AddEventDialogFragment extends DialogFragment {
                 result -> {
                     if (result.getResultCode() == Activity.RESULT_OK && result.getData() != null) {
                         pdfUri = result.getData().getData();  // Store selected PDF URI
+                        keepReadAccess(pdfUri);
                         Log.d(TAG, "Selected PDF URI: " + pdfUri);
                     }
                 }
@@ -175,6 +180,19 @@ public class AddEventDialogFragment extends DialogFragment {
         });
     }
 
+    /**
+     * Keeps read access to a picked document across restarts, so its thumbnail can still be
+     * rendered later. Providers that do not offer persistable access are left as they are.
+     */
+    private void keepReadAccess(Uri uri) {
+        if (uri == null) return;
+        try {
+            requireContext().getContentResolver().takePersistableUriPermission(uri, Intent.FLAG_GRANT_READ_URI_PERMISSION);
+        } catch (SecurityException e) {
+            Log.w(TAG, "No persistable access to " + uri, e);
+        }
+    }
+
     /**
      * Populates input fields with existing event data when editing.
      */
@@ -182,41 +200,131 @@ public class AddEventDialogFragment extends DialogFragment {
         patientName.setText(event.getPatientName());
         doctorName.setText(event.getDoctorName());
         appointmentDate.setText(event.getAppointmentDate());
-        setSpinnerSelectionByValue(appointmentStatus, event.getStatus());
+        setSpinnerSelectionByValue(appointmentStatus, event.getStatus().getLabel());
         appointmentNotes.setText(event.getNotes());
         appointmentLocation.setText(event.getLocation());
 
-        try {
-            SimpleDateFormat sdf = new SimpleDateFormat(DATE_FORMAT, Locale.US);
-            calendar.setTime(Objects.requireNonNull(sdf.parse(event.getAppointmentDate())));
-        } catch (Exception e) {
-            Log.e(TAG, "Error parsing date: " + e.getMessage(), e);
+        LocalDate date = AppointmentDates.parseOrNull(event.getAppointmentDate());
+        if (date != null) {
+            selectedDate = date;
+        } else {
+            Log.e(TAG, "Error parsing date: " + event.getAppointmentDate());
         }
 
         pdfUri = event.getPdfUri() != null ? Uri.parse(event.getPdfUri()) : null;
     }
 
     /**
-     * Saves the new or updated event to the database.
+     * Saves the new or updated event to the database on the writer thread, then hands the
+     * saved event (with its database ID) to the listener and closes the dialog.
      */
     private void handleSaveEvent() {
         if (!validateInputs()) return;
 
-        long userId = getUserId();
-        if (userId == -1) return;
-
-        boolean success = event == null ? 
-                databaseHelper.addEvent(getInputText(patientName), getInputText(doctorName),
-                        getInputText(appointmentDate), getSelectedSpinnerValue(appointmentStatus),
-                        getInputText(appointmentNotes), getInputText(appointmentLocation),
-                        pdfUri != null ? pdfUri.toString() : null, userId) != -1
-                : databaseHelper.updateEvent(event.getId(), getInputText(patientName), getInputText(doctorName),
-                        getInputText(appointmentDate), getSelectedSpinnerValue(appointmentStatus),
-                        getInputText(appointmentNotes), getInputText(appointmentLocation),
-                        pdfUri != null ? pdfUri.toString() : null);
-
-        showToast(success ? "Event saved successfully!" : "Error saving event.");
-        if (success && onSaveListener != null) onSaveListener.onSave(event);
-        dismiss();
+        long userId = session.getUserId();
+        if (userId == UserSession.NO_USER) {
+            showToast("User ID not found. Please log in again.");
+            return;
+        }
+
+        Event saved = new Event(event == null ? 0 : event.getId(),
+                getInputText(patientName), getInputText(doctorName), getInputText(appointmentDate),
+                getSelectedStatus(), getInputText(appointmentNotes),
+                getInputText(appointmentLocation), pdfUri != null ? pdfUri.toString() : null);
+        boolean isNew = event == null;
+
+        // Bound to the host activity so the list still updates if the dialog is closed mid-write
+        FragmentActivity host = requireActivity();
+        Context appContext = host.getApplicationContext();
+        saveEventButton.setEnabled(false);
+
+        DatabaseExecutor.getInstance().write(host, () -> {
+            if (isNew) {
+                long id = databaseHelper.addEvent(saved.getPatientName(), saved.getDoctorName(),
+                        saved.getAppointmentDate(), saved.getStatus(), saved.getNotes(),
+                        saved.getLocation(), saved.getPdfUri(), userId);
+                saved.setId(id);
+                return id != -1;
+            }
+            return databaseHelper.updateEvent(saved.getId(), saved.getPatientName(), saved.getDoctorName(),
+                    saved.getAppointmentDate(), saved.getStatus(), saved.getNotes(),
+                    saved.getLocation(), saved.getPdfUri());
+        }, success -> {
+            Toast.makeText(appContext, success ? "Event saved successfully!" : "Error saving event.",
+                    Toast.LENGTH_SHORT).show();
+            if (success && onSaveListener != null) onSaveListener.onSave(saved);
+            if (isAdded()) dismiss();
+        });
+    }
+
+    /**
+     * Updates the date field and selected date when a date is picked.
+     */
+    private final DatePickerDialog.OnDateSetListener dateSetListener =
+            (DatePicker view, int year, int month, int dayOfMonth) -> {
+                selectedDate = LocalDate.of(year, month + 1, dayOfMonth);  // Picker months are 0-based
+                appointmentDate.setText(AppointmentDates.format(selectedDate));
+            };
+
+    /**
+     * Checks that the required fields are filled in.
+     */
+    private boolean validateInputs() {
+        if (TextUtils.isEmpty(getInputText(patientName))
+                || TextUtils.isEmpty(getInputText(doctorName))
+                || TextUtils.isEmpty(getInputText(appointmentDate))) {
+            showToast("Please fill in all required fields.");
+            return false;
+        }
+        if (AppointmentDates.parseOrNull(getInputText(appointmentDate)) == null) {
+            showToast("Please pick a valid appointment date.");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the trimmed text of an input field.
+     */
+    private String getInputText(EditText field) {
+        return field.getText().toString().trim();
+    }
+
+    /**
+     * Returns the selected spinner value as a string.
+     */
+    private String getSelectedSpinnerValue(Spinner spinner) {
+        Object selected = spinner.getSelectedItem();
+        return selected != null ? selected.toString() : "";
+    }
+
+    /**
+     * Returns the status chosen in the status spinner, Scheduled if none matches.
+     */
+    private EventStatus getSelectedStatus() {
+        EventStatus status = EventStatus.fromLabel(getSelectedSpinnerValue(appointmentStatus));
+        return status != null ? status : EventStatus.SCHEDULED;
+    }
+
+    /**
+     * Selects the spinner entry matching the given value, if present.
+     */
+    private void setSpinnerSelectionByValue(Spinner spinner, String value) {
+        SpinnerAdapter adapter = spinner.getAdapter();
+        if (adapter == null || value == null) return;
+
+        for (int i = 0; i < adapter.getCount(); i++) {
+            if (value.equals(adapter.getItem(i).toString())) {
+                spinner.setSelection(i);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Displays a Toast message.
+     */
+    private void showToast(String message) {
+        Toast.makeText(requireContext(), message, Toast.LENGTH_SHORT).show();
     }
 }
@@ -0,0 +1,108 @@
+/*
+ *     Appointment Now - Appointment Dates
+ *     Author: Conor Steward
+ *     Contact: 1conorsteward@gmail.com
+ *     Date Created: 10/17/26
+ *     Last Updated: 10/17/26
+ *     Version: 2.3
+ *
+ *     Description:
+ *     This class converts appointment dates between the "yyyy-MM-dd" text the app shows and
+ *     edits and the epoch-day integers stored in the events table. A single immutable
+ *     `java.time` formatter is shared by every thread, replacing the `SimpleDateFormat`
+ *     that used to be created for each parse and format.
+ *
+ *     Features:
+ *     - Strict parsing of "yyyy-MM-dd" (no rolling 2025-02-30 over into March).
+ *     - Epoch-day conversion for the indexed `appointment_date` column.
+ *     - Last-formatted day is cached, so date-ordered cursors mostly reuse one string per day.
+ *
+ *     Dependencies:
+ *     - `java.time` (desugared on API levels below 26)
+ *
+ *     Issues:
+ *     - No known issues.
+ */
+
+package com.example.appointmentnow_steward;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.Locale;
+
+public final class AppointmentDates {
+
+    /**
+     * Appointment date format. DateTimeFormatter is immutable, so one instance is shared.
+     */
+    public static final DateTimeFormatter FORMATTER =
+            DateTimeFormatter.ofPattern("uuuu-MM-dd", Locale.US).withResolverStyle(ResolverStyle.STRICT);
+
+    /**
+     * Immutable (epoch day, text) pair; published through a volatile field.
+     */
+    private static final class FormattedDay {
+        final long epochDay;
+        final String text;
+
+        FormattedDay(long epochDay, String text) {
+            this.epochDay = epochDay;
+            this.text = text;
+        }
+    }
+
+    private static volatile FormattedDay lastFormatted = new FormattedDay(0, format(LocalDate.ofEpochDay(0)));
+
+    private AppointmentDates() {
+    }
+
+    /**
+     * Parses an appointment date.
+     *
+     * @return The date, or null if the text is not a valid "yyyy-MM-dd" date.
+     */
+    public static LocalDate parseOrNull(String text) {
+        if (text == null) return null;
+        try {
+            return LocalDate.parse(text, FORMATTER);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Converts an appointment date to the stored epoch day.
+     *
+     * @throws IllegalArgumentException If the text is not a valid "yyyy-MM-dd" date.
+     */
+    public static long toEpochDay(String text) {
+        LocalDate date = parseOrNull(text);
+        if (date == null) throw new IllegalArgumentException("Invalid appointment date: " + text);
+        return date.toEpochDay();
+    }
+
+    public static String format(LocalDate date) {
+        return FORMATTER.format(date);
+    }
+
+    /**
+     * Formats a stored epoch day as "yyyy-MM-dd".
+     */
+    public static String format(long epochDay) {
+        FormattedDay last = lastFormatted;
+        if (last.epochDay == epochDay) return last.text;
+
+        String text = format(LocalDate.ofEpochDay(epochDay));
+        lastFormatted = new FormattedDay(epochDay, text);
+        return text;
+    }
+
+    /**
+     * Returns today's epoch day in the device time zone.
+     */
+    public static long today() {
+        return LocalDate.now().toEpochDay();
+    }
+}
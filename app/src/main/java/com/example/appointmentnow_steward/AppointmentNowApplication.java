@@ -0,0 +1,71 @@
+/*
+ *     Appointment Now - Application
+ *     Author: Conor Steward
+ *     Contact: 1conorsteward@gmail.com
+ *     Date Created: 10/17/26
+ *     Last Updated: 10/17/26
+ *     Version: 2.3
+ *
+ *     Description:
+ *     This class is the application entry point. It ties the shared `DatabaseHelper` to the
+ *     application lifecycle and opens the database on the writer thread while the login
+ *     screen inflates, so the first query does not pay for the open and schema check.
+ *     It also starts loading the stored login session, so no screen reads preferences
+ *     from disk before its first frame.
+ *
+ *     Features:
+ *     - Creates the process-wide `DatabaseHelper` with the application context.
+ *     - Warms the database connection off the main thread at startup.
+ *     - Records the cold open cost for `StartupMetrics`.
+ *     - Starts the background load of the cached `UserSession`.
+ *     - Releases cached PDF thumbnails when the system runs low on memory.
+ *     - Arms the appointment reminder alarm (`ReminderScheduler`).
+ *
+ *     Dependencies:
+ *     - `DatabaseHelper.java`, `DatabaseExecutor.java`, `StartupMetrics.java`, `UserSession.java`,
+ *       `PdfThumbnailLoader.java`, `ReminderScheduler.java`
+ *
+ *     Issues:
+ *     - No known issues.
+ */
+
+package com.example.appointmentnow_steward;
+
+import android.app.Application;
+import android.util.Log;
+
+public class AppointmentNowApplication extends Application {
+
+    private static final String TAG = "AppointmentNowApp";
+
+    /**
+     * Called when the application process starts, before any activity.
+     */
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        UserSession.getInstance(this);
+
+        DatabaseHelper databaseHelper = DatabaseHelper.getInstance(this);
+        DatabaseExecutor.getInstance().getWriteExecutor().execute(() -> {
+            try {
+                long start = System.nanoTime();
+                databaseHelper.getWritableDatabase();
+                StartupMetrics.onDatabaseOpened(System.nanoTime() - start);
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Error opening database", e);
+            }
+        });
+        ReminderScheduler.getInstance(this).scheduleNextWakeup();
+    }
+
+    /**
+     * Drops in-memory thumbnails once the app is in the background or memory is low;
+     * they are reloaded from the disk cache when needed.
+     */
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        if (level >= TRIM_MEMORY_UI_HIDDEN) PdfThumbnailLoader.trimMemory();
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ *     Appointment Now - Credential Hasher
+ *     Author: Conor Steward
+ *     Contact: 1conorsteward@gmail.com
+ *     Date Created: 10/17/26
+ *     Last Updated: 10/17/26
+ *     Version: 2.3
+ *
+ *     Description:
+ *     This interface turns passwords into the encoded hashes stored in the users table and
+ *     checks passwords against them. `DatabaseHelper` depends only on this interface, so the
+ *     algorithm or its cost can change without touching login or registration.
+ *
+ *     Features:
+ *     - Self-describing encoded hashes (algorithm, parameters, salt and hash in one string).
+ *     - `needsRehash` lets a successful login upgrade a hash made with older parameters.
+ *
+ *     Dependencies:
+ *     - None
+ *
+ *     Issues:
+ *     - Implementations are deliberately slow; never call them on the main thread.
+ */
+
+package com.example.appointmentnow_steward;
+
+public interface CredentialHasher {
+
+    /**
+     * Hashes a password with a fresh random salt.
+     *
+     * @return The encoded hash to store.
+     */
+    String hash(String password);
+
+    /**
+     * Checks a password against a stored encoded hash, in time independent of where they differ.
+     *
+     * @return True if the password matches; false if it does not or the hash is unrecognised.
+     */
+    boolean verify(String password, String storedHash);
+
+    /**
+     * Returns true if the stored hash was made by another algorithm or with other parameters
+     * than {@link #hash} uses now, so it should be replaced after the next successful verify.
+     */
+    boolean needsRehash(String storedHash);
+}
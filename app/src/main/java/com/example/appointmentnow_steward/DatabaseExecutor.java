@@ -0,0 +1,227 @@
+/*
+ *     Appointment Now - Database Executor
+ *     Author: Conor Steward
+ *     Contact: 1conorsteward@gmail.com
+ *     Date Created: 10/17/26
+ *     Last Updated: 10/17/26
+ *     Version: 2.3
+ *
+ *     Description:
+ *     This class is the app-wide execution layer for all `DatabaseHelper` calls.
+ *     Writes run on a single serialized writer thread (SQLite allows one writer at a time),
+ *     reads run on a small pool of reader threads, and results are posted back to the
+ *     main thread only while the calling screen is still alive.
+ *
+ *     Features:
+ *     - Replaces the deprecated `AsyncTask` and keeps database work off the UI thread.
+ *     - Lifecycle-aware delivery: callbacks are dropped once the owner is destroyed,
+ *       so a slow query can never touch (or leak) a finished Activity.
+ *     - Pending reads are cancelled on destroy; writes always run to completion.
+ *     - Periodic WAL checkpoints on the writer thread after writes have happened.
+ *
+ *     Dependencies:
+ *     - AndroidX Lifecycle (`LifecycleOwner`, `LifecycleEventObserver`)
+ *
+ *     Issues:
+ *     - No known issues.
+ */
+
+package com.example.appointmentnow_steward;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public final class DatabaseExecutor {
+
+    private static final String TAG = "DatabaseExecutor";
+
+    // In WAL mode Android keeps one primary (write) connection plus a small pool of read-only
+    // connections (typically 3). Capping readers to that keeps threads from queueing on a connection.
+    private static final int READER_THREADS = Math.max(2, Math.min(3, Runtime.getRuntime().availableProcessors() / 2));
+
+    // How often to checkpoint the WAL if anything was written since the last checkpoint
+    private static final long CHECKPOINT_INTERVAL_SECONDS = 60;
+
+    private static volatile DatabaseExecutor instance;
+
+    /**
+     * A unit of database work. Runs on a background thread.
+     */
+    public interface Task<T> {
+        T call() throws Exception;
+    }
+
+    /**
+     * Receives the result of a {@link Task} on the main thread.
+     */
+    public interface Callback<T> {
+        void onResult(T result);
+
+        default void onError(Exception error) {
+            Log.e(TAG, "Database task failed", error);
+        }
+    }
+
+    private final ExecutorService writeExecutor;
+    private final ScheduledExecutorService readExecutor;
+    private final Executor mainThreadExecutor;
+
+    // WAL checkpointing: set by DatabaseHelper, run only when there were writes
+    private final AtomicBoolean writtenSinceCheckpoint = new AtomicBoolean();
+    private volatile Runnable checkpointTask;
+
+    private DatabaseExecutor() {
+        writeExecutor = Executors.newSingleThreadExecutor(threadFactory("db-writer"));
+        readExecutor = new ScheduledThreadPoolExecutor(READER_THREADS, threadFactory("db-reader"));
+        Handler mainHandler = new Handler(Looper.getMainLooper());
+        mainThreadExecutor = mainHandler::post;
+    }
+
+    /**
+     * Returns the process-wide executor, creating it on first use.
+     */
+    public static DatabaseExecutor getInstance() {
+        if (instance == null) {
+            synchronized (DatabaseExecutor.class) {
+                if (instance == null) instance = new DatabaseExecutor();
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Reader pool, exposed for components that schedule their own reads (e.g. SearchPipeline).
+     */
+    public ScheduledExecutorService getReadExecutor() {
+        return readExecutor;
+    }
+
+    /**
+     * The single writer thread, for fire-and-forget writes with no UI callback.
+     */
+    public Executor getWriteExecutor() {
+        return command -> {
+            writtenSinceCheckpoint.set(true);
+            writeExecutor.execute(command);
+        };
+    }
+
+    /**
+     * Registers the WAL checkpoint to run on the writer thread every
+     * {@value #CHECKPOINT_INTERVAL_SECONDS}s, skipped when nothing was written.
+     */
+    public synchronized void scheduleCheckpoints(Runnable checkpoint) {
+        boolean firstRegistration = checkpointTask == null;
+        checkpointTask = checkpoint;
+        if (firstRegistration) {
+            readExecutor.scheduleWithFixedDelay(this::checkpointIfWritten,
+                    CHECKPOINT_INTERVAL_SECONDS, CHECKPOINT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    private void checkpointIfWritten() {
+        Runnable checkpoint = checkpointTask;
+        if (checkpoint == null || !writtenSinceCheckpoint.getAndSet(false)) return;
+
+        writeExecutor.execute(() -> {
+            try {
+                checkpoint.run();
+            } catch (RuntimeException e) {
+                Log.e(TAG, "WAL checkpoint failed", e);
+            }
+        });
+    }
+
+    /**
+     * Runs a read-only task on the reader pool. Cancelled if the owner is destroyed first.
+     * Must be called from the main thread.
+     */
+    public <T> void read(LifecycleOwner owner, Task<T> task, Callback<T> callback) {
+        submit(readExecutor, owner, task, callback, true);
+    }
+
+    /**
+     * Runs a task that modifies the database on the writer thread. The write always
+     * completes; only the callback is dropped if the owner is destroyed first.
+     * Must be called from the main thread.
+     */
+    public <T> void write(LifecycleOwner owner, Task<T> task, Callback<T> callback) {
+        writtenSinceCheckpoint.set(true);
+        submit(writeExecutor, owner, task, callback, false);
+    }
+
+    private <T> void submit(ExecutorService executor, LifecycleOwner owner, Task<T> task,
+                            Callback<T> callback, boolean cancelOnDestroy) {
+        Lifecycle lifecycle = owner.getLifecycle();
+        if (lifecycle.getCurrentState() == Lifecycle.State.DESTROYED) {
+            if (!cancelOnDestroy) executor.execute(() -> runQuietly(task));
+            return;
+        }
+
+        AtomicReference<Future<?>> future = new AtomicReference<>();
+        LifecycleEventObserver observer = (source, event) -> {
+            if (event == Lifecycle.Event.ON_DESTROY && cancelOnDestroy) {
+                Future<?> running = future.get();
+                if (running != null) running.cancel(true);
+            }
+        };
+        lifecycle.addObserver(observer);
+
+        future.set(executor.submit(() -> {
+            T result = null;
+            Exception error = null;
+            try {
+                result = task.call();
+            } catch (Exception e) {
+                error = e;
+            }
+
+            final T finalResult = result;
+            final Exception finalError = error;
+            mainThreadExecutor.execute(() -> {
+                lifecycle.removeObserver(observer);
+                if (lifecycle.getCurrentState() == Lifecycle.State.DESTROYED) return;
+
+                if (finalError != null) {
+                    callback.onError(finalError);
+                } else {
+                    callback.onResult(finalResult);
+                }
+            });
+        }));
+    }
+
+    private static void runQuietly(Task<?> task) {
+        try {
+            task.call();
+        } catch (Exception e) {
+            Log.e(TAG, "Database task failed", e);
+        }
+    }
+
+    private static ThreadFactory threadFactory(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setPriority(Thread.NORM_PRIORITY - 1); // Stay below the UI thread
+            return thread;
+        };
+    }
+}
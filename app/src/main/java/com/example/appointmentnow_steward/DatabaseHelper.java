@@ -11,10 +11,31 @@
  *     It includes user authentication with password hashing, event storage, and optimized queries.
  *
  *     Features:
- *     - Secure user authentication with SHA-256 password hashing.
+ *     - User authentication with salted PBKDF2 password hashes (`CredentialHasher`),
+ *       upgraded on login when the hashing parameters change.
  *     - CRUD operations for users and events.
  *     - Optimized queries using parameterized statements to prevent SQL injection.
+ *     - Keyset-paged event queries for incremental list loading.
+ *     - Appointment dates stored as indexed epoch days, with date-range, upcoming and
+ *       overdue queries.
+ *     - Narrow list-row projections: list rows carry the PDF URI for thumbnails but never
+ *       read notes or location.
+ *     - Status stored as an integer code and doctors in a lookup table, keeping event rows
+ *       and their indexes narrow.
+ *     - Per-user and per-doctor event counts by status, kept current by triggers.
+ *     - Composite indexes so every exposed query is an index SEARCH, never a table SCAN.
+ *     - Full-text prefix search over patient, doctor, location and notes (FTS4).
+ *     - Write-ahead logging so list reads are not blocked by concurrent writes.
+ *     - Single process-wide instance, so one connection pool and its prepared-statement
+ *       caches are shared by every screen.
+ *     - Precompiled SQLiteStatements for event inserts, updates, status changes and deletes.
+ *     - Chunked-transaction bulk import for migrating whole calendars.
+ *     - Streaming export cursors over a user's whole appointment history, and over the
+ *       completed visits matching a history search (for PDF export).
+ *     - Persistent reminder outbox: queued once per event, day and transport, claimed in
+ *       batches, retried with backoff, and summarised as delivery metrics.
  *     - Foreign key constraints to enforce data integrity.
+ *     - Incremental schema migrations from any earlier version, without data loss.
  * 
  *     Dependencies:
  *     - Android SQLite (`SQLiteOpenHelper`, `SQLiteDatabase`)
@@ -28,40 +49,77 @@ package com.example.appointmentnow_steward;
 import android.content.ContentValues;
 import android.content.Context;
 import android.database.Cursor;
+import android.database.SQLException;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
+import android.os.CancellationSignal;
 import android.util.Log;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
 
 public class DatabaseHelper extends SQLiteOpenHelper {
 
     // Database Configuration
     private static final String DATABASE_NAME = "AppointmentNow.db";
-    private static final int DATABASE_VERSION = 4; // Increment this when modifying schema
+    static final int DATABASE_VERSION = 11; // Increment this and add an upgradeFrom step when modifying schema
     private static final String TAG = "DatabaseHelper"; // For logging
 
+    // Prepared statements cached per connection (Android default 25, max 100). Covers every
+    // distinct SQL string this class runs, so repeat queries skip SQLite's parse/plan step.
+    private static final int SQL_CACHE_SIZE = 50;
+
+    private static volatile DatabaseHelper instance;
+
     // Table Names
     private static final String TABLE_USERS = "users";
+    private static final String TABLE_DOCTORS = "doctors";
     private static final String TABLE_EVENTS = "events";
+    private static final String TABLE_EVENTS_FTS = "events_fts";
+    private static final String TABLE_STATUS_COUNTS = "event_status_counts";
+    private static final String TABLE_DOCTOR_COUNTS = "event_doctor_counts";
+    private static final String TABLE_REMINDER_OUTBOX = "reminder_outbox";
 
     // Users Table Columns
     private static final String COLUMN_USER_ID = "user_id";
     private static final String COLUMN_USER_EMAIL = "email";
     private static final String COLUMN_USER_PASSWORD = "password";
 
+    // Doctors Table Columns
+    private static final String COLUMN_DOCTOR_ID = "doctor_id";
+    private static final String COLUMN_DOCTOR_NAME_VALUE = "name";
+
     // Events Table Columns
     private static final String COLUMN_EVENT_ID = "event_id";
     private static final String COLUMN_PATIENT_NAME = "patient_name";
-    private static final String COLUMN_DOCTOR_NAME = "doctor_name";
+    private static final String COLUMN_DOCTOR_NAME = "doctor_name"; // Column up to version 7, alias since
     private static final String COLUMN_APPOINTMENT_DATE = "appointment_date";
     private static final String COLUMN_STATUS = "status";
     private static final String COLUMN_NOTES = "notes";
     private static final String COLUMN_LOCATION = "location";
     private static final String COLUMN_PDF_URI = "pdf_uri";
 
+    // Event Counts Tables Columns (keys are the events columns of the same name)
+    private static final String COLUMN_EVENT_COUNT = "event_count";
+
+    // Reminder Outbox Table Columns (event_id as in events)
+    private static final String COLUMN_OUTBOX_ID = "outbox_id";
+    private static final String COLUMN_SLOT = "slot";
+    private static final String COLUMN_TRANSPORT = "transport";
+    private static final String COLUMN_STATE = "state";
+    private static final String COLUMN_ATTEMPTS = "attempts";
+    private static final String COLUMN_NEXT_ATTEMPT_AT = "next_attempt_at";
+    private static final String COLUMN_CREATED_AT = "created_at";
+    private static final String COLUMN_SENT_AT = "sent_at";
+    private static final String COLUMN_LAST_ERROR = "last_error";
+
     // SQLite Query: Users Table Creation
     private static final String CREATE_TABLE_USERS =
             "CREATE TABLE " + TABLE_USERS + " ("
@@ -69,26 +127,511 @@ public class DatabaseHelper extends SQLiteOpenHelper {
                     + COLUMN_USER_EMAIL + " TEXT UNIQUE NOT NULL, "
                     + COLUMN_USER_PASSWORD + " TEXT NOT NULL)"; 
 
-    // SQLite Query: Events Table Creation
-    private static final String CREATE_TABLE_EVENTS =
-            "CREATE TABLE " + TABLE_EVENTS + " ("
-                    + COLUMN_EVENT_ID + " INTEGER PRIMARY KEY AUTOINCREMENT, "
-                    + COLUMN_PATIENT_NAME + " TEXT NOT NULL, "
-                    + COLUMN_DOCTOR_NAME + " TEXT NOT NULL, "
-                    + COLUMN_APPOINTMENT_DATE + " TEXT NOT NULL, "
-                    + COLUMN_STATUS + " TEXT NOT NULL, "
-                    + COLUMN_NOTES + " TEXT, "
-                    + COLUMN_LOCATION + " TEXT, "
-                    + COLUMN_PDF_URI + " TEXT, "
-                    + COLUMN_USER_ID + " INTEGER NOT NULL, "
-                    + "FOREIGN KEY(" + COLUMN_USER_ID + ") REFERENCES " + TABLE_USERS + "(" + COLUMN_USER_ID + ") "
-                    + "ON DELETE CASCADE ON UPDATE CASCADE)"; 
+    // SQLite Query: Doctors Lookup Table Creation. Each distinct doctor name is stored once;
+    // events reference it by ID. Rows are never renamed, so an ID always means the same name.
+    private static final String CREATE_TABLE_DOCTORS =
+            "CREATE TABLE " + TABLE_DOCTORS + " ("
+                    + COLUMN_DOCTOR_ID + " INTEGER PRIMARY KEY, "
+                    + COLUMN_DOCTOR_NAME_VALUE + " TEXT UNIQUE NOT NULL)";
+
+    // SQLite Query: Events Table Creation. appointment_date holds the epoch day
+    // (days since 1970-01-01, see AppointmentDates) and status the EventStatus code,
+    // so rows and indexes hold small integers instead of repeated text.
+    private static final String CREATE_TABLE_EVENTS = createTableEvents(TABLE_EVENTS);
+
+    // Scratch name for events table rebuilds (see rebuildEventsTable)
+    private static final String TABLE_EVENTS_REBUILD = "events_rebuild";
+
+    private static String createTableEvents(String tableName) {
+        return "CREATE TABLE " + tableName + " ("
+                + COLUMN_EVENT_ID + " INTEGER PRIMARY KEY AUTOINCREMENT, "
+                + COLUMN_PATIENT_NAME + " TEXT NOT NULL, "
+                + COLUMN_DOCTOR_ID + " INTEGER NOT NULL, "
+                + COLUMN_APPOINTMENT_DATE + " INTEGER NOT NULL, "
+                + COLUMN_STATUS + " INTEGER NOT NULL, "
+                + COLUMN_NOTES + " TEXT, "
+                + COLUMN_LOCATION + " TEXT, "
+                + COLUMN_PDF_URI + " TEXT, "
+                + COLUMN_USER_ID + " INTEGER NOT NULL, "
+                + "FOREIGN KEY(" + COLUMN_USER_ID + ") REFERENCES " + TABLE_USERS + "(" + COLUMN_USER_ID + ") "
+                + "ON DELETE CASCADE ON UPDATE CASCADE, "
+                + "FOREIGN KEY(" + COLUMN_DOCTOR_ID + ") REFERENCES " + TABLE_DOCTORS + "(" + COLUMN_DOCTOR_ID + "))";
+    }
+
+    // -------------------- Legacy Schema (migration steps only) --------------------
+
+    // Events columns of versions 4-7, which stored doctor_name and status as TEXT
+    private static final String LEGACY_EVENT_COLUMNS =
+            COLUMN_EVENT_ID + ", " + COLUMN_PATIENT_NAME + ", " + COLUMN_DOCTOR_NAME + ", " + COLUMN_APPOINTMENT_DATE + ", "
+                    + COLUMN_STATUS + ", " + COLUMN_NOTES + ", " + COLUMN_LOCATION + ", " + COLUMN_PDF_URI + ", " + COLUMN_USER_ID;
+
+    /**
+     * Builds the events table DDL of versions 4-7. The date type is a parameter because
+     * versions 4-6 stored dates as TEXT and version 7 as INTEGER.
+     */
+    private static String createLegacyTableEvents(String tableName, String dateType) {
+        return "CREATE TABLE " + tableName + " ("
+                + COLUMN_EVENT_ID + " INTEGER PRIMARY KEY AUTOINCREMENT, "
+                + COLUMN_PATIENT_NAME + " TEXT NOT NULL, "
+                + COLUMN_DOCTOR_NAME + " TEXT NOT NULL, "
+                + COLUMN_APPOINTMENT_DATE + " " + dateType + " NOT NULL, "
+                + COLUMN_STATUS + " TEXT NOT NULL, "
+                + COLUMN_NOTES + " TEXT, "
+                + COLUMN_LOCATION + " TEXT, "
+                + COLUMN_PDF_URI + " TEXT, "
+                + COLUMN_USER_ID + " INTEGER NOT NULL, "
+                + "FOREIGN KEY(" + COLUMN_USER_ID + ") REFERENCES " + TABLE_USERS + "(" + COLUMN_USER_ID + ") "
+                + "ON DELETE CASCADE ON UPDATE CASCADE)";
+    }
+
+    // Version 7 migration: "yyyy-MM-dd" text to epoch days (julianday of 1970-01-01 is
+    // 2440587.5). Unparseable legacy dates become 1970-01-01 rather than failing the upgrade.
+    private static final String EPOCH_DAY_FROM_TEXT_DATE =
+            "COALESCE(CAST(julianday(" + COLUMN_APPOINTMENT_DATE + ") - 2440587.5 AS INTEGER), 0)";
+
+    // Versions 6-7 search index: external-content FTS4 over the events table's own text columns
+    private static final String CREATE_TABLE_EVENTS_FTS_V6 =
+            "CREATE VIRTUAL TABLE IF NOT EXISTS " + TABLE_EVENTS_FTS + " USING fts4("
+                    + COLUMN_PATIENT_NAME + ", " + COLUMN_DOCTOR_NAME + ", " + COLUMN_LOCATION + ", " + COLUMN_NOTES
+                    + ", content=\"" + TABLE_EVENTS + "\", prefix=\"2,3\")";
+
+    private static final String[] CREATE_TRIGGERS_EVENTS_FTS_V6 = {
+            "CREATE TRIGGER IF NOT EXISTS events_fts_bu BEFORE UPDATE ON " + TABLE_EVENTS + " BEGIN "
+                    + "DELETE FROM " + TABLE_EVENTS_FTS + " WHERE docid = old." + COLUMN_EVENT_ID + "; END",
+            "CREATE TRIGGER IF NOT EXISTS events_fts_bd BEFORE DELETE ON " + TABLE_EVENTS + " BEGIN "
+                    + "DELETE FROM " + TABLE_EVENTS_FTS + " WHERE docid = old." + COLUMN_EVENT_ID + "; END",
+            "CREATE TRIGGER IF NOT EXISTS events_fts_au AFTER UPDATE ON " + TABLE_EVENTS + " BEGIN "
+                    + "INSERT INTO " + TABLE_EVENTS_FTS + "(docid, " + COLUMN_PATIENT_NAME + ", " + COLUMN_DOCTOR_NAME
+                    + ", " + COLUMN_LOCATION + ", " + COLUMN_NOTES + ") VALUES (new." + COLUMN_EVENT_ID + ", new."
+                    + COLUMN_PATIENT_NAME + ", new." + COLUMN_DOCTOR_NAME + ", new." + COLUMN_LOCATION + ", new."
+                    + COLUMN_NOTES + "); END",
+            "CREATE TRIGGER IF NOT EXISTS events_fts_ai AFTER INSERT ON " + TABLE_EVENTS + " BEGIN "
+                    + "INSERT INTO " + TABLE_EVENTS_FTS + "(docid, " + COLUMN_PATIENT_NAME + ", " + COLUMN_DOCTOR_NAME
+                    + ", " + COLUMN_LOCATION + ", " + COLUMN_NOTES + ") VALUES (new." + COLUMN_EVENT_ID + ", new."
+                    + COLUMN_PATIENT_NAME + ", new." + COLUMN_DOCTOR_NAME + ", new." + COLUMN_LOCATION + ", new."
+                    + COLUMN_NOTES + "); END"
+    };
+
+    // -------------------- Indexes and Search --------------------
+
+    // SQLite Indexes: History filter (user + status, date-ordered) and per-user date-ordered listing.
+    // event_id is the rowid, so both indexes also satisfy the (appointment_date, event_id) ordering.
+    private static final String CREATE_INDEX_EVENTS_USER_STATUS_DATE =
+            "CREATE INDEX IF NOT EXISTS idx_events_user_status_date ON " + TABLE_EVENTS
+                    + " (" + COLUMN_USER_ID + ", " + COLUMN_STATUS + ", " + COLUMN_APPOINTMENT_DATE + ")";
+
+    private static final String CREATE_INDEX_EVENTS_USER_DATE =
+            "CREATE INDEX IF NOT EXISTS idx_events_user_date ON " + TABLE_EVENTS
+                    + " (" + COLUMN_USER_ID + ", " + COLUMN_APPOINTMENT_DATE + ")";
+
+    // Reminders: one day's Scheduled events across all users, read when queueing the day's
+    // reminders in the outbox.
+    private static final String CREATE_INDEX_EVENTS_STATUS_DATE =
+            "CREATE INDEX IF NOT EXISTS idx_events_status_date ON " + TABLE_EVENTS
+                    + " (" + COLUMN_STATUS + ", " + COLUMN_APPOINTMENT_DATE + ")";
+
+    // SQLite Full-Text Index: FTS4 table of the searchable event text. FTS5 is not compiled into
+    // the platform SQLite, FTS4 is. The doctor name lives in the doctors table, which an
+    // external-content table cannot read, so the index keeps its own copy of the text.
+    // Columns are ordered by search priority (see QUERY_EVENTS_BY_STATUS_SEARCH);
+    // prefix="2,3" indexes short prefixes so "sm*" style queries do not expand over the whole term list.
+    private static final String FTS_COLUMNS =
+            COLUMN_PATIENT_NAME + ", " + COLUMN_DOCTOR_NAME + ", " + COLUMN_LOCATION + ", " + COLUMN_NOTES;
+
+    private static final String CREATE_TABLE_EVENTS_FTS =
+            "CREATE VIRTUAL TABLE IF NOT EXISTS " + TABLE_EVENTS_FTS + " USING fts4("
+                    + FTS_COLUMNS + ", prefix=\"2,3\")";
+
+    private static final String DOCTOR_NAME_OF_NEW_ROW =
+            "(SELECT " + COLUMN_DOCTOR_NAME_VALUE + " FROM " + TABLE_DOCTORS
+                    + " WHERE " + COLUMN_DOCTOR_ID + " = new." + COLUMN_DOCTOR_ID + ")";
+
+    // Triggers keeping the FTS index in sync with events. Updates only re-index when searchable
+    // text changes, so status changes never touch the index.
+    private static final String[] CREATE_TRIGGERS_EVENTS_FTS = {
+            "CREATE TRIGGER IF NOT EXISTS events_fts_ad AFTER DELETE ON " + TABLE_EVENTS + " BEGIN "
+                    + "DELETE FROM " + TABLE_EVENTS_FTS + " WHERE docid = old." + COLUMN_EVENT_ID + "; END",
+            "CREATE TRIGGER IF NOT EXISTS events_fts_au AFTER UPDATE OF " + COLUMN_PATIENT_NAME + ", " + COLUMN_DOCTOR_ID
+                    + ", " + COLUMN_LOCATION + ", " + COLUMN_NOTES + " ON " + TABLE_EVENTS + " BEGIN "
+                    + "UPDATE " + TABLE_EVENTS_FTS + " SET " + COLUMN_PATIENT_NAME + " = new." + COLUMN_PATIENT_NAME
+                    + ", " + COLUMN_DOCTOR_NAME + " = " + DOCTOR_NAME_OF_NEW_ROW
+                    + ", " + COLUMN_LOCATION + " = new." + COLUMN_LOCATION + ", " + COLUMN_NOTES + " = new." + COLUMN_NOTES
+                    + " WHERE docid = new." + COLUMN_EVENT_ID + "; END",
+            "CREATE TRIGGER IF NOT EXISTS events_fts_ai AFTER INSERT ON " + TABLE_EVENTS + " BEGIN "
+                    + "INSERT INTO " + TABLE_EVENTS_FTS + "(docid, " + FTS_COLUMNS + ") VALUES (new."
+                    + COLUMN_EVENT_ID + ", new." + COLUMN_PATIENT_NAME + ", " + DOCTOR_NAME_OF_NEW_ROW
+                    + ", new." + COLUMN_LOCATION + ", new." + COLUMN_NOTES + "); END"
+    };
+
+    // -------------------- Event Counts --------------------
+
+    // Summary tables: events per (user, status) and per (user, doctor, status). Triggers keep
+    // them current on every insert, update and delete of events, so dashboard numbers are a
+    // primary-key read instead of a COUNT(*) over the user's events.
+    private static final String[] STATUS_COUNT_KEYS = {COLUMN_USER_ID, COLUMN_STATUS};
+    private static final String[] DOCTOR_COUNT_KEYS = {COLUMN_USER_ID, COLUMN_DOCTOR_ID, COLUMN_STATUS};
+
+    private static final String CREATE_TABLE_STATUS_COUNTS = createCountsTable(TABLE_STATUS_COUNTS, STATUS_COUNT_KEYS);
+    private static final String CREATE_TABLE_DOCTOR_COUNTS = createCountsTable(TABLE_DOCTOR_COUNTS, DOCTOR_COUNT_KEYS);
+
+    private static final String[] CREATE_TRIGGERS_EVENT_COUNTS = {
+            "CREATE TRIGGER IF NOT EXISTS event_counts_ai AFTER INSERT ON " + TABLE_EVENTS + " BEGIN "
+                    + adjustCounts("new", 1) + "END",
+            "CREATE TRIGGER IF NOT EXISTS event_counts_ad AFTER DELETE ON " + TABLE_EVENTS + " BEGIN "
+                    + adjustCounts("old", -1) + "END",
+            "CREATE TRIGGER IF NOT EXISTS event_counts_au AFTER UPDATE OF " + COLUMN_USER_ID + ", " + COLUMN_DOCTOR_ID
+                    + ", " + COLUMN_STATUS + " ON " + TABLE_EVENTS + " BEGIN "
+                    + adjustCounts("old", -1) + adjustCounts("new", 1) + "END"
+    };
+
+    private static String createCountsTable(String table, String[] keys) {
+        StringBuilder sql = new StringBuilder("CREATE TABLE IF NOT EXISTS ").append(table).append(" (");
+        for (String key : keys) {
+            sql.append(key).append(" INTEGER NOT NULL, ");
+        }
+        sql.append(COLUMN_EVENT_COUNT).append(" INTEGER NOT NULL, PRIMARY KEY (");
+        appendList(sql, keys, "");
+        return sql.append(")) WITHOUT ROWID").toString();
+    }
+
+    /**
+     * Trigger body statements adding {@code delta} to both summary rows of the {@code row}
+     * ("new" or "old") event.
+     */
+    private static String adjustCounts(String row, int delta) {
+        return adjustCount(TABLE_STATUS_COUNTS, STATUS_COUNT_KEYS, row, delta)
+                + adjustCount(TABLE_DOCTOR_COUNTS, DOCTOR_COUNT_KEYS, row, delta);
+    }
+
+    /**
+     * Adds {@code delta} to one summary row, creating it at zero first when counting up.
+     * Written as INSERT OR IGNORE plus UPDATE because minSdk 23's SQLite has no UPSERT.
+     */
+    private static String adjustCount(String table, String[] keys, String row, int delta) {
+        StringBuilder sql = new StringBuilder();
+        if (delta > 0) {
+            sql.append("INSERT OR IGNORE INTO ").append(table).append(" (");
+            appendList(sql, keys, "");
+            sql.append(", ").append(COLUMN_EVENT_COUNT).append(") VALUES (");
+            appendList(sql, keys, row + ".");
+            sql.append(", 0); ");
+        }
+        sql.append("UPDATE ").append(table).append(" SET ").append(COLUMN_EVENT_COUNT).append(" = ")
+                .append(COLUMN_EVENT_COUNT).append(delta > 0 ? " + " : " - ").append(Math.abs(delta))
+                .append(" WHERE ");
+        for (int i = 0; i < keys.length; i++) {
+            if (i > 0) sql.append(" AND ");
+            sql.append(keys[i]).append(" = ").append(row).append('.').append(keys[i]);
+        }
+        return sql.append("; ").toString();
+    }
+
+    private static void appendList(StringBuilder sql, String[] columns, String prefix) {
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) sql.append(", ");
+            sql.append(prefix).append(columns[i]);
+        }
+    }
+
+    // -------------------- Reminder Outbox --------------------
+
+    // One row per reminder per transport. slot is the appointment day the reminder is for, so
+    // the unique key makes queueing idempotent, while an event moved to another day gets a new
+    // reminder. Times are epoch milliseconds; next_attempt_at is when a Pending row is due, and
+    // when a finished row finished. No foreign key: rows of deleted events are cancelled on claim.
+    private static final String CREATE_TABLE_REMINDER_OUTBOX =
+            "CREATE TABLE IF NOT EXISTS " + TABLE_REMINDER_OUTBOX + " ("
+                    + COLUMN_OUTBOX_ID + " INTEGER PRIMARY KEY, "
+                    + COLUMN_EVENT_ID + " INTEGER NOT NULL, "
+                    + COLUMN_SLOT + " INTEGER NOT NULL, "
+                    + COLUMN_TRANSPORT + " TEXT NOT NULL, "
+                    + COLUMN_STATE + " INTEGER NOT NULL, "
+                    + COLUMN_ATTEMPTS + " INTEGER NOT NULL DEFAULT 0, "
+                    + COLUMN_NEXT_ATTEMPT_AT + " INTEGER NOT NULL, "
+                    + COLUMN_CREATED_AT + " INTEGER NOT NULL, "
+                    + COLUMN_SENT_AT + " INTEGER, "
+                    + COLUMN_LAST_ERROR + " TEXT, "
+                    + "UNIQUE (" + COLUMN_EVENT_ID + ", " + COLUMN_SLOT + ", " + COLUMN_TRANSPORT + "))";
+
+    // Each transport drains its own due rows in attempt order, so every outbox read and write
+    // is a range of this index.
+    private static final String CREATE_INDEX_OUTBOX_TRANSPORT_STATE_NEXT =
+            "CREATE INDEX IF NOT EXISTS idx_outbox_transport_state_next ON " + TABLE_REMINDER_OUTBOX
+                    + " (" + COLUMN_TRANSPORT + ", " + COLUMN_STATE + ", " + COLUMN_NEXT_ATTEMPT_AT + ")";
+
+    // -------------------- Write SQL --------------------
+
+    private static final String SQL_INSERT_EVENT =
+            "INSERT INTO " + TABLE_EVENTS + " (" + COLUMN_PATIENT_NAME + ", " + COLUMN_DOCTOR_ID + ", "
+                    + COLUMN_APPOINTMENT_DATE + ", " + COLUMN_STATUS + ", " + COLUMN_NOTES + ", "
+                    + COLUMN_LOCATION + ", " + COLUMN_PDF_URI + ", " + COLUMN_USER_ID + ")"
+                    + " VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SQL_UPDATE_EVENT =
+            "UPDATE " + TABLE_EVENTS + " SET " + COLUMN_PATIENT_NAME + " = ?, " + COLUMN_DOCTOR_ID + " = ?, "
+                    + COLUMN_APPOINTMENT_DATE + " = ?, " + COLUMN_STATUS + " = ?, " + COLUMN_NOTES + " = ?, "
+                    + COLUMN_LOCATION + " = ?, " + COLUMN_PDF_URI + " = ?"
+                    + " WHERE " + COLUMN_EVENT_ID + " = ?";
+
+    private static final String SQL_UPDATE_EVENT_STATUS =
+            "UPDATE " + TABLE_EVENTS + " SET " + COLUMN_STATUS + " = ? WHERE " + COLUMN_EVENT_ID + " = ?";
+
+    private static final String SQL_DELETE_EVENT =
+            "DELETE FROM " + TABLE_EVENTS + " WHERE " + COLUMN_EVENT_ID + " = ?";
+
+    private static final String SQL_INSERT_DOCTOR =
+            "INSERT OR IGNORE INTO " + TABLE_DOCTORS + " (" + COLUMN_DOCTOR_NAME_VALUE + ") VALUES (?)";
+
+    private static final String SQL_SELECT_DOCTOR_ID =
+            "SELECT " + COLUMN_DOCTOR_ID + " FROM " + TABLE_DOCTORS + " WHERE " + COLUMN_DOCTOR_NAME_VALUE + " = ?";
+
+    // Queues one day's Scheduled events; rows already queued for the same slot are ignored
+    static final String SQL_ENQUEUE_REMINDERS =
+            "INSERT OR IGNORE INTO " + TABLE_REMINDER_OUTBOX + " (" + COLUMN_EVENT_ID + ", " + COLUMN_SLOT + ", "
+                    + COLUMN_TRANSPORT + ", " + COLUMN_STATE + ", " + COLUMN_NEXT_ATTEMPT_AT + ", " + COLUMN_CREATED_AT + ")"
+                    + " SELECT " + COLUMN_EVENT_ID + ", " + COLUMN_APPOINTMENT_DATE + ", ?, "
+                    + OutboxState.PENDING.getCode() + ", ?, ?"
+                    + " FROM " + TABLE_EVENTS + " WHERE " + COLUMN_STATUS + " = ? AND " + COLUMN_APPOINTMENT_DATE + " = ?";
+
+    private static final String SQL_SET_REMINDER_STATE =
+            "UPDATE " + TABLE_REMINDER_OUTBOX + " SET " + COLUMN_STATE + " = ? WHERE " + COLUMN_OUTBOX_ID + " = ?";
+
+    // Records the outcome of one attempt on a claimed row. A row reset by resetInFlightReminders
+    // meanwhile is left alone, so a late outcome never overwrites a newer claim.
+    private static final String SQL_RECORD_REMINDER_ATTEMPT =
+            "UPDATE " + TABLE_REMINDER_OUTBOX + " SET " + COLUMN_STATE + " = ?, "
+                    + COLUMN_ATTEMPTS + " = " + COLUMN_ATTEMPTS + " + 1, " + COLUMN_NEXT_ATTEMPT_AT + " = ?, "
+                    + COLUMN_SENT_AT + " = ?, " + COLUMN_LAST_ERROR + " = ?"
+                    + " WHERE " + COLUMN_OUTBOX_ID + " = ? AND " + COLUMN_STATE + " = " + OutboxState.SENDING.getCode();
+
+    static final String SQL_RESET_IN_FLIGHT_REMINDERS =
+            "UPDATE " + TABLE_REMINDER_OUTBOX + " SET " + COLUMN_STATE + " = " + OutboxState.PENDING.getCode()
+                    + " WHERE " + COLUMN_TRANSPORT + " = ? AND " + COLUMN_STATE + " = " + OutboxState.SENDING.getCode();
+
+    static final String SQL_PRUNE_REMINDER_OUTBOX =
+            "DELETE FROM " + TABLE_REMINDER_OUTBOX + " WHERE " + COLUMN_TRANSPORT + " = ? AND " + COLUMN_STATE + " = ?"
+                    + " AND " + COLUMN_NEXT_ATTEMPT_AT + " < ?";
+
+    // -------------------- Query SQL --------------------
+    // Kept as constants so the query-plan tests explain exactly what the methods below run.
+    // Keyset bounds are written as "date >= ? AND (date > ? OR id > ?)" rather than row values,
+    // which minSdk 23's SQLite does not support, so the date range can still seek the index.
+
+    // Events joined to their doctor's name. CROSS JOIN makes SQLite keep events as the outer
+    // loop, so the events indexes drive every query and doctors is a primary-key lookup per row.
+    static final String FROM_EVENTS = " FROM " + TABLE_EVENTS + " CROSS JOIN " + TABLE_DOCTORS
+            + " ON " + TABLE_DOCTORS + "." + COLUMN_DOCTOR_ID + " = " + TABLE_EVENTS + "." + COLUMN_DOCTOR_ID;
+
+    // Narrow projection for list screens (EventListItem): what a row shows (including the
+    // attachment for its thumbnail) plus its paging key. Leaves notes and location out of the
+    // CursorWindow; see EventRowMapper.ListItemMapper.
+    static final String LIST_COLUMNS =
+            TABLE_EVENTS + "." + COLUMN_EVENT_ID + ", " + TABLE_EVENTS + "." + COLUMN_PATIENT_NAME + ", "
+                    + TABLE_EVENTS + "." + COLUMN_DOCTOR_ID + ", "
+                    + TABLE_DOCTORS + "." + COLUMN_DOCTOR_NAME_VALUE + " AS " + COLUMN_DOCTOR_NAME + ", "
+                    + TABLE_EVENTS + "." + COLUMN_APPOINTMENT_DATE + ", " + TABLE_EVENTS + "." + COLUMN_STATUS + ", "
+                    + TABLE_EVENTS + "." + COLUMN_PDF_URI;
+
+    // Explicit event projection, in the column order EventRowMapper.EVENT_COLUMNS reads by index.
+    // LIST_COLUMNS is a prefix of it.
+    static final String EVENT_COLUMNS = LIST_COLUMNS + ", " + TABLE_EVENTS + "." + COLUMN_NOTES + ", "
+            + TABLE_EVENTS + "." + COLUMN_LOCATION;
+
+    // The stored hash is fetched and verified in Java: salted hashes cannot be compared in SQL
+    static final String QUERY_VALIDATE_USER =
+            "SELECT " + COLUMN_USER_ID + ", " + COLUMN_USER_PASSWORD + " FROM " + TABLE_USERS +
+                    " WHERE " + COLUMN_USER_EMAIL + " = ?";
+
+    static final String QUERY_EMAIL_TAKEN =
+            "SELECT 1 FROM " + TABLE_USERS + " WHERE " + COLUMN_USER_EMAIL + " = ? LIMIT 1";
+
+    static final String QUERY_EVENT_BY_ID =
+            "SELECT " + EVENT_COLUMNS + FROM_EVENTS + " WHERE " + COLUMN_EVENT_ID + " = ?";
+
+    static final String QUERY_EVENTS_BY_STATUS =
+            "SELECT " + LIST_COLUMNS + FROM_EVENTS +
+                    " WHERE " + COLUMN_USER_ID + " = ?" +
+                    " AND " + COLUMN_STATUS + " = ?" +
+                    " ORDER BY " + COLUMN_APPOINTMENT_DATE + " DESC";
+
+    // Ranked by the highest-priority column that matched (offsets() lists matches column by
+    // column, so its first integer is that column), then by most recent appointment.
+    static final String QUERY_EVENTS_BY_STATUS_SEARCH =
+            "SELECT " + LIST_COLUMNS + " FROM " + TABLE_EVENTS_FTS +
+                    " JOIN " + TABLE_EVENTS + " ON " + TABLE_EVENTS + "." + COLUMN_EVENT_ID + " = " + TABLE_EVENTS_FTS + ".docid" +
+                    " JOIN " + TABLE_DOCTORS + " ON " + TABLE_DOCTORS + "." + COLUMN_DOCTOR_ID + " = " + TABLE_EVENTS + "." + COLUMN_DOCTOR_ID +
+                    " WHERE " + TABLE_EVENTS_FTS + " MATCH ?" +
+                    " AND " + TABLE_EVENTS + "." + COLUMN_USER_ID + " = ?" +
+                    " AND " + TABLE_EVENTS + "." + COLUMN_STATUS + " = ?" +
+                    " ORDER BY CAST(substr(offsets(" + TABLE_EVENTS_FTS + "), 1, instr(offsets(" + TABLE_EVENTS_FTS + "), ' ') - 1) AS INTEGER) ASC, " +
+                    TABLE_EVENTS + "." + COLUMN_APPOINTMENT_DATE + " DESC";
+
+    static final String QUERY_EVENTS_FIRST_PAGE =
+            "SELECT " + LIST_COLUMNS + FROM_EVENTS +
+                    " WHERE " + COLUMN_USER_ID + " = ?" +
+                    " ORDER BY " + COLUMN_APPOINTMENT_DATE + " ASC, " + COLUMN_EVENT_ID + " ASC" +
+                    " LIMIT ?";
+
+    static final String QUERY_EVENTS_PAGE_AFTER =
+            "SELECT " + LIST_COLUMNS + FROM_EVENTS +
+                    " WHERE " + COLUMN_USER_ID + " = ?" +
+                    " AND " + COLUMN_APPOINTMENT_DATE + " >= ?" +
+                    " AND (" + COLUMN_APPOINTMENT_DATE + " > ? OR " + COLUMN_EVENT_ID + " > ?)" +
+                    " ORDER BY " + COLUMN_APPOINTMENT_DATE + " ASC, " + COLUMN_EVENT_ID + " ASC" +
+                    " LIMIT ?";
+
+    static final String QUERY_EVENTS_PAGE_BEFORE =
+            "SELECT " + LIST_COLUMNS + FROM_EVENTS +
+                    " WHERE " + COLUMN_USER_ID + " = ?" +
+                    " AND " + COLUMN_APPOINTMENT_DATE + " <= ?" +
+                    " AND (" + COLUMN_APPOINTMENT_DATE + " < ? OR " + COLUMN_EVENT_ID + " < ?)" +
+                    " ORDER BY " + COLUMN_APPOINTMENT_DATE + " DESC, " + COLUMN_EVENT_ID + " DESC" +
+                    " LIMIT ?";
+
+    // Date range: a user's events from one day to another, inclusive, in date order
+    static final String QUERY_EVENTS_BETWEEN =
+            "SELECT " + LIST_COLUMNS + FROM_EVENTS +
+                    " WHERE " + COLUMN_USER_ID + " = ?" +
+                    " AND " + COLUMN_APPOINTMENT_DATE + " BETWEEN ? AND ?" +
+                    " ORDER BY " + COLUMN_APPOINTMENT_DATE + " ASC, " + COLUMN_EVENT_ID + " ASC";
+
+    // Upcoming: the next N events on or after a day
+    static final String QUERY_EVENTS_UPCOMING =
+            "SELECT " + LIST_COLUMNS + FROM_EVENTS +
+                    " WHERE " + COLUMN_USER_ID + " = ?" +
+                    " AND " + COLUMN_APPOINTMENT_DATE + " >= ?" +
+                    " ORDER BY " + COLUMN_APPOINTMENT_DATE + " ASC, " + COLUMN_EVENT_ID + " ASC" +
+                    " LIMIT ?";
+
+    // Overdue: events still in a status (Scheduled) whose day has passed, oldest first
+    static final String QUERY_EVENTS_OVERDUE =
+            "SELECT " + LIST_COLUMNS + FROM_EVENTS +
+                    " WHERE " + COLUMN_USER_ID + " = ?" +
+                    " AND " + COLUMN_STATUS + " = ?" +
+                    " AND " + COLUMN_APPOINTMENT_DATE + " < ?" +
+                    " ORDER BY " + COLUMN_APPOINTMENT_DATE + " ASC";
+
+    // Bulk export: every event of a user in date order. The column names double as the
+    // CSV header / JSON keys, matching what EventImportReader reads back in, so the epoch
+    // day is exported as "yyyy-MM-dd" and the status as its label. ORDER BY names the table
+    // column, not the alias, so the date index still provides the order.
+    static final String QUERY_EVENTS_FOR_EXPORT =
+            "SELECT " + TABLE_EVENTS + "." + COLUMN_EVENT_ID + ", " + COLUMN_PATIENT_NAME + ", "
+                    + TABLE_DOCTORS + "." + COLUMN_DOCTOR_NAME_VALUE + " AS " + COLUMN_DOCTOR_NAME + ", "
+                    + "date(" + TABLE_EVENTS + "." + COLUMN_APPOINTMENT_DATE + " * 86400, 'unixepoch') AS " + COLUMN_APPOINTMENT_DATE + ", "
+                    + EventStatus.labelSql(TABLE_EVENTS + "." + COLUMN_STATUS) + " AS " + COLUMN_STATUS + ", "
+                    + COLUMN_NOTES + ", " + COLUMN_LOCATION
+                    + FROM_EVENTS +
+                    " WHERE " + COLUMN_USER_ID + " = ?" +
+                    " ORDER BY " + TABLE_EVENTS + "." + COLUMN_APPOINTMENT_DATE + " ASC, " + TABLE_EVENTS + "." + COLUMN_EVENT_ID + " ASC";
+
+    // PDF export of the history screen's filter: full event rows in one status, oldest first,
+    // optionally narrowed by the same full-text match as QUERY_EVENTS_BY_STATUS_SEARCH
+    static final String QUERY_EVENTS_BY_STATUS_FOR_PDF =
+            "SELECT " + EVENT_COLUMNS + FROM_EVENTS +
+                    " WHERE " + COLUMN_USER_ID + " = ?" +
+                    " AND " + COLUMN_STATUS + " = ?" +
+                    " ORDER BY " + COLUMN_APPOINTMENT_DATE + " ASC, " + COLUMN_EVENT_ID + " ASC";
+
+    static final String QUERY_EVENTS_BY_STATUS_SEARCH_FOR_PDF =
+            "SELECT " + EVENT_COLUMNS + " FROM " + TABLE_EVENTS_FTS +
+                    " JOIN " + TABLE_EVENTS + " ON " + TABLE_EVENTS + "." + COLUMN_EVENT_ID + " = " + TABLE_EVENTS_FTS + ".docid" +
+                    " JOIN " + TABLE_DOCTORS + " ON " + TABLE_DOCTORS + "." + COLUMN_DOCTOR_ID + " = " + TABLE_EVENTS + "." + COLUMN_DOCTOR_ID +
+                    " WHERE " + TABLE_EVENTS_FTS + " MATCH ?" +
+                    " AND " + TABLE_EVENTS + "." + COLUMN_USER_ID + " = ?" +
+                    " AND " + TABLE_EVENTS + "." + COLUMN_STATUS + " = ?" +
+                    " ORDER BY " + TABLE_EVENTS + "." + COLUMN_APPOINTMENT_DATE + " ASC, " + TABLE_EVENTS + "." + COLUMN_EVENT_ID + " ASC";
+
+    // Outbox rows of one transport due by a time, oldest due first, with their event as it is
+    // now. LEFT JOIN keeps the outbox as the outer loop and still returns rows whose event was
+    // deleted (event columns NULL), so they can be cancelled.
+    static final String QUERY_OUTBOX_DUE =
+            "SELECT " + TABLE_REMINDER_OUTBOX + "." + COLUMN_OUTBOX_ID + ", " + COLUMN_ATTEMPTS + ", " + COLUMN_SLOT + ", "
+                    + TABLE_EVENTS + "." + COLUMN_EVENT_ID + ", " + TABLE_EVENTS + "." + COLUMN_USER_ID + ", "
+                    + COLUMN_PATIENT_NAME + ", " + TABLE_DOCTORS + "." + COLUMN_DOCTOR_NAME_VALUE + ", "
+                    + COLUMN_APPOINTMENT_DATE + ", " + TABLE_EVENTS + "." + COLUMN_STATUS +
+                    " FROM " + TABLE_REMINDER_OUTBOX +
+                    " LEFT JOIN " + TABLE_EVENTS + " ON " + TABLE_EVENTS + "." + COLUMN_EVENT_ID + " = "
+                    + TABLE_REMINDER_OUTBOX + "." + COLUMN_EVENT_ID +
+                    " LEFT JOIN " + TABLE_DOCTORS + " ON " + TABLE_DOCTORS + "." + COLUMN_DOCTOR_ID + " = "
+                    + TABLE_EVENTS + "." + COLUMN_DOCTOR_ID +
+                    " WHERE " + COLUMN_TRANSPORT + " = ?" +
+                    " AND " + COLUMN_STATE + " = " + OutboxState.PENDING.getCode() +
+                    " AND " + COLUMN_NEXT_ATTEMPT_AT + " <= ?" +
+                    " ORDER BY " + COLUMN_NEXT_ATTEMPT_AT + " ASC" +
+                    " LIMIT ?";
+
+    static final String QUERY_OUTBOX_NEXT_ATTEMPT =
+            "SELECT MIN(" + COLUMN_NEXT_ATTEMPT_AT + ") FROM " + TABLE_REMINDER_OUTBOX +
+                    " WHERE " + COLUMN_TRANSPORT + " = ? AND " + COLUMN_STATE + " = " + OutboxState.PENDING.getCode();
+
+    // Delivery metrics: reads every kept outbox row, which pruning bounds to a few weeks
+    static final String QUERY_REMINDER_METRICS =
+            "SELECT " + COLUMN_TRANSPORT + ", " + COLUMN_STATE + ", COUNT(*), SUM(" + COLUMN_ATTEMPTS + "), "
+                    + "AVG(" + COLUMN_SENT_AT + " - " + COLUMN_CREATED_AT + "), "
+                    + "MAX(" + COLUMN_SENT_AT + " - " + COLUMN_CREATED_AT + "), "
+                    + "SUM(MAX(" + COLUMN_ATTEMPTS + " - 1, 0))" +
+                    " FROM " + TABLE_REMINDER_OUTBOX +
+                    " GROUP BY " + COLUMN_TRANSPORT + ", " + COLUMN_STATE;
+
+    // Dashboard counts: primary-key range reads of the trigger-maintained summary tables
+    static final String QUERY_EVENT_COUNTS =
+            "SELECT " + COLUMN_STATUS + ", " + COLUMN_EVENT_COUNT + " FROM " + TABLE_STATUS_COUNTS +
+                    " WHERE " + COLUMN_USER_ID + " = ?";
+
+    static final String QUERY_DOCTOR_EVENT_COUNTS =
+            "SELECT " + TABLE_DOCTORS + "." + COLUMN_DOCTOR_NAME_VALUE + ", " + COLUMN_STATUS + ", " + COLUMN_EVENT_COUNT +
+                    " FROM " + TABLE_DOCTOR_COUNTS + " CROSS JOIN " + TABLE_DOCTORS +
+                    " ON " + TABLE_DOCTORS + "." + COLUMN_DOCTOR_ID + " = " + TABLE_DOCTOR_COUNTS + "." + COLUMN_DOCTOR_ID +
+                    " WHERE " + COLUMN_USER_ID + " = ? AND " + COLUMN_EVENT_COUNT + " > 0" +
+                    " ORDER BY " + TABLE_DOCTOR_COUNTS + "." + COLUMN_DOCTOR_ID;
+
+    // Password hashing (PBKDF2 by default); volatile so tests can swap it while readers run
+    private volatile CredentialHasher credentialHasher =
+            new Pbkdf2CredentialHasher(Pbkdf2CredentialHasher.DEFAULT_ITERATIONS);
+
+    // Compiled event and outbox write statements (see WriteStatements), guarded by writeStatementLock
+    private final Object writeStatementLock = new Object();
+    private WriteStatements writeStatements;
 
     /**
-     * Constructor: Initializes database helper.
+     * Returns the process-wide database helper. Every screen shares this instance, so the
+     * database is opened and schema-checked once per process instead of once per screen.
+     *
+     * @param context Any context; only its application context is retained.
      */
-    public DatabaseHelper(Context context) {
-        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+    public static DatabaseHelper getInstance(Context context) {
+        long start = System.nanoTime();
+        if (instance == null) {
+            synchronized (DatabaseHelper.class) {
+                if (instance == null) {
+                    instance = new DatabaseHelper(context.getApplicationContext(), DATABASE_NAME);
+                    DatabaseExecutor.getInstance().scheduleCheckpoints(instance::checkpoint);
+                }
+            }
+        }
+        StartupMetrics.onDatabaseAcquired(context.getClass().getSimpleName(), System.nanoTime() - start);
+        return instance;
+    }
+
+    /**
+     * Constructor for tests: opens a database with the given file name (null for in-memory).
+     */
+    DatabaseHelper(Context context, String databaseName) {
+        super(context, databaseName, null, DATABASE_VERSION);
+
+        // WAL: readers see the last committed snapshot while the single writer appends to the
+        // log, so reads and writes no longer block each other. Must be set before opening.
+        setWriteAheadLoggingEnabled(true);
+    }
+
+    /**
+     * Configures each connection before the schema is created or opened.
+     */
+    @Override
+    public void onConfigure(SQLiteDatabase db) {
+        super.onConfigure(db);
+        db.setMaxSqlCacheSize(SQL_CACHE_SIZE);
     }
 
     /**
@@ -97,48 +640,201 @@ public class DatabaseHelper extends SQLiteOpenHelper {
     @Override
     public void onCreate(SQLiteDatabase db) {
         db.execSQL(CREATE_TABLE_USERS);
+        db.execSQL(CREATE_TABLE_DOCTORS);
         db.execSQL(CREATE_TABLE_EVENTS);
+        createIndexes(db);
+        createFullTextIndex(db);
+        createEventCounts(db);
+        createReminderOutbox(db);
+    }
+
+    /**
+     * Creates the secondary indexes on the events table.
+     */
+    private void createIndexes(SQLiteDatabase db) {
+        db.execSQL(CREATE_INDEX_EVENTS_USER_STATUS_DATE);
+        db.execSQL(CREATE_INDEX_EVENTS_USER_DATE);
+        db.execSQL(CREATE_INDEX_EVENTS_STATUS_DATE);
+    }
+
+    /**
+     * Creates the FTS table and its sync triggers, then indexes any existing events.
+     */
+    private void createFullTextIndex(SQLiteDatabase db) {
+        db.execSQL(CREATE_TABLE_EVENTS_FTS);
+        for (String trigger : CREATE_TRIGGERS_EVENTS_FTS) {
+            db.execSQL(trigger);
+        }
+        db.execSQL("INSERT INTO " + TABLE_EVENTS_FTS + "(docid, " + FTS_COLUMNS + ")"
+                + " SELECT " + TABLE_EVENTS + "." + COLUMN_EVENT_ID + ", " + COLUMN_PATIENT_NAME + ", "
+                + TABLE_DOCTORS + "." + COLUMN_DOCTOR_NAME_VALUE + ", " + COLUMN_LOCATION + ", " + COLUMN_NOTES
+                + FROM_EVENTS);
+    }
+
+    /**
+     * Creates the summary tables and the triggers maintaining them, then counts any existing
+     * events. Also repairs the counts after a rebuild of the events table dropped the triggers.
+     */
+    private void createEventCounts(SQLiteDatabase db) {
+        db.execSQL(CREATE_TABLE_STATUS_COUNTS);
+        db.execSQL(CREATE_TABLE_DOCTOR_COUNTS);
+        for (String trigger : CREATE_TRIGGERS_EVENT_COUNTS) {
+            db.execSQL(trigger);
+        }
+        recount(db, TABLE_STATUS_COUNTS, COLUMN_USER_ID + ", " + COLUMN_STATUS);
+        recount(db, TABLE_DOCTOR_COUNTS, COLUMN_USER_ID + ", " + COLUMN_DOCTOR_ID + ", " + COLUMN_STATUS);
     }
 
     /**
-     * Upgrades database schema if the version changes.
+     * Creates the reminder outbox and its index.
+     */
+    private void createReminderOutbox(SQLiteDatabase db) {
+        db.execSQL(CREATE_TABLE_REMINDER_OUTBOX);
+        db.execSQL(CREATE_INDEX_OUTBOX_TRANSPORT_STATE_NEXT);
+    }
+
+    private void recount(SQLiteDatabase db, String table, String keys) {
+        db.execSQL("DELETE FROM " + table);
+        db.execSQL("INSERT INTO " + table + " (" + keys + ", " + COLUMN_EVENT_COUNT + ")"
+                + " SELECT " + keys + ", COUNT(*) FROM " + TABLE_EVENTS + " GROUP BY " + keys);
+    }
+
+    /**
+     * Upgrades the schema one version at a time, keeping every user and event. Each step
+     * runs in its own (nested) transaction and is logged with its duration; SQLiteOpenHelper
+     * wraps the whole upgrade in an outer transaction, so a failing step rolls the database
+     * back to {@code oldVersion} intact and the upgrade is retried on the next open.
      */
     @Override
     public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
-        db.execSQL("DROP TABLE IF EXISTS " + TABLE_USERS);
-        db.execSQL("DROP TABLE IF EXISTS " + TABLE_EVENTS);
-        onCreate(db);
+        for (int version = oldVersion; version < newVersion; version++) {
+            long start = System.nanoTime();
+            db.beginTransaction();
+            try {
+                upgradeFrom(db, version);
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+            Log.i(TAG, "Migrated schema " + version + " -> " + (version + 1) + " in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+        }
     }
 
-    // -------------------- User Authentication --------------------
+    /**
+     * Applies the single migration step from {@code version} to {@code version + 1}.
+     * Add a case here (and bump DATABASE_VERSION) for every schema change; never edit
+     * a released step.
+     */
+    private void upgradeFrom(SQLiteDatabase db, int version) {
+        switch (version) {
+            case 1: // Free-text notes and location on events
+                db.execSQL("ALTER TABLE " + TABLE_EVENTS + " ADD COLUMN " + COLUMN_NOTES + " TEXT");
+                db.execSQL("ALTER TABLE " + TABLE_EVENTS + " ADD COLUMN " + COLUMN_LOCATION + " TEXT");
+                break;
+            case 2: // Attached PDF
+                db.execSQL("ALTER TABLE " + TABLE_EVENTS + " ADD COLUMN " + COLUMN_PDF_URI + " TEXT");
+                break;
+            case 3: // Foreign key to users; SQLite can only add constraints by rebuilding
+                rebuildEventsTable(db, createLegacyTableEvents(TABLE_EVENTS_REBUILD, "TEXT"),
+                        LEGACY_EVENT_COLUMNS, LEGACY_EVENT_COLUMNS);
+                break;
+            case 4:
+                createIndexes(db);
+                break;
+            case 5:
+                db.execSQL(CREATE_TABLE_EVENTS_FTS_V6);
+                createLegacyFullTextTriggers(db);
+                db.execSQL("INSERT INTO " + TABLE_EVENTS_FTS + "(" + TABLE_EVENTS_FTS + ") VALUES('rebuild')");
+                break;
+            case 6: // TEXT dates to INTEGER epoch days
+                rebuildEventsTable(db, createLegacyTableEvents(TABLE_EVENTS_REBUILD, "INTEGER"), LEGACY_EVENT_COLUMNS,
+                        LEGACY_EVENT_COLUMNS.replace(COLUMN_APPOINTMENT_DATE, EPOCH_DAY_FROM_TEXT_DATE));
+                createIndexes(db);
+                createLegacyFullTextTriggers(db);
+                break;
+            case 7: // Doctors lookup table and integer status codes (EventStatus; unknown labels become Scheduled)
+                db.execSQL(CREATE_TABLE_DOCTORS);
+                db.execSQL("INSERT OR IGNORE INTO " + TABLE_DOCTORS + " (" + COLUMN_DOCTOR_NAME_VALUE + ")"
+                        + " SELECT DISTINCT " + COLUMN_DOCTOR_NAME + " FROM " + TABLE_EVENTS);
+                db.execSQL("DROP TABLE " + TABLE_EVENTS_FTS);
+                rebuildEventsTable(db, createTableEvents(TABLE_EVENTS_REBUILD),
+                        COLUMN_EVENT_ID + ", " + COLUMN_PATIENT_NAME + ", " + COLUMN_DOCTOR_ID + ", "
+                                + COLUMN_APPOINTMENT_DATE + ", " + COLUMN_STATUS + ", " + COLUMN_NOTES + ", "
+                                + COLUMN_LOCATION + ", " + COLUMN_PDF_URI + ", " + COLUMN_USER_ID,
+                        COLUMN_EVENT_ID + ", " + COLUMN_PATIENT_NAME + ", "
+                                + "(SELECT " + COLUMN_DOCTOR_ID + " FROM " + TABLE_DOCTORS + " WHERE "
+                                + COLUMN_DOCTOR_NAME_VALUE + " = " + TABLE_EVENTS + "." + COLUMN_DOCTOR_NAME + "), "
+                                + COLUMN_APPOINTMENT_DATE + ", "
+                                + "CASE lower(" + COLUMN_STATUS + ") WHEN 'completed' THEN 1 WHEN 'missed' THEN 2"
+                                + " WHEN 'rescheduled' THEN 3 ELSE 0 END, "
+                                + COLUMN_NOTES + ", " + COLUMN_LOCATION + ", " + COLUMN_PDF_URI + ", " + COLUMN_USER_ID);
+                createIndexes(db);
+                createFullTextIndex(db);
+                break;
+            case 8: // Trigger-maintained event counts
+                createEventCounts(db);
+                break;
+            case 9: // Reminder index (status, date) across users
+                db.execSQL(CREATE_INDEX_EVENTS_STATUS_DATE);
+                break;
+            case 10: // Reminder outbox
+                createReminderOutbox(db);
+                break;
+            default:
+                throw new IllegalStateException("No migration from schema version " + version);
+        }
+    }
+
+    private void createLegacyFullTextTriggers(SQLiteDatabase db) {
+        for (String trigger : CREATE_TRIGGERS_EVENTS_FTS_V6) {
+            db.execSQL(trigger);
+        }
+    }
 
     /**
-     * Hashes a password using SHA-256.
+     * Rebuilds the events table, since SQLite cannot change a column's type or constraints
+     * in place: rows are copied into a new table that then replaces the old one. Event IDs
+     * are kept, so a search index keyed by docid stays valid, but the indexes and triggers
+     * dropped with the old table must be recreated by the caller.
      *
-     * @param password The raw password input.
-     * @return The hashed password.
+     * @param createTable SQL creating the new table as {@link #TABLE_EVENTS_REBUILD}.
+     * @param columns     Columns of the new table to fill.
+     * @param selectList  Expressions over the old row yielding those columns, in order.
      */
-    private String hashPassword(String password) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(password.getBytes(StandardCharsets.UTF_8));
-            StringBuilder hexString = new StringBuilder();
-
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) hexString.append('0');
-                hexString.append(hex);
-            }
+    private void rebuildEventsTable(SQLiteDatabase db, String createTable, String columns, String selectList) {
+        db.execSQL(createTable);
+        db.execSQL("INSERT INTO " + TABLE_EVENTS_REBUILD + " (" + columns + ")"
+                + " SELECT " + selectList + " FROM " + TABLE_EVENTS);
+        db.execSQL("DROP TABLE " + TABLE_EVENTS);
+        db.execSQL("ALTER TABLE " + TABLE_EVENTS_REBUILD + " RENAME TO " + TABLE_EVENTS);
+    }
 
-            return hexString.toString();
-        } catch (NoSuchAlgorithmException e) {
-            Log.e(TAG, "Password hashing error", e);
-            return null;
+    /**
+     * Copies committed WAL pages back into the main database file. PASSIVE mode never waits
+     * on readers or the writer; it keeps the WAL (and read cost of scanning it) short between
+     * SQLite's own auto-checkpoints. Scheduled by {@link DatabaseExecutor} on the writer thread.
+     */
+    public void checkpoint() {
+        SQLiteDatabase db = this.getWritableDatabase();
+        try (Cursor cursor = db.rawQuery("PRAGMA wal_checkpoint(PASSIVE)", null)) {
+            if (cursor != null) cursor.moveToFirst();
         }
     }
 
+    // -------------------- User Authentication --------------------
+
+    /**
+     * Replaces the password hasher, e.g. to test other hashing parameters.
+     */
+    void setCredentialHasher(CredentialHasher credentialHasher) {
+        this.credentialHasher = credentialHasher;
+    }
+
     /**
-     * Validates user login by checking the hashed password.
+     * Validates user login against the stored password hash. Hashing is deliberately slow, so
+     * this must run on a background thread (LoginActivity uses the DatabaseExecutor reader pool).
+     * A hash made with older parameters is replaced with a current one on the writer thread.
      *
      * @param email    The email entered by the user.
      * @param password The password entered by the user.
@@ -146,16 +842,21 @@ public class DatabaseHelper extends SQLiteOpenHelper {
      */
     public long validateUser(String email, String password) {
         SQLiteDatabase db = this.getReadableDatabase();
-        String hashedPassword = hashPassword(password);
+        CredentialHasher hasher = credentialHasher;
+
+        try (Cursor cursor = db.rawQuery(QUERY_VALIDATE_USER, new String[]{email})) {
+            if (cursor == null || !cursor.moveToFirst()) return -1;
 
-        try (Cursor cursor = db.rawQuery(
-                "SELECT " + COLUMN_USER_ID + " FROM " + TABLE_USERS +
-                        " WHERE " + COLUMN_USER_EMAIL + " = ? AND " + COLUMN_USER_PASSWORD + " = ?",
-                new String[]{email, hashedPassword})) {
+            long userId = cursor.getLong(0);
+            String storedHash = cursor.getString(1);
+            if (!hasher.verify(password, storedHash)) return -1;
 
-            if (cursor != null && cursor.moveToFirst()) {
-                return cursor.getLong(cursor.getColumnIndexOrThrow(COLUMN_USER_ID));
+            if (hasher.needsRehash(storedHash)) {
+                String newHash = hasher.hash(password); // Hash here, not on the shared writer thread
+                DatabaseExecutor.getInstance().getWriteExecutor()
+                        .execute(() -> replacePasswordHash(userId, storedHash, newHash));
             }
+            return userId;
         } catch (Exception e) {
             Log.e(TAG, "Error validating user: ", e);
         }
@@ -163,39 +864,751 @@ public class DatabaseHelper extends SQLiteOpenHelper {
     }
 
     /**
-     * Adds a new user to the database with a securely hashed password.
+     * Stores an upgraded password hash unless the password changed in the meantime.
      */
-    public long addUser(String email, String password) {
-        SQLiteDatabase db = this.getWritableDatabase();
-        String hashedPassword = hashPassword(password);
+    private void replacePasswordHash(long userId, String oldHash, String newHash) {
+        ContentValues values = new ContentValues();
+        values.put(COLUMN_USER_PASSWORD, newHash);
+        int updated = this.getWritableDatabase().update(TABLE_USERS, values,
+                COLUMN_USER_ID + " = ? AND " + COLUMN_USER_PASSWORD + " = ?",
+                new String[]{String.valueOf(userId), oldHash});
+        if (updated > 0) Log.i(TAG, "Upgraded password hash of user " + userId);
+    }
 
-        if (hashedPassword == null) {
-            return -1; // Hashing failed
+    /**
+     * Hashes a new password with a fresh salt. Hashing is deliberately slow, so run this on a
+     * background thread other than the writer, like {@link #validateUser}, and pass the result
+     * to {@link #insertUser}.
+     *
+     * @return The encoded hash, or null on failure.
+     */
+    public String hashPassword(String password) {
+        try {
+            return credentialHasher.hash(password);
+        } catch (IllegalStateException e) {
+            Log.e(TAG, "Password hashing error", e);
+            return null;
         }
+    }
 
+    /**
+     * Adds a new user. Run on the writer thread.
+     *
+     * @param hashedPassword A hash from {@link #hashPassword}, never the raw password.
+     * @return The new user ID, or -1 on failure.
+     */
+    public long insertUser(String email, String hashedPassword) {
         ContentValues values = new ContentValues();
         values.put(COLUMN_USER_EMAIL, email);
         values.put(COLUMN_USER_PASSWORD, hashedPassword);
 
-        return db.insert(TABLE_USERS, null, values);
+        return this.getWritableDatabase().insert(TABLE_USERS, null, values);
+    }
+
+    /**
+     * Checks whether an account already exists for the given email.
+     */
+    public boolean isEmailTaken(String email) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        try (Cursor cursor = db.rawQuery(QUERY_EMAIL_TAKEN, new String[]{email})) {
+            return cursor != null && cursor.moveToFirst();
+        }
     }
 
     // -------------------- Event Operations --------------------
 
     /**
-     * Fetches events based on user ID and status.
+     * Inserts a new event for the given user.
+     *
+     * @return The new event ID, or -1 on failure.
+     */
+    public long addEvent(String patientName, String doctorName, String appointmentDate, EventStatus status,
+                         String notes, String location, String pdfUri, long userId) {
+        synchronized (writeStatementLock) {
+            WriteStatements statements = writeStatements();
+            SQLiteStatement statement = statements.insertEvent;
+            statements.bindEventFields(statement, patientName, doctorName, appointmentDate, status, notes, location, pdfUri);
+            statement.bindLong(8, userId);
+            try {
+                return statement.executeInsert();
+            } catch (SQLException e) {
+                Log.e(TAG, "Error inserting event", e);
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Updates every editable field of an existing event.
+     *
+     * @return True if a row was updated.
+     */
+    public boolean updateEvent(long eventId, String patientName, String doctorName, String appointmentDate,
+                               EventStatus status, String notes, String location, String pdfUri) {
+        synchronized (writeStatementLock) {
+            WriteStatements statements = writeStatements();
+            SQLiteStatement statement = statements.updateEvent;
+            statements.bindEventFields(statement, patientName, doctorName, appointmentDate, status, notes, location, pdfUri);
+            statement.bindLong(8, eventId);
+            return executeUpdateDelete(statement) > 0;
+        }
+    }
+
+    /**
+     * Changes only the status of an event (e.g. Scheduled to Completed).
+     *
+     * @return True if a row was updated.
      */
-    public Cursor getEventsByStatus(long userId, String status, String searchTerm) {
+    public boolean updateEventStatus(long eventId, EventStatus status) {
+        synchronized (writeStatementLock) {
+            SQLiteStatement statement = writeStatements().updateEventStatus;
+            statement.bindLong(1, status.getCode());
+            statement.bindLong(2, eventId);
+            return executeUpdateDelete(statement) > 0;
+        }
+    }
+
+    /**
+     * Deletes an event by its ID.
+     *
+     * @return True if a row was deleted.
+     */
+    public boolean deleteEvent(long eventId) {
+        synchronized (writeStatementLock) {
+            SQLiteStatement statement = writeStatements().deleteEvent;
+            statement.bindLong(1, eventId);
+            return executeUpdateDelete(statement) > 0;
+        }
+    }
+
+    // -------------------- Bulk Import --------------------
+
+    /**
+     * Receives the running total after each committed import chunk. Called on the importing thread.
+     */
+    public interface ImportProgressListener {
+        void onProgress(int importedSoFar);
+    }
+
+    /**
+     * Inserts a stream of events for the given user, {@code chunkSize} rows per transaction.
+     * One commit (and fsync) per chunk instead of per row is what makes large imports fast,
+     * while chunking keeps the WAL bounded and lets readers see progress between chunks.
+     * If the stream throws, the current chunk is rolled back and earlier chunks stay committed.
+     * Doctors are looked up through the per-connection name cache, so a large import resolves
+     * each distinct doctor once.
+     *
+     * @return The number of events imported.
+     */
+    public int importEvents(Iterator<Event> events, long userId, int chunkSize, ImportProgressListener listener) {
+        SQLiteDatabase db = getWritableDatabase();
+        int imported = 0;
+
+        synchronized (writeStatementLock) {
+            WriteStatements statements = writeStatements();
+            SQLiteStatement statement = statements.insertEvent;
+            while (events.hasNext()) {
+                int inChunk = 0;
+                boolean committed = false;
+                db.beginTransactionNonExclusive(); // Readers keep working in WAL mode
+                try {
+                    while (inChunk < chunkSize && events.hasNext()) {
+                        Event event = events.next();
+                        statements.bindEventFields(statement, event.getPatientName(), event.getDoctorName(),
+                                event.getAppointmentDate(), event.getStatus(), event.getNotes(),
+                                event.getLocation(), event.getPdfUri());
+                        statement.bindLong(8, userId);
+                        statement.executeInsert();
+                        inChunk++;
+                    }
+                    db.setTransactionSuccessful();
+                    committed = true;
+                } finally {
+                    db.endTransaction();
+                    // Doctors inserted by a rolled-back chunk no longer exist
+                    if (!committed) statements.doctorIds.clear();
+                }
+
+                imported += inChunk;
+                if (listener != null) listener.onProgress(imported);
+            }
+        }
+        return imported;
+    }
+
+    // -------------------- Compiled Write Statements --------------------
+
+    /**
+     * Event and outbox write statements compiled once per open database. Each is bound and
+     * executed in place, so a write allocates no ContentValues map and SQLite never re-parses the SQL.
+     */
+    private static final class WriteStatements {
+        final SQLiteDatabase db;
+        final SQLiteStatement insertEvent;
+        final SQLiteStatement updateEvent;
+        final SQLiteStatement updateEventStatus;
+        final SQLiteStatement deleteEvent;
+        final SQLiteStatement insertDoctor;
+        final SQLiteStatement selectDoctorId;
+        final SQLiteStatement enqueueReminders;
+        final SQLiteStatement setReminderState;
+        final SQLiteStatement recordReminderAttempt;
+        final SQLiteStatement resetInFlightReminders;
+        final SQLiteStatement pruneReminderOutbox;
+        // Doctor name -> doctor_id; rows are never deleted, so entries only go stale on rollback
+        final Map<String, Long> doctorIds = new HashMap<>();
+
+        WriteStatements(SQLiteDatabase db) {
+            this.db = db;
+            insertEvent = db.compileStatement(SQL_INSERT_EVENT);
+            updateEvent = db.compileStatement(SQL_UPDATE_EVENT);
+            updateEventStatus = db.compileStatement(SQL_UPDATE_EVENT_STATUS);
+            deleteEvent = db.compileStatement(SQL_DELETE_EVENT);
+            insertDoctor = db.compileStatement(SQL_INSERT_DOCTOR);
+            selectDoctorId = db.compileStatement(SQL_SELECT_DOCTOR_ID);
+            enqueueReminders = db.compileStatement(SQL_ENQUEUE_REMINDERS);
+            setReminderState = db.compileStatement(SQL_SET_REMINDER_STATE);
+            recordReminderAttempt = db.compileStatement(SQL_RECORD_REMINDER_ATTEMPT);
+            resetInFlightReminders = db.compileStatement(SQL_RESET_IN_FLIGHT_REMINDERS);
+            pruneReminderOutbox = db.compileStatement(SQL_PRUNE_REMINDER_OUTBOX);
+        }
+
+        /**
+         * Returns the doctor_id for a name, adding the doctor the first time it is seen.
+         *
+         * @throws IllegalArgumentException If the name is null.
+         */
+        long doctorId(String doctorName) {
+            if (doctorName == null) throw new IllegalArgumentException("Doctor name is required");
+            Long cached = doctorIds.get(doctorName);
+            if (cached != null) return cached;
+
+            insertDoctor.bindString(1, doctorName);
+            insertDoctor.executeInsert(); // Ignored if the doctor already exists
+            selectDoctorId.bindString(1, doctorName);
+            long id = selectDoctorId.simpleQueryForLong();
+            doctorIds.put(doctorName, id);
+            return id;
+        }
+
+        /**
+         * Binds the seven editable event columns, in table order, to parameters 1-7.
+         * The doctor is stored as its doctor_id, the date as its epoch day and the status as its code.
+         *
+         * @throws IllegalArgumentException If the appointment date is not "yyyy-MM-dd" or the doctor is missing.
+         */
+        void bindEventFields(SQLiteStatement statement, String patientName, String doctorName,
+                             String appointmentDate, EventStatus status, String notes,
+                             String location, String pdfUri) {
+            long epochDay = AppointmentDates.toEpochDay(appointmentDate);
+            long doctorId = doctorId(doctorName);
+            statement.clearBindings();
+            bindNullable(statement, 1, patientName);
+            statement.bindLong(2, doctorId);
+            statement.bindLong(3, epochDay);
+            statement.bindLong(4, status.getCode());
+            bindNullable(statement, 5, notes);
+            bindNullable(statement, 6, location);
+            bindNullable(statement, 7, pdfUri);
+        }
+
+        void close() {
+            insertEvent.close();
+            updateEvent.close();
+            updateEventStatus.close();
+            deleteEvent.close();
+            insertDoctor.close();
+            selectDoctorId.close();
+            enqueueReminders.close();
+            setReminderState.close();
+            recordReminderAttempt.close();
+            resetInFlightReminders.close();
+            pruneReminderOutbox.close();
+        }
+    }
+
+    /**
+     * Returns the compiled statements, compiling them on first use or after a reopen.
+     * Callers must hold {@link #writeStatementLock}: a SQLiteStatement is not thread-safe.
+     */
+    private WriteStatements writeStatements() {
+        SQLiteDatabase db = this.getWritableDatabase();
+        if (writeStatements == null || writeStatements.db != db) {
+            if (writeStatements != null) writeStatements.close();
+            writeStatements = new WriteStatements(db);
+        }
+        return writeStatements;
+    }
+
+    private static void bindNullable(SQLiteStatement statement, int index, String value) {
+        if (value == null) {
+            statement.bindNull(index);
+        } else {
+            statement.bindString(index, value);
+        }
+    }
+
+    private static int executeUpdateDelete(SQLiteStatement statement) {
+        try {
+            return statement.executeUpdateDelete();
+        } catch (SQLException e) {
+            Log.e(TAG, "Error updating event", e);
+            return 0;
+        }
+    }
+
+    /**
+     * Releases compiled statements before closing the database.
+     */
+    @Override
+    public synchronized void close() {
+        synchronized (writeStatementLock) {
+            if (writeStatements != null) {
+                writeStatements.close();
+                writeStatements = null;
+            }
+        }
+        super.close();
+    }
+
+    /**
+     * Fetches a single event by its ID.
+     */
+    public Cursor getEventById(long eventId) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        return db.rawQuery(QUERY_EVENT_BY_ID, new String[]{String.valueOf(eventId)});
+    }
+
+    /**
+     * Loads the full event, including the notes and location that list rows leave out,
+     * for the detail screen and the edit dialog.
+     *
+     * @return The event, or null if no row has this ID.
+     */
+    public Event loadEvent(long eventId) {
+        try (Cursor cursor = getEventById(eventId)) {
+            return cursor.moveToFirst() ? EventRowMapper.EVENT_COLUMNS.map(cursor) : null;
+        }
+    }
+
+    /**
+     * Fetches list rows ({@link #LIST_COLUMNS}) based on user ID and status.
+     * With a search term, matches word prefixes in patient name, doctor name, location and
+     * notes through the full-text index, best matches first; otherwise most recent first.
+     */
+    public Cursor getEventsByStatus(long userId, EventStatus status, String searchTerm) {
+        return getEventsByStatus(userId, status, searchTerm, null);
+    }
+
+    /**
+     * Cancellable variant of {@link #getEventsByStatus(long, EventStatus, String)}. Cancelling the
+     * signal aborts the query with an OperationCanceledException.
+     */
+    public Cursor getEventsByStatus(long userId, EventStatus status, String searchTerm,
+                                    CancellationSignal cancellationSignal) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        String ftsQuery = toFtsPrefixQuery(searchTerm);
+        String statusCode = String.valueOf(status.getCode());
+
+        if (ftsQuery == null) {
+            return db.rawQuery(QUERY_EVENTS_BY_STATUS,
+                    new String[]{String.valueOf(userId), statusCode}, cancellationSignal);
+        }
+
+        return db.rawQuery(QUERY_EVENTS_BY_STATUS_SEARCH,
+                new String[]{ftsQuery, String.valueOf(userId), statusCode}, cancellationSignal);
+    }
+
+    /**
+     * Turns free-form user input into an FTS prefix query: every word must match the start of
+     * a token in any indexed column ("jo sm" becomes "jo* sm*"). FTS operators and punctuation
+     * are stripped so user input can never form an invalid MATCH expression.
+     *
+     * @return The MATCH expression, or null if the input holds no searchable characters.
+     */
+    static String toFtsPrefixQuery(String searchTerm) {
+        if (searchTerm == null) return null;
+
+        StringBuilder query = new StringBuilder();
+        for (String word : searchTerm.split("\\s+")) {
+            // Lower-casing also keeps AND/OR/NOT/NEAR from being parsed as operators
+            String token = word.replaceAll("[^\\p{L}\\p{N}]", "").toLowerCase(Locale.ROOT);
+            if (token.isEmpty()) continue;
+            if (query.length() > 0) query.append(' ');
+            query.append(token).append('*');
+        }
+        return query.length() == 0 ? null : query.toString();
+    }
+
+    // -------------------- Paged Event Queries --------------------
+
+    /**
+     * Fetches the page of a user's events that follows the given key, ordered by
+     * (appointment_date, event_id). Uses keyset paging so the cost of a page does not
+     * grow with how far the user has scrolled, unlike LIMIT/OFFSET.
+     *
+     * @param userId    The logged-in user's ID.
+     * @param afterDate Appointment date of the last loaded event, or null for the first page.
+     * @param afterId   Event ID of the last loaded event (ignored when afterDate is null).
+     * @param limit     Maximum number of rows to return.
+     * @return A cursor over at most {@code limit} list rows in ascending order.
+     */
+    public Cursor getEventsPageAfter(long userId, String afterDate, long afterId, int limit) {
+        SQLiteDatabase db = this.getReadableDatabase();
+
+        if (afterDate == null) {
+            return db.rawQuery(QUERY_EVENTS_FIRST_PAGE,
+                    new String[]{String.valueOf(userId), String.valueOf(limit)});
+        }
+
+        String afterDay = String.valueOf(AppointmentDates.toEpochDay(afterDate));
+        return db.rawQuery(QUERY_EVENTS_PAGE_AFTER,
+                new String[]{String.valueOf(userId), afterDay, afterDay,
+                        String.valueOf(afterId), String.valueOf(limit)});
+    }
+
+    /**
+     * Fetches the page of a user's events that precedes the given key.
+     * Rows are returned in DESCENDING (appointment_date, event_id) order, nearest first;
+     * callers reverse them before prepending to a list.
+     *
+     * @param userId     The logged-in user's ID.
+     * @param beforeDate Appointment date of the first loaded event.
+     * @param beforeId   Event ID of the first loaded event.
+     * @param limit      Maximum number of rows to return.
+     * @return A cursor over at most {@code limit} list rows in descending order.
+     */
+    public Cursor getEventsPageBefore(long userId, String beforeDate, long beforeId, int limit) {
         SQLiteDatabase db = this.getReadableDatabase();
-        String query = "SELECT * FROM " + TABLE_EVENTS +
-                " WHERE " + COLUMN_USER_ID + " = ?" +
-                " AND " + COLUMN_STATUS + " = ?" +
-                (searchTerm.isEmpty() ? "" : " AND " + COLUMN_PATIENT_NAME + " LIKE ?");
 
-        String[] queryParams = searchTerm.isEmpty()
-                ? new String[]{String.valueOf(userId), status}
-                : new String[]{String.valueOf(userId), status, "%" + searchTerm + "%"};
+        String beforeDay = String.valueOf(AppointmentDates.toEpochDay(beforeDate));
+        return db.rawQuery(QUERY_EVENTS_PAGE_BEFORE,
+                new String[]{String.valueOf(userId), beforeDay, beforeDay,
+                        String.valueOf(beforeId), String.valueOf(limit)});
+    }
+
+    // -------------------- Date Range Queries --------------------
+
+    /**
+     * Fetches a user's events from {@code fromDay} to {@code toDay} inclusive, in date order.
+     * Days are epoch days (see {@link AppointmentDates}), e.g. today through today + 6 for
+     * "this week".
+     *
+     * @return A cursor over list rows.
+     */
+    public Cursor getEventsBetween(long userId, long fromDay, long toDay) {
+        SQLiteDatabase db = this.getReadableDatabase();
+
+        return db.rawQuery(QUERY_EVENTS_BETWEEN,
+                new String[]{String.valueOf(userId), String.valueOf(fromDay), String.valueOf(toDay)});
+    }
+
+    /**
+     * Fetches a user's next {@code limit} events on or after {@code fromDay}.
+     *
+     * @return A cursor over list rows in date order.
+     */
+    public Cursor getUpcomingEvents(long userId, long fromDay, int limit) {
+        SQLiteDatabase db = this.getReadableDatabase();
+
+        return db.rawQuery(QUERY_EVENTS_UPCOMING,
+                new String[]{String.valueOf(userId), String.valueOf(fromDay), String.valueOf(limit)});
+    }
+
+    /**
+     * Fetches a user's Scheduled events dated before {@code today}, oldest first.
+     *
+     * @return A cursor over list rows.
+     */
+    public Cursor getOverdueEvents(long userId, long today) {
+        SQLiteDatabase db = this.getReadableDatabase();
+
+        return db.rawQuery(QUERY_EVENTS_OVERDUE,
+                new String[]{String.valueOf(userId), String.valueOf(EventStatus.SCHEDULED.getCode()),
+                        String.valueOf(today)});
+    }
 
-        return db.rawQuery(query, queryParams);
+    /**
+     * Fetches every event of a user for export, oldest first. The cursor is read through
+     * its window one block at a time, so callers can stream any number of rows.
+     *
+     * @param userId             The logged-in user's ID.
+     * @param cancellationSignal Signal that aborts the query if the export is cancelled.
+     * @return A cursor over the exported columns (see {@link #QUERY_EVENTS_FOR_EXPORT}).
+     */
+    public Cursor getEventsForExport(long userId, CancellationSignal cancellationSignal) {
+        SQLiteDatabase db = this.getReadableDatabase();
+
+        return db.rawQuery(QUERY_EVENTS_FOR_EXPORT, new String[]{String.valueOf(userId)}, cancellationSignal);
+    }
+
+    /**
+     * Fetches the full rows ({@link #EVENT_COLUMNS}) of a user's events in one status for PDF
+     * export, oldest first, filtered by the same search as
+     * {@link #getEventsByStatus(long, EventStatus, String, CancellationSignal)}. Like
+     * {@link #getEventsForExport}, the cursor can be streamed whatever the row count.
+     */
+    public Cursor getEventsByStatusForPdf(long userId, EventStatus status, String searchTerm,
+                                         CancellationSignal cancellationSignal) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        String ftsQuery = toFtsPrefixQuery(searchTerm);
+        String statusCode = String.valueOf(status.getCode());
+
+        if (ftsQuery == null) {
+            return db.rawQuery(QUERY_EVENTS_BY_STATUS_FOR_PDF,
+                    new String[]{String.valueOf(userId), statusCode}, cancellationSignal);
+        }
+
+        return db.rawQuery(QUERY_EVENTS_BY_STATUS_SEARCH_FOR_PDF,
+                new String[]{ftsQuery, String.valueOf(userId), statusCode}, cancellationSignal);
+    }
+
+    // -------------------- Reminder Outbox --------------------
+
+    /**
+     * Queues a reminder through {@code transport} for every user's Scheduled events on
+     * {@code day} (an epoch day), due at once. Events already queued for that day and
+     * transport are skipped, so calling this again (or after process death) never duplicates.
+     *
+     * @return The number of reminders newly queued.
+     */
+    public int enqueueReminders(long day, String transport, long nowMillis) {
+        synchronized (writeStatementLock) {
+            SQLiteStatement statement = writeStatements().enqueueReminders;
+            statement.bindString(1, transport);
+            statement.bindLong(2, nowMillis);
+            statement.bindLong(3, nowMillis);
+            statement.bindLong(4, EventStatus.SCHEDULED.getCode());
+            statement.bindLong(5, day);
+            return executeUpdateDelete(statement);
+        }
+    }
+
+    /**
+     * Claims up to {@code limit} reminders of {@code transport} due by {@code nowMillis},
+     * marking them Sending in one transaction. Reminders whose event was deleted, is no
+     * longer Scheduled, moved to another day, or falls before {@code today} (an epoch day)
+     * are cancelled instead of returned. Every returned entry must be finished with
+     * {@link #markReminderSent}, {@link #markReminderRetry}, {@link #markReminderFailed}
+     * or {@link #releaseReminders}.
+     */
+    public List<OutboxEntry> claimDueReminders(String transport, long nowMillis, long today, int limit) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        List<OutboxEntry> entries = new ArrayList<>();
+
+        synchronized (writeStatementLock) {
+            SQLiteStatement setState = writeStatements().setReminderState;
+            db.beginTransactionNonExclusive();
+            try (Cursor cursor = db.rawQuery(QUERY_OUTBOX_DUE,
+                    new String[]{transport, String.valueOf(nowMillis), String.valueOf(limit)})) {
+                while (cursor.moveToNext()) {
+                    long outboxId = cursor.getLong(0);
+                    long slot = cursor.getLong(2);
+                    boolean due = !cursor.isNull(3)
+                            && cursor.getInt(8) == EventStatus.SCHEDULED.getCode()
+                            && cursor.getLong(7) == slot
+                            && slot >= today;
+
+                    setState.bindLong(1, (due ? OutboxState.SENDING : OutboxState.CANCELLED).getCode());
+                    setState.bindLong(2, outboxId);
+                    setState.executeUpdateDelete();
+                    if (due) {
+                        entries.add(new OutboxEntry(outboxId, cursor.getInt(1), new Reminder(cursor.getLong(3),
+                                cursor.getLong(4), cursor.getString(5), cursor.getString(6), slot)));
+                    }
+                }
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Returns claimed reminders that were never attempted to Pending, keeping their attempt
+     * count and due time (e.g. when the rate limit or the run's deadline stopped the batch).
+     */
+    public void releaseReminders(List<OutboxEntry> entries) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        synchronized (writeStatementLock) {
+            SQLiteStatement setState = writeStatements().setReminderState;
+            db.beginTransactionNonExclusive();
+            try {
+                for (OutboxEntry entry : entries) {
+                    setState.bindLong(1, OutboxState.PENDING.getCode());
+                    setState.bindLong(2, entry.getOutboxId());
+                    setState.executeUpdateDelete();
+                }
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+        }
+    }
+
+    /**
+     * Records that a claimed reminder was delivered to its transport.
+     *
+     * @return True if the reminder was still claimed.
+     */
+    public boolean markReminderSent(long outboxId, long sentAtMillis) {
+        return recordReminderAttempt(outboxId, OutboxState.SENT, sentAtMillis, sentAtMillis, null);
+    }
+
+    /**
+     * Records a transient failure of a claimed reminder and makes it due again at
+     * {@code nextAttemptAtMillis}.
+     *
+     * @return True if the reminder was still claimed.
+     */
+    public boolean markReminderRetry(long outboxId, long nextAttemptAtMillis, String error) {
+        return recordReminderAttempt(outboxId, OutboxState.PENDING, nextAttemptAtMillis, null, error);
+    }
+
+    /**
+     * Records that a claimed reminder failed for good.
+     *
+     * @return True if the reminder was still claimed.
+     */
+    public boolean markReminderFailed(long outboxId, long failedAtMillis, String error) {
+        return recordReminderAttempt(outboxId, OutboxState.FAILED, failedAtMillis, null, error);
+    }
+
+    private boolean recordReminderAttempt(long outboxId, OutboxState state, long nextAttemptAtMillis,
+                                          Long sentAtMillis, String error) {
+        synchronized (writeStatementLock) {
+            SQLiteStatement statement = writeStatements().recordReminderAttempt;
+            statement.bindLong(1, state.getCode());
+            statement.bindLong(2, nextAttemptAtMillis);
+            if (sentAtMillis == null) {
+                statement.bindNull(3);
+            } else {
+                statement.bindLong(3, sentAtMillis);
+            }
+            bindNullable(statement, 4, error);
+            statement.bindLong(5, outboxId);
+            return executeUpdateDelete(statement) > 0;
+        }
+    }
+
+    /**
+     * Returns reminders of {@code transport} left Sending, by a run that died or was
+     * interrupted mid-send, to Pending. They are sent again, so delivery is at least once.
+     * Call only while no dispatcher of the transport is running.
+     *
+     * @return The number of reminders returned to Pending.
+     */
+    public int resetInFlightReminders(String transport) {
+        synchronized (writeStatementLock) {
+            SQLiteStatement statement = writeStatements().resetInFlightReminders;
+            statement.bindString(1, transport);
+            return executeUpdateDelete(statement);
+        }
+    }
+
+    /**
+     * Returns when the next Pending reminder of {@code transport} is due, in epoch
+     * milliseconds, or {@link Long#MAX_VALUE} if none is pending.
+     */
+    public long getNextReminderAttempt(String transport) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        try (Cursor cursor = db.rawQuery(QUERY_OUTBOX_NEXT_ATTEMPT, new String[]{transport})) {
+            return cursor.moveToFirst() && !cursor.isNull(0) ? cursor.getLong(0) : Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Deletes the Sent, Failed and Cancelled reminders of {@code transport} that finished
+     * before {@code beforeMillis}.
+     *
+     * @return The number of reminders deleted.
+     */
+    public int pruneReminderOutbox(String transport, long beforeMillis) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        int deleted = 0;
+        synchronized (writeStatementLock) {
+            SQLiteStatement statement = writeStatements().pruneReminderOutbox;
+            db.beginTransactionNonExclusive();
+            try {
+                for (OutboxState state : new OutboxState[]{OutboxState.SENT, OutboxState.FAILED, OutboxState.CANCELLED}) {
+                    statement.bindString(1, transport);
+                    statement.bindLong(2, state.getCode());
+                    statement.bindLong(3, beforeMillis);
+                    deleted += statement.executeUpdateDelete();
+                }
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Returns the delivery metrics of every transport with reminders in the outbox, keyed
+     * by transport name in alphabetical order.
+     */
+    public Map<String, ReminderMetrics> getReminderMetrics() {
+        SQLiteDatabase db = this.getReadableDatabase();
+        Map<String, ReminderMetrics.Builder> builders = new TreeMap<>();
+        try (Cursor cursor = db.rawQuery(QUERY_REMINDER_METRICS, null)) {
+            while (cursor.moveToNext()) {
+                ReminderMetrics.Builder metrics = builders.get(cursor.getString(0));
+                if (metrics == null) {
+                    metrics = new ReminderMetrics.Builder();
+                    builders.put(cursor.getString(0), metrics);
+                }
+                metrics.add(cursor.getInt(1), cursor.getInt(2), cursor.getLong(3), cursor.getLong(6),
+                        Math.round(cursor.getDouble(4)), cursor.getLong(5));
+            }
+        }
+
+        Map<String, ReminderMetrics> metricsByTransport = new LinkedHashMap<>();
+        for (Map.Entry<String, ReminderMetrics.Builder> entry : builders.entrySet()) {
+            metricsByTransport.put(entry.getKey(), entry.getValue().build());
+        }
+        return metricsByTransport;
+    }
+
+    // -------------------- Event Counts --------------------
+
+    /**
+     * Returns how many events the user has in each status. Reads at most one summary row per
+     * status, however many events the user has.
+     */
+    public EventCounts getEventCounts(long userId) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        EventCounts.Builder counts = new EventCounts.Builder();
+        try (Cursor cursor = db.rawQuery(QUERY_EVENT_COUNTS, new String[]{String.valueOf(userId)})) {
+            while (cursor.moveToNext()) {
+                counts.add(cursor.getInt(0), cursor.getInt(1));
+            }
+        }
+        return counts.build();
+    }
+
+    /**
+     * Returns how many events the user has in each status with each of their doctors,
+     * keyed by doctor name in the order the doctors were first added.
+     */
+    public Map<String, EventCounts> getEventCountsByDoctor(long userId) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        Map<String, EventCounts> countsByDoctor = new LinkedHashMap<>();
+        try (Cursor cursor = db.rawQuery(QUERY_DOCTOR_EVENT_COUNTS, new String[]{String.valueOf(userId)})) {
+            String doctor = null;
+            EventCounts.Builder counts = null;
+            while (cursor.moveToNext()) {
+                String rowDoctor = cursor.getString(0);
+                if (!rowDoctor.equals(doctor)) { // Rows of one doctor are adjacent
+                    if (counts != null) countsByDoctor.put(doctor, counts.build());
+                    doctor = rowDoctor;
+                    counts = new EventCounts.Builder();
+                }
+                counts.add(cursor.getInt(1), cursor.getInt(2));
+            }
+            if (counts != null) countsByDoctor.put(doctor, counts.build());
+        }
+        return countsByDoctor;
     }
-}
\ No newline at end of file
+}
@@ -16,6 +16,7 @@
  *     - Provides constructors for both new and existing events.
  *     - Encapsulates appointment details such as patient, doctor, date, status, notes, and location.
  *     - Ensures proper handling of optional fields (e.g., `pdfUri` may be null).
+ *     - Content equality (`equals`/`hashCode`).
  * 
  *     Dependencies:
  *     - Android Parcelable Interface (`android.os.Parcelable`)
@@ -29,6 +30,8 @@ package com.example.appointmentnow_steward;
 import android.os.Parcel;
 import android.os.Parcelable;
 
+import java.util.Objects;
+
 public class Event implements Parcelable {
 
     // -------------------- Fields (Event Attributes) --------------------
@@ -36,7 +39,7 @@ public class Event implements Parcelable {
     private String patientName;      // Patient's name
     private String doctorName;       // Doctor's name
     private String appointmentDate;  // Date of the appointment
-    private String status;           // Status of the appointment (e.g., Scheduled, Completed)
+    private EventStatus status;      // Status of the appointment (stored as its integer code)
     private String notes;            // Additional notes about the appointment
     private String location;         // Location of the appointment
     private String pdfUri;           // URI of an attached PDF file (optional)
@@ -57,7 +60,7 @@ public class Event implements Parcelable {
      * @param pdfUri          The URI of the attached PDF file (nullable).
      */
     public Event(long id, String patientName, String doctorName, String appointmentDate, 
-                 String status, String notes, String location, String pdfUri) {
+                 EventStatus status, String notes, String location, String pdfUri) {
         this.id = id;
         this.patientName = patientName;
         this.doctorName = doctorName;
@@ -81,7 +84,7 @@ public class Event implements Parcelable {
      * @param pdfUri          The URI of the attached PDF file (nullable).
      */
     public Event(String patientName, String doctorName, String appointmentDate, 
-                 String status, String notes, String location, String pdfUri) {
+                 EventStatus status, String notes, String location, String pdfUri) {
         this(0, patientName, doctorName, appointmentDate, status, notes, location, pdfUri); // Default ID to 0 for new events
     }
 
@@ -98,7 +101,7 @@ public class Event implements Parcelable {
         patientName = in.readString();
         doctorName = in.readString();
         appointmentDate = in.readString();
-        status = in.readString();
+        status = EventStatus.fromCode(in.readInt());
         notes = in.readString();
         location = in.readString();
         pdfUri = in.readString(); // May be null, handle appropriately in UI
@@ -117,7 +120,7 @@ public class Event implements Parcelable {
         dest.writeString(patientName);
         dest.writeString(doctorName);
         dest.writeString(appointmentDate);
-        dest.writeString(status);
+        dest.writeInt(status.getCode());
         dest.writeString(notes);
         dest.writeString(location);
         dest.writeString(pdfUri);
@@ -180,11 +183,11 @@ public class Event implements Parcelable {
         this.appointmentDate = appointmentDate;
     }
 
-    public String getStatus() {
+    public EventStatus getStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(EventStatus status) {
         this.status = status;
     }
 
@@ -211,4 +214,29 @@ public class Event implements Parcelable {
     public void setPdfUri(String pdfUri) {
         this.pdfUri = pdfUri;
     }
-}
\ No newline at end of file
+
+    // -------------------- Equality --------------------
+
+    /**
+     * Two events are equal when every field matches, including the ID.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Event)) return false;
+        Event other = (Event) o;
+        return id == other.id
+                && Objects.equals(patientName, other.patientName)
+                && Objects.equals(doctorName, other.doctorName)
+                && Objects.equals(appointmentDate, other.appointmentDate)
+                && status == other.status
+                && Objects.equals(notes, other.notes)
+                && Objects.equals(location, other.location)
+                && Objects.equals(pdfUri, other.pdfUri);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, patientName, doctorName, appointmentDate, status, notes, location, pdfUri);
+    }
+}
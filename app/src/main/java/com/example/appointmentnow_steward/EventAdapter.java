@@ -7,17 +7,25 @@
  *     Version: 2.2
  *
  *     Description:
- *     This class provides a RecyclerView adapter for displaying a list of `Event` objects 
+ *     This class provides a RecyclerView adapter for displaying a list of `EventListItem` rows 
  *     in the AppointmentNow application.
  *     
  *     Features:
  *     - Uses RecyclerView for better performance over ListView.
+ *     - List-diffing adapter: each submitted list is diffed against the previous one on a
+ *       background thread, so an add, edit or delete rebinds only the rows that changed.
+ *     - Stable IDs from the event ID.
+ *     - Allocation-free binding: click listeners are created once per ViewHolder and read
+ *       the row's current position when clicked, and unchanged text is not reset.
  *     - Implements ViewHolder pattern to minimize redundant view binding.
+ *     - Shows a thumbnail of the attached PDF, loaded in the background and cached
+ *       (see `PdfThumbnailLoader.java`).
  *     - Supports event editing and deletion via buttons.
  *     - Implements click listeners for opening event details.
  * 
  *     Dependencies:
- *     - `Event.java` (Event model class)
+ *     - `EventListItem.java` (List row model)
+ *     - `PdfThumbnailLoader.java` (Attachment thumbnails)
  *     - `EventDisplayActivity.java`, `HistoryActivity.java` (Managing UI interactions)
  * 
  *     Issues:
@@ -28,31 +36,50 @@ package com.example.appointmentnow_steward;
 
 import android.content.Context;
 import android.content.Intent;
+import android.text.TextUtils;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.ImageButton;
+import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
-import java.util.List;
+public class EventAdapter extends ListAdapter<EventListItem, EventAdapter.EventViewHolder> {
 
-public class EventAdapter extends RecyclerView.Adapter<EventAdapter.EventViewHolder> {
+    /**
+     * Rows are the same item when their IDs match, and unchanged when every field matches.
+     */
+    static final DiffUtil.ItemCallback<EventListItem> DIFF_CALLBACK = new DiffUtil.ItemCallback<EventListItem>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull EventListItem oldItem, @NonNull EventListItem newItem) {
+            return oldItem.getId() == newItem.getId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull EventListItem oldItem, @NonNull EventListItem newItem) {
+            return oldItem.equals(newItem);
+        }
+    };
 
     private final Context context;   // The context of the calling Activity or Fragment
-    private final List<Event> events; // List of events to display
+    private final PdfThumbnailLoader thumbnailLoader;
 
     /**
-     * Constructor for initializing the adapter with context and event list.
+     * Constructor for initializing the adapter. Rows are supplied through {@link #submitList}
+     * with a new list each time; the submitted list must not be modified afterwards.
      *
      * @param context The calling activity or fragment.
-     * @param events  The list of events to be displayed.
      */
-    public EventAdapter(Context context, List<Event> events) {
+    public EventAdapter(Context context) {
+        super(DIFF_CALLBACK);
         this.context = context;
-        this.events = events;
+        this.thumbnailLoader = PdfThumbnailLoader.getInstance(context);
+        setHasStableIds(true);
     }
 
     /**
@@ -62,7 +89,23 @@ public class EventAdapter extends RecyclerView.Adapter<EventAdapter.EventViewHol
     @Override
     public EventViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View view = LayoutInflater.from(context).inflate(R.layout.event_item, parent, false);
-        return new EventViewHolder(view);
+        EventViewHolder holder = new EventViewHolder(view);
+
+        // Listeners live as long as the holder and resolve the row at click time, so binding
+        // allocates nothing and a click never acts on a position made stale by an insert/delete
+        holder.itemView.setOnClickListener(v -> {
+            int position = holder.getBindingAdapterPosition();
+            if (position != RecyclerView.NO_POSITION) openEventDetails(getItem(position));
+        });
+        holder.editButton.setOnClickListener(v -> {
+            int position = holder.getBindingAdapterPosition();
+            if (position != RecyclerView.NO_POSITION) openEditEventDialog(getItem(position));
+        });
+        holder.deleteButton.setOnClickListener(v -> {
+            int position = holder.getBindingAdapterPosition();
+            if (position != RecyclerView.NO_POSITION) showDeleteConfirmation(getItem(position));
+        });
+        return holder;
     }
 
     /**
@@ -70,31 +113,34 @@ public class EventAdapter extends RecyclerView.Adapter<EventAdapter.EventViewHol
      */
     @Override
     public void onBindViewHolder(@NonNull EventViewHolder holder, int position) {
-        Event event = events.get(position);
+        EventListItem event = getItem(position);
 
-        // Set event details
-        holder.eventTitle.setText(event.getPatientName());
-        holder.eventSubtitle.setText(event.getDoctorName());
-        holder.eventStatus.setText(event.getStatus());
+        setTextIfChanged(holder.eventTitle, event.getPatientName());
+        setTextIfChanged(holder.eventSubtitle, event.getDoctorName());
+        setTextIfChanged(holder.eventStatus, event.getStatus().getLabel());
+        thumbnailLoader.into(event.getPdfUri(), holder.pdfThumbnail);
+    }
 
-        // Set up event click listeners
-        holder.itemView.setOnClickListener(v -> openEventDetails(event));
-        holder.editButton.setOnClickListener(v -> openEditEventDialog(event, position));
-        holder.deleteButton.setOnClickListener(v -> showDeleteConfirmation(event.getId(), position));
+    /**
+     * Skips setText when the view already shows the value; setText always relayouts the
+     * TextView, which allocates even for identical text.
+     */
+    private static void setTextIfChanged(TextView view, String text) {
+        if (!TextUtils.equals(view.getText(), text)) view.setText(text);
     }
 
     /**
-     * Returns the total number of events.
+     * Returns the event's database ID as the stable item ID.
      */
     @Override
-    public int getItemCount() {
-        return events.size();
+    public long getItemId(int position) {
+        return getItem(position).getId();
     }
 
     /**
      * Opens EventDetailActivity to show details of the selected event.
      */
-    private void openEventDetails(Event event) {
+    private void openEventDetails(EventListItem event) {
         Intent intent = new Intent(context, EventDetailActivity.class);
         intent.putExtra("event_id", event.getId());
         context.startActivity(intent);
@@ -103,22 +149,22 @@ public class EventAdapter extends RecyclerView.Adapter<EventAdapter.EventViewHol
     /**
      * Handles event editing based on the calling context.
      */
-    private void openEditEventDialog(Event event, int position) {
+    private void openEditEventDialog(EventListItem event) {
         if (context instanceof EventDisplayActivity) {
-            ((EventDisplayActivity) context).openAddOrEditEventDialog(event, position);
+            ((EventDisplayActivity) context).openAddOrEditEventDialog(event);
         } else if (context instanceof HistoryActivity) {
-            ((HistoryActivity) context).openEditEventDialog(event, position);
+            ((HistoryActivity) context).openEditEventDialog(event);
         }
     }
 
     /**
      * Shows a delete confirmation dialog based on the calling context.
      */
-    private void showDeleteConfirmation(long eventId, int position) {
+    private void showDeleteConfirmation(EventListItem event) {
         if (context instanceof EventDisplayActivity) {
-            ((EventDisplayActivity) context).showDeleteConfirmationDialog(position);
+            ((EventDisplayActivity) context).showDeleteConfirmationDialog(event);
         } else if (context instanceof HistoryActivity) {
-            ((HistoryActivity) context).showDeleteConfirmationDialog(eventId, position);
+            ((HistoryActivity) context).showDeleteConfirmationDialog(event.getId());
         }
     }
 
@@ -128,6 +174,7 @@ public class EventAdapter extends RecyclerView.Adapter<EventAdapter.EventViewHol
     static class EventViewHolder extends RecyclerView.ViewHolder {
         final TextView eventTitle, eventSubtitle, eventStatus;
         final ImageButton editButton, deleteButton;
+        final ImageView pdfThumbnail;
 
         /**
          * Constructor that binds UI components from the event_item layout.
@@ -139,6 +186,7 @@ public class EventAdapter extends RecyclerView.Adapter<EventAdapter.EventViewHol
             eventStatus = view.findViewById(R.id.event_status);
             editButton = view.findViewById(R.id.edit_event_button);
             deleteButton = view.findViewById(R.id.delete_event_button);
+            pdfThumbnail = view.findViewById(R.id.pdf_thumbnail);
         }
     }
 }
@@ -0,0 +1,95 @@
+/*
+ *     Appointment Now - Event Counts
+ *     Author: Conor Steward
+ *     Contact: 1conorsteward@gmail.com
+ *     Date Created: 10/17/26
+ *     Last Updated: 10/17/26
+ *     Version: 2.3
+ *
+ *     Description:
+ *     This class holds the number of events in each status, for one user or for one of the
+ *     user's doctors. The numbers come from the summary tables that database triggers keep
+ *     current, so reading them never counts rows of the events table.
+ *
+ *     Features:
+ *     - One count per `EventStatus`, plus the total.
+ *     - Immutable; `EMPTY` stands for a user or doctor without events.
+ *
+ *     Dependencies:
+ *     - `EventStatus.java` (Status codes)
+ *
+ *     Issues:
+ *     - No known issues.
+ */
+
+package com.example.appointmentnow_steward;
+
+import java.util.Arrays;
+
+public final class EventCounts {
+
+    public static final EventCounts EMPTY = new EventCounts(new int[EventStatus.values().length]);
+
+    private final int[] counts; // Indexed by EventStatus ordinal
+    private final int total;
+
+    private EventCounts(int[] counts) {
+        this.counts = counts;
+        int sum = 0;
+        for (int count : counts) sum += count;
+        this.total = sum;
+    }
+
+    /**
+     * Returns the number of events in the given status.
+     */
+    public int get(EventStatus status) {
+        return counts[status.ordinal()];
+    }
+
+    /**
+     * Returns the number of events in any status.
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof EventCounts)) return false;
+        return Arrays.equals(counts, ((EventCounts) o).counts);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(counts);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("EventCounts{");
+        for (EventStatus status : EventStatus.values()) {
+            text.append(status.getLabel()).append('=').append(counts[status.ordinal()]).append(", ");
+        }
+        return text.append("total=").append(total).append('}').toString();
+    }
+
+    /**
+     * Collects (status code, count) pairs read from a summary table.
+     */
+    static final class Builder {
+        private final int[] counts = new int[EventStatus.values().length];
+        private boolean empty = true;
+
+        Builder add(int statusCode, int count) {
+            counts[EventStatus.fromCode(statusCode).ordinal()] += count;
+            empty = false;
+            return this;
+        }
+
+        EventCounts build() {
+            return empty ? EMPTY : new EventCounts(counts.clone());
+        }
+    }
+}
@@ -12,12 +12,15 @@
  *     
  *     Features:
  *     - Displays event details: patient name, doctor name, date, status, notes, and location.
- *     - Exports event details to a PDF file for record-keeping.
- *     - Handles permissions for writing to external storage dynamically.
+ *     - Shows a thumbnail and the page count of the attached PDF (see `PdfThumbnailLoader.java`).
+ *     - Exports the event to its own multi-page PDF file (see `VisitPdfWriter.java`),
+ *       rendered on a background thread into the app's documents folder.
+ *     - Loads the event on the shared database reader pool, off the UI thread.
  * 
  *     Dependencies:
  *     - `DatabaseHelper.java` (Handles database queries)
- *     - `PdfDocument` (Android PDF API for exporting visit details)
+ *     - `VisitPdfWriter.java` (Renders visit details to PDF)
+ *     - `PdfThumbnailLoader.java` (Attachment thumbnail and page count)
  * 
  *     Issues:
  *     - No known issues.
@@ -25,44 +28,36 @@
 
 package com.example.appointmentnow_steward;
 
-import android.Manifest;
-import android.content.pm.PackageManager;
-import android.database.Cursor;
-import android.graphics.Canvas;
-import android.graphics.Paint;
-import android.graphics.pdf.PdfDocument;
 import android.os.Bundle;
 import android.os.Environment;
 import android.util.Log;
+import android.view.View;
 import android.widget.Button;
 import android.widget.ImageButton;
+import android.widget.ImageView;
 import android.widget.TextView;
 import android.widget.Toast;
 
-import androidx.activity.result.ActivityResultLauncher;
-import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.appcompat.app.AppCompatActivity;
-import androidx.core.content.ContextCompat;
 
 import java.io.File;
-import java.io.FileOutputStream;
-import java.io.IOException;
 
 public class EventDetailActivity extends AppCompatActivity {
 
     // UI Components
     private TextView patientNameTextView, doctorNameTextView, appointmentDateTextView,
-            statusTextView, notesTextView, locationTextView;
+            statusTextView, notesTextView, locationTextView, pdfInfoTextView;
+    private ImageView pdfThumbnailView;
 
     // Database helper
     private DatabaseHelper databaseHelper;
 
     // Constants
     private static final String TAG = "EventDetailActivity";
-    private static final String PDF_FILENAME = "visit_details.pdf";
 
     // Event ID
     private long eventId;
+    private Button exportButton;
 
     /**
      * Called when the activity is first created.
@@ -73,7 +68,7 @@ public class EventDetailActivity extends AppCompatActivity {
         setContentView(R.layout.activity_event_detail);
 
         initializeUI();
-        databaseHelper = new DatabaseHelper(this);
+        databaseHelper = DatabaseHelper.getInstance(this);
 
         eventId = getIntent().getLongExtra("event_id", -1);
         if (eventId != -1) {
@@ -93,108 +88,108 @@ public class EventDetailActivity extends AppCompatActivity {
         statusTextView = findViewById(R.id.status);
         notesTextView = findViewById(R.id.notes);
         locationTextView = findViewById(R.id.location);
+        pdfThumbnailView = findViewById(R.id.pdf_thumbnail);
+        pdfInfoTextView = findViewById(R.id.pdf_info);
 
         ImageButton closeButton = findViewById(R.id.close_button);
         closeButton.setOnClickListener(v -> finish());
 
-        Button exportButton = findViewById(R.id.export_button);
-        exportButton.setOnClickListener(v -> requestStoragePermission());
+        // The app's own documents folder needs no storage permission
+        exportButton = findViewById(R.id.export_button);
+        exportButton.setOnClickListener(v -> exportVisitAsPDF());
     }
 
     /**
-     * Handles dynamic permission request for storage.
+     * Loads event details from the database using the event ID.
      */
-    private final ActivityResultLauncher<String> storagePermissionLauncher =
-            registerForActivityResult(new ActivityResultContracts.RequestPermission(), isGranted -> {
-                if (isGranted) {
-                    exportVisitAsPDF();
-                } else {
-                    Toast.makeText(this, "Storage permission denied.", Toast.LENGTH_SHORT).show();
-                }
-            });
+    private void loadEventDetails(long eventId) {
+        DatabaseExecutor.getInstance().read(this, () -> fetchEvent(eventId),
+                new DatabaseExecutor.Callback<Event>() {
+                    @Override
+                    public void onResult(Event event) {
+                        if (event == null) {
+                            showErrorAndExit("Event not found.");
+                            return;
+                        }
+                        patientNameTextView.setText(event.getPatientName());
+                        doctorNameTextView.setText(event.getDoctorName());
+                        appointmentDateTextView.setText(event.getAppointmentDate());
+                        statusTextView.setText(event.getStatus().getLabel());
+                        notesTextView.setText(event.getNotes());
+                        locationTextView.setText(event.getLocation());
+                        showAttachment(event.getPdfUri());
+                    }
+
+                    @Override
+                    public void onError(Exception error) {
+                        Log.e(TAG, "Error loading event details", error);
+                        showErrorAndExit("Failed to load event.");
+                    }
+                });
+    }
 
     /**
-     * Checks and requests storage permission before exporting PDF.
+     * Shows the attached PDF's thumbnail and page count once they are loaded in the background.
      */
-    private void requestStoragePermission() {
-        if (ContextCompat.checkSelfPermission(this, Manifest.permission.WRITE_EXTERNAL_STORAGE)
-                != PackageManager.PERMISSION_GRANTED) {
-            storagePermissionLauncher.launch(Manifest.permission.WRITE_EXTERNAL_STORAGE);
-        } else {
-            exportVisitAsPDF();
-        }
+    private void showAttachment(String pdfUri) {
+        PdfThumbnailLoader loader = PdfThumbnailLoader.getInstance(this);
+        loader.into(pdfUri, pdfThumbnailView);
+        if (pdfUri == null) return;
+
+        loader.load(pdfUri, thumbnail -> {
+            if (thumbnail == null || isDestroyed()) return;
+            int pages = thumbnail.getPageCount();
+            pdfInfoTextView.setText(getResources().getQuantityString(R.plurals.pdf_attachment_pages, pages, pages));
+            pdfInfoTextView.setVisibility(View.VISIBLE);
+        });
     }
 
     /**
-     * Loads event details from the database using the event ID.
+     * Reads a single event row. Runs on a database reader thread.
+     *
+     * @return The event, or null if no row has this ID.
      */
-    private void loadEventDetails(long eventId) {
-        try (Cursor cursor = databaseHelper.getEventById(eventId)) {
-            if (cursor != null && cursor.moveToFirst()) {
-                patientNameTextView.setText(cursor.getString(cursor.getColumnIndexOrThrow("patient_name")));
-                doctorNameTextView.setText(cursor.getString(cursor.getColumnIndexOrThrow("doctor_name")));
-                appointmentDateTextView.setText(cursor.getString(cursor.getColumnIndexOrThrow("appointment_date")));
-                statusTextView.setText(cursor.getString(cursor.getColumnIndexOrThrow("status")));
-                notesTextView.setText(cursor.getString(cursor.getColumnIndexOrThrow("notes")));
-                locationTextView.setText(cursor.getString(cursor.getColumnIndexOrThrow("location")));
-            } else {
-                showErrorAndExit("Event not found.");
-            }
-        } catch (Exception e) {
-            Log.e(TAG, "Error loading event details", e);
-            showErrorAndExit("Failed to load event.");
-        }
+    private Event fetchEvent(long eventId) {
+        return databaseHelper.loadEvent(eventId);
     }
 
     /**
-     * Exports event details as a PDF file.
+     * Exports the event to its own PDF file on a background thread. The event is read again
+     * there, so the file always matches the stored row.
      */
     private void exportVisitAsPDF() {
-        File pdfFile = new File(getExternalFilesDir(Environment.DIRECTORY_DOCUMENTS), PDF_FILENAME);
-
-        try (PdfDocument pdfDocument = new PdfDocument();
-             FileOutputStream fos = new FileOutputStream(pdfFile)) {
-
-            PdfDocument.PageInfo pageInfo = new PdfDocument.PageInfo.Builder(595, 842, 1).create();
-            PdfDocument.Page page = pdfDocument.startPage(pageInfo);
-            Canvas canvas = page.getCanvas();
-            Paint paint = new Paint();
-            paint.setTextSize(16);
-
-            // Draw text content on the PDF
-            drawTextOnCanvas(canvas, paint);
-
-            pdfDocument.finishPage(page);
-            pdfDocument.writeTo(fos);
-
-            Toast.makeText(this, "PDF exported successfully!", Toast.LENGTH_SHORT).show();
-        } catch (IOException e) {
-            Log.e(TAG, "Error exporting PDF", e);
-            Toast.makeText(this, "Error exporting PDF", Toast.LENGTH_SHORT).show();
+        File directory = getExternalFilesDir(Environment.DIRECTORY_DOCUMENTS);
+        if (directory == null) {
+            Toast.makeText(this, "Storage is not available.", Toast.LENGTH_SHORT).show();
+            return;
         }
-    }
 
-    /**
-     * Draws event details on the PDF canvas.
-     */
-    private void drawTextOnCanvas(Canvas canvas, Paint paint) {
-        int yPosition = 50;
-        int lineSpacing = 50;
-
-        String[] eventDetails = {
-                "Visit Details",
-                "Patient Name: " + patientNameTextView.getText().toString(),
-                "Doctor Name: " + doctorNameTextView.getText().toString(),
-                "Appointment Date: " + appointmentDateTextView.getText().toString(),
-                "Status: " + statusTextView.getText().toString(),
-                "Notes: " + notesTextView.getText().toString(),
-                "Location: " + locationTextView.getText().toString()
-        };
-
-        for (String detail : eventDetails) {
-            canvas.drawText(detail, 50, yPosition, paint);
-            yPosition += lineSpacing;
-        }
+        exportButton.setEnabled(false);
+        DatabaseExecutor.getInstance().read(this, () -> {
+            Event event = fetchEvent(eventId);
+            if (event == null) return null;
+            File pdfFile = new File(directory, VisitPdfWriter.fileNameFor(event));
+            VisitPdfWriter.writeVisit(event, pdfFile);
+            return pdfFile;
+        }, new DatabaseExecutor.Callback<File>() {
+            @Override
+            public void onResult(File pdfFile) {
+                exportButton.setEnabled(true);
+                if (pdfFile == null) {
+                    Toast.makeText(EventDetailActivity.this, "Event not found.", Toast.LENGTH_SHORT).show();
+                } else {
+                    Toast.makeText(EventDetailActivity.this, "PDF exported to " + pdfFile.getName(),
+                            Toast.LENGTH_SHORT).show();
+                }
+            }
+
+            @Override
+            public void onError(Exception error) {
+                Log.e(TAG, "Error exporting PDF", error);
+                exportButton.setEnabled(true);
+                Toast.makeText(EventDetailActivity.this, "Error exporting PDF", Toast.LENGTH_SHORT).show();
+            }
+        });
     }
 
     /**
@@ -11,15 +11,24 @@
  *     Users can add, update, delete, and view event details.
  *     
  *     Features:
- *     - Loads events from SQLite and displays them in a RecyclerView.
+ *     - Loads events from SQLite page by page as the RecyclerView scrolls.
+ *     - Keeps only a bounded window of events in memory (see `EventPager.java`).
+ *     - Updates the list through background diffs, so only changed rows are rebound.
+ *     - Runs all database work on the shared `DatabaseExecutor`.
  *     - Allows users to add new events via AddEventDialogFragment.
+ *     - Bulk imports appointments from a CSV or JSON file picked through the
+ *       Storage Access Framework (see `EventImportReader.java`).
  *     - Supports viewing detailed event info in EventDetailActivity.
- *     - Manages user logout and session clearing.
+ *     - Reads the user from the cached `UserSession`; logout invalidates it.
+ *     - Opens the SMS and reminder settings, and asks for the notification permission
+ *       reminders need on Android 13+.
  * 
  *     Dependencies:
  *     - `DatabaseHelper.java` (Manages SQLite interactions)
  *     - `EventAdapter.java` (Binds event data to UI)
  *     - `AddEventDialogFragment.java` (Handles event creation and editing)
+ *     - `DatabaseExecutor.java` (Background database threads)
+ *     - `UserSession.java` (Logged-in user)
  * 
  *     Issues:
  *     - No known issues.
@@ -27,36 +36,56 @@
 
 package com.example.appointmentnow_steward;
 
+import android.Manifest;
+import android.content.ContentResolver;
 import android.content.Intent;
-import android.content.SharedPreferences;
+import android.content.pm.PackageManager;
 import android.database.Cursor;
-import android.os.AsyncTask;
+import android.net.Uri;
+import android.os.Build;
 import android.os.Bundle;
 import android.util.Log;
 import android.widget.Button;
 import android.widget.ImageButton;
 import android.widget.Toast;
 
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.content.ContextCompat;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.google.android.material.snackbar.Snackbar;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class EventDisplayActivity extends AppCompatActivity {
 
     // Constants
     private static final String TAG = "EventDisplayActivity";
-    private static final String PREF_NAME = "AppPreferences";
-    private static final String USER_ID_KEY = "user_id";
+
+    // Bulk import: rows per transaction, and the document types offered by the file picker
+    private static final int IMPORT_CHUNK_SIZE = 1_000;
+    private static final String[] IMPORT_MIME_TYPES =
+            {"text/csv", "text/comma-separated-values", "application/json", "text/plain"};
 
     // UI Components
     private RecyclerView eventRecyclerView;
-    private List<Event> eventList;
+    private LinearLayoutManager layoutManager;
+    private List<EventListItem> eventList;
     private EventAdapter eventAdapter;
+    private EventPager eventPager;
     private DatabaseHelper databaseHelper;
+    private DatabaseExecutor databaseExecutor;
+    private UserSession session;
+    private ActivityResultLauncher<String[]> importLauncher;
 
     /**
      * Called when the activity is first created.
@@ -67,8 +96,24 @@ public class EventDisplayActivity extends AppCompatActivity {
         setContentView(R.layout.activity_event_display);
 
         initializeUI();
-        databaseHelper = new DatabaseHelper(this);
-        loadEventsAsync();
+        databaseHelper = DatabaseHelper.getInstance(this);
+        databaseExecutor = DatabaseExecutor.getInstance();
+        session = UserSession.getInstance(this);
+        loadNextPageAsync();
+        if (savedInstanceState == null) requestNotificationPermission();
+    }
+
+    /**
+     * Asks once per launch for the Android 13+ permission that appointment reminders
+     * (see `ReminderScheduler`) need to be shown.
+     */
+    private void requestNotificationPermission() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU
+                && ContextCompat.checkSelfPermission(this, Manifest.permission.POST_NOTIFICATIONS)
+                != PackageManager.PERMISSION_GRANTED) {
+            registerForActivityResult(new ActivityResultContracts.RequestPermission(), granted -> { })
+                    .launch(Manifest.permission.POST_NOTIFICATIONS);
+        }
     }
 
     /**
@@ -76,143 +121,268 @@ public class EventDisplayActivity extends AppCompatActivity {
      */
     private void initializeUI() {
         eventRecyclerView = findViewById(R.id.event_recycler_view);
-        eventRecyclerView.setLayoutManager(new LinearLayoutManager(this));
+        layoutManager = new LinearLayoutManager(this);
+        eventRecyclerView.setLayoutManager(layoutManager);
 
         Button addEventButton = findViewById(R.id.add_event_button);
         ImageButton logoutButton = findViewById(R.id.action_logout);
+        ImageButton importButton = findViewById(R.id.import_button);
+        ImageButton smsButton = findViewById(R.id.sms_permission_button);
+
+        // Event List Setup: the adapter renders snapshots of the pager's bounded window
+        eventPager = new EventPager(new EventPager.Callback() {
+            @Override
+            public void onItemRangeInserted(int positionStart, int itemCount) {
+                submitWindow();
+            }
 
-        // Event List Setup
-        eventList = new ArrayList<>();
-        eventAdapter = new EventAdapter(this, eventList);
+            @Override
+            public void onItemRangeRemoved(int positionStart, int itemCount) {
+                submitWindow();
+            }
+        });
+        eventList = eventPager.getWindow();
+        eventAdapter = new EventAdapter(this);
         eventRecyclerView.setAdapter(eventAdapter);
 
+        // Load further pages on demand as the user scrolls towards either edge
+        eventRecyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+                int direction = eventPager.directionToLoad(
+                        layoutManager.findFirstVisibleItemPosition(),
+                        layoutManager.findLastVisibleItemPosition());
+                if (direction > 0) {
+                    loadNextPageAsync();
+                } else if (direction < 0) {
+                    loadPreviousPageAsync();
+                }
+            }
+        });
+
         // Event Listeners
-        addEventButton.setOnClickListener(v -> openAddOrEditEventDialog(null, -1));
+        addEventButton.setOnClickListener(v -> openAddOrEditEventDialog(null));
         logoutButton.setOnClickListener(v -> logoutUser());
+        smsButton.setOnClickListener(v -> startActivity(new Intent(this, SMSPermissionActivity.class)));
+
+        // Storage Access Framework picker; no storage permission needed
+        importLauncher = registerForActivityResult(new ActivityResultContracts.OpenDocument(), this::importEventsFromUri);
+        importButton.setOnClickListener(v -> importLauncher.launch(IMPORT_MIME_TYPES));
     }
 
     /**
-     * Loads all events asynchronously to prevent UI blocking.
+     * Hands the adapter a snapshot of the window; it diffs it against the previous one
+     * in the background and dispatches only the resulting inserts, moves and changes.
      */
-    private void loadEventsAsync() {
-        new LoadEventsTask().execute();
+    private void submitWindow() {
+        eventAdapter.submitList(new ArrayList<>(eventList));
     }
 
     /**
-     * AsyncTask to load events in the background.
+     * Loads the page after the current window asynchronously to prevent UI blocking.
      */
-    private class LoadEventsTask extends AsyncTask<Void, Void, List<Event>> {
-        @Override
-        protected List<Event> doInBackground(Void... voids) {
-            return fetchEventsFromDatabase();
-        }
+    private void loadNextPageAsync() {
+        if (!eventPager.canLoadNext()) return;
+        loadPageAsync(true, eventPager.beginLoadNext());
+    }
 
-        @Override
-        protected void onPostExecute(List<Event> events) {
-            if (events != null) {
-                eventList.clear();
-                eventList.addAll(events);
-                eventAdapter.notifyDataSetChanged();
-            } else {
-                showErrorAndExit("Failed to load events.");
-            }
-        }
+    /**
+     * Loads the page before the current window (after older rows were evicted).
+     */
+    private void loadPreviousPageAsync() {
+        if (!eventPager.canLoadPrevious()) return;
+        loadPageAsync(false, eventPager.beginLoadPrevious());
     }
 
     /**
-     * Fetches all events created by the logged-in user from the database.
-     */
-    private List<Event> fetchEventsFromDatabase() {
-        List<Event> events = new ArrayList<>();
-        long userId = getUserId();
-        if (userId == -1) return null;
-
-        try (Cursor cursor = databaseHelper.getEventsByUserId(userId)) {
-            if (cursor != null && cursor.moveToFirst()) {
-                do {
-                    events.add(new Event(
-                            cursor.getLong(cursor.getColumnIndexOrThrow("event_id")),
-                            cursor.getString(cursor.getColumnIndexOrThrow("patient_name")),
-                            cursor.getString(cursor.getColumnIndexOrThrow("doctor_name")),
-                            cursor.getString(cursor.getColumnIndexOrThrow("appointment_date")),
-                            cursor.getString(cursor.getColumnIndexOrThrow("status")),
-                            cursor.getString(cursor.getColumnIndexOrThrow("notes")),
-                            cursor.getString(cursor.getColumnIndexOrThrow("location")),
-                            cursor.getString(cursor.getColumnIndexOrThrow("pdf_uri"))
-                    ));
-                } while (cursor.moveToNext());
-            }
+     * Loads a single page of events on the database reader pool.
+     */
+    private void loadPageAsync(boolean forward, EventPager.PageKey key) {
+        // Session resolved on the reader too, in case its startup load is still running
+        databaseExecutor.read(this, () -> fetchPageFromDatabase(session.getUserId(), forward, key),
+                new DatabaseExecutor.Callback<List<EventListItem>>() {
+                    @Override
+                    public void onResult(List<EventListItem> events) {
+                        // Each handler ignores a page requested before the last reload
+                        if (events == null) {
+                            if (eventPager.onLoadFailed(key)) showErrorAndExit("Failed to load events.");
+                        } else if (forward) {
+                            eventPager.onNextPageLoaded(key, events);
+                        } else {
+                            eventPager.onPreviousPageLoaded(key, events);
+                        }
+                    }
+
+                    @Override
+                    public void onError(Exception error) {
+                        Log.e(TAG, "Error loading events", error);
+                        if (eventPager.onLoadFailed(key)) showErrorAndExit("Failed to load events.");
+                    }
+                });
+    }
+
+    /**
+     * Fetches one page of the logged-in user's events relative to the given key.
+     *
+     * Runs on a database reader thread.
+     *
+     * @param userId  The logged-in user's ID.
+     * @param forward True for the page after {@code key}, false for the page before it.
+     * @param key     The window edge to page from; its date is null for the first page.
+     */
+    private List<EventListItem> fetchPageFromDatabase(long userId, boolean forward, EventPager.PageKey key) {
+        if (userId == UserSession.NO_USER) return null;
+
+        int limit = eventPager.getPageSize();
+        try (Cursor cursor = forward
+                ? databaseHelper.getEventsPageAfter(userId, key.appointmentDate, key.eventId, limit)
+                : databaseHelper.getEventsPageBefore(userId, key.appointmentDate, key.eventId, limit)) {
+            return cursor == null ? new ArrayList<>() : EventRowMapper.readListItems(cursor);
         } catch (Exception e) {
             Log.e(TAG, "Error loading events", e);
             return null;
         }
-        return events;
     }
 
     /**
-     * Opens the add/edit event dialog.
+     * Opens the add dialog, or for an existing row loads the full event (list rows carry the
+     * PDF URI but leave out notes and location) and opens the edit dialog.
+     *
+     * @param item The list row to edit, or null to add a new event.
      */
-    public void openAddOrEditEventDialog(Event event, int position) {
-        AddEventDialogFragment dialog = (event == null) ? new AddEventDialogFragment() : AddEventDialogFragment.newInstance(event);
+    public void openAddOrEditEventDialog(EventListItem item) {
+        if (item == null) {
+            showEventDialog(new AddEventDialogFragment(), false);
+            return;
+        }
 
-        dialog.setOnSaveListener(newEvent -> {
-            long userId = getUserId();
-            if (userId == -1) {
-                showErrorAndExit("User ID not found. Please log in again.");
+        databaseExecutor.read(this, () -> databaseHelper.loadEvent(item.getId()), event -> {
+            if (event == null) {
+                Toast.makeText(this, R.string.event_not_found, Toast.LENGTH_SHORT).show();
+            } else if (!getSupportFragmentManager().isStateSaved()) {
+                showEventDialog(AddEventDialogFragment.newInstance(event), true);
+            }
+        });
+    }
+
+    /**
+     * Shows the add/edit dialog. The dialog persists the event on the database writer;
+     * only the list is updated here.
+     */
+    private void showEventDialog(AddEventDialogFragment dialog, boolean editing) {
+        dialog.setOnSaveListener(savedEvent -> {
+            EventListItem saved = EventListItem.from(savedEvent);
+            if (!editing) {
+                eventPager.insertEvent(saved);
                 return;
             }
+            int current = indexOfEvent(saved.getId());
+            if (current != -1) eventPager.updateEvent(current, saved); // A new date may move the row
+        });
 
-            boolean success;
-            if (event == null) {
-                long id = databaseHelper.addEvent(
-                        newEvent.getPatientName(), newEvent.getDoctorName(), newEvent.getAppointmentDate(),
-                        newEvent.getStatus(), newEvent.getNotes(), newEvent.getLocation(), newEvent.getPdfUri(), userId
-                );
-                success = (id != -1);
-                if (success) {
-                    newEvent.setId(id);
-                    eventList.add(newEvent);
-                }
-            } else {
-                success = databaseHelper.updateEvent(
-                        event.getId(), newEvent.getPatientName(), newEvent.getDoctorName(), newEvent.getAppointmentDate(),
-                        newEvent.getStatus(), newEvent.getNotes(), newEvent.getLocation(), newEvent.getPdfUri()
-                );
-                if (success) {
-                    eventList.set(position, newEvent);
-                }
+        dialog.show(getSupportFragmentManager(), "AddOrEditEventDialog");
+    }
+
+    /**
+     * Finds a row in the window by event ID, or -1 if it is not loaded.
+     */
+    private int indexOfEvent(long eventId) {
+        for (int i = 0; i < eventList.size(); i++) {
+            if (eventList.get(i).getId() == eventId) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Displays a confirmation dialog before deleting the given event.
+     *
+     * @param event The row to delete; its list position is looked up once the delete completes.
+     */
+    public void showDeleteConfirmationDialog(EventListItem event) {
+        new AlertDialog.Builder(this)
+                .setTitle("Delete Event")
+                .setMessage("Are you sure you want to delete this event?")
+                .setPositiveButton("Delete", (dialog, which) ->
+                        databaseExecutor.write(this, () -> databaseHelper.deleteEvent(event.getId()),
+                                deleted -> {
+                                    int current = indexOfEvent(event.getId());
+                                    if (deleted && current != -1) {
+                                        eventPager.removeEvent(current);
+                                        Toast.makeText(this, "Event deleted successfully!", Toast.LENGTH_SHORT).show();
+                                    } else if (!deleted) {
+                                        Toast.makeText(this, "Error deleting event.", Toast.LENGTH_SHORT).show();
+                                    }
+                                }))
+                .setNegativeButton("Cancel", null)
+                .show();
+    }
+
+    /**
+     * Streams the picked CSV or JSON file into the database on the writer thread,
+     * showing a running count, then reloads the list from the first page.
+     *
+     * @param uri The document chosen in the picker, or null if it was dismissed.
+     */
+    private void importEventsFromUri(Uri uri) {
+        if (uri == null) return;
+        long userId = session.getUserId();
+        if (userId == UserSession.NO_USER) return;
+
+        ContentResolver resolver = getContentResolver();
+        EventImportReader.Format format = EventImportReader.Format.detect(resolver.getType(uri), uri.getLastPathSegment());
+        AtomicInteger imported = new AtomicInteger();
+        Snackbar progress = Snackbar.make(eventRecyclerView,
+                getString(R.string.import_progress, 0), Snackbar.LENGTH_INDEFINITE);
+        progress.show();
+
+        databaseExecutor.write(this, () -> {
+            try (InputStream in = resolver.openInputStream(uri);
+                 EventImportReader reader = EventImportReader.open(
+                         new InputStreamReader(in, StandardCharsets.UTF_8), format)) {
+                return databaseHelper.importEvents(reader, userId, IMPORT_CHUNK_SIZE, count -> {
+                    imported.set(count);
+                    runOnUiThread(() -> progress.setText(getString(R.string.import_progress, count)));
+                });
+            }
+        }, new DatabaseExecutor.Callback<Integer>() {
+            @Override
+            public void onResult(Integer count) {
+                progress.dismiss();
+                Toast.makeText(EventDisplayActivity.this,
+                        getString(R.string.import_complete, count), Toast.LENGTH_SHORT).show();
+                reloadEvents();
             }
 
-            if (success) {
-                eventAdapter.notifyDataSetChanged();
-                Toast.makeText(this, event == null ? "Event added successfully!" : "Event updated successfully!", Toast.LENGTH_SHORT).show();
-            } else {
-                Toast.makeText(this, "Error saving event.", Toast.LENGTH_SHORT).show();
+            @Override
+            public void onError(Exception error) {
+                Log.e(TAG, "Error importing events", error);
+                progress.dismiss();
+                Toast.makeText(EventDisplayActivity.this,
+                        getString(R.string.import_failed, imported.get(), error.getMessage()), Toast.LENGTH_LONG).show();
+                if (imported.get() > 0) reloadEvents(); // Committed chunks are kept
             }
         });
+    }
 
-        dialog.show(getSupportFragmentManager(), "AddOrEditEventDialog");
+    /**
+     * Drops the loaded window and loads the first page again.
+     */
+    private void reloadEvents() {
+        eventPager.reset();
+        loadNextPageAsync();
     }
 
     /**
      * Logs out the user and clears session data.
      */
     private void logoutUser() {
-        SharedPreferences.Editor editor = getSharedPreferences(PREF_NAME, MODE_PRIVATE).edit();
-        editor.clear().apply();
+        session.logOut();
 
-        eventList.clear();
+        eventPager.reset();
         startActivity(new Intent(EventDisplayActivity.this, LoginActivity.class));
         finish();
     }
 
-    /**
-     * Retrieves the logged-in user's ID.
-     */
-    private long getUserId() {
-        return getSharedPreferences(PREF_NAME, MODE_PRIVATE).getLong(USER_ID_KEY, -1);
-    }
-
     /**
      * Displays an error message and exits the activity.
      */
@@ -0,0 +1,146 @@
+/*
+ *     Appointment Now - Event Exporter
+ *     Author: Conor Steward
+ *     Contact: 1conorsteward@gmail.com
+ *     Date Created: 10/17/26
+ *     Last Updated: 10/17/26
+ *     Version: 2.3
+ *
+ *     Description:
+ *     This class streams a cursor of events straight to a CSV or JSON file.
+ *     Each row is written as soon as it is read from the cursor window; no `Event`
+ *     objects or lists are built, so memory use stays flat whatever the row count.
+ *
+ *     Features:
+ *     - CSV with RFC 4180 quoting, or a JSON array of objects (`android.util.JsonWriter`).
+ *     - Column names become the CSV header / JSON keys, so the output can be read back
+ *       by `EventImportReader`.
+ *     - Progress callbacks every {@value #PROGRESS_INTERVAL} rows, against a total the caller
+ *       supplies, so the cursor is never counted before the first row is written.
+ *     - Cooperative cancellation through the same `CancellationSignal` as the query.
+ *
+ *     Dependencies:
+ *     - Android Cursor and JsonWriter
+ *
+ *     Issues:
+ *     - No known issues.
+ */
+
+package com.example.appointmentnow_steward;
+
+import android.database.Cursor;
+import android.os.CancellationSignal;
+import android.util.JsonWriter;
+
+import java.io.IOException;
+import java.io.Writer;
+
+public final class EventExporter {
+
+    public static final int PROGRESS_INTERVAL = 500;
+
+    /**
+     * Receives export progress on the exporting thread.
+     */
+    public interface ProgressListener {
+        void onProgress(int exportedSoFar, int total);
+    }
+
+    private EventExporter() {
+    }
+
+    /**
+     * Writes every row of the cursor to {@code out}. The writer is flushed but not closed.
+     *
+     * @param total The expected row count, only reported to the listener. Take it from the
+     *              trigger-maintained counts ({@link DatabaseHelper#getEventCounts}) rather than
+     *              {@link Cursor#getCount()}, which would run the whole query before any output.
+     * @return The number of rows written.
+     * @throws android.os.OperationCanceledException If the signal is cancelled mid-export.
+     */
+    public static int export(Cursor cursor, Writer out, EventImportReader.Format format, int total,
+                             CancellationSignal cancellationSignal, ProgressListener listener) throws IOException {
+        String[] columns = cursor.getColumnNames();
+        int exported = 0;
+
+        JsonWriter json = null;
+        if (format == EventImportReader.Format.JSON) {
+            json = new JsonWriter(out);
+            json.setIndent("  ");
+            json.beginArray();
+        } else {
+            writeCsvRow(out, columns);
+        }
+
+        String[] row = new String[columns.length];
+        while (cursor.moveToNext()) {
+            if (cancellationSignal != null) cancellationSignal.throwIfCanceled();
+
+            if (json != null) {
+                writeJsonObject(json, cursor, columns);
+            } else {
+                for (int i = 0; i < columns.length; i++) row[i] = cursor.getString(i);
+                writeCsvRow(out, row);
+            }
+
+            exported++;
+            if (listener != null && exported % PROGRESS_INTERVAL == 0) listener.onProgress(exported, total);
+        }
+
+        if (json != null) {
+            json.endArray();
+            json.flush();
+        } else {
+            out.flush();
+        }
+        if (listener != null) listener.onProgress(exported, total);
+        return exported;
+    }
+
+    private static void writeJsonObject(JsonWriter json, Cursor cursor, String[] columns) throws IOException {
+        json.beginObject();
+        for (int i = 0; i < columns.length; i++) {
+            json.name(columns[i]);
+            switch (cursor.getType(i)) {
+                case Cursor.FIELD_TYPE_NULL:
+                    json.nullValue();
+                    break;
+                case Cursor.FIELD_TYPE_INTEGER:
+                    json.value(cursor.getLong(i));
+                    break;
+                default:
+                    json.value(cursor.getString(i));
+                    break;
+            }
+        }
+        json.endObject();
+    }
+
+    /**
+     * Writes one CSV line, quoting only the fields that need it. Nulls become empty fields.
+     */
+    static void writeCsvRow(Writer out, String[] fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) out.write(',');
+            String field = fields[i];
+            if (field == null) continue;
+
+            if (needsQuoting(field)) {
+                out.write('"');
+                out.write(field.replace("\"", "\"\""));
+                out.write('"');
+            } else {
+                out.write(field);
+            }
+        }
+        out.write("\r\n");
+    }
+
+    private static boolean needsQuoting(String field) {
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') return true;
+        }
+        return false;
+    }
+}
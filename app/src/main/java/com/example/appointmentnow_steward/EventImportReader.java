@@ -0,0 +1,255 @@
+/*
+ *     Appointment Now - Event Import Reader
+ *     Author: Conor Steward
+ *     Contact: 1conorsteward@gmail.com
+ *     Date Created: 10/17/26
+ *     Last Updated: 10/17/26
+ *     Version: 2.3
+ *
+ *     Description:
+ *     This class streams `Event` records out of a CSV or JSON file for bulk import.
+ *     Records are parsed one at a time as the importer pulls them, so a calendar with
+ *     hundreds of thousands of appointments never has to fit in memory.
+ *
+ *     Formats:
+ *     - CSV: a header row naming the columns (patient_name, doctor_name, appointment_date,
+ *       status, notes, location), in any order, followed by one appointment per line.
+ *       Quoted fields may contain commas, quotes ("") and line breaks.
+ *     - JSON: an array of objects using the same keys.
+ *     A missing status defaults to "Scheduled"; other labels must name an `EventStatus`
+ *     (ignoring case). Notes and location are optional.
+ *
+ *     Dependencies:
+ *     - Android JsonReader (`android.util.JsonReader`)
+ *
+ *     Issues:
+ *     - No known issues.
+ */
+
+package com.example.appointmentnow_steward;
+
+import android.util.JsonReader;
+import android.util.JsonToken;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+public abstract class EventImportReader implements Iterator<Event>, Closeable {
+
+    public static final EventStatus DEFAULT_STATUS = EventStatus.SCHEDULED;
+
+    public enum Format {
+        CSV, JSON;
+
+        /**
+         * Picks the format from a MIME type, falling back to the file name's extension.
+         */
+        public static Format detect(String mimeType, String fileName) {
+            if (mimeType != null && mimeType.contains("json")) return JSON;
+            if (fileName != null && fileName.toLowerCase(Locale.ROOT).endsWith(".json")) return JSON;
+            return CSV;
+        }
+    }
+
+    private Event next;        // Record parsed ahead for hasNext()
+    private boolean exhausted; // readNext() returned null; it must not be called again
+    protected int recordNumber; // 1-based, for error messages
+
+    /**
+     * Opens a streaming reader over the given input.
+     */
+    public static EventImportReader open(Reader reader, Format format) throws IOException {
+        return format == Format.JSON ? new JsonEventReader(reader) : new CsvEventReader(reader);
+    }
+
+    /**
+     * Parses the next record, or returns null at end of input. Never called again after
+     * returning null.
+     */
+    protected abstract Event readNext() throws IOException;
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !exhausted) {
+            try {
+                next = readNext();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error reading record " + (recordNumber + 1), e);
+            }
+            // Past the closing bracket android.util.JsonReader.hasNext() is true again, so
+            // the end must be remembered rather than re-read
+            exhausted = next == null;
+        }
+        return next != null;
+    }
+
+    @Override
+    public Event next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        Event event = next;
+        next = null;
+        return event;
+    }
+
+    /**
+     * Builds an Event from named fields, validating the required ones.
+     */
+    protected Event toEvent(Map<String, String> fields) {
+        recordNumber++;
+        String patientName = required(fields, "patient_name");
+        String doctorName = required(fields, "doctor_name");
+        String appointmentDate = required(fields, "appointment_date");
+        if (AppointmentDates.parseOrNull(appointmentDate) == null) {
+            throw new IllegalArgumentException("Record " + recordNumber + " has an invalid appointment_date: "
+                    + appointmentDate + " (expected yyyy-MM-dd)");
+        }
+        String statusLabel = fields.get("status");
+        EventStatus status = DEFAULT_STATUS;
+        if (statusLabel != null && !statusLabel.isEmpty()) {
+            status = EventStatus.fromLabel(statusLabel.trim());
+            if (status == null) {
+                throw new IllegalArgumentException("Record " + recordNumber + " has an invalid status: " + statusLabel);
+            }
+        }
+
+        return new Event(patientName, doctorName, appointmentDate, status,
+                fields.get("notes"), fields.get("location"), null);
+    }
+
+    private String required(Map<String, String> fields, String key) {
+        String value = fields.get(key);
+        if (value == null || value.trim().isEmpty()) {
+            throw new IllegalArgumentException("Record " + recordNumber + " is missing " + key);
+        }
+        return value.trim();
+    }
+
+    // -------------------- CSV --------------------
+
+    private static final class CsvEventReader extends EventImportReader {
+        private final BufferedReader reader;
+        private final String[] header;
+        private final List<String> row = new ArrayList<>();
+        private final Map<String, String> fields = new HashMap<>();
+        private final StringBuilder field = new StringBuilder();
+
+        CsvEventReader(Reader reader) throws IOException {
+            this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+            if (!readRow()) throw new IllegalArgumentException("CSV file is empty");
+
+            header = new String[row.size()];
+            for (int i = 0; i < row.size(); i++) {
+                // Strip a UTF-8 byte order mark some spreadsheet exports put before the first column
+                header[i] = row.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT);
+            }
+        }
+
+        @Override
+        protected Event readNext() throws IOException {
+            do {
+                if (!readRow()) return null;
+            } while (row.size() == 1 && row.get(0).isEmpty()); // Skip blank lines
+
+            fields.clear();
+            for (int i = 0; i < header.length && i < row.size(); i++) {
+                fields.put(header[i], row.get(i));
+            }
+            return toEvent(fields);
+        }
+
+        /**
+         * Reads one RFC 4180 row into {@link #row}. Returns false at end of input.
+         */
+        private boolean readRow() throws IOException {
+            row.clear();
+            field.setLength(0);
+            boolean quoted = false;
+            int c = reader.read();
+            if (c == -1) return false;
+
+            while (c != -1) {
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        int peek = reader.read();
+                        if (peek == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            reader.reset();
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    row.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    break;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+                c = reader.read();
+            }
+            row.add(field.toString());
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    // -------------------- JSON --------------------
+
+    private static final class JsonEventReader extends EventImportReader {
+        private final JsonReader reader;
+        private final Map<String, String> fields = new HashMap<>();
+
+        JsonEventReader(Reader reader) throws IOException {
+            this.reader = new JsonReader(reader);
+            this.reader.beginArray();
+        }
+
+        @Override
+        protected Event readNext() throws IOException {
+            if (!reader.hasNext()) {
+                reader.endArray();
+                return null;
+            }
+
+            fields.clear();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (reader.peek() == JsonToken.NULL) {
+                    reader.nextNull();
+                } else if (reader.peek() == JsonToken.STRING || reader.peek() == JsonToken.NUMBER) {
+                    fields.put(name, reader.nextString());
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+            return toEvent(fields);
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ *     Appointment Now - Event List Item
+ *     Author: Conor Steward
+ *     Contact: 1conorsteward@gmail.com
+ *     Date Created: 10/17/26
+ *     Last Updated: 10/17/26
+ *     Version: 2.3
+ *
+ *     Description:
+ *     This class is the lightweight row model for the event list and history screens.
+ *     It carries only what a list row shows (patient, doctor, status, the attached PDF for its
+ *     thumbnail) plus the paging key (appointment date, ID). Notes and location can be long and
+ *     are never shown in a list, so they stay in the database until a full `Event` is loaded
+ *     for the detail screen or the edit dialog.
+ *
+ *     Features:
+ *     - Immutable, with content equality for list diffing.
+ *     - Converts from a full `Event` after an add or edit.
+ *
+ *     Dependencies:
+ *     - `Event.java` (Full event model)
+ *
+ *     Issues:
+ *     - No known issues.
+ */
+
+package com.example.appointmentnow_steward;
+
+import java.util.Objects;
+
+public final class EventListItem {
+
+    private final long id;
+    private final String patientName;
+    private final String doctorName;
+    private final String appointmentDate;
+    private final EventStatus status;
+    private final String pdfUri;
+
+    public EventListItem(long id, String patientName, String doctorName, String appointmentDate, EventStatus status) {
+        this(id, patientName, doctorName, appointmentDate, status, null);
+    }
+
+    public EventListItem(long id, String patientName, String doctorName, String appointmentDate, EventStatus status,
+                         String pdfUri) {
+        this.id = id;
+        this.patientName = patientName;
+        this.doctorName = doctorName;
+        this.appointmentDate = appointmentDate;
+        this.status = status;
+        this.pdfUri = pdfUri;
+    }
+
+    /**
+     * Creates the list row for a full event, e.g. one just saved by the edit dialog.
+     */
+    public static EventListItem from(Event event) {
+        return new EventListItem(event.getId(), event.getPatientName(), event.getDoctorName(),
+                event.getAppointmentDate(), event.getStatus(), event.getPdfUri());
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getPatientName() {
+        return patientName;
+    }
+
+    public String getDoctorName() {
+        return doctorName;
+    }
+
+    public String getAppointmentDate() {
+        return appointmentDate;
+    }
+
+    public EventStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Returns the URI of the attached PDF, or null if there is none.
+     */
+    public String getPdfUri() {
+        return pdfUri;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof EventListItem)) return false;
+        EventListItem other = (EventListItem) o;
+        return id == other.id
+                && Objects.equals(patientName, other.patientName)
+                && Objects.equals(doctorName, other.doctorName)
+                && Objects.equals(appointmentDate, other.appointmentDate)
+                && status == other.status
+                && Objects.equals(pdfUri, other.pdfUri);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, patientName, doctorName, appointmentDate, status, pdfUri);
+    }
+}
@@ -0,0 +1,292 @@
+/*
+ *     Appointment Now - Event Pager
+ *     Author: Conor Steward
+ *     Contact: 1conorsteward@gmail.com
+ *     Date Created: 10/17/26
+ *     Last Updated: 10/17/26
+ *     Version: 2.3
+ *
+ *     Description:
+ *     This class keeps a bounded, scrollable window of `EventListItem` rows for the event list.
+ *     Pages are fetched from `DatabaseHelper` with keyset paging on (appointment_date, event_id)
+ *     and pages that scroll far out of view are evicted, so memory stays flat no matter
+ *     how many appointments a user has.
+ *
+ *     Features:
+ *     - Loads pages forwards and backwards around the visible rows.
+ *     - Evicts the page furthest from the loading edge once the window is full.
+ *     - Reports inserted/removed ranges so the adapter can update incrementally.
+ *     - Drops pages that were requested before a reset, so a reload never mixes in stale rows.
+ *     - Moves edited rows to their sorted position, so the window edges stay valid page keys.
+ *
+ *     Dependencies:
+ *     - `DatabaseHelper.java` (Paged event queries)
+ *     - `EventListItem.java` (List row model)
+ *
+ *     Issues:
+ *     - No known issues.
+ */
+
+package com.example.appointmentnow_steward;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class EventPager {
+
+    // Defaults sized for a phone screen: ~10 visible rows, a few screens of slack each way
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int DEFAULT_MAX_PAGES = 5;
+
+    // Load the next page once the user is this many rows away from either edge
+    public static final int PREFETCH_DISTANCE = 15;
+
+    /**
+     * Receives change notifications for the window, typically forwarded to a RecyclerView adapter.
+     */
+    public interface Callback {
+        void onItemRangeInserted(int positionStart, int itemCount);
+
+        void onItemRangeRemoved(int positionStart, int itemCount);
+    }
+
+    /**
+     * Immutable (appointment_date, event_id) key that a page is fetched relative to, tagged
+     * with the window generation it was issued for. The first page has a null date and ID 0.
+     */
+    public static final class PageKey {
+        public final String appointmentDate;
+        public final long eventId;
+        final int generation;
+
+        PageKey(String appointmentDate, long eventId, int generation) {
+            this.appointmentDate = appointmentDate;
+            this.eventId = eventId;
+            this.generation = generation;
+        }
+    }
+
+    private final int pageSize;
+    private final int maxPages;
+    private final Callback callback;
+
+    private final List<EventListItem> window = new ArrayList<>();       // Rows currently held in memory
+    private final ArrayDeque<Integer> pageSizes = new ArrayDeque<>(); // Size of each page in the window
+
+    private boolean hasMoreAfter = true;   // Unloaded rows exist after the window
+    private boolean hasMoreBefore = false; // Rows were evicted from (or exist) before the window
+    private boolean loading = false;
+    private int generation;                // Bumped by reset(); older loads are ignored
+
+    public EventPager(Callback callback) {
+        this(DEFAULT_PAGE_SIZE, DEFAULT_MAX_PAGES, callback);
+    }
+
+    public EventPager(int pageSize, int maxPages, Callback callback) {
+        this.pageSize = pageSize;
+        this.maxPages = maxPages;
+        this.callback = callback;
+    }
+
+    /**
+     * Returns the live window backing the adapter. Only mutate it through this class.
+     */
+    public List<EventListItem> getWindow() {
+        return window;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Clears the window so the next {@link #beginLoadNext()} starts from the first page.
+     * Loads still in flight are discarded when they complete.
+     */
+    public void reset() {
+        generation++;
+        int removed = window.size();
+        window.clear();
+        pageSizes.clear();
+        hasMoreAfter = true;
+        hasMoreBefore = false;
+        loading = false;
+        if (removed > 0) callback.onItemRangeRemoved(0, removed);
+    }
+
+    // -------------------- Scroll Handling --------------------
+
+    /**
+     * Decides whether the visible range is close enough to an edge to need another page.
+     *
+     * @return  1 to load forwards, -1 to load backwards, 0 if nothing is needed.
+     */
+    public int directionToLoad(int firstVisible, int lastVisible) {
+        if (loading) return 0;
+        if (hasMoreAfter && lastVisible >= window.size() - PREFETCH_DISTANCE) return 1;
+        if (hasMoreBefore && firstVisible <= PREFETCH_DISTANCE) return -1;
+        return 0;
+    }
+
+    // -------------------- Loading (main thread) --------------------
+
+    /**
+     * Marks a forward load as in flight and returns the key to fetch after.
+     *
+     * @return The key of the last row, or the first-page key (null date) for an empty
+     * window; a load must not be started when {@link #canLoadNext()} is false.
+     */
+    public PageKey beginLoadNext() {
+        loading = true;
+        if (window.isEmpty()) return new PageKey(null, 0, generation);
+        EventListItem last = window.get(window.size() - 1);
+        return new PageKey(last.getAppointmentDate(), last.getId(), generation);
+    }
+
+    /**
+     * Marks a backward load as in flight and returns the key to fetch before.
+     */
+    public PageKey beginLoadPrevious() {
+        loading = true;
+        EventListItem first = window.get(0);
+        return new PageKey(first.getAppointmentDate(), first.getId(), generation);
+    }
+
+    public boolean canLoadNext() {
+        return !loading && hasMoreAfter;
+    }
+
+    public boolean canLoadPrevious() {
+        return !loading && hasMoreBefore && !window.isEmpty();
+    }
+
+    /**
+     * Appends a page fetched by {@link DatabaseHelper#getEventsPageAfter} and evicts
+     * pages from the head if the window is over budget.
+     *
+     * @param key The key returned by {@link #beginLoadNext()} for this load.
+     * @return False if the page was dropped because the window was reset since.
+     */
+    public boolean onNextPageLoaded(PageKey key, List<EventListItem> page) {
+        if (key.generation != generation) return false;
+        loading = false;
+        hasMoreAfter = page.size() == pageSize;
+        if (page.isEmpty()) return true;
+
+        int start = window.size();
+        window.addAll(page);
+        pageSizes.addLast(page.size());
+        callback.onItemRangeInserted(start, page.size());
+
+        while (pageSizes.size() > maxPages) {
+            int evicted = pageSizes.removeFirst();
+            window.subList(0, evicted).clear();
+            hasMoreBefore = true;
+            callback.onItemRangeRemoved(0, evicted);
+        }
+        return true;
+    }
+
+    /**
+     * Prepends a page fetched by {@link DatabaseHelper#getEventsPageBefore} (descending order)
+     * and evicts pages from the tail if the window is over budget.
+     *
+     * @param key The key returned by {@link #beginLoadPrevious()} for this load.
+     * @return False if the page was dropped because the window was reset since.
+     */
+    public boolean onPreviousPageLoaded(PageKey key, List<EventListItem> descendingPage) {
+        if (key.generation != generation) return false;
+        loading = false;
+        hasMoreBefore = descendingPage.size() == pageSize;
+        if (descendingPage.isEmpty()) return true;
+
+        List<EventListItem> page = new ArrayList<>(descendingPage);
+        Collections.reverse(page);
+        window.addAll(0, page);
+        pageSizes.addFirst(page.size());
+        callback.onItemRangeInserted(0, page.size());
+
+        while (pageSizes.size() > maxPages) {
+            int evicted = pageSizes.removeLast();
+            int start = window.size() - evicted;
+            window.subList(start, window.size()).clear();
+            hasMoreAfter = true;
+            callback.onItemRangeRemoved(start, evicted);
+        }
+        return true;
+    }
+
+    /**
+     * Clears the in-flight flag after a failed load so scrolling can retry.
+     *
+     * @return False if the load was already discarded by a reset.
+     */
+    public boolean onLoadFailed(PageKey key) {
+        if (key.generation != generation) return false;
+        loading = false;
+        return true;
+    }
+
+    // -------------------- Local Edits --------------------
+
+    /**
+     * Inserts a newly created event at its sorted position if that position lies inside
+     * the loaded window. Events that sort outside the window are picked up by paging.
+     *
+     * @return The adapter position of the event, or -1 if it was not inserted.
+     */
+    public int insertEvent(EventListItem event) {
+        int position = 0;
+        while (position < window.size() && compare(window.get(position), event) < 0) {
+            position++;
+        }
+
+        boolean beforeWindow = position == 0 && hasMoreBefore;
+        boolean afterWindow = position == window.size() && hasMoreAfter;
+        if (beforeWindow || afterWindow) return -1;
+
+        window.add(position, event);
+        if (pageSizes.isEmpty()) {
+            pageSizes.add(1);
+        } else {
+            // Account the row to the last page; page bookkeeping only needs to be approximate
+            pageSizes.addLast(pageSizes.removeLast() + 1);
+        }
+        callback.onItemRangeInserted(position, 1);
+        return position;
+    }
+
+    /**
+     * Removes the event at the given position from the window.
+     */
+    public void removeEvent(int position) {
+        window.remove(position);
+        if (!pageSizes.isEmpty()) {
+            int last = pageSizes.removeLast() - 1;
+            if (last > 0) pageSizes.addLast(last);
+        }
+        callback.onItemRangeRemoved(position, 1);
+    }
+
+    /**
+     * Replaces the event at the given position with its edited version, moving it to its
+     * sorted position so the window's first and last rows remain valid page keys. An event
+     * whose new position lies outside the window leaves it and is picked up by paging.
+     *
+     * @return The new adapter position of the event, or -1 if it left the window.
+     */
+    public int updateEvent(int position, EventListItem event) {
+        removeEvent(position);
+        return insertEvent(event);
+    }
+
+    /**
+     * Orders events by (appointment_date, event_id), matching the paged queries.
+     */
+    private static int compare(EventListItem a, EventListItem b) {
+        int byDate = a.getAppointmentDate().compareTo(b.getAppointmentDate());
+        return byDate != 0 ? byDate : Long.compare(a.getId(), b.getId());
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ *     Appointment Now - Event Row Mapper
+ *     Author: Conor Steward
+ *     Contact: 1conorsteward@gmail.com
+ *     Date Created: 10/17/26
+ *     Last Updated: 10/17/26
+ *     Version: 2.3
+ *
+ *     Description:
+ *     This class turns event cursor rows into `Event` objects. Column indexes are resolved
+ *     once per cursor instead of once per column per row, and every screen shares the
+ *     same mapping code.
+ *
+ *     Features:
+ *     - `EVENT_COLUMNS`: fixed-index fast path for queries built on
+ *       `DatabaseHelper.EVENT_COLUMNS`, with no name lookups at all.
+ *     - `forCursor`: resolves indexes by name once, for any projection containing the columns.
+ *     - `readAll`: maps a whole cursor into a pre-sized list.
+ *     - `readListItems`: maps the narrow list-row projection into `EventListItem`.
+ *     - `ListItemMapper`: shares one doctor-name string per doctor_id within a cursor.
+ *     - Stored epoch-day dates are formatted back to "yyyy-MM-dd" (`AppointmentDates`)
+ *       and status codes to the shared `EventStatus` constants.
+ *
+ *     Dependencies:
+ *     - Android Cursor (`android.database.Cursor`)
+ *
+ *     Issues:
+ *     - No known issues.
+ */
+
+package com.example.appointmentnow_steward;
+
+import android.database.Cursor;
+import android.util.LongSparseArray;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class EventRowMapper {
+
+    /**
+     * Mapper for the column order of {@code DatabaseHelper.EVENT_COLUMNS}.
+     */
+    public static final EventRowMapper EVENT_COLUMNS = new EventRowMapper(0, 1, 3, 4, 5, 7, 8, 6);
+
+    // Column positions of DatabaseHelper.LIST_COLUMNS (a prefix of EVENT_COLUMNS)
+    private static final int LIST_ID = 0;
+    private static final int LIST_PATIENT_NAME = 1;
+    private static final int LIST_DOCTOR_ID = 2;
+    private static final int LIST_DOCTOR_NAME = 3;
+    private static final int LIST_APPOINTMENT_DATE = 4;
+    private static final int LIST_STATUS = 5;
+    private static final int LIST_PDF_URI = 6;
+
+    private final int eventId;
+    private final int patientName;
+    private final int doctorName;
+    private final int appointmentDate;
+    private final int status;
+    private final int notes;
+    private final int location;
+    private final int pdfUri;
+
+    private EventRowMapper(int eventId, int patientName, int doctorName, int appointmentDate,
+                           int status, int notes, int location, int pdfUri) {
+        this.eventId = eventId;
+        this.patientName = patientName;
+        this.doctorName = doctorName;
+        this.appointmentDate = appointmentDate;
+        this.status = status;
+        this.notes = notes;
+        this.location = location;
+        this.pdfUri = pdfUri;
+    }
+
+    /**
+     * Resolves the event column indexes of an arbitrary projection once.
+     *
+     * @throws IllegalArgumentException If a required column is missing.
+     */
+    public static EventRowMapper forCursor(Cursor cursor) {
+        return new EventRowMapper(
+                cursor.getColumnIndexOrThrow("event_id"),
+                cursor.getColumnIndexOrThrow("patient_name"),
+                cursor.getColumnIndexOrThrow("doctor_name"),
+                cursor.getColumnIndexOrThrow("appointment_date"),
+                cursor.getColumnIndexOrThrow("status"),
+                cursor.getColumnIndexOrThrow("notes"),
+                cursor.getColumnIndexOrThrow("location"),
+                cursor.getColumnIndexOrThrow("pdf_uri"));
+    }
+
+    /**
+     * Maps the cursor's current row.
+     */
+    public Event map(Cursor cursor) {
+        return new Event(
+                cursor.getLong(eventId),
+                cursor.getString(patientName),
+                cursor.getString(doctorName),
+                AppointmentDates.format(cursor.getLong(appointmentDate)),
+                EventStatus.fromCode(cursor.getInt(status)),
+                cursor.getString(notes),
+                cursor.getString(location),
+                cursor.getString(pdfUri));
+    }
+
+    /**
+     * Maps rows of a {@code DatabaseHelper.LIST_COLUMNS} cursor. Doctor names are read once per
+     * doctor_id and shared by every row of that doctor, so a list holds one string per doctor and
+     * the adapter's text comparisons hit the same-reference fast path. Use one instance per cursor.
+     */
+    public static final class ListItemMapper {
+        private final LongSparseArray<String> doctorNames = new LongSparseArray<>();
+
+        /**
+         * Maps the cursor's current row.
+         */
+        public EventListItem map(Cursor cursor) {
+            long doctorId = cursor.getLong(LIST_DOCTOR_ID);
+            String doctorName = doctorNames.get(doctorId);
+            if (doctorName == null) {
+                doctorName = cursor.getString(LIST_DOCTOR_NAME);
+                doctorNames.put(doctorId, doctorName);
+            }
+            return new EventListItem(
+                    cursor.getLong(LIST_ID),
+                    cursor.getString(LIST_PATIENT_NAME),
+                    doctorName,
+                    AppointmentDates.format(cursor.getLong(LIST_APPOINTMENT_DATE)),
+                    EventStatus.fromCode(cursor.getInt(LIST_STATUS)),
+                    cursor.getString(LIST_PDF_URI));
+        }
+    }
+
+    /**
+     * Maps every remaining row of a {@code DatabaseHelper.LIST_COLUMNS} cursor. The cursor is not closed.
+     */
+    public static List<EventListItem> readListItems(Cursor cursor) {
+        List<EventListItem> items = new ArrayList<>(Math.max(0, cursor.getCount() - cursor.getPosition() - 1));
+        ListItemMapper mapper = new ListItemMapper();
+        while (cursor.moveToNext()) {
+            items.add(mapper.map(cursor));
+        }
+        return items;
+    }
+
+    /**
+     * Maps every remaining row of the cursor. The cursor is not closed.
+     */
+    public List<Event> readAll(Cursor cursor) {
+        List<Event> events = new ArrayList<>(Math.max(0, cursor.getCount() - cursor.getPosition() - 1));
+        while (cursor.moveToNext()) {
+            events.add(map(cursor));
+        }
+        return events;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ *     Appointment Now - Event Status
+ *     Author: Conor Steward
+ *     Contact: 1conorsteward@gmail.com
+ *     Date Created: 10/17/26
+ *     Last Updated: 10/17/26
+ *     Version: 2.3
+ *
+ *     Description:
+ *     This enum lists the appointment statuses. The events table stores the small integer
+ *     code instead of the label, which keeps rows and the status index narrow; the label
+ *     is a single shared string used for display, the status spinner, import and export.
+ *
+ *     Features:
+ *     - Stable integer codes for the `status` column (never renumber a released code).
+ *     - Case-insensitive label lookup for spinner values and imported files.
+ *
+ *     Dependencies:
+ *     - None
+ *
+ *     Issues:
+ *     - No known issues.
+ */
+
+package com.example.appointmentnow_steward;
+
+public enum EventStatus {
+    SCHEDULED(0, "Scheduled"),
+    COMPLETED(1, "Completed"),
+    MISSED(2, "Missed"),
+    RESCHEDULED(3, "Rescheduled");
+
+    private static final EventStatus[] VALUES = values();
+
+    private final int code;
+    private final String label;
+
+    EventStatus(int code, String label) {
+        this.code = code;
+        this.label = label;
+    }
+
+    /**
+     * The value stored in the events table.
+     */
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * The display label, e.g. "Completed".
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Returns the status stored as {@code code}.
+     *
+     * @throws IllegalArgumentException If no status has this code.
+     */
+    public static EventStatus fromCode(int code) {
+        for (EventStatus status : VALUES) {
+            if (status.code == code) return status;
+        }
+        throw new IllegalArgumentException("Unknown status code: " + code);
+    }
+
+    /**
+     * Returns the status with the given label, ignoring case.
+     *
+     * @return The status, or null if no status has this label.
+     */
+    public static EventStatus fromLabel(String label) {
+        for (EventStatus status : VALUES) {
+            if (status.label.equalsIgnoreCase(label)) return status;
+        }
+        return null;
+    }
+
+    /**
+     * SQL expression mapping a stored status code to its label, e.g. for exports.
+     */
+    static String labelSql(String column) {
+        StringBuilder sql = new StringBuilder("CASE ").append(column);
+        for (EventStatus status : VALUES) {
+            sql.append(" WHEN ").append(status.code).append(" THEN '").append(status.label).append('\'');
+        }
+        return sql.append(" END").toString();
+    }
+}
@@ -11,14 +11,23 @@
  *     Users can view, edit, delete, and search for past appointments.
  * 
  *     Features:
- *     - Displays completed events in a GridView.
+ *     - Displays completed events in a RecyclerView.
  *     - Allows users to edit or delete events.
- *     - Supports search functionality to filter past events by patient name.
+ *     - Supports full-text search over patient, doctor, notes and location.
+ *     - Runs searches off the main thread, debounced, with latest-query-wins cancellation.
+ *     - Updates the list through background diffs, so only changed rows are rebound.
+ *     - Exports the user's appointments to a CSV or JSON file in the background,
+ *       with progress and cancellation (see `EventExporter.java`).
+ *     - Exports the completed visits matching the current search to one paginated PDF or
+ *       a ZIP of per-visit PDFs, streamed from the database (see `VisitPdfExporter.java`).
  * 
  *     Dependencies:
  *     - DatabaseHelper.java (Manages SQLite interactions)
  *     - EventAdapter.java (Binds event data to UI)
  *     - AddEventDialogFragment.java (Handles event editing)
+ *     - SearchPipeline.java (Debounced background search)
+ *     - DatabaseExecutor.java (Background database threads)
+ *     - UserSession.java (Logged-in user)
  * 
  *     Issues:
  *     - History button is currently disabled due to a recent update. Needs fixing.
@@ -26,19 +35,37 @@
 
 package com.example.appointmentnow_steward;
 
-import android.content.SharedPreferences;
+import android.content.ContentResolver;
 import android.database.Cursor;
+import android.net.Uri;
 import android.os.Bundle;
+import android.os.CancellationSignal;
+import android.os.OperationCanceledException;
+import android.provider.DocumentsContract;
 import android.text.Editable;
 import android.text.TextWatcher;
+import android.util.Log;
 import android.widget.EditText;
-import android.widget.GridView;
 import android.widget.ImageButton;
 import android.widget.Toast;
 
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
+import androidx.annotation.VisibleForTesting;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.content.ContextCompat;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
+import com.google.android.material.snackbar.Snackbar;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -46,15 +73,32 @@ public class HistoryActivity extends AppCompatActivity {
 
     // Constants
     private static final String TAG = "HistoryActivity";
-    private static final String PREF_NAME = "AppPreferences";
-    private static final String USER_ID_KEY = "user_id";
 
     // UI Components
-    private GridView completedEventsGrid;
+    private RecyclerView completedEventsRecyclerView;
     private EditText searchEditText;
-    private List<Event> completedEventsList;
+    private List<EventListItem> completedEventsList;
     private EventAdapter eventAdapter;
     private DatabaseHelper databaseHelper;
+    private DatabaseExecutor databaseExecutor;
+
+    // Background search
+    private SearchPipeline<List<EventListItem>> searchPipeline;
+
+    // Export: one document picker per format, and the signal of the running export
+    private ActivityResultLauncher<String> exportCsvLauncher;
+    private ActivityResultLauncher<String> exportJsonLauncher;
+    private ActivityResultLauncher<String> exportPdfLauncher;
+    private ActivityResultLauncher<String> exportZipLauncher;
+    private CancellationSignal exportSignal;
+
+    /**
+     * Writes one export to an open document stream. Runs on a database reader thread.
+     */
+    private interface ExportJob {
+        int run(OutputStream stream, CancellationSignal signal, EventExporter.ProgressListener listener)
+                throws Exception;
+    }
 
     // User ID for session management
     private long userId;
@@ -68,39 +112,64 @@ public class HistoryActivity extends AppCompatActivity {
         setContentView(R.layout.activity_history);
 
         // Initialize database helper and retrieve user ID once
-        databaseHelper = new DatabaseHelper(this);
-        userId = getUserId();
+        databaseHelper = DatabaseHelper.getInstance(this);
+        databaseExecutor = DatabaseExecutor.getInstance();
+        userId = UserSession.getInstance(this).getUserId();
 
-        if (userId == -1) {
+        if (userId == UserSession.NO_USER) {
             showErrorAndExit("Error loading history. Please log in again.");
             return;
         }
 
         initializeUI();
-        loadCompletedEvents("");  // Initial load with no filter
+        initializeSearch();
+        searchPipeline.submitNow("");  // Initial load with no filter
+    }
+
+    /**
+     * Cancels any pending or in-flight search.
+     */
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (searchPipeline != null) searchPipeline.cancel();
+        if (exportSignal != null) exportSignal.cancel();
     }
 
     /**
      * Initializes UI components and sets up event listeners.
      */
     private void initializeUI() {
-        completedEventsGrid = findViewById(R.id.completed_events_grid);
+        completedEventsRecyclerView = findViewById(R.id.completed_events_list);
+        completedEventsRecyclerView.setLayoutManager(new LinearLayoutManager(this));
         searchEditText = findViewById(R.id.search_edit_text);
         ImageButton closeButton = findViewById(R.id.close_button);
+        ImageButton exportButton = findViewById(R.id.export_button);
 
         // Initialize event list and adapter
         completedEventsList = new ArrayList<>();
-        eventAdapter = new EventAdapter(this, completedEventsList);
-        completedEventsGrid.setAdapter(eventAdapter);
+        eventAdapter = new EventAdapter(this);
+        completedEventsRecyclerView.setAdapter(eventAdapter);
 
         // Close button exits the activity
         closeButton.setOnClickListener(v -> finish());
 
+        // Export asks for a format, then lets the user pick where to save through the SAF
+        exportCsvLauncher = registerForActivityResult(new ActivityResultContracts.CreateDocument("text/csv"),
+                uri -> exportEventsToUri(uri, EventImportReader.Format.CSV));
+        exportJsonLauncher = registerForActivityResult(new ActivityResultContracts.CreateDocument("application/json"),
+                uri -> exportEventsToUri(uri, EventImportReader.Format.JSON));
+        exportPdfLauncher = registerForActivityResult(new ActivityResultContracts.CreateDocument("application/pdf"),
+                uri -> exportVisitsToUri(uri, false));
+        exportZipLauncher = registerForActivityResult(new ActivityResultContracts.CreateDocument("application/zip"),
+                uri -> exportVisitsToUri(uri, true));
+        exportButton.setOnClickListener(v -> showExportFormatDialog());
+
         // Set up search functionality
         searchEditText.addTextChangedListener(new TextWatcher() {
             @Override
             public void onTextChanged(CharSequence s, int start, int before, int count) {
-                loadCompletedEvents(s.toString());
+                searchPipeline.submit(s.toString());
             }
 
             @Override
@@ -112,62 +181,88 @@ public class HistoryActivity extends AppCompatActivity {
     }
 
     /**
-     * Loads completed events from the database.
+     * Sets up the debounced search pipeline. Queries run on the shared database reader
+     * pool and only the result of the latest query is posted back to the main thread.
+     */
+    private void initializeSearch() {
+        searchPipeline = new SearchPipeline<>(databaseExecutor.getReadExecutor(), ContextCompat.getMainExecutor(this),
+                SearchPipeline.DEFAULT_DEBOUNCE_MILLIS, this::loadCompletedEvents,
+                new SearchPipeline.ResultListener<List<EventListItem>>() {
+                    @Override
+                    public void onResult(String query, List<EventListItem> events) {
+                        completedEventsList.clear();
+                        completedEventsList.addAll(events);
+                        submitList();
+                    }
+
+                    @Override
+                    public void onError(String query, Exception error) {
+                        Log.e(TAG, "Error loading events", error);
+                        Toast.makeText(HistoryActivity.this,
+                                "Error loading events: " + error.getMessage(), Toast.LENGTH_SHORT).show();
+                    }
+                });
+    }
+
+    /**
+     * Exposes the search pipeline so tests can measure keystroke-to-result latency
+     * through {@link SearchPipeline#setLatencyListener}.
+     */
+    @VisibleForTesting
+    SearchPipeline<List<EventListItem>> getSearchPipeline() {
+        return searchPipeline;
+    }
+
+    /**
+     * Loads completed events from the database. Runs on a database reader thread.
      *
      * @param searchTerm The search term for filtering completed events.
+     * @param token      Cancelled when a newer search supersedes this one.
      */
-    private void loadCompletedEvents(String searchTerm) {
-        completedEventsList.clear();  // Clear previous data before adding new
-
-        try (Cursor cursor = databaseHelper.getEventsByStatus(userId, "Completed", searchTerm)) {
-            if (cursor != null && cursor.moveToFirst()) {
-                do {
-                    completedEventsList.add(new Event(
-                            cursor.getLong(cursor.getColumnIndexOrThrow("event_id")),
-                            cursor.getString(cursor.getColumnIndexOrThrow("patient_name")),
-                            cursor.getString(cursor.getColumnIndexOrThrow("doctor_name")),
-                            cursor.getString(cursor.getColumnIndexOrThrow("appointment_date")),
-                            cursor.getString(cursor.getColumnIndexOrThrow("status")),
-                            cursor.getString(cursor.getColumnIndexOrThrow("notes")),
-                            cursor.getString(cursor.getColumnIndexOrThrow("location")),
-                            cursor.getString(cursor.getColumnIndexOrThrow("pdf_uri"))
-                    ));
-                } while (cursor.moveToNext());
+    private List<EventListItem> loadCompletedEvents(String searchTerm, SearchPipeline.CancelToken token) {
+        List<EventListItem> events = new ArrayList<>();
+        CancellationSignal signal = new CancellationSignal();
+        token.setOnCancelListener(signal::cancel);
+
+        try (Cursor cursor = databaseHelper.getEventsByStatus(userId, EventStatus.COMPLETED, searchTerm, signal)) {
+            if (cursor == null) return events;
+            EventRowMapper.ListItemMapper mapper = new EventRowMapper.ListItemMapper();
+            while (cursor.moveToNext() && !token.isCancelled()) {
+                events.add(mapper.map(cursor));
             }
-        } catch (Exception e) {
-            Toast.makeText(this, "Error loading events: " + e.getMessage(), Toast.LENGTH_SHORT).show();
         }
-
-        eventAdapter.notifyDataSetChanged();
+        return events;
     }
 
     /**
-     * Opens the edit event dialog.
+     * Loads the full event (list rows carry the PDF URI but leave out notes and location)
+     * and opens the edit dialog.
      *
-     * @param event    The event to be edited.
-     * @param position The position of the event in the list.
+     * @param item The list row to be edited.
      */
-    public void openEditEventDialog(Event event, int position) {
+    public void openEditEventDialog(EventListItem item) {
+        databaseExecutor.read(this, () -> databaseHelper.loadEvent(item.getId()), event -> {
+            if (event == null) {
+                Toast.makeText(this, R.string.event_not_found, Toast.LENGTH_SHORT).show();
+            } else if (!getSupportFragmentManager().isStateSaved()) {
+                showEditDialog(event);
+            }
+        });
+    }
+
+    private void showEditDialog(Event event) {
         AddEventDialogFragment dialog = AddEventDialogFragment.newInstance(event);
+        // The dialog persists the update on the database writer; only the list is updated here
         dialog.setOnSaveListener(updatedEvent -> {
-            boolean updated = databaseHelper.updateEvent(
-                    event.getId(),
-                    updatedEvent.getPatientName(),
-                    updatedEvent.getDoctorName(),
-                    updatedEvent.getAppointmentDate(),
-                    updatedEvent.getStatus(),
-                    updatedEvent.getNotes(),
-                    updatedEvent.getLocation(),
-                    updatedEvent.getPdfUri()
-            );
-
-            if (updated) {
-                completedEventsList.set(position, updatedEvent);
-                eventAdapter.notifyDataSetChanged();
-                Toast.makeText(this, "Event updated successfully!", Toast.LENGTH_SHORT).show();
+            int current = indexOfEvent(updatedEvent.getId());
+            if (current == -1) return;
+
+            if (updatedEvent.getStatus() == EventStatus.COMPLETED) {
+                completedEventsList.set(current, EventListItem.from(updatedEvent));
             } else {
-                Toast.makeText(this, "Error updating event.", Toast.LENGTH_SHORT).show();
+                completedEventsList.remove(current); // No longer part of the history
             }
+            submitList();
         });
 
         dialog.show(getSupportFragmentManager(), "EditEventDialog");
@@ -176,32 +271,171 @@ public class HistoryActivity extends AppCompatActivity {
     /**
      * Displays a confirmation dialog before deleting an event.
      *
-     * @param eventId  The ID of the event to be deleted.
-     * @param position The position of the event in the list.
+     * @param eventId The ID of the event to be deleted.
      */
-    public void showDeleteConfirmationDialog(long eventId, int position) {
+    public void showDeleteConfirmationDialog(long eventId) {
         new AlertDialog.Builder(this)
                 .setTitle("Delete Event")
                 .setMessage("Are you sure you want to delete this event?")
-                .setPositiveButton("Delete", (dialog, which) -> {
-                    boolean deleted = databaseHelper.deleteEvent(eventId);
-                    if (deleted) {
-                        completedEventsList.remove(position);
-                        eventAdapter.notifyDataSetChanged();
-                        Toast.makeText(this, "Event deleted successfully!", Toast.LENGTH_SHORT).show();
-                    } else {
-                        Toast.makeText(this, "Error deleting event.", Toast.LENGTH_SHORT).show();
-                    }
-                })
+                .setPositiveButton("Delete", (dialog, which) ->
+                        databaseExecutor.write(this, () -> databaseHelper.deleteEvent(eventId), deleted -> {
+                            if (deleted) {
+                                removeEventById(eventId);
+                                Toast.makeText(this, "Event deleted successfully!", Toast.LENGTH_SHORT).show();
+                            } else {
+                                Toast.makeText(this, "Error deleting event.", Toast.LENGTH_SHORT).show();
+                            }
+                        }))
                 .setNegativeButton("Cancel", null)
                 .show();
     }
 
     /**
-     * Retrieves the logged-in user's ID.
+     * Hands the adapter a snapshot of the list to diff in the background, so an edit or
+     * delete rebinds only the affected row instead of every visible one.
      */
-    private long getUserId() {
-        return getSharedPreferences(PREF_NAME, MODE_PRIVATE).getLong(USER_ID_KEY, -1);
+    private void submitList() {
+        eventAdapter.submitList(new ArrayList<>(completedEventsList));
+    }
+
+    /**
+     * Removes an event from the list by ID; positions may have shifted while the delete ran.
+     */
+    private void removeEventById(long eventId) {
+        int index = indexOfEvent(eventId);
+        if (index != -1) {
+            completedEventsList.remove(index);
+            submitList();
+        }
+    }
+
+    /**
+     * Finds a row by event ID, or -1 if it is not in the list.
+     */
+    private int indexOfEvent(long eventId) {
+        for (int i = 0; i < completedEventsList.size(); i++) {
+            if (completedEventsList.get(i).getId() == eventId) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Lets the user choose CSV or JSON (all appointments), or PDF or a ZIP of PDFs (the
+     * visits matching the current search), before picking the output file.
+     */
+    private void showExportFormatDialog() {
+        if (exportSignal != null) return; // One export at a time
+
+        new AlertDialog.Builder(this)
+                .setTitle(R.string.export_events)
+                .setItems(new String[]{"CSV", "JSON", "PDF (matching visits)", "ZIP of PDFs (matching visits)"},
+                        (dialog, which) -> {
+                            if (which == 0) {
+                                exportCsvLauncher.launch("appointments.csv");
+                            } else if (which == 1) {
+                                exportJsonLauncher.launch("appointments.json");
+                            } else if (which == 2) {
+                                exportPdfLauncher.launch("visits.pdf");
+                            } else {
+                                exportZipLauncher.launch("visits.zip");
+                            }
+                        })
+                .setNegativeButton("Cancel", null)
+                .show();
+    }
+
+    /**
+     * Streams all of the user's appointments into the chosen document as CSV or JSON.
+     *
+     * @param uri    The document created by the picker, or null if it was dismissed.
+     * @param format The output format.
+     */
+    private void exportEventsToUri(Uri uri, EventImportReader.Format format) {
+        exportToUri(uri, (stream, signal, listener) -> {
+            int total = databaseHelper.getEventCounts(userId).getTotal(); // Not cursor.getCount(): no counting pass
+            try (Cursor cursor = databaseHelper.getEventsForExport(userId, signal);
+                 Writer writer = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8))) {
+                return EventExporter.export(cursor, writer, format, total, signal, listener);
+            }
+        });
+    }
+
+    /**
+     * Streams the completed visits matching the search box, as it is now, into the chosen
+     * document: one paginated PDF, or a ZIP holding one PDF per visit.
+     *
+     * @param uri The document created by the picker, or null if it was dismissed.
+     * @param zip True for a ZIP of per-visit PDFs.
+     */
+    private void exportVisitsToUri(Uri uri, boolean zip) {
+        String searchTerm = searchEditText.getText().toString();
+        exportToUri(uri, (stream, signal, listener) -> {
+            try (Cursor cursor = databaseHelper.getEventsByStatusForPdf(userId, EventStatus.COMPLETED, searchTerm, signal);
+                 OutputStream out = new BufferedOutputStream(stream)) {
+                return zip
+                        ? VisitPdfExporter.exportZip(cursor, out, signal, listener)
+                        : VisitPdfExporter.exportDocument(cursor, out, signal, listener);
+            }
+        });
+    }
+
+    /**
+     * Runs an export into the chosen document on a database reader thread, with a cancellable
+     * progress bar. A partially written file is deleted if the export fails or is cancelled.
+     *
+     * @param uri The document created by the picker, or null if it was dismissed.
+     */
+    private void exportToUri(Uri uri, ExportJob job) {
+        if (uri == null) return;
+
+        ContentResolver resolver = getContentResolver();
+        CancellationSignal signal = new CancellationSignal();
+        exportSignal = signal;
+        Snackbar progress = Snackbar.make(completedEventsRecyclerView,
+                        getString(R.string.export_progress, 0, 0), Snackbar.LENGTH_INDEFINITE)
+                .setAction(R.string.cancel, v -> signal.cancel());
+        progress.show();
+
+        databaseExecutor.read(this, () -> {
+            try (OutputStream stream = resolver.openOutputStream(uri, "wt")) {
+                return job.run(stream, signal, (done, total) ->
+                        runOnUiThread(() -> progress.setText(getString(R.string.export_progress, done, total))));
+            } catch (Exception e) {
+                deletePartialExport(resolver, uri);
+                throw e;
+            }
+        }, new DatabaseExecutor.Callback<Integer>() {
+            @Override
+            public void onResult(Integer count) {
+                exportSignal = null;
+                progress.dismiss();
+                Toast.makeText(HistoryActivity.this,
+                        getString(R.string.export_complete, count), Toast.LENGTH_SHORT).show();
+            }
+
+            @Override
+            public void onError(Exception error) {
+                exportSignal = null;
+                progress.dismiss();
+                if (error instanceof OperationCanceledException) {
+                    Toast.makeText(HistoryActivity.this, R.string.export_cancelled, Toast.LENGTH_SHORT).show();
+                } else {
+                    Log.e(TAG, "Error exporting events", error);
+                    Toast.makeText(HistoryActivity.this, R.string.export_failed, Toast.LENGTH_SHORT).show();
+                }
+            }
+        });
+    }
+
+    /**
+     * Removes an incomplete export so no truncated file is left behind. Runs on a background thread.
+     */
+    private static void deletePartialExport(ContentResolver resolver, Uri uri) {
+        try {
+            DocumentsContract.deleteDocument(resolver, uri);
+        } catch (Exception e) {
+            Log.w(TAG, "Could not delete partial export", e);
+        }
     }
 
     /**
@@ -11,13 +11,16 @@
  *     Users enter their email and password to authenticate.
  *     
  *     Features:
- *     - Validates user credentials securely using SHA-256 hashed passwords.
+ *     - Validates user credentials against salted PBKDF2 password hashes.
  *     - Uses `DatabaseHelper.java` to interact with the SQLite database.
- *     - Saves session data using SharedPreferences.
+ *     - Starts the cached user session (see `UserSession.java`).
+ *     - Verifies credentials (and upgrades outdated hashes) on the shared database reader
+ *       pool, off the UI thread.
  *     - Provides a link to account registration.
  * 
  *     Dependencies:
  *     - `DatabaseHelper.java` (Handles database interactions)
+ *     - `UserSession.java` (Logged-in user)
  *     - `EventDisplayActivity.java` (Main app screen)
  * 
  *     Issues:
@@ -27,7 +30,6 @@
 package com.example.appointmentnow_steward;
 
 import android.content.Intent;
-import android.content.SharedPreferences;
 import android.os.Bundle;
 import android.text.InputType;
 import android.widget.Button;
@@ -37,10 +39,6 @@ import androidx.appcompat.app.AppCompatActivity;
 
 public class LoginActivity extends AppCompatActivity {
 
-    // Constants
-    private static final String PREF_NAME = "AppPreferences";
-    private static final String USER_ID_KEY = "user_id";
-
     // UI Components
     private EditText emailField, passwordField;
     private DatabaseHelper dbHelper;
@@ -54,7 +52,7 @@ public class LoginActivity extends AppCompatActivity {
         setContentView(R.layout.activity_login);
 
         initializeUI();
-        dbHelper = new DatabaseHelper(this);
+        dbHelper = DatabaseHelper.getInstance(this);
     }
 
     /**
@@ -86,24 +84,14 @@ public class LoginActivity extends AppCompatActivity {
             return;
         }
 
-        long userId = dbHelper.validateUser(email, password);
-        if (userId != -1) {
-            saveUserSession(userId);
-            navigateToMainScreen();
-        } else {
-            showToast("Invalid email or password.");
-        }
-    }
-
-    /**
-     * Saves the user ID in SharedPreferences to maintain session data.
-     *
-     * @param userId The authenticated user's ID.
-     */
-    private void saveUserSession(long userId) {
-        SharedPreferences.Editor editor = getSharedPreferences(PREF_NAME, MODE_PRIVATE).edit();
-        editor.putLong(USER_ID_KEY, userId);
-        editor.apply();
+        DatabaseExecutor.getInstance().read(this, () -> dbHelper.validateUser(email, password), userId -> {
+            if (userId != -1) {
+                UserSession.getInstance(this).logIn(userId);
+                navigateToMainScreen();
+            } else {
+                showToast("Invalid email or password.");
+            }
+        });
     }
 
     /**
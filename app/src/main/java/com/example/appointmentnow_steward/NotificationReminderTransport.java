@@ -0,0 +1,99 @@
+/*
+ *     Appointment Now - Notification Reminder Transport
+ *     Author: Conor Steward
+ *     Contact: 1conorsteward@gmail.com
+ *     Date Created: 10/17/26
+ *     Last Updated: 10/17/26
+ *     Version: 2.3
+ *
+ *     Description:
+ *     This class delivers reminders as local notifications on the "Appointment reminders"
+ *     channel. One notification is posted per event, keyed by its ID, so a reminder sent
+ *     twice replaces itself instead of stacking.
+ *
+ *     Features:
+ *     - Creates the notification channel on Android 8.0+.
+ *     - Notifications of one day share a group, which the system bundles.
+ *     - Patient names are hidden on a secure lock screen.
+ *     - Tapping a reminder opens the app.
+ *
+ *     Dependencies:
+ *     - AndroidX Core (`NotificationCompat`, `NotificationManagerCompat`)
+ *
+ *     Issues:
+ *     - Android shows a limited number of notifications per app (around 50); further
+ *       reminders are not shown until some are dismissed.
+ */
+
+package com.example.appointmentnow_steward;
+
+import android.annotation.SuppressLint;
+import android.app.Notification;
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.os.Build;
+
+import androidx.core.app.NotificationCompat;
+import androidx.core.app.NotificationManagerCompat;
+
+public final class NotificationReminderTransport implements ReminderTransport {
+
+    static final String CHANNEL_ID = "appointment_reminders";
+    private static final String NOTIFICATION_TAG = "reminder";
+
+    private final Context context;
+    private final NotificationManagerCompat notificationManager;
+    private final PendingIntent openApp;
+
+    public NotificationReminderTransport(Context context) {
+        this.context = context.getApplicationContext();
+        this.notificationManager = NotificationManagerCompat.from(this.context);
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            NotificationChannel channel = new NotificationChannel(CHANNEL_ID,
+                    this.context.getString(R.string.reminder_channel_name), NotificationManager.IMPORTANCE_DEFAULT);
+            this.context.getSystemService(NotificationManager.class).createNotificationChannel(channel);
+        }
+
+        Intent intent = new Intent(this.context, LoginActivity.class)
+                .setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TOP);
+        openApp = PendingIntent.getActivity(this.context, 0, intent, PendingIntent.FLAG_IMMUTABLE);
+    }
+
+    /**
+     * Posts the reminder's notification.
+     *
+     * @throws IllegalStateException If the user has turned notifications off for the app.
+     */
+    @Override
+    @SuppressLint("MissingPermission") // POST_NOTIFICATIONS is covered by areNotificationsEnabled()
+    public void send(Reminder reminder) {
+        if (!notificationManager.areNotificationsEnabled()) {
+            throw new IllegalStateException("Notifications are disabled");
+        }
+
+        Notification publicVersion = builder()
+                .setContentText(context.getString(R.string.reminder_public_text))
+                .build();
+        Notification notification = builder()
+                .setContentText(reminder.getMessage())
+                .setStyle(new NotificationCompat.BigTextStyle().bigText(reminder.getMessage()))
+                .setVisibility(NotificationCompat.VISIBILITY_PRIVATE)
+                .setPublicVersion(publicVersion)
+                .setGroup("reminders_" + reminder.getAppointmentDay())
+                .build();
+        notificationManager.notify(NOTIFICATION_TAG, (int) reminder.getEventId(), notification);
+    }
+
+    private NotificationCompat.Builder builder() {
+        return new NotificationCompat.Builder(context, CHANNEL_ID)
+                .setSmallIcon(R.drawable.ic_sms)
+                .setContentTitle(context.getString(R.string.reminder_title))
+                .setCategory(NotificationCompat.CATEGORY_REMINDER)
+                .setContentIntent(openApp)
+                .setAutoCancel(true);
+    }
+}
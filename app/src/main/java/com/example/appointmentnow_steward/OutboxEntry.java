@@ -0,0 +1,52 @@
+/*
+ *     Appointment Now - Outbox Entry
+ *     Author: Conor Steward
+ *     Contact: 1conorsteward@gmail.com
+ *     Date Created: 10/17/26
+ *     Last Updated: 10/17/26
+ *     Version: 2.3
+ *
+ *     Description:
+ *     This class is one reminder claimed from the outbox table: the outbox row to record the
+ *     outcome on, how many attempts it has already had, and the reminder to send. Entries
+ *     come from `DatabaseHelper.claimDueReminders`.
+ *
+ *     Features:
+ *     - Immutable.
+ *
+ *     Dependencies:
+ *     - `Reminder.java`
+ *
+ *     Issues:
+ *     - No known issues.
+ */
+
+package com.example.appointmentnow_steward;
+
+public final class OutboxEntry {
+
+    private final long outboxId;
+    private final int attempts;
+    private final Reminder reminder;
+
+    public OutboxEntry(long outboxId, int attempts, Reminder reminder) {
+        this.outboxId = outboxId;
+        this.attempts = attempts;
+        this.reminder = reminder;
+    }
+
+    public long getOutboxId() {
+        return outboxId;
+    }
+
+    /**
+     * Returns the number of earlier attempts; 0 for a reminder never tried.
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public Reminder getReminder() {
+        return reminder;
+    }
+}
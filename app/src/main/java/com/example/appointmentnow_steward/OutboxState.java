@@ -0,0 +1,59 @@
+/*
+ *     Appointment Now - Outbox State
+ *     Author: Conor Steward
+ *     Contact: 1conorsteward@gmail.com
+ *     Date Created: 10/17/26
+ *     Last Updated: 10/17/26
+ *     Version: 2.3
+ *
+ *     Description:
+ *     This enum lists the states of a reminder in the outbox table. A reminder is queued as
+ *     Pending, claimed as Sending while a transport has it, and ends Sent, Failed or
+ *     Cancelled. A transient failure returns it to Pending with a later attempt time.
+ *
+ *     Features:
+ *     - Stable integer codes for the `state` column (never renumber a released code).
+ *
+ *     Dependencies:
+ *     - None
+ *
+ *     Issues:
+ *     - No known issues.
+ */
+
+package com.example.appointmentnow_steward;
+
+public enum OutboxState {
+    PENDING(0),   // Waiting for its next attempt
+    SENDING(1),   // Claimed by a dispatcher; reset to Pending if the process dies mid-send
+    SENT(2),      // Delivered to the transport
+    FAILED(3),    // Permanent failure or out of attempts
+    CANCELLED(4); // Event deleted, no longer Scheduled, moved to another day, or already past
+
+    private static final OutboxState[] VALUES = values();
+
+    private final int code;
+
+    OutboxState(int code) {
+        this.code = code;
+    }
+
+    /**
+     * The value stored in the outbox table.
+     */
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * Returns the state stored as {@code code}.
+     *
+     * @throws IllegalArgumentException If no state has this code.
+     */
+    public static OutboxState fromCode(int code) {
+        for (OutboxState state : VALUES) {
+            if (state.code == code) return state;
+        }
+        throw new IllegalArgumentException("Unknown outbox state code: " + code);
+    }
+}
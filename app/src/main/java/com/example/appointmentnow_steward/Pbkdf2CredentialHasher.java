@@ -0,0 +1,211 @@
+/*
+ *     Appointment Now - PBKDF2 Credential Hasher
+ *     Author: Conor Steward
+ *     Contact: 1conorsteward@gmail.com
+ *     Date Created: 10/17/26
+ *     Last Updated: 10/17/26
+ *     Version: 2.3
+ *
+ *     Description:
+ *     This class hashes passwords with PBKDF2-HMAC-SHA256 and a random 16-byte salt per user.
+ *     The iteration count is stored in the encoded hash, so it can be raised later: older
+ *     hashes still verify and are replaced on the user's next login (see `needsRehash`).
+ *     Hashes from earlier app versions (unsalted SHA-256 hex) are still accepted so that
+ *     existing accounts can log in once and be upgraded.
+ *
+ *     Encoded form: "pbkdf2-sha256$<iterations>$<salt hex>$<hash hex>".
+ *
+ *     Features:
+ *     - PBKDF2 computed over `Mac` directly: "PBKDF2WithHmacSHA256" is only a
+ *       `SecretKeyFactory` algorithm from API 26, and minSdk is 23.
+ *     - Constant-time comparison of hashes.
+ *     - `calibrateIterations` measures this device and suggests an iteration count
+ *       for a target latency.
+ *
+ *     Dependencies:
+ *     - Java Cryptography Architecture (`Mac`, `SecureRandom`)
+ *
+ *     Issues:
+ *     - Hashing takes on the order of 100 ms by design; call only from background threads.
+ */
+
+package com.example.appointmentnow_steward;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+public final class Pbkdf2CredentialHasher implements CredentialHasher {
+
+    /**
+     * Iterations for new hashes. Raise it as devices get faster; stored hashes are upgraded on
+     * login. Use {@link #calibrateIterations} (see DatabaseBenchmarkTest) to pick a value.
+     */
+    public static final int DEFAULT_ITERATIONS = 100_000;
+
+    static final int MIN_ITERATIONS = 10_000;
+
+    private static final String ALGORITHM = "pbkdf2-sha256";
+    private static final String HMAC = "HmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BYTES = 32; // One HMAC-SHA256 block
+    private static final int LEGACY_HASH_HEX_LENGTH = 64;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final int iterations;
+
+    public Pbkdf2CredentialHasher(int iterations) {
+        if (iterations < 1) throw new IllegalArgumentException("Iterations must be positive: " + iterations);
+        this.iterations = iterations;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    @Override
+    public String hash(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        byte[] hash = pbkdf2(password, salt, iterations);
+        return ALGORITHM + '$' + iterations + '$' + toHex(salt) + '$' + toHex(hash);
+    }
+
+    @Override
+    public boolean verify(String password, String storedHash) {
+        if (password == null || storedHash == null) return false;
+
+        if (isLegacyHash(storedHash)) {
+            // Also accept the double hash that registration used to store by mistake
+            String sha256 = sha256Hex(password);
+            return constantTimeEquals(sha256, storedHash) || constantTimeEquals(sha256Hex(sha256), storedHash);
+        }
+
+        String[] parts = storedHash.split("\\$");
+        if (parts.length != 4 || !ALGORITHM.equals(parts[0])) return false;
+        try {
+            int storedIterations = Integer.parseInt(parts[1]);
+            byte[] salt = fromHex(parts[2]);
+            byte[] expected = fromHex(parts[3]);
+            if (storedIterations < 1 || expected.length != HASH_BYTES) return false;
+            return MessageDigest.isEqual(expected, pbkdf2(password, salt, storedIterations));
+        } catch (IllegalArgumentException e) { // Also covers NumberFormatException
+            return false;
+        }
+    }
+
+    @Override
+    public boolean needsRehash(String storedHash) {
+        if (storedHash == null || !storedHash.startsWith(ALGORITHM + '$')) return true;
+        String[] parts = storedHash.split("\\$");
+        return parts.length != 4 || !parts[1].equals(String.valueOf(iterations))
+                || parts[2].length() != SALT_BYTES * 2;
+    }
+
+    /**
+     * Measures PBKDF2 on this device and returns the iteration count that takes about
+     * {@code targetMillis}, rounded down to a thousand and never below {@value #MIN_ITERATIONS}.
+     */
+    public static int calibrateIterations(long targetMillis) {
+        final int probe = MIN_ITERATIONS;
+        byte[] salt = new byte[SALT_BYTES];
+        for (int i = 0; i < 3; i++) {
+            pbkdf2("calibration", salt, probe); // Warm-up (class loading, JIT)
+        }
+
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            long start = System.nanoTime();
+            pbkdf2("calibration", salt, probe);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        long iterations = probe * (targetMillis * 1_000_000L) / Math.max(1, best);
+        return (int) Math.max(MIN_ITERATIONS, Math.min(Integer.MAX_VALUE, iterations / 1_000 * 1_000));
+    }
+
+    /**
+     * PBKDF2-HMAC-SHA256 (RFC 8018) producing one 32-byte block.
+     */
+    static byte[] pbkdf2(String password, byte[] salt, int iterations) {
+        byte[] key = password.getBytes(StandardCharsets.UTF_8);
+        try {
+            // HMAC zero-pads the key, so an empty key equals a single zero byte (which
+            // SecretKeySpec, unlike an empty array, accepts)
+            Mac mac = Mac.getInstance(HMAC);
+            mac.init(new SecretKeySpec(key.length == 0 ? new byte[1] : key, HMAC));
+
+            byte[] block = new byte[HASH_BYTES];
+            mac.update(salt);
+            mac.update(new byte[]{0, 0, 0, 1}); // Block index, big-endian
+            mac.doFinal(block, 0);
+
+            byte[] result = block.clone();
+            for (int i = 1; i < iterations; i++) {
+                mac.update(block);
+                mac.doFinal(block, 0);
+                for (int j = 0; j < HASH_BYTES; j++) {
+                    result[j] ^= block[j];
+                }
+            }
+            return result;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(HMAC + " unavailable", e);
+        } finally {
+            Arrays.fill(key, (byte) 0);
+        }
+    }
+
+    private static boolean isLegacyHash(String storedHash) {
+        if (storedHash.length() != LEGACY_HASH_HEX_LENGTH) return false;
+        for (int i = 0; i < storedHash.length(); i++) {
+            if (Character.digit(storedHash.charAt(i), 16) == -1) return false;
+        }
+        return true;
+    }
+
+    /**
+     * The unsalted hash of app versions up to 2.2: lowercase hex of SHA-256 over UTF-8.
+     */
+    private static String sha256Hex(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return toHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+
+    private static boolean constantTimeEquals(String a, String b) {
+        return MessageDigest.isEqual(a.getBytes(StandardCharsets.US_ASCII), b.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * @throws IllegalArgumentException If the text is not an even number of hex digits.
+     */
+    private static byte[] fromHex(String hex) {
+        if (hex.length() % 2 != 0) throw new IllegalArgumentException("Odd hex length");
+        byte[] bytes = new byte[hex.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            int high = Character.digit(hex.charAt(2 * i), 16);
+            int low = Character.digit(hex.charAt(2 * i + 1), 16);
+            if (high == -1 || low == -1) throw new IllegalArgumentException("Not hex: " + hex);
+            bytes[i] = (byte) ((high << 4) | low);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,374 @@
+/*
+ *     Appointment Now - PDF Thumbnail Loader
+ *     Author: Conor Steward
+ *     Contact: 1conorsteward@gmail.com
+ *     Date Created: 10/17/26
+ *     Last Updated: 10/17/26
+ *     Version: 2.3
+ *
+ *     Description:
+ *     This class produces thumbnails of attached PDFs for the event list and detail screens.
+ *     The first page is rendered with `PdfRenderer` at list-row size on a background thread,
+ *     together with the document's page count. Results are kept in two caches:
+ *     - Memory: an LRU of bitmaps sized from the app's maximum heap.
+ *     - Disk: PNG files in the app cache, keyed by the document URI, its last-modified time
+ *       and its size, so an edited document is rendered again and an unchanged one never is.
+ *
+ *     Features:
+ *     - `into` binds a thumbnail to an `ImageView` without blocking: cached thumbnails are
+ *       shown at once and allocation-free, others are loaded and shown only if the view
+ *       (e.g. a recycled list row) still wants that URI.
+ *     - Concurrent requests for the same URI share one render.
+ *     - Missing documents (deleted, permission revoked) are remembered, not retried per bind;
+ *       other failures, such as an I/O error mid-read, are retried on the next load.
+ *     - The disk cache is trimmed to {@value #MAX_DISK_BYTES} bytes, least recently used first.
+ *
+ *     Dependencies:
+ *     - Android PDF API (`PdfRenderer`)
+ *     - Android LruCache
+ *
+ *     Issues:
+ *     - The memory cache is keyed by URI only (checking the last-modified time would need a
+ *       provider query per bind); a document edited while the app runs keeps its old
+ *       thumbnail until the cache evicts it or the app restarts.
+ */
+
+package com.example.appointmentnow_steward;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.database.Cursor;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Color;
+import android.graphics.pdf.PdfRenderer;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.ParcelFileDescriptor;
+import android.os.Process;
+import android.provider.DocumentsContract;
+import android.provider.OpenableColumns;
+import android.util.Log;
+import android.util.LruCache;
+import android.view.View;
+import android.widget.ImageView;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public final class PdfThumbnailLoader {
+
+    private static final String TAG = "PdfThumbnailLoader";
+
+    private static final int THUMBNAIL_WIDTH_DP = 48;
+    private static final int MAX_ASPECT_RATIO = 2; // Height cap for unusually tall pages
+    private static final long MAX_DISK_BYTES = 16L * 1024 * 1024;
+    private static final String DISK_DIRECTORY = "pdf_thumbnails";
+    private static final int DISK_FORMAT_VERSION = 1;
+
+    /**
+     * A rendered first page and the document's page count.
+     */
+    public static final class Thumbnail {
+        private final Bitmap bitmap;
+        private final int pageCount;
+
+        Thumbnail(Bitmap bitmap, int pageCount) {
+            this.bitmap = bitmap;
+            this.pageCount = pageCount;
+        }
+
+        public Bitmap getBitmap() {
+            return bitmap;
+        }
+
+        public int getPageCount() {
+            return pageCount;
+        }
+    }
+
+    /**
+     * Receives a thumbnail on the main thread, or null if the document could not be read.
+     */
+    public interface Callback {
+        void onLoaded(Thumbnail thumbnail);
+    }
+
+    // Memory-cache marker for documents that are gone or no longer accessible
+    private static final Thumbnail MISSING = new Thumbnail(null, 0);
+
+    private static volatile PdfThumbnailLoader instance;
+
+    private final ContentResolver resolver;
+    private final File diskDirectory;
+    private final int widthPx;
+    private final LruCache<String, Thumbnail> memoryCache;
+    private final ExecutorService renderExecutor;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Map<String, List<Callback>> pending = new HashMap<>(); // Main thread only
+
+    private PdfThumbnailLoader(Context context) {
+        resolver = context.getContentResolver();
+        diskDirectory = new File(context.getCacheDir(), DISK_DIRECTORY);
+        widthPx = Math.round(THUMBNAIL_WIDTH_DP * context.getResources().getDisplayMetrics().density);
+
+        // An eighth of the heap a list screen can spare, counted in bitmap bytes
+        int maxBytes = (int) Math.min(Integer.MAX_VALUE, Runtime.getRuntime().maxMemory() / 8);
+        memoryCache = new LruCache<String, Thumbnail>(maxBytes) {
+            @Override
+            protected int sizeOf(String uri, Thumbnail thumbnail) {
+                return thumbnail.bitmap == null ? 1 : thumbnail.bitmap.getByteCount();
+            }
+        };
+
+        // One thread: PdfRenderer allows one open page per document, and scrolling keeps the CPU
+        renderExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(() -> {
+                Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                runnable.run();
+            }, "pdf-thumbnails");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns the process-wide loader, creating it on first use.
+     */
+    public static PdfThumbnailLoader getInstance(Context context) {
+        if (instance == null) {
+            synchronized (PdfThumbnailLoader.class) {
+                if (instance == null) instance = new PdfThumbnailLoader(context.getApplicationContext());
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Drops the memory cache of the loader, if one was created. Disk entries are kept.
+     */
+    public static void trimMemory() {
+        PdfThumbnailLoader loader = instance;
+        if (loader != null) loader.memoryCache.evictAll();
+    }
+
+    /**
+     * Shows the thumbnail of the PDF at {@code uri} in the view, hiding the view when there
+     * is no attachment or it cannot be read. Call on the main thread.
+     *
+     * @param uri  The attachment URI, or null for none.
+     * @param view The view to fill; its tag is used to track the URI it currently shows.
+     */
+    public void into(String uri, ImageView view) {
+        view.setTag(uri);
+        if (uri == null) {
+            view.setImageDrawable(null);
+            view.setVisibility(View.GONE);
+            return;
+        }
+
+        Thumbnail cached = memoryCache.get(uri);
+        if (cached != null) {
+            show(view, cached);
+            return;
+        }
+
+        view.setImageDrawable(null);
+        view.setVisibility(View.VISIBLE);
+        load(uri, thumbnail -> {
+            if (uri.equals(view.getTag())) show(view, thumbnail == null ? MISSING : thumbnail);
+        });
+    }
+
+    /**
+     * Loads the thumbnail and page count of the PDF at {@code uri}. The callback runs on the
+     * main thread: immediately when the thumbnail is in memory, otherwise after a disk read or
+     * render on the background thread. Call on the main thread.
+     */
+    public void load(String uri, Callback callback) {
+        Thumbnail cached = memoryCache.get(uri);
+        if (cached != null) {
+            callback.onLoaded(cached == MISSING ? null : cached);
+            return;
+        }
+
+        List<Callback> waiting = pending.get(uri);
+        if (waiting != null) { // Already being loaded
+            waiting.add(callback);
+            return;
+        }
+        waiting = new ArrayList<>();
+        waiting.add(callback);
+        pending.put(uri, waiting);
+
+        renderExecutor.execute(() -> {
+            Thumbnail loaded = loadInBackground(uri);
+            mainHandler.post(() -> {
+                if (loaded != null) memoryCache.put(uri, loaded); // Transient failures are not kept
+                Thumbnail thumbnail = loaded == MISSING ? null : loaded;
+                for (Callback waiter : pending.remove(uri)) waiter.onLoaded(thumbnail);
+            });
+        });
+    }
+
+    private static void show(ImageView view, Thumbnail thumbnail) {
+        if (thumbnail.bitmap == null) {
+            view.setImageDrawable(null);
+            view.setVisibility(View.GONE);
+        } else {
+            view.setImageBitmap(thumbnail.bitmap);
+            view.setVisibility(View.VISIBLE);
+        }
+    }
+
+    /**
+     * Reads the thumbnail from the disk cache, or renders and stores it. Runs on the render thread.
+     *
+     * @return The thumbnail, {@link #MISSING} if the document is gone or no longer accessible,
+     * or null if it could not be read this time.
+     */
+    private Thumbnail loadInBackground(String uriString) {
+        Uri uri = Uri.parse(uriString);
+        try {
+            File cacheFile = new File(diskDirectory, diskKey(uri) + ".png");
+            Thumbnail thumbnail = readFromDisk(cacheFile);
+            if (thumbnail != null) {
+                cacheFile.setLastModified(System.currentTimeMillis()); // Recently used
+                return thumbnail;
+            }
+
+            thumbnail = render(uri);
+            writeToDisk(cacheFile, thumbnail);
+            return thumbnail;
+        } catch (FileNotFoundException | SecurityException e) { // Deleted, or access revoked
+            Log.w(TAG, "Thumbnail source unavailable: " + uriString, e);
+            return MISSING;
+        } catch (IOException | RuntimeException e) {
+            Log.w(TAG, "Could not load thumbnail for " + uriString, e);
+            return null;
+        }
+    }
+
+    /**
+     * Renders the first page at thumbnail width on a white background.
+     */
+    private Thumbnail render(Uri uri) throws IOException {
+        ParcelFileDescriptor descriptor = resolver.openFileDescriptor(uri, "r");
+        if (descriptor == null) throw new FileNotFoundException(uri.toString());
+
+        try (ParcelFileDescriptor fd = descriptor;
+             PdfRenderer renderer = new PdfRenderer(fd);
+             PdfRenderer.Page page = renderer.openPage(0)) {
+            int height = Math.round(widthPx * (float) page.getHeight() / page.getWidth());
+            height = Math.max(1, Math.min(height, widthPx * MAX_ASPECT_RATIO));
+
+            Bitmap bitmap = Bitmap.createBitmap(widthPx, height, Bitmap.Config.ARGB_8888);
+            bitmap.eraseColor(Color.WHITE); // Pages render onto transparency otherwise
+            page.render(bitmap, null, null, PdfRenderer.Page.RENDER_MODE_FOR_DISPLAY);
+            return new Thumbnail(bitmap, renderer.getPageCount());
+        }
+    }
+
+    /**
+     * Builds the disk cache key from the URI and, where the provider reports them, the
+     * document's last-modified time and size.
+     */
+    private String diskKey(Uri uri) {
+        long lastModified = -1;
+        long size = -1;
+        try (Cursor cursor = resolver.query(uri, null, null, null, null)) {
+            if (cursor != null && cursor.moveToFirst()) {
+                int modifiedIndex = cursor.getColumnIndex(DocumentsContract.Document.COLUMN_LAST_MODIFIED);
+                int sizeIndex = cursor.getColumnIndex(OpenableColumns.SIZE);
+                if (modifiedIndex != -1 && !cursor.isNull(modifiedIndex)) lastModified = cursor.getLong(modifiedIndex);
+                if (sizeIndex != -1 && !cursor.isNull(sizeIndex)) size = cursor.getLong(sizeIndex);
+            }
+        }
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            byte[] hash = digest.digest((uri + "|" + lastModified + "|" + size + "|" + widthPx)
+                    .getBytes(StandardCharsets.UTF_8));
+            StringBuilder key = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                key.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 unavailable", e);
+        }
+    }
+
+    /**
+     * Entry format: format version, page count, then the PNG-encoded bitmap.
+     *
+     * @return The cached thumbnail, or null if there is no usable entry.
+     */
+    private static Thumbnail readFromDisk(File file) {
+        if (!file.isFile()) return null;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != DISK_FORMAT_VERSION) return null;
+            int pageCount = in.readInt();
+            Bitmap bitmap = BitmapFactory.decodeStream(in);
+            return bitmap == null ? null : new Thumbnail(bitmap, pageCount);
+        } catch (IOException e) {
+            Log.w(TAG, "Discarding unreadable cache entry " + file.getName(), e);
+            file.delete();
+            return null;
+        }
+    }
+
+    private void writeToDisk(File file, Thumbnail thumbnail) {
+        if (!diskDirectory.isDirectory() && !diskDirectory.mkdirs()) return;
+
+        File partial = new File(file.getPath() + ".partial");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(partial)))) {
+            out.writeInt(DISK_FORMAT_VERSION);
+            out.writeInt(thumbnail.pageCount);
+            thumbnail.bitmap.compress(Bitmap.CompressFormat.PNG, 100, out);
+        } catch (IOException e) {
+            Log.w(TAG, "Could not cache thumbnail", e);
+            partial.delete();
+            return;
+        }
+        if (!partial.renameTo(file)) partial.delete();
+        trimDisk();
+    }
+
+    /**
+     * Deletes the least recently used entries until the cache fits {@value #MAX_DISK_BYTES} bytes.
+     */
+    private void trimDisk() {
+        File[] files = diskDirectory.listFiles();
+        if (files == null) return;
+
+        long total = 0;
+        for (File file : files) total += file.length();
+        if (total <= MAX_DISK_BYTES) return;
+
+        Arrays.sort(files, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        for (File file : files) {
+            if (total <= MAX_DISK_BYTES) break;
+            long length = file.length();
+            if (file.delete()) total -= length;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ *     Appointment Now - Rate Limiter
+ *     Author: Conor Steward
+ *     Contact: 1conorsteward@gmail.com
+ *     Date Created: 10/17/26
+ *     Last Updated: 10/17/26
+ *     Version: 2.3
+ *
+ *     Description:
+ *     This class is a token bucket: up to `capacity` sends may go out back to back, after
+ *     which permits come back at a steady rate of `capacity` per period. `ReminderDispatcher`
+ *     uses one per transport so a large reminder window cannot trip the platform's own
+ *     SMS or notification throttles.
+ *
+ *     Features:
+ *     - Waits for a permit only up to a caller's deadline, so a short-lived wakeup never
+ *       blocks on a permit it cannot use.
+ *     - Reports how long until a number of permits are available, for scheduling the
+ *       next wakeup.
+ *     - Injectable clock and sleeper for unit tests.
+ *
+ *     Dependencies:
+ *     - None
+ *
+ *     Issues:
+ *     - State is in memory; a new process starts with a full bucket.
+ */
+
+package com.example.appointmentnow_steward;
+
+import java.util.concurrent.TimeUnit;
+
+public final class RateLimiter {
+
+    /**
+     * Source of monotonic time in nanoseconds.
+     */
+    interface Clock {
+        long nanoTime();
+    }
+
+    /**
+     * Blocks the calling thread.
+     */
+    interface Sleeper {
+        void sleep(long nanos) throws InterruptedException;
+    }
+
+    static final Clock SYSTEM_CLOCK = System::nanoTime;
+    static final Sleeper THREAD_SLEEPER = TimeUnit.NANOSECONDS::sleep;
+
+    private final int capacity;
+    private final double permitsPerNano;
+    private final Clock clock;
+    private final Sleeper sleeper;
+
+    private double permits; // Negative while permits are reserved ahead of time
+    private long refilledAt;
+
+    /**
+     * Allows {@code capacity} permits per {@code period}, all of them at once when idle.
+     */
+    public RateLimiter(int capacity, long period, TimeUnit unit) {
+        this(capacity, unit.toNanos(period), SYSTEM_CLOCK, THREAD_SLEEPER);
+    }
+
+    RateLimiter(int capacity, long periodNanos, Clock clock, Sleeper sleeper) {
+        if (capacity < 1 || periodNanos < 1) throw new IllegalArgumentException("Rate must be positive");
+        this.capacity = capacity;
+        this.permitsPerNano = (double) capacity / periodNanos;
+        this.clock = clock;
+        this.sleeper = sleeper;
+        this.permits = capacity;
+        this.refilledAt = clock.nanoTime();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Takes one permit, waiting for it if necessary, unless it would not be available
+     * within {@code timeoutNanos}.
+     *
+     * @return True if a permit was taken, false (without waiting) if it would come too late.
+     */
+    public boolean tryAcquire(long timeoutNanos) throws InterruptedException {
+        long wait = reserve(timeoutNanos);
+        if (wait < 0) return false;
+        if (wait > 0) sleeper.sleep(wait);
+        return true;
+    }
+
+    /**
+     * Returns how long until {@code count} permits (at most the capacity) are available.
+     */
+    public synchronized long nanosUntilAvailable(int count) {
+        refill();
+        double missing = Math.min(count, capacity) - permits;
+        return missing <= 0 ? 0 : (long) Math.ceil(missing / permitsPerNano);
+    }
+
+    /**
+     * Reserves a permit and returns the wait before it may be used, or -1 (reserving
+     * nothing) if that wait would exceed {@code timeoutNanos}.
+     */
+    private synchronized long reserve(long timeoutNanos) {
+        refill();
+        long wait = permits >= 1 ? 0 : (long) Math.ceil((1 - permits) / permitsPerNano);
+        if (wait > timeoutNanos) return -1;
+        permits -= 1;
+        return wait;
+    }
+
+    private void refill() {
+        long now = clock.nanoTime();
+        permits = Math.min(capacity, permits + (now - refilledAt) * permitsPerNano);
+        refilledAt = now;
+    }
+}
@@ -12,7 +12,8 @@
  *     Upon successful registration, users are redirected to the main event display screen.
  *
  *     Features:
- *     - Secure password hashing using SHA-256.
+ *     - Salted PBKDF2 password hashing (`DatabaseHelper.hashPassword`) on a reader thread,
+ *       so the slow hash never holds up the shared database writer.
  *     - Prevents duplicate email registration.
  *     - Stores user credentials safely in SQLite.
  *     - Redirects users to the main screen upon successful sign-up.
@@ -39,6 +40,9 @@ import androidx.appcompat.app.AppCompatActivity;
 
 public class RegisterActivity extends AppCompatActivity {
 
+    // Registration result other than a new user ID (insertUser itself returns -1 on failure)
+    private static final long REGISTRATION_EMAIL_TAKEN = -2;
+
     // UI Components
     private EditText emailField, passwordField, confirmPasswordField;
     private CheckBox smsNotificationsCheckbox;
@@ -53,7 +57,7 @@ public class RegisterActivity extends AppCompatActivity {
         setContentView(R.layout.dialog_create_account);
 
         initializeUI();
-        dbHelper = new DatabaseHelper(this);
+        dbHelper = DatabaseHelper.getInstance(this);
     }
 
     /**
@@ -89,26 +93,26 @@ public class RegisterActivity extends AppCompatActivity {
         // Validate user input
         if (!validateInput(email, password, confirmPassword)) return;
 
-        // Check if email is already registered
-        if (isEmailAlreadyRegistered(email)) {
-            showToast("Email already registered. Try logging in.");
-            return;
-        }
-
-        // Securely hash the password before saving it
-        String hashedPassword = dbHelper.hashPassword(password);
-        if (hashedPassword == null) {
-            showToast("Error processing password. Please try again.");
-            return;
-        }
-
-        // Register the new user
-        long userId = dbHelper.addUser(email, hashedPassword);
-        if (userId != -1) {
-            navigateToMainScreen();
-        } else {
-            showToast("Registration failed. Please try again.");
-        }
+        // Hash on a reader thread, then check the email and insert on the writer thread so the
+        // check and insert cannot interleave. Only the finished hash reaches the writer.
+        DatabaseExecutor.getInstance().read(this, () -> dbHelper.hashPassword(password), hashedPassword -> {
+            if (hashedPassword == null) {
+                showToast("Registration failed. Please try again.");
+                return;
+            }
+            DatabaseExecutor.getInstance().write(this, () -> {
+                if (isEmailAlreadyRegistered(email)) return REGISTRATION_EMAIL_TAKEN;
+                return dbHelper.insertUser(email, hashedPassword);
+            }, userId -> {
+                if (userId == REGISTRATION_EMAIL_TAKEN) {
+                    showToast("Email already registered. Try logging in.");
+                } else if (userId != -1) {
+                    navigateToMainScreen();
+                } else {
+                    showToast("Registration failed. Please try again.");
+                }
+            });
+        });
     }
 
     /**
@@ -0,0 +1,73 @@
+/*
+ *     Appointment Now - Reminder
+ *     Author: Conor Steward
+ *     Contact: 1conorsteward@gmail.com
+ *     Date Created: 10/17/26
+ *     Last Updated: 10/17/26
+ *     Version: 2.3
+ *
+ *     Description:
+ *     This class is one appointment reminder: the Scheduled event it is for, the user who
+ *     owns it and the text shown or sent. Reminders come from the outbox
+ *     (`DatabaseHelper.claimDueReminders`).
+ *
+ *     Features:
+ *     - Immutable, with the few columns a reminder message needs.
+ *     - Builds the message text once for every transport.
+ *
+ *     Dependencies:
+ *     - `AppointmentDates.java` (Epoch day formatting)
+ *
+ *     Issues:
+ *     - No known issues.
+ */
+
+package com.example.appointmentnow_steward;
+
+public final class Reminder {
+
+    private final long eventId;
+    private final long userId;
+    private final String patientName;
+    private final String doctorName;
+    private final long appointmentDay;
+
+    public Reminder(long eventId, long userId, String patientName, String doctorName, long appointmentDay) {
+        this.eventId = eventId;
+        this.userId = userId;
+        this.patientName = patientName;
+        this.doctorName = doctorName;
+        this.appointmentDay = appointmentDay;
+    }
+
+    public long getEventId() {
+        return eventId;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public String getPatientName() {
+        return patientName;
+    }
+
+    public String getDoctorName() {
+        return doctorName;
+    }
+
+    /**
+     * Returns the appointment's epoch day (see {@link AppointmentDates}).
+     */
+    public long getAppointmentDay() {
+        return appointmentDay;
+    }
+
+    /**
+     * Returns the reminder text, e.g. "Reminder: Jane Smith sees Dr. Brown on 2025-03-07."
+     */
+    public String getMessage() {
+        return "Reminder: " + patientName + " sees " + doctorName + " on "
+                + AppointmentDates.format(appointmentDay) + ".";
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ *     Appointment Now - Reminder Dispatcher
+ *     Author: Conor Steward
+ *     Contact: 1conorsteward@gmail.com
+ *     Date Created: 10/17/26
+ *     Last Updated: 10/17/26
+ *     Version: 2.3
+ *
+ *     Description:
+ *     This class drains one transport's reminders from the outbox table. It claims due
+ *     reminders in batches, sends them on a small thread pool at most as fast as its
+ *     `RateLimiter` allows and never more than a fixed number at once, and records each
+ *     outcome in the outbox as soon as it is known. Transient failures are rescheduled in the
+ *     outbox with exponential backoff rather than slept on, so a retry survives process death
+ *     and never keeps the device awake. Every drain is bounded by a deadline.
+ *
+ *     Features:
+ *     - Up to {@value #MAX_ATTEMPTS} attempts per reminder, backing off from
+ *       {@value #INITIAL_BACKOFF_MILLIS} ms and doubling, up to {@value #MAX_BACKOFF_MILLIS} ms.
+ *     - In-flight cap per transport; permanent failures are not retried.
+ *     - Reminders claimed but not sent in time are released to the outbox untouched.
+ *     - Injectable clocks (monotonic, shared with `RateLimiter`, and wall) for tests.
+ *
+ *     Dependencies:
+ *     - `DatabaseHelper.java` (Outbox), `ReminderTransport.java`, `RateLimiter.java`
+ *
+ *     Issues:
+ *     - No known issues.
+ */
+
+package com.example.appointmentnow_steward;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+public final class ReminderDispatcher {
+
+    static final int MAX_ATTEMPTS = 6;
+    static final long INITIAL_BACKOFF_MILLIS = 30_000;
+    static final long MAX_BACKOFF_MILLIS = 60 * 60_000;
+    static final int BATCH_SIZE = 200;
+
+    /**
+     * Source of wall-clock time in epoch milliseconds, as stored in the outbox.
+     */
+    interface WallClock {
+        long currentTimeMillis();
+    }
+
+    static final WallClock SYSTEM_WALL_CLOCK = System::currentTimeMillis;
+
+    private final String name;
+    private final ReminderTransport transport;
+    private final RateLimiter rateLimiter;
+    private final Executor sender;
+    private final int maxInFlight;
+    private final RateLimiter.Clock clock;
+    private final WallClock wallClock;
+
+    /**
+     * @param name        The transport's name in the outbox and in logs.
+     * @param sender      Runs the sends; needs at least {@code maxInFlight} threads to reach the cap.
+     * @param maxInFlight The most reminders being sent at once.
+     */
+    public ReminderDispatcher(String name, ReminderTransport transport, RateLimiter rateLimiter,
+                              Executor sender, int maxInFlight) {
+        this(name, transport, rateLimiter, sender, maxInFlight, RateLimiter.SYSTEM_CLOCK, SYSTEM_WALL_CLOCK);
+    }
+
+    ReminderDispatcher(String name, ReminderTransport transport, RateLimiter rateLimiter, Executor sender,
+                       int maxInFlight, RateLimiter.Clock clock, WallClock wallClock) {
+        if (maxInFlight < 1) throw new IllegalArgumentException("maxInFlight must be positive");
+        this.name = name;
+        this.transport = transport;
+        this.rateLimiter = rateLimiter;
+        this.sender = sender;
+        this.maxInFlight = maxInFlight;
+        this.clock = clock;
+        this.wallClock = wallClock;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the wait before retrying a reminder that has failed {@code attempts} times:
+     * {@link #INITIAL_BACKOFF_MILLIS} doubled per earlier failure, at most {@link #MAX_BACKOFF_MILLIS}.
+     */
+    static long backoffMillis(int attempts) {
+        int doublings = Math.min(Math.max(attempts - 1, 0), 30);
+        return Math.min(MAX_BACKOFF_MILLIS, INITIAL_BACKOFF_MILLIS << doublings);
+    }
+
+    /**
+     * Sends this transport's due reminders, batch by batch, until none are due or
+     * {@code deadlineNanos} (on {@link System#nanoTime}'s clock) would be passed waiting for
+     * the rate limit or a free send slot. Returns once every send it started has finished
+     * and been recorded.
+     *
+     * @param today The current epoch day; older reminders are cancelled rather than sent.
+     * @return True if no reminder was left due, false if the deadline or rate limit stopped it.
+     */
+    public boolean drain(DatabaseHelper databaseHelper, long today, long deadlineNanos) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        try {
+            while (true) {
+                List<OutboxEntry> batch = databaseHelper.claimDueReminders(name, wallClock.currentTimeMillis(),
+                        today, BATCH_SIZE);
+                if (batch.isEmpty()) return true;
+
+                for (int i = 0; i < batch.size(); i++) {
+                    // Take the send slot before the rate permit: a permit is spent once granted,
+                    // so it must only be taken when the reminder can go out straight away.
+                    if (!inFlight.tryAcquire(deadlineNanos - clock.nanoTime(), TimeUnit.NANOSECONDS)) {
+                        databaseHelper.releaseReminders(batch.subList(i, batch.size()));
+                        return false;
+                    }
+                    if (!rateLimiter.tryAcquire(deadlineNanos - clock.nanoTime())) {
+                        inFlight.release();
+                        databaseHelper.releaseReminders(batch.subList(i, batch.size()));
+                        return false;
+                    }
+                    OutboxEntry entry = batch.get(i);
+                    try {
+                        sender.execute(() -> {
+                            try {
+                                send(databaseHelper, entry);
+                            } finally {
+                                inFlight.release();
+                            }
+                        });
+                    } catch (RejectedExecutionException e) {
+                        inFlight.release();
+                        databaseHelper.releaseReminders(batch.subList(i, batch.size()));
+                        throw e;
+                    }
+                }
+            }
+        } finally {
+            // Sends are bounded by their transport's own timeout; waiting here means no send
+            // outlives the drain, so the next run may safely reset in-flight reminders.
+            inFlight.acquireUninterruptibly(maxInFlight);
+        }
+    }
+
+    /**
+     * Sends one claimed reminder and records the outcome in the outbox.
+     */
+    private void send(DatabaseHelper databaseHelper, OutboxEntry entry) {
+        long outboxId = entry.getOutboxId();
+        int attempts = entry.getAttempts() + 1;
+        try {
+            transport.send(entry.getReminder());
+            databaseHelper.markReminderSent(outboxId, wallClock.currentTimeMillis());
+        } catch (IOException e) {
+            long now = wallClock.currentTimeMillis();
+            if (attempts >= MAX_ATTEMPTS) {
+                databaseHelper.markReminderFailed(outboxId, now, String.valueOf(e));
+            } else {
+                databaseHelper.markReminderRetry(outboxId, now + backoffMillis(attempts), String.valueOf(e));
+            }
+        } catch (RuntimeException e) {
+            databaseHelper.markReminderFailed(outboxId, wallClock.currentTimeMillis(), String.valueOf(e));
+        }
+    }
+
+    /**
+     * Returns how long to wait before a new wakeup can send a worthwhile batch: half the
+     * rate limiter's burst, or one reminder when the burst is a single permit.
+     */
+    public long getResumeDelayNanos() {
+        return rateLimiter.nanosUntilAvailable(Math.max(1, rateLimiter.getCapacity() / 2));
+    }
+}
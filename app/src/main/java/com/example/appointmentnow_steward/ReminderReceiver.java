@@ -0,0 +1,48 @@
+/*
+ *     Appointment Now - Reminder Receiver
+ *     Author: Conor Steward
+ *     Contact: 1conorsteward@gmail.com
+ *     Date Created: 10/17/26
+ *     Last Updated: 10/17/26
+ *     Version: 2.3
+ *
+ *     Description:
+ *     This receiver is woken by the reminder alarm and hands the window to
+ *     `ReminderScheduler`, keeping the broadcast (and the alarm's wake lock) alive until the
+ *     run finishes. It also re-arms the alarm when alarms are lost or shifted: after a
+ *     reboot, an app update, or a time zone change.
+ *
+ *     Features:
+ *     - Runs reminder windows off the main thread with `goAsync`.
+ *     - Re-arms the single reminder alarm on boot, update and time zone change.
+ *
+ *     Dependencies:
+ *     - `ReminderScheduler.java`
+ *
+ *     Issues:
+ *     - No known issues.
+ */
+
+package com.example.appointmentnow_steward;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+
+public class ReminderReceiver extends BroadcastReceiver {
+
+    /**
+     * Called on the main thread for the reminder alarm and the system broadcasts in the manifest.
+     */
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        ReminderScheduler scheduler = ReminderScheduler.getInstance(context);
+
+        if (ReminderScheduler.ACTION_REMIND.equals(intent.getAction())) {
+            PendingResult result = goAsync();
+            scheduler.runWindow(result::finish);
+        } else {
+            scheduler.scheduleNextWakeup(); // Boot, package replaced or time zone changed
+        }
+    }
+}
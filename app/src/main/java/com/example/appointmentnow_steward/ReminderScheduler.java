@@ -0,0 +1,331 @@
+/*
+ *     Appointment Now - Reminder Scheduler
+ *     Author: Conor Steward
+ *     Contact: 1conorsteward@gmail.com
+ *     Date Created: 10/17/26
+ *     Last Updated: 10/17/26
+ *     Version: 2.3
+ *
+ *     Description:
+ *     This class sends day-before reminders for Scheduled appointments. Appointments are
+ *     dated by day, so all reminders for a day share one window, opening at
+ *     {@value #REMINDER_HOUR}:00 the day before. The whole app keeps a single inexact alarm;
+ *     when it fires, the window's reminders are queued in the outbox table (once per event,
+ *     day and transport) and one `ReminderDispatcher` per transport drains whatever is due.
+ *     The outbox holds all progress, so reminders survive process death, and transient
+ *     failures come back as retries at their backoff time. The device wakes once per day
+ *     however many appointments there are, plus follow-up wakeups only for retries or when a
+ *     transport's rate limit spreads a large day out.
+ *
+ *     Features:
+ *     - One alarm (`AlarmManager.setWindow`), replaced rather than added to, so the system
+ *       can batch it with other apps' wakeups; armed for the next window or the next retry.
+ *     - Notifications unless the user turned them off; SMS as well when `SEND_SMS` is
+ *       granted and a number is set.
+ *     - Rate limits matching the platform's own throttles: 5 notifications per second and
+ *       30 SMS per 30 minutes; at most {@value #NOTIFICATION_MAX_IN_FLIGHT} notifications and
+ *       {@value #SMS_MAX_IN_FLIGHT} SMS in flight.
+ *     - Each wakeup works for at most {@value #RUN_BUDGET_MILLIS} ms, inside the broadcast limit,
+ *       then logs each transport's delivery metrics. SMS sends stop starting early enough for
+ *       the last one to wait out its sent-result timeout within that budget.
+ *     - Finished outbox rows are kept for {@value #RETENTION_DAYS} days, then pruned.
+ *
+ *     Dependencies:
+ *     - `DatabaseHelper.java` (Reminder outbox), `ReminderDispatcher.java`, `RateLimiter.java`
+ *     - `NotificationReminderTransport.java`, `SmsReminderTransport.java`, `ReminderReceiver.java`
+ *
+ *     Issues:
+ *     - An appointment booked for tomorrow after the window opened is only queued if a later
+ *       wakeup (a retry or rate-limit follow-up) runs before the appointment.
+ *     - Delivery is at least once: a reminder interrupted by process death mid-send is sent again.
+ */
+
+package com.example.appointmentnow_steward;
+
+import android.Manifest;
+import android.app.AlarmManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+import android.content.pm.PackageManager;
+import android.os.Process;
+import android.text.TextUtils;
+import android.util.Log;
+
+import androidx.core.app.NotificationManagerCompat;
+import androidx.core.content.ContextCompat;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public final class ReminderScheduler {
+
+    private static final String TAG = "ReminderScheduler";
+
+    static final int REMINDER_HOUR = 9; // Local time the day before the appointment
+    static final long RUN_BUDGET_MILLIS = 9_000; // Broadcasts should finish within 10 s
+    static final int RETENTION_DAYS = 30;
+
+    private static final long WINDOW_LENGTH_MILLIS = TimeUnit.MINUTES.toMillis(30);
+    static final long MIN_RESUME_DELAY_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    static final String ACTION_REMIND = "com.example.appointmentnow_steward.action.REMIND";
+
+    // Transport names, as stored in the outbox; never rename a released one
+    static final String TRANSPORT_NOTIFICATION = "notification";
+    static final String TRANSPORT_SMS = "sms";
+    private static final String[] TRANSPORTS = {TRANSPORT_NOTIFICATION, TRANSPORT_SMS};
+
+    static final int NOTIFICATION_MAX_IN_FLIGHT = 4;
+    static final int SMS_MAX_IN_FLIGHT = 1; // Each send waits for the radio's result
+
+    private static final String PREF_NAME = "Reminders";
+    private static final String KEY_SMS_NUMBER = "sms_number";
+    private static final String KEY_QUEUED_DAY_PREFIX = "queued_day_"; // + transport name
+
+    private static volatile ReminderScheduler instance;
+
+    private final Context context;
+    private final ExecutorService executor;
+    private final ExecutorService sender;
+    private final RateLimiter notificationLimiter = new RateLimiter(5, 1, TimeUnit.SECONDS);
+    private final RateLimiter smsLimiter = new RateLimiter(30, 30, TimeUnit.MINUTES);
+
+    private ReminderScheduler(Context context) {
+        this.context = context;
+        executor = Executors.newSingleThreadExecutor(runnable -> backgroundThread(runnable, "reminders"));
+        sender = Executors.newFixedThreadPool(Math.max(NOTIFICATION_MAX_IN_FLIGHT, SMS_MAX_IN_FLIGHT),
+                runnable -> backgroundThread(runnable, "reminder-send"));
+    }
+
+    private static Thread backgroundThread(Runnable runnable, String name) {
+        Thread thread = new Thread(() -> {
+            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+            runnable.run();
+        }, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * Returns the process-wide scheduler, creating it on first use.
+     */
+    public static ReminderScheduler getInstance(Context context) {
+        if (instance == null) {
+            synchronized (ReminderScheduler.class) {
+                if (instance == null) instance = new ReminderScheduler(context.getApplicationContext());
+            }
+        }
+        return instance;
+    }
+
+    // -------------------- Windows --------------------
+
+    /**
+     * Returns the appointment day (epoch day) whose window contains {@code now}: the window
+     * for day D runs from {@link #REMINDER_HOUR} on D - 1 to the same hour on D.
+     */
+    static long windowDay(ZonedDateTime now) {
+        long today = now.toLocalDate().toEpochDay();
+        return now.getHour() >= REMINDER_HOUR ? today + 1 : today;
+    }
+
+    /**
+     * Returns when the next window is due: {@code now} if the current window's reminders have
+     * not been queued, otherwise the opening of the next window.
+     */
+    static ZonedDateTime nextWakeup(ZonedDateTime now, long queuedDay) {
+        long day = windowDay(now);
+        if (queuedDay < day) return now;
+        return LocalDate.ofEpochDay(day).atTime(REMINDER_HOUR, 0).atZone(now.getZone());
+    }
+
+    /**
+     * Returns when the alarm should next fire, in epoch milliseconds: the next window, or the
+     * next outbox retry if that comes first. Retries already due wait
+     * {@link #MIN_RESUME_DELAY_MILLIS}, so a retry that keeps failing cannot spin the alarm.
+     *
+     * @param nextRetryMillis The earliest Pending reminder's due time, or {@link Long#MAX_VALUE}.
+     */
+    static long nextAlarmMillis(ZonedDateTime now, long queuedDay, long nextRetryMillis) {
+        long window = nextWakeup(now, queuedDay).toInstant().toEpochMilli();
+        long retry = Math.max(nextRetryMillis, now.toInstant().toEpochMilli() + MIN_RESUME_DELAY_MILLIS);
+        return Math.min(window, retry);
+    }
+
+    /**
+     * Arms the alarm for the next window or retry. Safe to call at any time; the single
+     * alarm is replaced, never duplicated. Runs in the background.
+     */
+    public void scheduleNextWakeup() {
+        executor.execute(() -> armNextWakeup(DatabaseHelper.getInstance(context), ZonedDateTime.now()));
+    }
+
+    /**
+     * Arms the alarm for the next window, or for the next retry of an enabled transport.
+     * Reminders of disabled transports wait in the outbox without waking the device. The
+     * current window counts as queued only once every enabled transport has queued it; with
+     * none enabled the alarm waits for the next window.
+     */
+    private void armNextWakeup(DatabaseHelper databaseHelper, ZonedDateTime now) {
+        SharedPreferences preferences = preferences();
+        List<String> transports = enabledTransports();
+        long nextRetry = Long.MAX_VALUE;
+        long queuedDay = transports.isEmpty() ? windowDay(now) : Long.MAX_VALUE;
+        for (String transport : transports) {
+            nextRetry = Math.min(nextRetry, databaseHelper.getNextReminderAttempt(transport));
+            queuedDay = Math.min(queuedDay, preferences.getLong(KEY_QUEUED_DAY_PREFIX + transport, Long.MIN_VALUE));
+        }
+        long window = nextWakeup(now, queuedDay).toInstant().toEpochMilli();
+        long triggerAt = nextAlarmMillis(now, queuedDay, nextRetry);
+        setAlarm(triggerAt, triggerAt < window ? MIN_RESUME_DELAY_MILLIS : WINDOW_LENGTH_MILLIS);
+    }
+
+    private void setAlarm(long triggerAtMillis, long windowMillis) {
+        Intent intent = new Intent(context, ReminderReceiver.class).setAction(ACTION_REMIND);
+        PendingIntent operation = PendingIntent.getBroadcast(context, 0, intent,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+        context.getSystemService(AlarmManager.class)
+                .setWindow(AlarmManager.RTC_WAKEUP, triggerAtMillis, windowMillis, operation);
+    }
+
+    // -------------------- Sending --------------------
+
+    /**
+     * Queues the current window's reminders and drains every enabled transport's outbox in
+     * the background for up to {@value #RUN_BUDGET_MILLIS} ms, arms the next wakeup, then
+     * runs {@code onFinished}.
+     */
+    public void runWindow(Runnable onFinished) {
+        executor.execute(() -> {
+            try {
+                sendDueReminders(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(RUN_BUDGET_MILLIS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Reminder window failed", e);
+                setAlarm(System.currentTimeMillis() + WINDOW_LENGTH_MILLIS, WINDOW_LENGTH_MILLIS);
+            } finally {
+                onFinished.run();
+            }
+        });
+    }
+
+    private void sendDueReminders(long deadlineNanos) throws InterruptedException {
+        SharedPreferences preferences = preferences();
+        DatabaseHelper databaseHelper = DatabaseHelper.getInstance(context);
+        ZonedDateTime now = ZonedDateTime.now();
+        long nowMillis = now.toInstant().toEpochMilli();
+        long day = windowDay(now);
+
+        // Runs are serial and every drain waits for its sends, so anything still Sending was
+        // cut off by process death
+        for (String transport : TRANSPORTS) {
+            databaseHelper.resetInFlightReminders(transport);
+            databaseHelper.pruneReminderOutbox(transport, nowMillis - TimeUnit.DAYS.toMillis(RETENTION_DAYS));
+        }
+
+        // Queueing is idempotent, so every run also picks up appointments added since the window opened
+        // Recorded per transport, so one enabled later in the window still queues this day
+        List<ReminderDispatcher> dispatchers = dispatchers();
+        SharedPreferences.Editor queuedDays = preferences.edit();
+        for (ReminderDispatcher dispatcher : dispatchers) {
+            int queued = databaseHelper.enqueueReminders(day, dispatcher.getName(), nowMillis);
+            if (queued > 0) Log.i(TAG, dispatcher.getName() + ": queued " + queued + " reminders for day " + day);
+            queuedDays.putLong(KEY_QUEUED_DAY_PREFIX + dispatcher.getName(), day);
+        }
+        queuedDays.apply();
+
+        long today = now.toLocalDate().toEpochDay();
+        long resumeDelayNanos = -1;
+        for (ReminderDispatcher dispatcher : dispatchers) {
+            if (!dispatcher.drain(databaseHelper, today, drainDeadline(dispatcher, deadlineNanos))) {
+                long delay = dispatcher.getResumeDelayNanos();
+                resumeDelayNanos = resumeDelayNanos < 0 ? delay : Math.min(resumeDelayNanos, delay);
+            }
+        }
+
+        for (Map.Entry<String, ReminderMetrics> metrics : databaseHelper.getReminderMetrics().entrySet()) {
+            Log.i(TAG, metrics.getKey() + ": " + metrics.getValue());
+        }
+
+        if (resumeDelayNanos < 0) {
+            armNextWakeup(databaseHelper, ZonedDateTime.now());
+        } else {
+            long delay = Math.max(MIN_RESUME_DELAY_MILLIS, TimeUnit.NANOSECONDS.toMillis(resumeDelayNanos));
+            setAlarm(System.currentTimeMillis() + delay, MIN_RESUME_DELAY_MILLIS);
+        }
+    }
+
+    /**
+     * Returns the latest time the dispatcher may start a send. The deadline is only checked
+     * before each send, and an SMS send can block for its full sent-result timeout after that.
+     */
+    private static long drainDeadline(ReminderDispatcher dispatcher, long deadlineNanos) {
+        if (!TRANSPORT_SMS.equals(dispatcher.getName())) return deadlineNanos;
+        return deadlineNanos - TimeUnit.SECONDS.toNanos(SmsReminderTransport.SENT_TIMEOUT_SECONDS);
+    }
+
+    /**
+     * Returns the names of the transports reminders can be sent through right now.
+     */
+    private List<String> enabledTransports() {
+        List<String> transports = new ArrayList<>();
+        if (NotificationManagerCompat.from(context).areNotificationsEnabled()) {
+            transports.add(TRANSPORT_NOTIFICATION);
+        }
+        if (!TextUtils.isEmpty(getSmsNumber())
+                && ContextCompat.checkSelfPermission(context, Manifest.permission.SEND_SMS) == PackageManager.PERMISSION_GRANTED
+                && context.getPackageManager().hasSystemFeature(PackageManager.FEATURE_TELEPHONY)) {
+            transports.add(TRANSPORT_SMS);
+        }
+        return transports;
+    }
+
+    /**
+     * Builds a dispatcher per enabled transport. The rate limiters outlive each run, so
+     * follow-up wakeups in the same process keep to the same limits.
+     */
+    private List<ReminderDispatcher> dispatchers() {
+        List<ReminderDispatcher> dispatchers = new ArrayList<>();
+        for (String transport : enabledTransports()) {
+            if (TRANSPORT_NOTIFICATION.equals(transport)) {
+                dispatchers.add(new ReminderDispatcher(transport, new NotificationReminderTransport(context),
+                        notificationLimiter, sender, NOTIFICATION_MAX_IN_FLIGHT));
+            } else {
+                dispatchers.add(new ReminderDispatcher(transport, new SmsReminderTransport(context, getSmsNumber()),
+                        smsLimiter, sender, SMS_MAX_IN_FLIGHT));
+            }
+        }
+        return dispatchers;
+    }
+
+    // -------------------- Settings --------------------
+
+    /**
+     * Returns the number reminders are texted to, or an empty string for none.
+     */
+    public String getSmsNumber() {
+        return preferences().getString(KEY_SMS_NUMBER, "");
+    }
+
+    /**
+     * Sets the number reminders are texted to; empty turns SMS reminders off. Re-arms the
+     * alarm, so a number set while a window is open still gets that window's reminders.
+     */
+    public void setSmsNumber(String phoneNumber) {
+        preferences().edit().putString(KEY_SMS_NUMBER, phoneNumber == null ? "" : phoneNumber.trim()).apply();
+        scheduleNextWakeup();
+    }
+
+    private SharedPreferences preferences() {
+        return context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+    }
+}
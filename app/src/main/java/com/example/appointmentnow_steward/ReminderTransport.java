@@ -0,0 +1,38 @@
+/*
+ *     Appointment Now - Reminder Transport
+ *     Author: Conor Steward
+ *     Contact: 1conorsteward@gmail.com
+ *     Date Created: 10/17/26
+ *     Last Updated: 10/17/26
+ *     Version: 2.3
+ *
+ *     Description:
+ *     This interface is one way of delivering a `Reminder`: a local notification or an SMS.
+ *     `ReminderDispatcher` rate-limits calls to it and records retries in the outbox, so
+ *     implementations only send. Tests drain the outbox through fake implementations.
+ *
+ *     Features:
+ *     - Transient failures (a busy radio, no service) are reported as `IOException` and retried.
+ *     - Any other exception is permanent and the reminder fails for this transport.
+ *     - Calls may come from several sender threads at once.
+ *
+ *     Dependencies:
+ *     - `Reminder.java`
+ *
+ *     Issues:
+ *     - No known issues.
+ */
+
+package com.example.appointmentnow_steward;
+
+import java.io.IOException;
+
+public interface ReminderTransport {
+
+    /**
+     * Sends one reminder. Called on a background thread, possibly concurrently with other sends.
+     *
+     * @throws IOException If sending failed but may succeed if retried.
+     */
+    void send(Reminder reminder) throws IOException;
+}
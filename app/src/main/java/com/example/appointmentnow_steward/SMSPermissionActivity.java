@@ -15,9 +15,11 @@
  *     - Requests SMS permission if not already granted.
  *     - Guides users on how to revoke permissions manually via settings.
  *     - Dynamically updates the UI based on the permission state.
+ *     - Sets the number appointment reminders are texted to (see `ReminderScheduler`).
  *
  *     Dependencies:
  *     - `Android Permissions API`
+ *     - `ReminderScheduler.java` (Reminder SMS number)
  *
  *     Issues:
  *     - No known issues.
@@ -31,6 +33,7 @@ import android.content.pm.PackageManager;
 import android.net.Uri;
 import android.os.Bundle;
 import android.provider.Settings;
+import android.widget.EditText;
 import android.widget.ImageButton;
 import android.widget.TextView;
 import android.widget.Toast;
@@ -49,6 +52,9 @@ public class SMSPermissionActivity extends AppCompatActivity {
     // UI Components
     private TextView smsPermissionInfo;
     private SwitchCompat permissionToggle;
+    private EditText reminderNumberInput;
+    private ReminderScheduler reminderScheduler;
+    private boolean reminderNumberLoaded; // Not saved before it was shown, so it is never blanked
 
     /**
      * Called when the activity is first created.
@@ -60,6 +66,26 @@ public class SMSPermissionActivity extends AppCompatActivity {
 
         initializeUI();
         updatePermissionUI();
+        loadReminderNumber();
+    }
+
+    /**
+     * Saves the reminder number when the screen is left.
+     */
+    @Override
+    protected void onPause() {
+        super.onPause();
+        if (reminderNumberLoaded) reminderScheduler.setSmsNumber(reminderNumberInput.getText().toString());
+    }
+
+    /**
+     * Reads the saved reminder number off the main thread.
+     */
+    private void loadReminderNumber() {
+        DatabaseExecutor.getInstance().read(this, reminderScheduler::getSmsNumber, number -> {
+            if (reminderNumberInput.length() == 0) reminderNumberInput.setText(number);
+            reminderNumberLoaded = true;
+        });
     }
 
     /**
@@ -68,6 +94,8 @@ public class SMSPermissionActivity extends AppCompatActivity {
     private void initializeUI() {
         smsPermissionInfo = findViewById(R.id.sms_permission_info);
         permissionToggle = findViewById(R.id.permission_toggle);
+        reminderNumberInput = findViewById(R.id.sms_reminder_number);
+        reminderScheduler = ReminderScheduler.getInstance(this);
         ImageButton closeButton = findViewById(R.id.close_button);
 
         // Close the activity when the close button is clicked
@@ -0,0 +1,188 @@
+/*
+ *     Appointment Now - Search Pipeline
+ *     Author: Conor Steward
+ *     Contact: 1conorsteward@gmail.com
+ *     Date Created: 10/17/26
+ *     Last Updated: 10/17/26
+ *     Version: 2.3
+ *
+ *     Description:
+ *     This class turns a stream of search-box edits into background queries.
+ *     Keystrokes are debounced, only the latest query is allowed to run or deliver,
+ *     and a superseded query is cancelled mid-flight.
+ *
+ *     Features:
+ *     - Debounces rapid input so one query runs per typing pause.
+ *     - Latest-query-wins: stale results are never posted to the UI.
+ *     - Cooperative cancellation via `CancelToken` (bridged to SQLite's CancellationSignal).
+ *     - Latency hook reporting keystroke-to-result time for tests and profiling.
+ *
+ *     Dependencies:
+ *     - java.util.concurrent (no Android classes, so it can be unit tested on the JVM)
+ *
+ *     Issues:
+ *     - No known issues.
+ */
+
+package com.example.appointmentnow_steward;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+public class SearchPipeline<T> {
+
+    public static final long DEFAULT_DEBOUNCE_MILLIS = 250;
+
+    /**
+     * Runs one query on the background executor. Implementations should check or
+     * listen to the token and abandon work once it is cancelled.
+     */
+    public interface SearchTask<T> {
+        T search(String query, CancelToken token) throws Exception;
+    }
+
+    /**
+     * Receives the result of the most recent query on the delivery executor.
+     */
+    public interface ResultListener<T> {
+        void onResult(String query, T result);
+
+        void onError(String query, Exception error);
+    }
+
+    /**
+     * Test/profiling hook: called on the delivery executor right after a result is posted.
+     */
+    public interface LatencyListener {
+        void onResultDelivered(String query, long keystrokeToResultNanos);
+    }
+
+    /**
+     * Cancellation flag shared between the pipeline and a running {@link SearchTask}.
+     */
+    public static final class CancelToken {
+        private volatile boolean cancelled;
+        private Runnable onCancel;
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * Registers an action to run on cancellation (runs immediately if already cancelled).
+         */
+        public synchronized void setOnCancelListener(Runnable listener) {
+            onCancel = listener;
+            if (cancelled && listener != null) listener.run();
+        }
+
+        synchronized void cancel() {
+            if (cancelled) return;
+            cancelled = true;
+            if (onCancel != null) onCancel.run();
+        }
+    }
+
+    private final ScheduledExecutorService backgroundExecutor;
+    private final Executor deliveryExecutor;
+    private final long debounceMillis;
+    private final SearchTask<T> task;
+    private final ResultListener<T> listener;
+    private volatile LatencyListener latencyListener;
+
+    // Guarded by "this": the latest submission and its pending/running state
+    private long generation;
+    private ScheduledFuture<?> pending;
+    private CancelToken runningToken;
+
+    /**
+     * @param backgroundExecutor Runs the debounce timer and the query itself.
+     * @param deliveryExecutor   Receives results, normally the main-thread executor.
+     * @param debounceMillis     Quiet period after the last keystroke before querying.
+     */
+    public SearchPipeline(ScheduledExecutorService backgroundExecutor, Executor deliveryExecutor,
+                          long debounceMillis, SearchTask<T> task, ResultListener<T> listener) {
+        this.backgroundExecutor = backgroundExecutor;
+        this.deliveryExecutor = deliveryExecutor;
+        this.debounceMillis = debounceMillis;
+        this.task = task;
+        this.listener = listener;
+    }
+
+    public void setLatencyListener(LatencyListener latencyListener) {
+        this.latencyListener = latencyListener;
+    }
+
+    /**
+     * Submits a query after the debounce delay, superseding any earlier query.
+     */
+    public void submit(String query) {
+        schedule(query, debounceMillis);
+    }
+
+    /**
+     * Submits a query with no debounce (e.g. the initial load), superseding any earlier query.
+     */
+    public void submitNow(String query) {
+        schedule(query, 0);
+    }
+
+    /**
+     * Cancels pending and running work; no further results are delivered.
+     */
+    public synchronized void cancel() {
+        generation++;
+        cancelInFlight();
+    }
+
+    private synchronized void schedule(String query, long delayMillis) {
+        final long submittedAt = System.nanoTime();
+        final long myGeneration = ++generation;
+        cancelInFlight();
+
+        final CancelToken token = new CancelToken();
+        runningToken = token;
+        pending = backgroundExecutor.schedule(
+                () -> run(query, myGeneration, token, submittedAt), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void cancelInFlight() {
+        if (pending != null) pending.cancel(false);
+        if (runningToken != null) runningToken.cancel();
+        pending = null;
+        runningToken = null;
+    }
+
+    private synchronized boolean isLatest(long myGeneration) {
+        return myGeneration == generation;
+    }
+
+    private void run(String query, long myGeneration, CancelToken token, long submittedAt) {
+        if (token.isCancelled() || !isLatest(myGeneration)) return;
+
+        T result;
+        try {
+            result = task.search(query, token);
+        } catch (Exception e) {
+            // A cancelled query typically fails with OperationCanceledException; that is expected
+            if (!token.isCancelled() && isLatest(myGeneration)) {
+                deliveryExecutor.execute(() -> {
+                    if (isLatest(myGeneration)) listener.onError(query, e);
+                });
+            }
+            return;
+        }
+
+        if (token.isCancelled()) return;
+        deliveryExecutor.execute(() -> {
+            // Re-check on the delivery thread: a newer keystroke may have arrived meanwhile
+            if (!isLatest(myGeneration)) return;
+            listener.onResult(query, result);
+
+            LatencyListener latency = latencyListener;
+            if (latency != null) latency.onResultDelivered(query, System.nanoTime() - submittedAt);
+        });
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ *     Appointment Now - SMS Reminder Transport
+ *     Author: Conor Steward
+ *     Contact: 1conorsteward@gmail.com
+ *     Date Created: 10/17/26
+ *     Last Updated: 10/17/26
+ *     Version: 2.3
+ *
+ *     Description:
+ *     This class sends reminders by SMS to the number set on the SMS permission screen.
+ *     Each send waits for the radio's "sent" result, so a message that did not leave the
+ *     device (no service, radio off) is reported as a transient failure and retried by
+ *     `ReminderDispatcher` instead of being lost.
+ *
+ *     Features:
+ *     - Long messages are split into parts; a send succeeds only when every part is sent.
+ *     - Sent results are received by a short-lived, non-exported receiver.
+ *
+ *     Dependencies:
+ *     - Android Telephony (`SmsManager`)
+ *     - `SEND_SMS` permission (checked by `ReminderScheduler` before this transport is used)
+ *
+ *     Issues:
+ *     - A result that arrives after {@value #SENT_TIMEOUT_SECONDS}s counts as a failure, so a
+ *       slow network can occasionally cause a duplicate message.
+ */
+
+package com.example.appointmentnow_steward;
+
+import android.annotation.SuppressLint;
+import android.app.Activity;
+import android.app.PendingIntent;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.os.Build;
+import android.telephony.SmsManager;
+
+import androidx.core.content.ContextCompat;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class SmsReminderTransport implements ReminderTransport {
+
+    static final long SENT_TIMEOUT_SECONDS = 5;
+    private static final String ACTION_SENT = "com.example.appointmentnow_steward.REMINDER_SMS_SENT";
+
+    private final Context context;
+    private final SmsManager smsManager;
+    private final String phoneNumber;
+    private final AtomicInteger sendCount = new AtomicInteger();
+
+    public SmsReminderTransport(Context context, String phoneNumber) {
+        this.context = context.getApplicationContext();
+        this.smsManager = Build.VERSION.SDK_INT >= Build.VERSION_CODES.S
+                ? this.context.getSystemService(SmsManager.class)
+                : SmsManager.getDefault();
+        this.phoneNumber = phoneNumber;
+    }
+
+    /**
+     * Sends the reminder's text and waits for every part to be sent.
+     *
+     * @throws IOException If the radio reported a failure or no result arrived in time.
+     */
+    @Override
+    @SuppressLint("MissingPermission") // SEND_SMS is checked before this transport is created
+    public void send(Reminder reminder) throws IOException {
+        ArrayList<String> parts = smsManager.divideMessage(reminder.getMessage());
+        CountDownLatch pending = new CountDownLatch(parts.size());
+        AtomicInteger failure = new AtomicInteger(Activity.RESULT_OK);
+
+        // A unique action per send, so results of an earlier timed-out send are not counted
+        String action = ACTION_SENT + "." + sendCount.incrementAndGet();
+        BroadcastReceiver receiver = new BroadcastReceiver() {
+            @Override
+            public void onReceive(Context context, Intent intent) {
+                if (getResultCode() != Activity.RESULT_OK) failure.set(getResultCode());
+                pending.countDown();
+            }
+        };
+        ContextCompat.registerReceiver(context, receiver, new IntentFilter(action), ContextCompat.RECEIVER_NOT_EXPORTED);
+        try {
+            ArrayList<PendingIntent> sentIntents = new ArrayList<>();
+            for (int i = 0; i < parts.size(); i++) {
+                Intent sent = new Intent(action).setPackage(context.getPackageName());
+                sentIntents.add(PendingIntent.getBroadcast(context, i, sent,
+                        PendingIntent.FLAG_ONE_SHOT | PendingIntent.FLAG_IMMUTABLE));
+            }
+            if (parts.size() == 1) {
+                smsManager.sendTextMessage(phoneNumber, null, parts.get(0), sentIntents.get(0), null);
+            } else {
+                smsManager.sendMultipartTextMessage(phoneNumber, null, parts, sentIntents, null);
+            }
+
+            if (!pending.await(SENT_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                throw new IOException("No sent result for event " + reminder.getEventId());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted sending event " + reminder.getEventId(), e);
+        } finally {
+            context.unregisterReceiver(receiver);
+        }
+
+        int result = failure.get();
+        if (result == SmsManager.RESULT_ERROR_NULL_PDU) {
+            throw new IllegalStateException("Message could not be encoded");
+        }
+        if (result != Activity.RESULT_OK) {
+            throw new IOException("SMS failed with result " + result);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ *     Appointment Now - Startup Metrics
+ *     Author: Conor Steward
+ *     Contact: 1conorsteward@gmail.com
+ *     Date Created: 10/17/26
+ *     Last Updated: 10/17/26
+ *     Version: 2.3
+ *
+ *     Description:
+ *     This class records how long the database takes to open cold (file open, WAL setup,
+ *     schema/version check) and how long each screen then takes to acquire the shared
+ *     `DatabaseHelper`. The difference is the time each screen transition saves by reusing
+ *     the process-wide instance instead of constructing and opening its own.
+ *
+ *     Features:
+ *     - Logs one line per screen under the "StartupMetrics" tag.
+ *     - Keeps running totals for quick inspection from a debugger or test.
+ *
+ *     Dependencies:
+ *     - Android Logging (`android.util.Log`)
+ *
+ *     Issues:
+ *     - No known issues.
+ */
+
+package com.example.appointmentnow_steward;
+
+import android.util.Log;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class StartupMetrics {
+
+    private static final String TAG = "StartupMetrics";
+
+    private static final AtomicLong coldOpenNanos = new AtomicLong(-1);
+    private static final AtomicLong totalSavedNanos = new AtomicLong();
+
+    private StartupMetrics() {
+    }
+
+    /**
+     * Records the one-time cost of opening the database (measured at application start).
+     */
+    public static void onDatabaseOpened(long nanos) {
+        coldOpenNanos.set(nanos);
+        Log.i(TAG, String.format(Locale.US, "Database cold open: %.2fms", nanos / 1e6));
+    }
+
+    /**
+     * Records a screen acquiring the shared database helper.
+     *
+     * @param screen The acquiring component, for the log line.
+     * @param nanos  Time spent in {@link DatabaseHelper#getInstance}.
+     */
+    public static void onDatabaseAcquired(String screen, long nanos) {
+        long coldOpen = coldOpenNanos.get();
+        if (coldOpen < 0) {
+            Log.i(TAG, String.format(Locale.US, "%s: acquired database in %.3fms (cold open not yet measured)",
+                    screen, nanos / 1e6));
+            return;
+        }
+
+        long saved = Math.max(0, coldOpen - nanos);
+        long total = totalSavedNanos.addAndGet(saved);
+        Log.i(TAG, String.format(Locale.US, "%s: acquired database in %.3fms, saved %.2fms (total %.2fms)",
+                screen, nanos / 1e6, saved / 1e6, total / 1e6));
+    }
+
+    /**
+     * Returns the total time saved across all screen transitions so far.
+     */
+    public static long getTotalSavedNanos() {
+        return totalSavedNanos.get();
+    }
+}
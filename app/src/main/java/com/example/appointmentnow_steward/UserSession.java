@@ -0,0 +1,126 @@
+/*
+ *     Appointment Now - User Session
+ *     Author: Conor Steward
+ *     Contact: 1conorsteward@gmail.com
+ *     Date Created: 10/17/26
+ *     Last Updated: 10/17/26
+ *     Version: 2.3
+ *
+ *     Description:
+ *     This class holds the logged-in user's ID in memory for the whole process. The ID is
+ *     persisted in the "AppPreferences" SharedPreferences file so the session survives a
+ *     restart, but that file is read only once: on a database reader thread while the
+ *     application starts. Screens then read the cached ID without touching disk.
+ *
+ *     Features:
+ *     - Loads the stored session asynchronously at startup (see `AppointmentNowApplication`).
+ *     - `logIn` and `logOut` update the cache immediately and persist with `apply()`.
+ *     - A caller that needs the ID before the startup load has finished runs or waits for
+ *       that same load rather than reading the file a second time.
+ *
+ *     Dependencies:
+ *     - Android SharedPreferences
+ *     - `DatabaseExecutor.java` (Background thread for the startup load)
+ *
+ *     Issues:
+ *     - No known issues.
+ */
+
+package com.example.appointmentnow_steward;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+public final class UserSession {
+
+    /** User ID returned when nobody is logged in. */
+    public static final long NO_USER = -1;
+
+    private static final String TAG = "UserSession";
+    private static final String PREF_NAME = "AppPreferences";
+    private static final String USER_ID_KEY = "user_id";
+
+    private static volatile UserSession instance;
+
+    private final Context context;
+    private final FutureTask<Long> storedUserId;
+    private volatile Long userId; // Null until loaded or set by logIn/logOut
+
+    private UserSession(Context context) {
+        this.context = context.getApplicationContext();
+        storedUserId = new FutureTask<>(() -> preferences().getLong(USER_ID_KEY, NO_USER));
+        DatabaseExecutor.getInstance().getReadExecutor().execute(storedUserId);
+    }
+
+    /**
+     * Returns the process-wide session, starting the background load of the stored
+     * session on first use.
+     */
+    public static UserSession getInstance(Context context) {
+        if (instance == null) {
+            synchronized (UserSession.class) {
+                if (instance == null) instance = new UserSession(context);
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the logged-in user's ID, or {@link #NO_USER}.
+     *
+     * Only reads memory once the startup load is done. Before that, it runs the load on the
+     * calling thread if no reader has picked it up yet, or waits for the reader that has.
+     */
+    public long getUserId() {
+        Long id = userId;
+        if (id != null) return id;
+
+        storedUserId.run(); // No-op if the load already started on the reader pool
+        try {
+            id = storedUserId.get();
+        } catch (ExecutionException e) {
+            Log.e(TAG, "Error loading session", e);
+            id = NO_USER;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return NO_USER;
+        }
+
+        synchronized (this) {
+            if (userId == null) userId = id; // A logIn/logOut during the load wins
+            return userId;
+        }
+    }
+
+    /**
+     * Returns true if a user is logged in.
+     */
+    public boolean isLoggedIn() {
+        return getUserId() != NO_USER;
+    }
+
+    /**
+     * Starts a session for the given user. The cache is updated at once; the preference
+     * file is written in the background.
+     */
+    public synchronized void logIn(long id) {
+        userId = id;
+        preferences().edit().putLong(USER_ID_KEY, id).apply();
+    }
+
+    /**
+     * Ends the session and clears the stored session data.
+     */
+    public synchronized void logOut() {
+        userId = NO_USER;
+        preferences().edit().clear().apply();
+    }
+
+    private SharedPreferences preferences() {
+        return context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ *     Appointment Now - Visit PDF Exporter
+ *     Author: Conor Steward
+ *     Contact: 1conorsteward@gmail.com
+ *     Date Created: 10/17/26
+ *     Last Updated: 10/17/26
+ *     Version: 2.3
+ *
+ *     Description:
+ *     This class streams a cursor of events into PDF, either as one paginated document or
+ *     as a ZIP archive holding one PDF per visit. Rows are mapped one at a time as the
+ *     cursor window is read, so no list of events is ever built.
+ *
+ *     Features:
+ *     - Single document: every visit flows into one `VisitPdfWriter`.
+ *     - ZIP: each visit is rendered, written into its archive entry and released before
+ *       the next row is read, so memory stays constant whatever the row count.
+ *     - Progress callbacks every {@value #PROGRESS_INTERVAL} visits and cooperative
+ *       cancellation, as in `EventExporter`.
+ *
+ *     Dependencies:
+ *     - `VisitPdfWriter.java` (PDF rendering)
+ *     - `EventRowMapper.java` (Rows in `DatabaseHelper.EVENT_COLUMNS` order)
+ *
+ *     Issues:
+ *     - The single document keeps its finished pages in `PdfDocument`'s native buffer until
+ *       it is written; use the ZIP form for very large exports.
+ */
+
+package com.example.appointmentnow_steward;
+
+import android.database.Cursor;
+import android.os.CancellationSignal;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+public final class VisitPdfExporter {
+
+    public static final int PROGRESS_INTERVAL = 25;
+
+    private VisitPdfExporter() {
+    }
+
+    /**
+     * Renders every row of the cursor into one paginated PDF written to {@code out}.
+     * The stream is flushed but not closed.
+     *
+     * @return The number of visits written.
+     * @throws android.os.OperationCanceledException If the signal is cancelled mid-export.
+     */
+    public static int exportDocument(Cursor cursor, OutputStream out, CancellationSignal cancellationSignal,
+                                     EventExporter.ProgressListener listener) throws IOException {
+        int total = cursor.getCount();
+        int exported = 0;
+
+        try (VisitPdfWriter writer = new VisitPdfWriter()) {
+            while (cursor.moveToNext()) {
+                if (cancellationSignal != null) cancellationSignal.throwIfCanceled();
+
+                writer.addVisit(EventRowMapper.EVENT_COLUMNS.map(cursor));
+
+                exported++;
+                if (listener != null && exported % PROGRESS_INTERVAL == 0) listener.onProgress(exported, total);
+            }
+            writer.writeTo(out);
+        }
+        if (listener != null) listener.onProgress(exported, total);
+        return exported;
+    }
+
+    /**
+     * Writes a ZIP archive with one PDF per row of the cursor, named by
+     * {@link VisitPdfWriter#fileNameFor}. The stream is flushed but not closed.
+     *
+     * @return The number of visits written.
+     * @throws android.os.OperationCanceledException If the signal is cancelled mid-export.
+     */
+    public static int exportZip(Cursor cursor, OutputStream out, CancellationSignal cancellationSignal,
+                                EventExporter.ProgressListener listener) throws IOException {
+        int total = cursor.getCount();
+        int exported = 0;
+
+        ZipOutputStream zip = new ZipOutputStream(out);
+        zip.setLevel(Deflater.BEST_SPEED); // PDF streams are already compressed
+        while (cursor.moveToNext()) {
+            if (cancellationSignal != null) cancellationSignal.throwIfCanceled();
+
+            Event event = EventRowMapper.EVENT_COLUMNS.map(cursor);
+            zip.putNextEntry(new ZipEntry(VisitPdfWriter.fileNameFor(event)));
+            try (VisitPdfWriter writer = new VisitPdfWriter()) {
+                writer.addVisit(event);
+                writer.writeTo(zip);
+            }
+            zip.closeEntry();
+
+            exported++;
+            if (listener != null && exported % PROGRESS_INTERVAL == 0) listener.onProgress(exported, total);
+        }
+        zip.finish(); // Writes the central directory without closing the caller's stream
+        out.flush();
+
+        if (listener != null) listener.onProgress(exported, total);
+        return exported;
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ *     Appointment Now - Visit PDF Writer
+ *     Author: Conor Steward
+ *     Contact: 1conorsteward@gmail.com
+ *     Date Created: 10/17/26
+ *     Last Updated: 10/17/26
+ *     Version: 2.3
+ *
+ *     Description:
+ *     This class renders visit details into an A4 PDF. Each field is laid out with a
+ *     `StaticLayout` across the page width, so long notes wrap instead of running off the
+ *     page, and text flows onto as many pages as it needs, split between lines.
+ *
+ *     Visits are added one at a time, so a caller can feed a single event or a whole cursor
+ *     into one document. Only the page being drawn is open; each page is finished (and
+ *     handed to `PdfDocument`) as soon as it is full, and no layouts are kept once drawn.
+ *
+ *     Features:
+ *     - Word-wrapped text with automatic page breaks, and a heading kept with its first line.
+ *     - Page numbers in the footer.
+ *     - `writeVisit` writes one event to its own file, replacing it atomically.
+ *
+ *     Dependencies:
+ *     - Android PDF API (`PdfDocument`)
+ *     - Android text layout (`StaticLayout`, `TextPaint`)
+ *
+ *     Issues:
+ *     - Does CPU and file work; call only from background threads.
+ *     - `PdfDocument` buffers finished pages natively until `writeTo`; the Java side stays flat.
+ */
+
+package com.example.appointmentnow_steward;
+
+import android.graphics.Canvas;
+import android.graphics.Typeface;
+import android.graphics.pdf.PdfDocument;
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+
+public final class VisitPdfWriter implements Closeable {
+
+    // A4 in PostScript points (1/72 inch), the unit PdfDocument pages are measured in
+    static final int PAGE_WIDTH = 595;
+    static final int PAGE_HEIGHT = 842;
+    private static final int MARGIN = 50;
+    private static final int CONTENT_WIDTH = PAGE_WIDTH - 2 * MARGIN;
+    private static final int CONTENT_BOTTOM = PAGE_HEIGHT - MARGIN;
+
+    private static final float TITLE_SIZE = 20;
+    private static final float BODY_SIZE = 12;
+    private static final float FIELD_SPACING = 10;
+    private static final float VISIT_SPACING = 30;
+
+    private final PdfDocument document = new PdfDocument();
+    private final TextPaint titlePaint = new TextPaint(TextPaint.ANTI_ALIAS_FLAG);
+    private final TextPaint bodyPaint = new TextPaint(TextPaint.ANTI_ALIAS_FLAG);
+    private final TextPaint footerPaint = new TextPaint(TextPaint.ANTI_ALIAS_FLAG);
+
+    private PdfDocument.Page page;
+    private int pageCount;
+    private int visitCount;
+    private float y; // Top of the next line on the current page
+
+    public VisitPdfWriter() {
+        titlePaint.setTextSize(TITLE_SIZE);
+        titlePaint.setTypeface(Typeface.DEFAULT_BOLD);
+        bodyPaint.setTextSize(BODY_SIZE);
+        footerPaint.setTextSize(BODY_SIZE - 2);
+    }
+
+    /**
+     * Renders one event into its own PDF file. The file is written next to {@code target}
+     * first and renamed over it, so a failed export never leaves a truncated file.
+     *
+     * @return The number of pages written.
+     */
+    public static int writeVisit(Event event, File target) throws IOException {
+        File partial = new File(target.getPath() + ".partial");
+        int pages;
+        try (VisitPdfWriter writer = new VisitPdfWriter();
+             OutputStream out = new BufferedOutputStream(new FileOutputStream(partial))) {
+            writer.addVisit(event);
+            writer.writeTo(out);
+            pages = writer.getPageCount();
+        } catch (IOException | RuntimeException e) {
+            partial.delete();
+            throw e;
+        }
+        if (!partial.renameTo(target)) {
+            partial.delete();
+            throw new IOException("Could not replace " + target);
+        }
+        return pages;
+    }
+
+    /**
+     * Returns the file name used for an event's own PDF, e.g. "visit_42_2025-03-07.pdf".
+     */
+    public static String fileNameFor(Event event) {
+        String date = event.getAppointmentDate() == null ? "" : "_" + event.getAppointmentDate().replace('/', '-');
+        return String.format(Locale.US, "visit_%d%s.pdf", event.getId(), date);
+    }
+
+    /**
+     * Appends one visit, starting new pages as needed. Visits after the first follow on the
+     * same page when there is room for their heading and first line.
+     */
+    public void addVisit(Event event) {
+        if (visitCount++ > 0) y += VISIT_SPACING;
+
+        StaticLayout title = layout("Visit Details", titlePaint);
+        StaticLayout first = layout(field("Patient Name", event.getPatientName()), bodyPaint);
+        // Keep the heading with the first field rather than stranding it at the bottom of a page
+        if (page != null && y + title.getHeight() + FIELD_SPACING + first.getLineBottom(0) > CONTENT_BOTTOM) {
+            finishPage();
+        }
+
+        drawFlowing(title);
+        y += FIELD_SPACING;
+        drawFlowing(first);
+        drawField("Doctor Name", event.getDoctorName());
+        drawField("Appointment Date", event.getAppointmentDate());
+        drawField("Status", event.getStatus() == null ? null : event.getStatus().getLabel());
+        drawField("Location", event.getLocation());
+        drawField("Notes", event.getNotes());
+    }
+
+    /**
+     * Returns the number of pages started so far.
+     */
+    public int getPageCount() {
+        return pageCount;
+    }
+
+    /**
+     * Finishes the last page and writes the document. The stream is not closed.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        if (page != null) finishPage();
+        if (pageCount == 0) { // PdfDocument cannot write a document without pages
+            startPage();
+            finishPage();
+        }
+        document.writeTo(out);
+        out.flush();
+    }
+
+    /**
+     * Releases the native document. Pages not yet written are discarded.
+     */
+    @Override
+    public void close() {
+        document.close();
+    }
+
+    private void drawField(String label, String value) {
+        y += FIELD_SPACING;
+        drawFlowing(layout(field(label, value), bodyPaint));
+    }
+
+    private static String field(String label, String value) {
+        return label + ": " + (value == null ? "" : value);
+    }
+
+    private static StaticLayout layout(CharSequence text, TextPaint paint) {
+        return StaticLayout.Builder.obtain(text, 0, text.length(), paint, CONTENT_WIDTH)
+                .setAlignment(Layout.Alignment.ALIGN_NORMAL)
+                .setIncludePad(false)
+                .build();
+    }
+
+    /**
+     * Draws as many lines of the layout as fit on the current page, then continues on new
+     * pages until every line is drawn. Pages only break between lines.
+     */
+    private void drawFlowing(StaticLayout layout) {
+        int lineCount = layout.getLineCount();
+        int line = 0;
+        while (line < lineCount) {
+            if (page == null) startPage();
+
+            int top = layout.getLineTop(line);
+            int end = line;
+            while (end < lineCount && y + layout.getLineBottom(end) - top <= CONTENT_BOTTOM) end++;
+            if (end == line) {
+                if (y > MARGIN) { // Not even one line fits here; retry on a fresh page
+                    finishPage();
+                    continue;
+                }
+                end = line + 1; // A line taller than a page is drawn clipped
+            }
+            int bottom = layout.getLineBottom(end - 1);
+
+            Canvas canvas = page.getCanvas();
+            canvas.save();
+            canvas.translate(MARGIN, y - top);
+            canvas.clipRect(0, top, CONTENT_WIDTH, bottom); // StaticLayout skips lines outside the clip
+            layout.draw(canvas);
+            canvas.restore();
+
+            y += bottom - top;
+            line = end;
+            if (line < lineCount) finishPage();
+        }
+    }
+
+    private void startPage() {
+        pageCount++;
+        page = document.startPage(new PdfDocument.PageInfo.Builder(PAGE_WIDTH, PAGE_HEIGHT, pageCount).create());
+        y = MARGIN;
+    }
+
+    private void finishPage() {
+        String footer = "Page " + pageCount;
+        page.getCanvas().drawText(footer, PAGE_WIDTH - MARGIN - footerPaint.measureText(footer),
+                PAGE_HEIGHT - MARGIN / 2f, footerPaint);
+        document.finishPage(page);
+        page = null;
+    }
+}
@@ -0,0 +1,69 @@
+/*
+    Appointment Now - Appointment Dates Unit Test
+    Author: Conor Steward
+    Contact: 1conorsteward@gmail.com
+    Date Created: 10/17/26
+    Version: 2.3
+
+    AppointmentDatesTest.java
+
+    Local unit tests for the conversion between "yyyy-MM-dd" appointment dates and the
+    epoch days stored in the events table.
+
+    Key Features:
+    - Verifies round trips, including dates before 1970.
+    - Verifies that malformed and impossible dates are rejected, not rolled over.
+    - Verifies that the formatter is safe to share between threads.
+
+    Issues: No known issues
+*/
+
+package com.example.appointmentnow_steward;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class AppointmentDatesTest {
+
+    @Test
+    public void epochDay_roundTrips() {
+        assertEquals(0, AppointmentDates.toEpochDay("1970-01-01"));
+        assertEquals(20089, AppointmentDates.toEpochDay("2025-01-01"));
+        assertEquals(-1, AppointmentDates.toEpochDay("1969-12-31"));
+        assertEquals("2024-02-29", AppointmentDates.format(AppointmentDates.toEpochDay("2024-02-29")));
+        assertEquals("1969-12-31", AppointmentDates.format(-1));
+    }
+
+    @Test
+    public void parse_rejectsMalformedAndImpossibleDates() {
+        assertNull(AppointmentDates.parseOrNull("2025-1-5"));
+        assertNull(AppointmentDates.parseOrNull("01/05/2025"));
+        assertNull(AppointmentDates.parseOrNull("2025-02-30"));
+        assertNull(AppointmentDates.parseOrNull(null));
+        assertThrows(IllegalArgumentException.class, () -> AppointmentDates.toEpochDay("2025-13-01"));
+    }
+
+    @Test
+    public void format_isThreadSafe() throws InterruptedException {
+        AtomicReference<String> failure = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int offset = t * 1000;
+            Thread thread = new Thread(() -> {
+                for (long day = offset; day < offset + 20_000; day++) {
+                    String text = AppointmentDates.format(day);
+                    if (AppointmentDates.toEpochDay(text) != day) failure.set(day + " -> " + text);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) thread.join();
+        assertNull(failure.get());
+    }
+}
@@ -0,0 +1,130 @@
+/*
+    Appointment Now - Event Import Reader Unit Test
+    Author: Conor Steward
+    Contact: 1conorsteward@gmail.com
+    Date Created: 10/17/26
+    Version: 2.3
+
+    EventImportReaderTest.java
+
+    Local unit tests for the streaming CSV reader used by the bulk import.
+    (The JSON reader wraps android.util.JsonReader, so it is covered on a device.)
+
+    Key Features:
+    - Verifies header-driven column mapping and RFC 4180 quoting.
+    - Verifies defaults for optional columns.
+    - Verifies that a record missing a required column is rejected with its number.
+    - Verifies that status labels map to EventStatus and unknown labels are rejected.
+    - Verifies that CSV rows written by EventExporter read back unchanged.
+    - Verifies that once input ends, hasNext() stays false without reading again.
+
+    Issues: No known issues
+*/
+
+package com.example.appointmentnow_steward;
+
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class EventImportReaderTest {
+
+    private static EventImportReader csv(String text) throws Exception {
+        return EventImportReader.open(new StringReader(text), EventImportReader.Format.CSV);
+    }
+
+    @Test
+    public void csv_mapsColumnsByHeaderAndHandlesQuoting() throws Exception {
+        EventImportReader reader = csv(
+                "doctor_name,Patient_Name,appointment_date,status,notes,location\r\n"
+                        + "Dr. Lee,\"Smith, Anna\",2025-03-01,Completed,\"Said \"\"hi\"\"\nthen left\",Room 2\r\n"
+                        + "\n"
+                        + "Dr. Kim,Jones,2025-03-02,,,\n");
+
+        assertTrue(reader.hasNext());
+        Event first = reader.next();
+        assertEquals("Smith, Anna", first.getPatientName());
+        assertEquals("Dr. Lee", first.getDoctorName());
+        assertEquals(EventStatus.COMPLETED, first.getStatus());
+        assertEquals("Said \"hi\"\nthen left", first.getNotes());
+        assertEquals("Room 2", first.getLocation());
+
+        Event second = reader.next();
+        assertEquals("Jones", second.getPatientName());
+        assertEquals(EventImportReader.DEFAULT_STATUS, second.getStatus());
+
+        assertFalse(reader.hasNext());
+    }
+
+    @Test
+    public void csv_rejectsRecordMissingRequiredColumn() throws Exception {
+        EventImportReader reader = csv("patient_name,doctor_name,appointment_date\n"
+                + "Smith,Dr. Lee,2025-03-01\n"
+                + "Jones,,2025-03-02\n");
+
+        reader.next();
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, reader::next);
+        assertEquals("Record 2 is missing doctor_name", error.getMessage());
+    }
+
+    @Test
+    public void csv_readsStatusLabelsIgnoringCaseAndRejectsUnknownOnes() throws Exception {
+        EventImportReader reader = csv("patient_name,doctor_name,appointment_date,status\n"
+                + "Smith,Dr. Lee,2025-03-01,MISSED\n"
+                + "Jones,Dr. Lee,2025-03-02,Cancelled\n");
+
+        assertEquals(EventStatus.MISSED, reader.next().getStatus());
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, reader::next);
+        assertEquals("Record 2 has an invalid status: Cancelled", error.getMessage());
+    }
+
+    @Test
+    public void csv_exportedRowsReadBackUnchanged() throws Exception {
+        StringWriter out = new StringWriter();
+        EventExporter.writeCsvRow(out, new String[]{"patient_name", "doctor_name", "appointment_date", "notes", "location"});
+        EventExporter.writeCsvRow(out, new String[]{"O'Neil, Pat", "Dr. \"Q\"", "2025-04-01", "Line 1\nLine 2", null});
+
+        EventImportReader reader = csv(out.toString());
+        Event event = reader.next();
+        assertEquals("O'Neil, Pat", event.getPatientName());
+        assertEquals("Dr. \"Q\"", event.getDoctorName());
+        assertEquals("Line 1\nLine 2", event.getNotes());
+        assertEquals("", event.getLocation());
+        assertFalse(reader.hasNext());
+    }
+
+    @Test
+    public void detect_prefersMimeTypeThenExtension() {
+        assertEquals(EventImportReader.Format.JSON, EventImportReader.Format.detect("application/json", "x.csv"));
+        assertEquals(EventImportReader.Format.JSON, EventImportReader.Format.detect(null, "calendar.JSON"));
+        assertEquals(EventImportReader.Format.CSV, EventImportReader.Format.detect("text/csv", null));
+    }
+
+    @Test
+    public void hasNext_staysFalseWithoutReadingPastEnd() {
+        int[] reads = {0};
+        EventImportReader reader = new EventImportReader() {
+            @Override
+            protected Event readNext() {
+                // Like JsonEventReader after endArray(): reading again would throw
+                if (++reads[0] > 2) throw new IllegalStateException("Read past end of input");
+                return reads[0] == 1 ? toEvent(Map.of("patient_name", "Smith", "doctor_name", "Dr. Lee",
+                        "appointment_date", "2025-03-01")) : null;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        assertTrue(reader.hasNext());
+        assertEquals("Smith", reader.next().getPatientName());
+        assertFalse(reader.hasNext());
+        assertFalse(reader.hasNext());
+        assertEquals(2, reads[0]);
+    }
+}
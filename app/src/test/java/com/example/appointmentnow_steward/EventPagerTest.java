@@ -0,0 +1,164 @@
+/*
+    Appointment Now - Event Pager Unit Test
+    Author: Conor Steward
+    Contact: 1conorsteward@gmail.com
+    Date Created: 10/17/26
+    Version: 2.3
+
+    EventPagerTest.java
+
+    Local unit tests for the bounded paging window used by EventDisplayActivity.
+    Pages are built in memory, so no database or Android runtime is needed.
+
+    Key Features:
+    - Verifies keys handed to the paged queries.
+    - Verifies that the window never grows past the page budget.
+    - Verifies that evicted pages can be loaded again when scrolling back.
+    - Verifies that a page requested before a reset is dropped when it arrives.
+    - Verifies that an edited row moves out of the window when it sorts past its end.
+
+    Issues: No known issues
+*/
+
+package com.example.appointmentnow_steward;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class EventPagerTest {
+
+    private static final int PAGE_SIZE = 10;
+    private static final int MAX_PAGES = 3;
+
+    private EventPager pager;
+    private int inserted, removed;
+
+    @Before
+    public void setUp() {
+        pager = new EventPager(PAGE_SIZE, MAX_PAGES, new EventPager.Callback() {
+            @Override
+            public void onItemRangeInserted(int positionStart, int itemCount) {
+                inserted += itemCount;
+            }
+
+            @Override
+            public void onItemRangeRemoved(int positionStart, int itemCount) {
+                removed += itemCount;
+            }
+        });
+    }
+
+    /**
+     * Builds a page of events with consecutive IDs on a single date.
+     */
+    private static List<EventListItem> page(long firstId, int count) {
+        List<EventListItem> events = new ArrayList<>();
+        for (long id = firstId; id < firstId + count; id++) {
+            events.add(new EventListItem(id, "Patient " + id, "Doctor", "2025-01-01", EventStatus.SCHEDULED));
+        }
+        return events;
+    }
+
+    @Test
+    public void firstPage_usesNullKey() {
+        assertTrue(pager.canLoadNext());
+        assertNull(pager.beginLoadNext().appointmentDate);
+        assertFalse(pager.canLoadNext()); // Load in flight
+    }
+
+    @Test
+    public void nextKey_isLastRowOfWindow() {
+        pager.onNextPageLoaded(pager.beginLoadNext(), page(1, PAGE_SIZE));
+
+        EventPager.PageKey key = pager.beginLoadNext();
+        assertEquals("2025-01-01", key.appointmentDate);
+        assertEquals(PAGE_SIZE, key.eventId);
+    }
+
+    @Test
+    public void window_isBoundedAndEvictsHead() {
+        for (int i = 0; i < 5; i++) {
+            pager.onNextPageLoaded(pager.beginLoadNext(), page(1 + (long) i * PAGE_SIZE, PAGE_SIZE));
+        }
+
+        assertEquals(PAGE_SIZE * MAX_PAGES, pager.getWindow().size());
+        assertEquals(5 * PAGE_SIZE, inserted);
+        assertEquals(2 * PAGE_SIZE, removed);
+        assertEquals(2 * PAGE_SIZE + 1, pager.getWindow().get(0).getId());
+        assertTrue(pager.canLoadPrevious());
+    }
+
+    @Test
+    public void previousPage_isReversedAndEvictsTail() {
+        for (int i = 0; i < 4; i++) {
+            pager.onNextPageLoaded(pager.beginLoadNext(), page(1 + (long) i * PAGE_SIZE, PAGE_SIZE));
+        }
+
+        EventPager.PageKey key = pager.beginLoadPrevious();
+        assertEquals(PAGE_SIZE + 1, key.eventId);
+
+        List<EventListItem> descending = page(1, PAGE_SIZE);
+        Collections.reverse(descending);
+        pager.onPreviousPageLoaded(key, descending);
+
+        List<EventListItem> window = pager.getWindow();
+        assertEquals(PAGE_SIZE * MAX_PAGES, window.size());
+        assertEquals(1, window.get(0).getId());
+        assertEquals(PAGE_SIZE * MAX_PAGES, window.get(window.size() - 1).getId());
+        assertTrue(pager.canLoadNext());
+    }
+
+    @Test
+    public void shortPage_marksEndOfData() {
+        pager.onNextPageLoaded(pager.beginLoadNext(), page(1, PAGE_SIZE - 1));
+        assertFalse(pager.canLoadNext());
+        assertEquals(0, pager.directionToLoad(0, PAGE_SIZE - 2));
+    }
+
+    @Test
+    public void insertEvent_keepsSortOrderInsideWindow() {
+        pager.onNextPageLoaded(pager.beginLoadNext(), page(1, 3));
+
+        EventListItem earlier = new EventListItem(99, "New", "Doctor", "2024-12-31", EventStatus.SCHEDULED);
+        assertEquals(0, pager.insertEvent(earlier));
+        assertEquals(99, pager.getWindow().get(0).getId());
+    }
+
+    @Test
+    public void reset_dropsPageRequestedBeforeIt() {
+        pager.onNextPageLoaded(pager.beginLoadNext(), page(1, PAGE_SIZE));
+        EventPager.PageKey stale = pager.beginLoadNext();
+
+        pager.reset();
+        EventPager.PageKey fresh = pager.beginLoadNext();
+
+        assertFalse(pager.onNextPageLoaded(stale, page(PAGE_SIZE + 1, PAGE_SIZE)));
+        assertFalse(pager.onLoadFailed(stale));
+        assertTrue(pager.getWindow().isEmpty());
+        assertFalse(pager.canLoadNext()); // Fresh load still in flight
+
+        assertTrue(pager.onNextPageLoaded(fresh, page(1, 3)));
+        assertEquals(1, pager.getWindow().get(0).getId());
+        assertEquals(3, pager.getWindow().size());
+    }
+
+    @Test
+    public void updateEvent_movesLastRowPastWindowEdge() {
+        pager.onNextPageLoaded(pager.beginLoadNext(), page(1, PAGE_SIZE));
+
+        EventListItem moved = new EventListItem(PAGE_SIZE, "Patient", "Doctor", "2025-06-01", EventStatus.SCHEDULED);
+        assertEquals(-1, pager.updateEvent(PAGE_SIZE - 1, moved));
+        assertEquals(PAGE_SIZE - 1, pager.getWindow().size());
+
+        // The next page starts after the new last row, not after the moved date
+        EventPager.PageKey key = pager.beginLoadNext();
+        assertEquals("2025-01-01", key.appointmentDate);
+        assertEquals(PAGE_SIZE - 1, key.eventId);
+    }
+}
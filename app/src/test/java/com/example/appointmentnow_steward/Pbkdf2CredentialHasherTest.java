@@ -0,0 +1,97 @@
+/*
+    Appointment Now - PBKDF2 Credential Hasher Unit Test
+    Author: Conor Steward
+    Contact: 1conorsteward@gmail.com
+    Date Created: 10/17/26
+    Version: 2.3
+
+    Pbkdf2CredentialHasherTest.java
+
+    Local unit tests for the password hasher used by DatabaseHelper.
+
+    Key Features:
+    - Verifies the PBKDF2-HMAC-SHA256 output against published test vectors.
+    - Verifies salting, verification and rehash detection when the iteration count changes.
+    - Verifies that hashes from earlier app versions still verify and are flagged for rehash.
+
+    Issues: No known issues
+*/
+
+package com.example.appointmentnow_steward;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+import static org.junit.Assert.*;
+
+public class Pbkdf2CredentialHasherTest {
+
+    private static String hex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : bytes) hex.append(String.format("%02x", b));
+        return hex.toString();
+    }
+
+    private static String sha256Hex(String text) throws Exception {
+        return hex(MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void pbkdf2_matchesTestVectors() {
+        byte[] salt = "salt".getBytes(StandardCharsets.UTF_8);
+        assertEquals("120fb6cffcf8b32c43e7225256c4f837a86548c92ccc35480805987cb70be17b",
+                hex(Pbkdf2CredentialHasher.pbkdf2("password", salt, 1)));
+        assertEquals("ae4d0c95af6b46d32d0adff928f06dd02a303f8ef3c251dfd6e2d85a95474c43",
+                hex(Pbkdf2CredentialHasher.pbkdf2("password", salt, 2)));
+        assertEquals("c5e478d59288c841aa530db6845c4c8d962893a001ce4e11a4963873aa98134a",
+                hex(Pbkdf2CredentialHasher.pbkdf2("password", salt, 4096)));
+    }
+
+    @Test
+    public void hash_isSaltedAndVerifies() {
+        Pbkdf2CredentialHasher hasher = new Pbkdf2CredentialHasher(1_000);
+        String first = hasher.hash("secret1");
+        String second = hasher.hash("secret1");
+
+        assertNotEquals(first, second);
+        assertTrue(first.startsWith("pbkdf2-sha256$1000$"));
+        assertTrue(hasher.verify("secret1", first));
+        assertTrue(hasher.verify("secret1", second));
+        assertFalse(hasher.verify("secret2", first));
+        assertFalse(hasher.needsRehash(first));
+    }
+
+    @Test
+    public void changedIterations_stillVerifyButNeedRehash() {
+        String stored = new Pbkdf2CredentialHasher(1_000).hash("secret1");
+        Pbkdf2CredentialHasher stronger = new Pbkdf2CredentialHasher(2_000);
+
+        assertTrue(stronger.verify("secret1", stored));
+        assertTrue(stronger.needsRehash(stored));
+        assertFalse(stronger.needsRehash(stronger.hash("secret1")));
+    }
+
+    @Test
+    public void legacySha256Hashes_verifyAndNeedRehash() throws Exception {
+        Pbkdf2CredentialHasher hasher = new Pbkdf2CredentialHasher(1_000);
+        String legacy = sha256Hex("secret1");
+        String doubleHashed = sha256Hex(legacy); // What registration used to store
+
+        assertTrue(hasher.verify("secret1", legacy));
+        assertTrue(hasher.verify("secret1", doubleHashed));
+        assertFalse(hasher.verify("secret2", legacy));
+        assertTrue(hasher.needsRehash(legacy));
+    }
+
+    @Test
+    public void malformedHashes_doNotVerify() {
+        Pbkdf2CredentialHasher hasher = new Pbkdf2CredentialHasher(1_000);
+        assertFalse(hasher.verify("secret1", null));
+        assertFalse(hasher.verify("secret1", ""));
+        assertFalse(hasher.verify("secret1", "pbkdf2-sha256$x$00$00"));
+        assertFalse(hasher.verify("secret1", "pbkdf2-sha256$1000$zz$00"));
+        assertFalse(hasher.verify("secret1", "md5$1$00$00"));
+    }
+}
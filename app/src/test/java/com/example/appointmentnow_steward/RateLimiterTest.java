@@ -0,0 +1,79 @@
+/*
+    Appointment Now - Rate Limiter Unit Test
+    Author: Conor Steward
+    Contact: 1conorsteward@gmail.com
+    Date Created: 10/17/26
+    Version: 2.3
+
+    RateLimiterTest.java
+
+    Local unit tests for the token bucket that paces reminder sends. The limiter runs on a
+    fake clock whose sleeper advances time instead of blocking, so waits are checked exactly
+    and instantly.
+
+    Key Features:
+    - Verifies the burst, then the steady rate.
+    - Verifies permits beyond the timeout are refused without waiting.
+    - Verifies the wait until several permits are available.
+
+    Issues: No known issues
+*/
+
+package com.example.appointmentnow_steward;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private long now = 1_000 * SECOND;
+    private final List<Long> sleeps = new ArrayList<>();
+
+    private RateLimiter limiter(int permits, long periodNanos) {
+        return new RateLimiter(permits, periodNanos, () -> now, nanos -> {
+            sleeps.add(nanos);
+            now += nanos;
+        });
+    }
+
+    @Test
+    public void tryAcquire_allowsBurstThenPaces() throws Exception {
+        RateLimiter limiter = limiter(5, SECOND);
+
+        for (int i = 0; i < 5; i++) assertTrue(limiter.tryAcquire(0));
+        assertTrue(sleeps.isEmpty());
+
+        assertTrue(limiter.tryAcquire(SECOND));
+        assertEquals(1, sleeps.size());
+        assertEquals(SECOND / 5, (long) sleeps.get(0), 1);
+    }
+
+    @Test
+    public void tryAcquire_refusesPermitBeyondTimeout() throws Exception {
+        RateLimiter limiter = limiter(30, TimeUnit.MINUTES.toNanos(30));
+        for (int i = 0; i < 30; i++) assertTrue(limiter.tryAcquire(0));
+
+        assertFalse(limiter.tryAcquire(30 * SECOND)); // Next permit is a minute away
+        assertFalse(limiter.tryAcquire(-1)); // Deadline already passed
+        assertTrue(sleeps.isEmpty());
+    }
+
+    @Test
+    public void nanosUntilAvailable_countsRefillOfSeveralPermits() throws Exception {
+        RateLimiter limiter = limiter(30, TimeUnit.MINUTES.toNanos(30));
+        for (int i = 0; i < 30; i++) assertTrue(limiter.tryAcquire(0));
+
+        assertEquals(60 * SECOND, limiter.nanosUntilAvailable(1), 1);
+        assertEquals(15 * 60 * SECOND, limiter.nanosUntilAvailable(15), 1);
+
+        now += 15 * 60 * SECOND;
+        assertEquals(0, limiter.nanosUntilAvailable(15));
+    }
+}
@@ -0,0 +1,55 @@
+/*
+    Appointment Now - Reminder Dispatcher Unit Test
+    Author: Conor Steward
+    Contact: 1conorsteward@gmail.com
+    Date Created: 10/17/26
+    Version: 2.3
+
+    ReminderDispatcherTest.java
+
+    Local unit tests for the retry schedule ReminderDispatcher writes to the outbox. Draining
+    the outbox itself needs SQLite and is covered by the instrumented ReminderOutboxTest.
+
+    Key Features:
+    - Verifies the backoff starts at INITIAL_BACKOFF_MILLIS and doubles per failure.
+    - Verifies the backoff is capped, even for attempt counts that would overflow a shift.
+    - Verifies all retries of a reminder finish within a few hours.
+
+    Issues: No known issues
+*/
+
+package com.example.appointmentnow_steward;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class ReminderDispatcherTest {
+
+    @Test
+    public void backoff_doublesFromInitialDelay() {
+        long initial = ReminderDispatcher.INITIAL_BACKOFF_MILLIS;
+
+        assertEquals(initial, ReminderDispatcher.backoffMillis(1));
+        assertEquals(2 * initial, ReminderDispatcher.backoffMillis(2));
+        assertEquals(4 * initial, ReminderDispatcher.backoffMillis(3));
+    }
+
+    @Test
+    public void backoff_isCapped() {
+        assertEquals(ReminderDispatcher.MAX_BACKOFF_MILLIS, ReminderDispatcher.backoffMillis(20));
+        assertEquals(ReminderDispatcher.MAX_BACKOFF_MILLIS, ReminderDispatcher.backoffMillis(Integer.MAX_VALUE));
+        assertEquals(ReminderDispatcher.INITIAL_BACKOFF_MILLIS, ReminderDispatcher.backoffMillis(0));
+    }
+
+    @Test
+    public void backoff_allRetriesFinishWithinHours() {
+        long total = 0;
+        for (int attempt = 1; attempt < ReminderDispatcher.MAX_ATTEMPTS; attempt++) {
+            total += ReminderDispatcher.backoffMillis(attempt);
+        }
+        assertTrue(total < TimeUnit.HOURS.toMillis(3));
+    }
+}
@@ -0,0 +1,103 @@
+/*
+    Appointment Now - Reminder Scheduler Unit Test
+    Author: Conor Steward
+    Contact: 1conorsteward@gmail.com
+    Date Created: 10/17/26
+    Version: 2.3
+
+    ReminderSchedulerTest.java
+
+    Local unit tests for the reminder window arithmetic in ReminderScheduler: which day's
+    reminders are due at a given moment, and when the single alarm should next fire for the
+    next window or outbox retry.
+
+    Key Features:
+    - Verifies windows open at REMINDER_HOUR the day before the appointment.
+    - Verifies an unfinished window is resumed immediately.
+    - Verifies a finished window waits for the next opening, across a DST change.
+    - Verifies an earlier retry moves the alarm forward, but never closer than the minimum delay.
+
+    Issues: No known issues
+*/
+
+package com.example.appointmentnow_steward;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import static org.junit.Assert.*;
+
+public class ReminderSchedulerTest {
+
+    private static final ZoneId ZONE = ZoneId.of("America/New_York");
+
+    private static ZonedDateTime at(String date, int hour, int minute) {
+        return LocalDate.parse(date).atTime(hour, minute).atZone(ZONE);
+    }
+
+    private static long day(String date) {
+        return LocalDate.parse(date).toEpochDay();
+    }
+
+    @Test
+    public void windowDay_switchesToTomorrowAtReminderHour() {
+        int hour = ReminderScheduler.REMINDER_HOUR;
+        assertEquals(day("2025-03-07"), ReminderScheduler.windowDay(at("2025-03-07", hour - 1, 59)));
+        assertEquals(day("2025-03-08"), ReminderScheduler.windowDay(at("2025-03-07", hour, 0)));
+        assertEquals(day("2025-03-08"), ReminderScheduler.windowDay(at("2025-03-07", 23, 59)));
+    }
+
+    @Test
+    public void nextWakeup_isNowWhileWindowUnfinished() {
+        ZonedDateTime now = at("2025-03-07", 15, 30);
+
+        assertEquals(now, ReminderScheduler.nextWakeup(now, day("2025-03-07")));
+        assertEquals(now, ReminderScheduler.nextWakeup(now, Long.MIN_VALUE));
+    }
+
+    @Test
+    public void nextWakeup_waitsForNextWindowOnceFinished() {
+        ZonedDateTime now = at("2025-03-07", 15, 30);
+
+        assertEquals(at("2025-03-08", ReminderScheduler.REMINDER_HOUR, 0),
+                ReminderScheduler.nextWakeup(now, day("2025-03-08")));
+    }
+
+    @Test
+    public void nextWakeup_keepsLocalHourAcrossDaylightSavingChange() {
+        // US clocks go forward on 2025-03-09
+        ZonedDateTime next = ReminderScheduler.nextWakeup(at("2025-03-08", 12, 0), day("2025-03-09"));
+
+        assertEquals(ReminderScheduler.REMINDER_HOUR, next.getHour());
+        assertEquals(LocalDate.parse("2025-03-09"), next.toLocalDate());
+    }
+
+    @Test
+    public void nextAlarm_isNextWindowWithoutRetries() {
+        ZonedDateTime now = at("2025-03-07", 15, 30);
+
+        assertEquals(at("2025-03-08", ReminderScheduler.REMINDER_HOUR, 0).toInstant().toEpochMilli(),
+                ReminderScheduler.nextAlarmMillis(now, day("2025-03-08"), Long.MAX_VALUE));
+    }
+
+    @Test
+    public void nextAlarm_isEarlierRetry() {
+        ZonedDateTime now = at("2025-03-07", 15, 30);
+        long retry = at("2025-03-07", 16, 0).toInstant().toEpochMilli();
+
+        assertEquals(retry, ReminderScheduler.nextAlarmMillis(now, day("2025-03-08"), retry));
+    }
+
+    @Test
+    public void nextAlarm_delaysOverdueRetryButNotUnqueuedWindow() {
+        ZonedDateTime now = at("2025-03-07", 15, 30);
+        long nowMillis = now.toInstant().toEpochMilli();
+
+        assertEquals(nowMillis + ReminderScheduler.MIN_RESUME_DELAY_MILLIS,
+                ReminderScheduler.nextAlarmMillis(now, day("2025-03-08"), nowMillis - 1));
+        assertEquals(nowMillis, ReminderScheduler.nextAlarmMillis(now, day("2025-03-07"), nowMillis - 1));
+    }
+}
@@ -0,0 +1,129 @@
+/*
+    Appointment Now - Search Pipeline Unit Test
+    Author: Conor Steward
+    Contact: 1conorsteward@gmail.com
+    Date Created: 10/17/26
+    Version: 2.3
+
+    SearchPipelineTest.java
+
+    Local unit tests for the debounced search pipeline used by HistoryActivity.
+    The delivery executor is replaced with a latch-backed direct executor so the
+    tests can wait for results without an Android main looper.
+
+    Key Features:
+    - Verifies that a burst of keystrokes runs a single query.
+    - Verifies that a running query is cancelled when a newer one arrives.
+    - Verifies the keystroke-to-result latency hook.
+
+    Issues: No known issues
+*/
+
+package com.example.appointmentnow_steward;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class SearchPipelineTest {
+
+    private static final long DEBOUNCE_MILLIS = 50;
+
+    private ScheduledExecutorService executor;
+    private final List<String> executedQueries = new CopyOnWriteArrayList<>();
+    private final List<String> deliveredResults = new CopyOnWriteArrayList<>();
+
+    @Before
+    public void setUp() {
+        executor = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private SearchPipeline<String> pipeline(SearchPipeline.SearchTask<String> task, CountDownLatch delivered) {
+        return new SearchPipeline<>(executor, Runnable::run, DEBOUNCE_MILLIS, task,
+                new SearchPipeline.ResultListener<String>() {
+                    @Override
+                    public void onResult(String query, String result) {
+                        deliveredResults.add(result);
+                        delivered.countDown();
+                    }
+
+                    @Override
+                    public void onError(String query, Exception error) {
+                        fail("Unexpected error: " + error);
+                    }
+                });
+    }
+
+    @Test
+    public void burstOfKeystrokes_runsOnlyLatestQuery() throws Exception {
+        CountDownLatch delivered = new CountDownLatch(1);
+        SearchPipeline<String> pipeline = pipeline((query, token) -> {
+            executedQueries.add(query);
+            return "result:" + query;
+        }, delivered);
+
+        for (String prefix : new String[]{"s", "sm", "smi", "smit", "smith"}) {
+            pipeline.submit(prefix);
+        }
+
+        assertTrue(delivered.await(2, TimeUnit.SECONDS));
+        Thread.sleep(DEBOUNCE_MILLIS * 2); // Nothing else should trickle in
+
+        assertEquals(List.of("smith"), executedQueries);
+        assertEquals(List.of("result:smith"), deliveredResults);
+    }
+
+    @Test
+    public void newerQuery_cancelsRunningQuery() throws Exception {
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch delivered = new CountDownLatch(1);
+        SearchPipeline<String> pipeline = pipeline((query, token) -> {
+            if (query.equals("slow")) {
+                firstStarted.countDown();
+                CountDownLatch cancelled = new CountDownLatch(1);
+                token.setOnCancelListener(cancelled::countDown);
+                assertTrue(cancelled.await(2, TimeUnit.SECONDS));
+                return "stale";
+            }
+            return "fresh";
+        }, delivered);
+
+        pipeline.submitNow("slow");
+        assertTrue(firstStarted.await(2, TimeUnit.SECONDS));
+
+        // Submitting while "slow" runs cancels it; its result must never be delivered
+        pipeline.submitNow("fast");
+
+        assertTrue(delivered.await(2, TimeUnit.SECONDS));
+        assertEquals(List.of("fresh"), deliveredResults);
+    }
+
+    @Test
+    public void latencyListener_reportsKeystrokeToResultTime() throws Exception {
+        CountDownLatch delivered = new CountDownLatch(1);
+        AtomicLong latency = new AtomicLong(-1);
+        SearchPipeline<String> pipeline = pipeline((query, token) -> query, delivered);
+        pipeline.setLatencyListener((query, nanos) -> latency.set(nanos));
+
+        pipeline.submit("jones");
+
+        assertTrue(delivered.await(2, TimeUnit.SECONDS));
+        executor.submit(() -> { }).get(); // Listener runs right after onResult on the same thread
+        assertTrue(latency.get() >= TimeUnit.MILLISECONDS.toNanos(DEBOUNCE_MILLIS));
+    }
+}